@@ -0,0 +1,163 @@
+package com.amante.clinicmanagement.benchmark;
+
+import com.amante.clinicmanagement.dto.response.TimeSlotDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+import com.amante.clinicmanagement.entity.DoctorSettings;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorBreakRepository;
+import com.amante.clinicmanagement.repository.DoctorDayOffRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorSettingsRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.scheduling.OccupancyIndex;
+import com.amante.clinicmanagement.service.SlotInventoryService;
+import com.amante.clinicmanagement.service.impl.DoctorServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DoctorServiceImpl#getAvailableSlots} against in-memory
+ * fixtures for one working day (06:00-22:00). Run with the gc profiler
+ * (the benchmark profile adds {@code -prof gc}) to get the allocation
+ * rate alongside ns/op. {@code cached=false} rebuilds the occupancy
+ * bitmap on every call; {@code cached=true} serves it from the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailableSlotsBenchmark {
+
+    private static final long DOCTOR_ID = 1L;
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 6);
+    private static final LocalTime WORK_START = LocalTime.of(6, 0);
+    private static final LocalTime WORK_END = LocalTime.of(22, 0);
+    private static final int WORK_MINUTES = 16 * 60;
+    private static final int BREAK_MINUTES = 15;
+
+    @Param({"5", "15", "30", "60"})
+    private int slotDuration;
+
+    @Param({"0", "2", "8"})
+    private int breakCount;
+
+    @Param({"0", "50", "500"})
+    private int appointmentCount;
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private DoctorServiceImpl doctorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = new User(1L, "doctor@bench.test", "secret",
+                User.Role.DOCTOR, true, LocalDateTime.now());
+        Doctor doctor = new Doctor();
+        doctor.setId(DOCTOR_ID);
+        doctor.setUser(user);
+
+        DoctorSettings settings = new DoctorSettings(
+                doctor, slotDuration, 0, "Asia/Manila");
+        DoctorWeeklySchedule schedule = new DoctorWeeklySchedule(
+                doctor, DayOfWeek.MONDAY, true, WORK_START, WORK_END);
+
+        List<DoctorBreak> breaks = buildBreaks(doctor);
+        List<Appointment> appointments = buildAppointments(doctor);
+
+        doctorService = new DoctorServiceImpl(
+                InMemoryRepositories.of(DoctorRepository.class)
+                        .returning("findById", Optional.of(doctor))
+                        .build(),
+                InMemoryRepositories.of(AppointmentRepository.class)
+                        .returning("findByDoctorIdAndDate", appointments)
+                        .build(),
+                InMemoryRepositories.of(DoctorSettingsRepository.class)
+                        .returning("findByDoctorId", Optional.of(settings))
+                        .build(),
+                InMemoryRepositories.of(DoctorWeeklyScheduleRepository.class)
+                        .returning("findByDoctorIdAndDayOfWeek",
+                                Optional.of(schedule))
+                        .build(),
+                InMemoryRepositories.of(DoctorBreakRepository.class)
+                        .returning("findByDoctorIdAndDay", breaks)
+                        .build(),
+                InMemoryRepositories.of(DoctorDayOffRepository.class)
+                        .build(),
+                null,
+                InMemoryRepositories.of(UserRepository.class)
+                        .build(),
+                new OccupancyIndex(cached ? 16 : 0, 3600),
+                event -> { },
+                InMemoryRepositories.of(SlotInventoryService.class)
+                        .build()
+        );
+    }
+
+    @Benchmark
+    public List<TimeSlotDto> availableSlots() {
+        return doctorService.getAvailableSlots(DOCTOR_ID, DATE);
+    }
+
+    private List<DoctorBreak> buildBreaks(Doctor doctor) {
+        List<DoctorBreak> breaks = new ArrayList<>(breakCount);
+        for (int i = 0; i < breakCount; i++) {
+            int offset = (i + 1) * WORK_MINUTES / (breakCount + 1);
+            LocalTime start = WORK_START.plusMinutes(offset);
+            breaks.add(new DoctorBreak(doctor, "MONDAY", "Break " + i,
+                    start, start.plusMinutes(BREAK_MINUTES)));
+        }
+        return breaks;
+    }
+
+    private List<Appointment> buildAppointments(Doctor doctor) {
+        List<Appointment> appointments = new ArrayList<>(appointmentCount);
+        if (appointmentCount == 0) {
+            return appointments;
+        }
+        Patient patient = new Patient();
+        patient.setId(1L);
+        int spacing = WORK_MINUTES / appointmentCount;
+        int length = Math.max(1, spacing / 2);
+        LocalDateTime dayStart = DATE.atTime(WORK_START);
+        for (int i = 0; i < appointmentCount; i++) {
+            LocalDateTime start = dayStart.plusMinutes((long) i * spacing);
+            Appointment appointment = new Appointment();
+            appointment.setId((long) i + 1);
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setStartTime(start);
+            appointment.setEndTime(start.plusMinutes(length));
+            appointment.setStatus(Appointment.Status.CONFIRMED);
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+}
@@ -0,0 +1,75 @@
+package com.amante.clinicmanagement.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Builds Spring Data repository stand-ins backed by fixed in-memory
+ * fixtures, so benchmarks measure the service logic and not JDBC.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static <T> Builder<T> of(Class<T> repositoryType) {
+        return new Builder<>(repositoryType);
+    }
+
+    static final class Builder<T> {
+
+        private final Class<T> repositoryType;
+        private final Map<String, Function<Object[], Object>> answers =
+                new HashMap<>();
+
+        private Builder(Class<T> repositoryType) {
+            this.repositoryType = repositoryType;
+        }
+
+        Builder<T> answer(String method, Function<Object[], Object> answer) {
+            answers.put(method, answer);
+            return this;
+        }
+
+        Builder<T> returning(String method, Object value) {
+            return answer(method, args -> value);
+        }
+
+        T build() {
+            Object proxy = Proxy.newProxyInstance(
+                    repositoryType.getClassLoader(),
+                    new Class<?>[]{repositoryType},
+                    (instance, method, args) -> {
+                        Function<Object[], Object> answer =
+                                answers.get(method.getName());
+                        if (answer != null) {
+                            return answer.apply(args);
+                        }
+                        if (method.getDeclaringClass() == Object.class) {
+                            return method.invoke(this, args);
+                        }
+                        return emptyValue(method.getReturnType());
+                    }
+            );
+            return repositoryType.cast(proxy);
+        }
+
+        private static Object emptyValue(Class<?> returnType) {
+            if (returnType == Optional.class) {
+                return Optional.empty();
+            }
+            if (returnType == List.class) {
+                return Collections.emptyList();
+            }
+            if (returnType == boolean.class) {
+                return Boolean.FALSE;
+            }
+            return null;
+        }
+    }
+}
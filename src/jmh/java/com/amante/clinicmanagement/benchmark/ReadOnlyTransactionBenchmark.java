@@ -0,0 +1,151 @@
+package com.amante.clinicmanagement.benchmark;
+
+import com.amante.clinicmanagement.ClinicManagementApplication;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.PatientRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads one doctor's appointments as managed entities inside a read-only
+ * and a read-write transaction against in-memory H2. A read-write
+ * transaction keeps a snapshot of every entity and dirty-checks them all
+ * at commit; a read-only one loads them read-only and never flushes.
+ * The gc profiler's {@code gc.alloc.rate.norm} shows the heap saved per
+ * call, ns/op the CPU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyTransactionBenchmark {
+
+    @Param({"1000", "10000"})
+    private int appointmentCount;
+
+    @Param({"true", "false"})
+    private boolean readOnly;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentRepository appointmentRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long doctorId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(
+                ClinicManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;"
+                                + "DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                        "logging.level.root=WARN")
+                .run();
+        appointmentRepository = context.getBean(AppointmentRepository.class);
+        PlatformTransactionManager transactionManager =
+                context.getBean(PlatformTransactionManager.class);
+        seed(transactionManager);
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int loadDoctorAppointments() {
+        return transactionTemplate.execute(status -> {
+            int pending = 0;
+            for (Appointment appointment
+                    : appointmentRepository.findByDoctorId(doctorId)) {
+                if (appointment.getStatus() == Appointment.Status.PENDING) {
+                    pending++;
+                }
+            }
+            return pending;
+        });
+    }
+
+    private void seed(PlatformTransactionManager transactionManager) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        DoctorRepository doctorRepository =
+                context.getBean(DoctorRepository.class);
+        PatientRepository patientRepository =
+                context.getBean(PatientRepository.class);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> {
+                    User doctorUser = userRepository.save(new User(null,
+                            "doctor@bench.test", "secret", User.Role.DOCTOR,
+                            true, LocalDateTime.now()));
+                    Doctor doctor = new Doctor();
+                    doctor.setUser(doctorUser);
+                    doctor.setFirstName("Sarah");
+                    doctor.setLastName("Smith");
+                    doctor.setSpecialization("General");
+                    doctor = doctorRepository.save(doctor);
+                    doctorId = doctor.getId();
+
+                    User patientUser = userRepository.save(new User(null,
+                            "patient@bench.test", "secret", User.Role.PATIENT,
+                            true, LocalDateTime.now()));
+                    Patient patient = new Patient();
+                    patient.setUser(patientUser);
+                    patient.setFirstName("Kent");
+                    patient.setLastName("Carlo");
+                    patient.setPhone("+1234567890");
+                    patient = patientRepository.save(patient);
+
+                    LocalDateTime start = LocalDateTime.of(2030, 1, 1, 8, 0);
+                    List<Appointment> appointments =
+                            new ArrayList<>(appointmentCount);
+                    for (int i = 0; i < appointmentCount; i++) {
+                        Appointment appointment = new Appointment();
+                        appointment.setDoctor(doctor);
+                        appointment.setPatient(patient);
+                        appointment.setStartTime(start.plusMinutes(30L * i));
+                        appointment.setEndTime(
+                                start.plusMinutes(30L * i + 30));
+                        appointment.setStatus(i % 3 == 0
+                                ? Appointment.Status.PENDING
+                                : Appointment.Status.CONFIRMED);
+                        appointment.setPatientNotes("Follow-up visit " + i);
+                        appointments.add(appointment);
+                    }
+                    appointmentRepository.saveAll(appointments);
+                });
+    }
+}
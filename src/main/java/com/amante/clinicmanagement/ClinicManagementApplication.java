@@ -1,11 +1,19 @@
 package com.amante.clinicmanagement;
 
+import com.amante.clinicmanagement.diagnostics.StartupReport;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class ClinicManagementApplication {
     public static void main(String[] args) {
-        SpringApplication.run(ClinicManagementApplication.class, args);
+        SpringApplication application =
+                new SpringApplication(ClinicManagementApplication.class);
+        if (StartupReport.isRequested()) {
+            application.setApplicationStartup(new BufferingApplicationStartup(
+                    StartupReport.CAPACITY));
+        }
+        application.run(args);
     }
-}
\ No newline at end of file
+}
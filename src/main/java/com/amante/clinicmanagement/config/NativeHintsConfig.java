@@ -0,0 +1,81 @@
+package com.amante.clinicmanagement.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image that Spring AOT
+ * cannot infer. Entities, repositories and controller signatures are
+ * covered by AOT itself and Springdoc ships its own hints.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ClinicRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static final String BASE_PACKAGE = "com.amante.clinicmanagement";
+
+    // Looked up by name from jjwt-api (Jwts, Keys) and cloudinary-core
+    static final List<String> REFLECTIVE_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "com.cloudinary.http44.ApiStrategy",
+            "com.cloudinary.http44.UploaderStrategy");
+
+    static class ClinicRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindings =
+                new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Lombok DTOs are (de)serialized by Jackson, including the
+            // nested types of generic ApiResponse payloads
+            for (String packageName : List.of(BASE_PACKAGE + ".dto",
+                    BASE_PACKAGE + ".entity")) {
+                for (Class<?> type : scan(packageName, classLoader)) {
+                    bindings.registerReflectionHints(hints.reflection(), type);
+                }
+            }
+            for (String type : REFLECTIVE_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+            hints.resources().registerPattern("templates/*.html");
+        }
+
+        private static List<Class<?>> scan(String packageName,
+                                           ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner =
+                    new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter((reader, factory) -> true);
+            return scanner.findCandidateComponents(packageName).stream()
+                    .map(BeanDefinition::getBeanClassName)
+                    .<Class<?>>map(name -> ClassUtils.resolveClassName(name,
+                            classLoader))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.amante.clinicmanagement.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends connections of read-only transactions to the replica and
+ * everything else to the primary.
+ *
+ * <p>After a user's read-write transaction, that user's reads stay on the
+ * primary for {@code pinMillis}, so a booking shows up in their next
+ * listing even while the replica lags behind. Requests without an
+ * authenticated user, such as scheduled jobs, are never pinned.
+ *
+ * <p>The lookup key is read when a connection is first used, so this
+ * must sit behind a {@code LazyConnectionDataSourceProxy}: the
+ * transaction manager opens its connection before it marks the
+ * transaction read-only.
+ *
+ * <p>A transaction that was sent to the replica is marked, see
+ * {@link #isReplicaRead}, so shared caches can refuse data that may be
+ * behind the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    // Transaction resource key marking a transaction that read the replica
+    private static final Object REPLICA_READ = new Object();
+
+    private final long pinNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(Object primary, Object replica,
+                                    long pinMillis) {
+        this.pinNanos = pinMillis * 1_000_000L;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary,
+                Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager
+                    .isActualTransactionActive()) {
+                pin(user);
+            }
+            return Target.PRIMARY;
+        }
+        if (user != null && isPinned(user)) {
+            return Target.PRIMARY;
+        }
+        markReplicaRead();
+        return Target.REPLICA;
+    }
+
+    /**
+     * Whether the current transaction reads from the replica, which may
+     * not have applied the latest commits yet.
+     */
+    public static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+
+    private static void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || isReplicaRead()) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ,
+                Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager
+                                .unbindResourceIfPossible(REPLICA_READ);
+                    }
+                });
+    }
+
+    boolean isPinned(String user) {
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until >= 0) {
+            pinnedUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    private void pin(String user) {
+        long now = System.nanoTime();
+        if (pinnedUntil.size() > SWEEP_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> now - until >= 0);
+        }
+        pinnedUntil.put(user, now + pinNanos);
+    }
+
+    private static String currentUser() {
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -1,6 +1,9 @@
 package com.amante.clinicmanagement.config;
 
+import com.amante.clinicmanagement.security.IdempotencyFilter;
 import com.amante.clinicmanagement.security.JwtAuthenticationFilter;
+import com.amante.clinicmanagement.security.LoadSheddingFilter;
+import jakarta.servlet.DispatcherType;
 import java.util.Arrays;
 import java.util.List;
 import org.springframework.context.annotation.Bean;
@@ -27,11 +30,17 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final LoadSheddingFilter loadSheddingFilter;
+    private final IdempotencyFilter idempotencyFilter;
 
     public SecurityConfig(
-            JwtAuthenticationFilter jwtAuthenticationFilter
+            JwtAuthenticationFilter jwtAuthenticationFilter,
+            LoadSheddingFilter loadSheddingFilter,
+            IdempotencyFilter idempotencyFilter
     ) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.loadSheddingFilter = loadSheddingFilter;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
     @Bean
@@ -55,6 +64,11 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(
                         auth -> auth
+                                // Streamed responses finish on an async
+                                // dispatch after the request was authorized
+                                .dispatcherTypeMatchers(
+                                        DispatcherType.ASYNC
+                                ).permitAll()
                                 .requestMatchers(
                                         "/api/auth/**"
                                 ).permitAll()
@@ -80,6 +94,17 @@ public class SecurityConfig {
                 .addFilterBefore(
                         jwtAuthenticationFilter,
                         UsernamePasswordAuthenticationFilter.class
+                )
+                // Rejects shed requests before the JWT filter loads
+                // the user from the database
+                .addFilterBefore(
+                        loadSheddingFilter,
+                        JwtAuthenticationFilter.class
+                )
+                // Needs the authenticated user to scope keys
+                .addFilterAfter(
+                        idempotencyFilter,
+                        JwtAuthenticationFilter.class
                 );
 
         return http.build();
@@ -113,7 +138,8 @@ public class SecurityConfig {
                 Arrays.asList(
                         "Authorization",
                         "Content-Type",
-                        "Accept"
+                        "Accept",
+                        IdempotencyFilter.KEY_HEADER
                 )
         );
 
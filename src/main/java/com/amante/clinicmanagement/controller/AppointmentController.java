@@ -1,17 +1,26 @@
 package com.amante.clinicmanagement.controller;
 
 import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.BookSeriesRequest;
 import com.amante.clinicmanagement.dto.request.RejectAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.RescheduleAppointmentRequest;
 import com.amante.clinicmanagement.dto.response.ApiResponse;
 import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.DoctorDashboardDto;
+import com.amante.clinicmanagement.service.AppointmentExportService;
 import com.amante.clinicmanagement.service.AppointmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,7 +28,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -31,6 +42,7 @@ import org.springframework.web.bind.annotation.RestController;
 @SecurityRequirement(name = "Bearer Authentication")
 public class AppointmentController {
     private final AppointmentService appointmentService;
+    private final AppointmentExportService appointmentExportService;
 
     @PostMapping
     @Operation(summary = "Request a new appointment")
@@ -54,6 +66,28 @@ public class AppointmentController {
         );
     }
 
+    @PostMapping("/series")
+    @Operation(summary = "Request a weekly series of appointments")
+    public ResponseEntity<ApiResponse<List<AppointmentDto>>> bookSeries(
+            @Valid
+            @RequestBody
+            BookSeriesRequest request,
+            Authentication authentication
+    ) {
+        List<AppointmentDto> appointments =
+                appointmentService.bookSeries(
+                        request,
+                        authentication.getName()
+                );
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Appointment series request submitted!",
+                        appointments
+                )
+        );
+    }
+
     @PutMapping("/{id}/confirm")
     @Operation(summary = "Confirm pending appointment (Doctor only)")
     public ResponseEntity<ApiResponse<AppointmentDto>> confirmAppointment(
@@ -138,6 +172,48 @@ public class AppointmentController {
         );
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
+    @Operation(
+            summary = "Export appointments as CSV or NDJSON "
+                    + "(Doctor or Admin)",
+            description = "Streams appointments ordered by start time. "
+                    + "Doctors get their own; admins may filter by doctorId."
+    )
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(name = "format", defaultValue = "CSV")
+            AppointmentExportService.Format format,
+            @RequestParam(name = "doctorId", required = false)
+            Long doctorId,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            Authentication authentication
+    ) {
+        StreamingResponseBody body =
+                appointmentExportService.exportAppointments(
+                        authentication.getName(),
+                        doctorId,
+                        from,
+                        to,
+                        format
+                );
+        boolean csv = format == AppointmentExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv
+                        ? new MediaType("text", "csv")
+                        : MediaType.APPLICATION_NDJSON)
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments."
+                                + (csv ? "csv" : "ndjson") + "\""
+                )
+                .body(body);
+    }
+
     @GetMapping("/pending")
     @Operation(summary = "Get pending appointments (Doctor only)")
     public ResponseEntity<ApiResponse<List<AppointmentDto>>>
@@ -155,6 +231,33 @@ public class AppointmentController {
         );
     }
 
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasRole('DOCTOR')")
+    @Operation(
+            summary = "Doctor home screen: today's agenda, counts by status "
+                    + "and the next appointments (Doctor only)",
+            description = "limit is the number of upcoming appointments, "
+                    + "1 to 20. Served from a cache for a few seconds."
+    )
+    public ResponseEntity<ApiResponse<DoctorDashboardDto>> getDashboard(
+            @RequestParam(name = "limit", defaultValue = "5")
+            int limit,
+            Authentication authentication
+    ) {
+        DoctorDashboardDto dashboard =
+                appointmentService.getDoctorDashboard(
+                        authentication.getName(),
+                        limit
+                );
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Dashboard retrieved.",
+                        dashboard
+                )
+        );
+    }
+
     @PutMapping("/{id}/cancel")
     @Operation(summary = "Cancel an appointment")
     public ResponseEntity<ApiResponse<AppointmentDto>> cancelAppointment(
@@ -176,6 +279,31 @@ public class AppointmentController {
         );
     }
 
+    @PutMapping("/{id}/reschedule")
+    @Operation(summary = "Move an appointment to another time")
+    public ResponseEntity<ApiResponse<AppointmentDto>> rescheduleAppointment(
+            @PathVariable
+            Long id,
+            @Valid
+            @RequestBody
+            RescheduleAppointmentRequest request,
+            Authentication authentication
+    ) {
+        AppointmentDto appointment =
+                appointmentService.rescheduleAppointment(
+                        id,
+                        request,
+                        authentication.getName()
+                );
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Appointment rescheduled.",
+                        appointment
+                )
+        );
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get appointment by ID")
     public ResponseEntity<ApiResponse<AppointmentDto>> getAppointmentById(
@@ -0,0 +1,60 @@
+package com.amante.clinicmanagement.controller;
+
+import com.amante.clinicmanagement.diagnostics.ConnectionHoldTracker;
+import com.amante.clinicmanagement.diagnostics.ConnectionPoolStats;
+import com.amante.clinicmanagement.dto.response.ConnectionDiagnosticsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/diagnostics")
+@RequiredArgsConstructor
+@Tag(
+        name = "Diagnostics",
+        description = "Connection pool diagnostics (Admin)"
+)
+@SecurityRequirement(name = "Bearer Authentication")
+public class DiagnosticsController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final ConnectionHoldTracker connectionHoldTracker;
+    private final ConnectionPoolStats connectionPoolStats;
+
+    @GetMapping("/connections")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Top connection hogs (Admin)",
+            description = "Pool usage, plus the service methods and "
+                    + "request routes that held JDBC connections longest "
+                    + "since startup or the last reset, with the remote "
+                    + "calls made while holding them"
+    )
+    public ResponseEntity<ConnectionDiagnosticsResponse> getConnections(
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        int capped = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(new ConnectionDiagnosticsResponse(
+                connectionPoolStats.snapshot(),
+                connectionHoldTracker.topMethods(capped),
+                connectionHoldTracker.topRoutes(capped)
+        ));
+    }
+
+    @DeleteMapping("/connections")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reset connection hold statistics (Admin)")
+    public ResponseEntity<Void> resetConnections() {
+        connectionHoldTracker.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
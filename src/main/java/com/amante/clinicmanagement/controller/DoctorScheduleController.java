@@ -8,18 +8,24 @@ import com.amante.clinicmanagement.dto.response.DoctorBreakDto;
 import com.amante.clinicmanagement.dto.response.DoctorDayOffDto;
 import com.amante.clinicmanagement.dto.response.DoctorScheduleResponse;
 import com.amante.clinicmanagement.dto.response.DoctorSettingsDto;
+import com.amante.clinicmanagement.dto.response.ScheduleImportResult;
 import com.amante.clinicmanagement.dto.response.TimeSlotDto;
 import com.amante.clinicmanagement.dto.response.WeeklyScheduleDto;
 import com.amante.clinicmanagement.service.DoctorService;
+import com.amante.clinicmanagement.service.ScheduleImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,6 +33,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -43,6 +50,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DoctorScheduleController {
 
     private final DoctorService doctorService;
+    private final ScheduleImportService scheduleImportService;
 
     @GetMapping("/config")
     @Operation(
@@ -221,4 +229,40 @@ public class DoctorScheduleController {
 
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping(
+            value = "/import",
+            consumes = {"text/csv", "application/x-ndjson"}
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Bulk import schedules, breaks and days off (Admin)",
+            description =
+                    "Streams a CSV (with header) or NDJSON body. Each row "
+                            + "has type WEEKLY, BREAK or DAY_OFF, doctorId, "
+                            + "and the fields of the matching single-row "
+                            + "endpoint: dayOfWeek, available, startTime, "
+                            + "endTime, breakName, startDate, endDate, "
+                            + "reason, dayOffType, recurring. Invalid rows "
+                            + "are skipped and reported by line number."
+    )
+    public ResponseEntity<ScheduleImportResult> importSchedules(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE)
+            String contentType,
+            InputStream body
+    ) {
+        ScheduleImportService.Format format =
+                MediaType.parseMediaType(contentType)
+                        .isCompatibleWith(MediaType.valueOf("text/csv"))
+                        ? ScheduleImportService.Format.CSV
+                        : ScheduleImportService.Format.NDJSON;
+
+        ScheduleImportResult result =
+                scheduleImportService.importSchedules(
+                        body,
+                        format
+                );
+
+        return ResponseEntity.ok(result);
+    }
 }
@@ -0,0 +1,94 @@
+package com.amante.clinicmanagement.controller;
+
+import com.amante.clinicmanagement.dto.response.ApiResponse;
+import com.amante.clinicmanagement.dto.response.DoctorDailyStatsDto;
+import com.amante.clinicmanagement.service.DoctorStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats/doctors")
+@RequiredArgsConstructor
+@Tag(
+        name = "Doctor Statistics",
+        description = "Pre-aggregated daily utilization, cancellation "
+                + "and rejection statistics"
+)
+@SecurityRequirement(name = "Bearer Authentication")
+public class DoctorStatsController {
+
+    private final DoctorStatsService doctorStatsService;
+
+    @GetMapping("/daily")
+    @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
+    @Operation(
+            summary = "Daily statistics per doctor (Doctor or Admin)",
+            description = "Defaults to the last 30 days. Doctors get their "
+                    + "own; admins may filter by doctorId. Days without "
+                    + "appointments are omitted."
+    )
+    public ResponseEntity<ApiResponse<List<DoctorDailyStatsDto>>>
+    getDailyStats(
+            @RequestParam(name = "doctorId", required = false)
+            Long doctorId,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            Authentication authentication
+    ) {
+        List<DoctorDailyStatsDto> stats = doctorStatsService.getDailyStats(
+                authentication.getName(),
+                doctorId,
+                from,
+                to
+        );
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Statistics retrieved.",
+                        stats
+                )
+        );
+    }
+
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Rebuild statistics from appointment history (Admin)",
+            description = "Bounds default to the first and last "
+                    + "appointment. Runs in chunks of days."
+    )
+    public ResponseEntity<ApiResponse<Integer>> backfill(
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to
+    ) {
+        int rows = doctorStatsService.backfill(from, to);
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Statistics rebuilt.",
+                        rows
+                )
+        );
+    }
+}
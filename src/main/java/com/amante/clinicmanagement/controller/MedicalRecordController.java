@@ -2,7 +2,8 @@ package com.amante.clinicmanagement.controller;
 
 import com.amante.clinicmanagement.dto.request.DiagnosisRequest;
 import com.amante.clinicmanagement.dto.response.ApiResponse;
-import com.amante.clinicmanagement.entity.MedicalRecord;
+import com.amante.clinicmanagement.dto.response.MedicalHistoryPage;
+import com.amante.clinicmanagement.dto.response.MedicalRecordDto;
 import com.amante.clinicmanagement.service.MedicalRecordService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,8 +18,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/medical-records")
 @RequiredArgsConstructor
@@ -36,17 +40,17 @@ public class MedicalRecordController {
     @Operation(
             summary = "Add diagnosis to appointment (Doctor only)"
     )
-    public ResponseEntity<ApiResponse<MedicalRecord>> addDiagnosis(
+    public ResponseEntity<ApiResponse<MedicalRecordDto>> addDiagnosis(
             @Valid @RequestBody DiagnosisRequest request,
             Authentication authentication
     ) {
-        MedicalRecord record =
+        MedicalRecordDto record =
                 medicalRecordService.addDiagnosis(
                         request,
                         authentication.getName()
                 );
 
-        ApiResponse<MedicalRecord> apiResponse =
+        ApiResponse<MedicalRecordDto> apiResponse =
                 new ApiResponse<>();
 
         apiResponse.setSuccess(true);
@@ -62,16 +66,16 @@ public class MedicalRecordController {
     @Operation(
             summary = "Get medical record by appointment ID"
     )
-    public ResponseEntity<ApiResponse<MedicalRecord>> getMedicalRecord(
+    public ResponseEntity<ApiResponse<MedicalRecordDto>> getMedicalRecord(
             @PathVariable Long appointmentId
     ) {
-        MedicalRecord record =
+        MedicalRecordDto record =
                 medicalRecordService
                         .getMedicalRecordByAppointmentId(
                                 appointmentId
                         );
 
-        ApiResponse<MedicalRecord> apiResponse =
+        ApiResponse<MedicalRecordDto> apiResponse =
                 new ApiResponse<>();
 
         apiResponse.setSuccess(true);
@@ -82,4 +86,67 @@ public class MedicalRecordController {
 
         return ResponseEntity.ok(apiResponse);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/patient/{patientId}")
+    @Operation(
+            summary = "Get a patient's medical history, newest first",
+            description = "Pass nextCursor from the previous page as "
+                    + "cursor to load older records."
+    )
+    public ResponseEntity<ApiResponse<MedicalHistoryPage>> getPatientHistory(
+            @PathVariable Long patientId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            Authentication authentication
+    ) {
+        MedicalHistoryPage page =
+                medicalRecordService.getPatientHistory(
+                        patientId,
+                        cursor,
+                        size,
+                        authentication.getName()
+                );
+
+        ApiResponse<MedicalHistoryPage> apiResponse =
+                new ApiResponse<>();
+
+        apiResponse.setSuccess(true);
+        apiResponse.setMessage(
+                "Medical history retrieved successfully"
+        );
+        apiResponse.setData(page);
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('DOCTOR')")
+    @Operation(
+            summary = "Search your diagnoses and prescriptions (Doctor only)",
+            description = "Returns records containing every word of q, "
+                    + "best match first."
+    )
+    public ResponseEntity<ApiResponse<List<MedicalRecordDto>>> searchRecords(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            Authentication authentication
+    ) {
+        List<MedicalRecordDto> records =
+                medicalRecordService.searchRecords(
+                        query,
+                        limit,
+                        authentication.getName()
+                );
+
+        ApiResponse<List<MedicalRecordDto>> apiResponse =
+                new ApiResponse<>();
+
+        apiResponse.setSuccess(true);
+        apiResponse.setMessage(
+                "Medical records retrieved successfully"
+        );
+        apiResponse.setData(records);
+
+        return ResponseEntity.ok(apiResponse);
+    }
+}
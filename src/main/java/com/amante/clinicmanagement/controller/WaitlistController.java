@@ -0,0 +1,134 @@
+package com.amante.clinicmanagement.controller;
+
+import com.amante.clinicmanagement.dto.request.JoinWaitlistRequest;
+import com.amante.clinicmanagement.dto.response.ApiResponse;
+import com.amante.clinicmanagement.dto.response.WaitlistEntryDto;
+import com.amante.clinicmanagement.service.WaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+@Tag(
+        name = "Waitlist",
+        description = "Wait for cancelled slots with a doctor"
+)
+@SecurityRequirement(name = "Bearer Authentication")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('PATIENT')")
+    @Operation(
+            summary = "Join a doctor's waitlist (Patient only)",
+            description = "The first freed slot between fromDate and "
+                    + "toDate is held for the earliest waiting patient "
+                    + "and offered by email."
+    )
+    public ResponseEntity<ApiResponse<WaitlistEntryDto>> join(
+            @Valid
+            @RequestBody
+            JoinWaitlistRequest request,
+            Authentication authentication
+    ) {
+        WaitlistEntryDto entry =
+                waitlistService.join(request, authentication.getName());
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Added to the waitlist.",
+                        entry
+                )
+        );
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasRole('PATIENT')")
+    @Operation(summary = "My waitlist entries and offers (Patient only)")
+    public ResponseEntity<ApiResponse<List<WaitlistEntryDto>>> getMyEntries(
+            Authentication authentication
+    ) {
+        List<WaitlistEntryDto> entries =
+                waitlistService.getMyEntries(authentication.getName());
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Waitlist entries retrieved.",
+                        entries
+                )
+        );
+    }
+
+    @PutMapping("/{id}/accept")
+    @PreAuthorize("hasRole('PATIENT')")
+    @Operation(summary = "Book the slot held for me (Patient only)")
+    public ResponseEntity<ApiResponse<WaitlistEntryDto>> acceptOffer(
+            @PathVariable
+            Long id,
+            Authentication authentication
+    ) {
+        WaitlistEntryDto entry =
+                waitlistService.acceptOffer(id, authentication.getName());
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Appointment request submitted!",
+                        entry
+                )
+        );
+    }
+
+    @PutMapping("/{id}/decline")
+    @PreAuthorize("hasRole('PATIENT')")
+    @Operation(summary = "Give up the slot held for me (Patient only)")
+    public ResponseEntity<ApiResponse<WaitlistEntryDto>> declineOffer(
+            @PathVariable
+            Long id,
+            Authentication authentication
+    ) {
+        WaitlistEntryDto entry =
+                waitlistService.declineOffer(id, authentication.getName());
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Offer declined.",
+                        entry
+                )
+        );
+    }
+
+    @PutMapping("/{id}/cancel")
+    @PreAuthorize("hasRole('PATIENT')")
+    @Operation(summary = "Leave the waitlist (Patient only)")
+    public ResponseEntity<ApiResponse<WaitlistEntryDto>> leave(
+            @PathVariable
+            Long id,
+            Authentication authentication
+    ) {
+        WaitlistEntryDto entry =
+                waitlistService.leave(id, authentication.getName());
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Left the waitlist.",
+                        entry
+                )
+        );
+    }
+}
@@ -0,0 +1,44 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Sums the connection time of each request under its route pattern,
+ * e.g. {@code GET /api/doctors/{id}/slots}.
+ */
+@Component
+@ConditionalOnProperty(name = "diagnostics.connections.enabled",
+        havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ConnectionHoldFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED = "(unmatched)";
+
+    private final ConnectionHoldTracker tracker;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        tracker.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(
+                    HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            tracker.endRequest(request.getMethod() + " "
+                    + (pattern == null ? UNMATCHED : pattern));
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import com.amante.clinicmanagement.dto.response.ConnectionHoldStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Records how long JDBC connections are held and which remote calls ran
+ * while one was held, per service method and per request route.
+ *
+ * <p>A connection is attributed to the transaction that opened it; with
+ * {@code @Transactional} services the transaction name is the service
+ * method. The JPA transaction manager opens its connection before it
+ * names the transaction, so a connection acquired without a name takes
+ * it from {@link #afterBegin}. Remote calls are reported through
+ * {@link #remote} by the email and Cloudinary clients.
+ */
+@Component
+@Slf4j
+public class ConnectionHoldTracker implements TransactionExecutionListener {
+
+    static final String NO_TRANSACTION = "(no transaction)";
+
+    private final long warnHoldNanos;
+
+    private final Map<String, Stats> byMethod = new ConcurrentHashMap<>();
+    private final Map<String, Stats> byRoute = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Deque<Hold>> openHolds =
+            ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<RequestHolds> currentRequest =
+            new ThreadLocal<>();
+
+    public ConnectionHoldTracker(
+            @Value("${diagnostics.connections.warn-hold-ms:2000}")
+            long warnHoldMillis) {
+        this.warnHoldNanos = TimeUnit.MILLISECONDS.toNanos(warnHoldMillis);
+    }
+
+    /**
+     * Call when a connection is handed out; pass the result to
+     * {@link #released} when it is closed.
+     */
+    public Hold acquired() {
+        Hold hold = new Hold(
+                TransactionSynchronizationManager.getCurrentTransactionName(),
+                System.nanoTime(), openHolds.get(), currentRequest.get());
+        hold.threadHolds.push(hold);
+        return hold;
+    }
+
+    /**
+     * Names the connection the transaction manager has just opened for
+     * a new transaction.
+     */
+    @Override
+    public void afterBegin(TransactionExecution transaction,
+                           Throwable beginFailure) {
+        Hold latest = openHolds.get().peek();
+        if (beginFailure == null && latest != null && latest.owner == null) {
+            latest.owner = transaction.getTransactionName();
+        }
+    }
+
+    public void released(Hold hold) {
+        long heldNanos = System.nanoTime() - hold.acquiredAt;
+        hold.threadHolds.remove(hold);
+        if (hold.owner == null || hold.owner.isEmpty()) {
+            hold.owner = NO_TRANSACTION;
+        }
+
+        boolean slow = heldNanos >= warnHoldNanos;
+        stats(byMethod, hold.owner).record(heldNanos, hold.remoteNanos,
+                hold.remoteCalls, hold.remoteTargets, slow);
+        if (hold.request != null) {
+            hold.request.add(hold, heldNanos);
+        }
+        if (slow) {
+            log.warn("Connection held {} ms by {}; remote I/O while held: "
+                            + "{} ms in {} call(s) to {}",
+                    TimeUnit.NANOSECONDS.toMillis(heldNanos), hold.owner,
+                    TimeUnit.NANOSECONDS.toMillis(hold.remoteNanos),
+                    hold.remoteCalls, hold.remoteTargets);
+        }
+    }
+
+    /**
+     * Runs a call to a remote service, charging its duration to every
+     * connection the current thread holds.
+     */
+    public <T, E extends Exception> T remote(String target,
+                                             RemoteCall<T, E> call) throws E {
+        Deque<Hold> holds = openHolds.get();
+        if (holds.isEmpty()) {
+            return call.call();
+        }
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            for (Hold hold : holds) {
+                hold.remoteNanos += elapsed;
+                hold.remoteCalls++;
+                hold.remoteTargets.add(target);
+            }
+        }
+    }
+
+    public void beginRequest() {
+        currentRequest.set(new RequestHolds());
+    }
+
+    public void endRequest(String route) {
+        RequestHolds request = currentRequest.get();
+        currentRequest.remove();
+        if (request != null && request.connections > 0) {
+            stats(byRoute, route).record(request.heldNanos,
+                    request.remoteNanos, request.remoteCalls,
+                    request.remoteTargets,
+                    request.heldNanos >= warnHoldNanos);
+        }
+    }
+
+    /**
+     * Service methods with the most total connection time, worst first.
+     */
+    public List<ConnectionHoldStatsDto> topMethods(int limit) {
+        return top(byMethod, limit);
+    }
+
+    /**
+     * Request routes with the most total connection time, worst first.
+     */
+    public List<ConnectionHoldStatsDto> topRoutes(int limit) {
+        return top(byRoute, limit);
+    }
+
+    public void reset() {
+        byMethod.clear();
+        byRoute.clear();
+    }
+
+    private static Stats stats(Map<String, Stats> map, String key) {
+        return map.computeIfAbsent(key, k -> new Stats());
+    }
+
+    private static List<ConnectionHoldStatsDto> top(Map<String, Stats> map,
+                                                    int limit) {
+        return map.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .sorted(Comparator.comparingLong(
+                        ConnectionHoldStatsDto::getTotalHeldMs).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @FunctionalInterface
+    public interface RemoteCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * One checked-out connection. Only touched by the thread that holds
+     * it.
+     */
+    public static final class Hold {
+        private String owner;
+        private final long acquiredAt;
+        private final Deque<Hold> threadHolds;
+        private final RequestHolds request;
+        private long remoteNanos;
+        private int remoteCalls;
+        private final Set<String> remoteTargets = new TreeSet<>();
+
+        private Hold(String owner, long acquiredAt, Deque<Hold> threadHolds,
+                     RequestHolds request) {
+            this.owner = owner;
+            this.acquiredAt = acquiredAt;
+            this.threadHolds = threadHolds;
+            this.request = request;
+        }
+    }
+
+    private static final class RequestHolds {
+        private int connections;
+        private long heldNanos;
+        private long remoteNanos;
+        private int remoteCalls;
+        private final Set<String> remoteTargets = new TreeSet<>();
+
+        private void add(Hold hold, long held) {
+            connections++;
+            heldNanos += held;
+            remoteNanos += hold.remoteNanos;
+            remoteCalls += hold.remoteCalls;
+            remoteTargets.addAll(hold.remoteTargets);
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder heldNanos = new LongAdder();
+        private final AtomicLong maxHeldNanos = new AtomicLong();
+        private final LongAdder remoteNanos = new LongAdder();
+        private final LongAdder remoteCalls = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final Set<String> remoteTargets =
+                ConcurrentHashMap.newKeySet();
+
+        private void record(long held, long remote, int calls,
+                            Collection<String> targets, boolean isSlow) {
+            count.increment();
+            heldNanos.add(held);
+            maxHeldNanos.accumulateAndGet(held, Math::max);
+            remoteNanos.add(remote);
+            remoteCalls.add(calls);
+            remoteTargets.addAll(targets);
+            if (isSlow) {
+                slow.increment();
+            }
+        }
+
+        private ConnectionHoldStatsDto toDto(String key) {
+            return new ConnectionHoldStatsDto(
+                    key,
+                    count.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(heldNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(maxHeldNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(remoteNanos.sum()),
+                    remoteCalls.sum(),
+                    new ArrayList<>(new TreeSet<>(remoteTargets)),
+                    slow.sum());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import com.amante.clinicmanagement.dto.response.ConnectionDiagnosticsResponse.PoolStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live usage of every Hikari pool in the context, including pools hidden
+ * behind the tracking or routing wrappers.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolStats {
+
+    private final ObjectProvider<DataSource> dataSources;
+
+    public List<PoolStats> snapshot() {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource pool = unwrap(dataSource);
+            if (pool != null) {
+                pools.putIfAbsent(pool.getPoolName(), pool);
+            }
+        });
+
+        List<PoolStats> stats = new ArrayList<>(pools.size());
+        for (HikariDataSource pool : pools.values()) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean == null) {
+                // Not started yet
+                stats.add(new PoolStats(pool.getPoolName(), 0, 0, 0, 0,
+                        pool.getMaximumPoolSize()));
+            } else {
+                stats.add(new PoolStats(pool.getPoolName(),
+                        bean.getActiveConnections(),
+                        bean.getIdleConnections(),
+                        bean.getThreadsAwaitingConnection(),
+                        bean.getTotalConnections(),
+                        pool.getMaximumPoolSize()));
+            }
+        }
+        return stats;
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari;
+        }
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
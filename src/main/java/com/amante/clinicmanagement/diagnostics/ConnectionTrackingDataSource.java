@@ -0,0 +1,55 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Reports every connection handed out by the target data source to a
+ * {@link ConnectionHoldTracker} until it is closed.
+ */
+public class ConnectionTrackingDataSource extends DelegatingDataSource {
+
+    private final ConnectionHoldTracker tracker;
+
+    public ConnectionTrackingDataSource(DataSource target,
+                                        ConnectionHoldTracker tracker) {
+        super(target);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password)
+            throws SQLException {
+        return track(obtainTargetDataSource()
+                .getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        ConnectionHoldTracker.Hold hold = tracker.acquired();
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !closed[0]) {
+                        closed[0] = true;
+                        tracker.released(hold);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
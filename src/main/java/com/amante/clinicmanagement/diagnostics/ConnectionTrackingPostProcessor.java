@@ -0,0 +1,36 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@code dataSource} bean, the one JPA and
+ * JdbcTemplate use, in a {@link ConnectionTrackingDataSource}.
+ */
+@Component
+@ConditionalOnProperty(name = "diagnostics.connections.enabled",
+        havingValue = "true", matchIfMissing = true)
+public class ConnectionTrackingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ConnectionHoldTracker> tracker;
+
+    public ConnectionTrackingPostProcessor(
+            ObjectProvider<ConnectionHoldTracker> tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean,
+                                                 String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource
+                && !(bean instanceof ConnectionTrackingDataSource)) {
+            return new ConnectionTrackingDataSource((DataSource) bean,
+                    tracker.getObject());
+        }
+        return bean;
+    }
+}
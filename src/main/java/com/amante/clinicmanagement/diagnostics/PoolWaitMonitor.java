@@ -0,0 +1,107 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moving average of how long threads wait to borrow a connection from
+ * any Hikari pool in the context. It attaches itself to each pool as
+ * its metrics tracker before the pool starts, also when the pool bean
+ * has already been wrapped, as {@link ConnectionTrackingPostProcessor}
+ * does with the {@code dataSource} bean.
+ *
+ * <p>The average halves every {@code half-life-ms} without new samples,
+ * so it falls back once shed requests stop borrowing connections.
+ */
+@Component
+public class PoolWaitMonitor implements BeanPostProcessor {
+
+    private static final double SAMPLE_WEIGHT = 0.2;
+
+    private final long halfLifeNanos;
+
+    private double averageNanos;
+    private long updatedAt = System.nanoTime();
+    private final AtomicInteger timeouts = new AtomicInteger();
+
+    public PoolWaitMonitor(
+            @Value("${load-shedding.pool-wait-half-life-ms:1000}")
+            long halfLifeMillis) {
+        this.halfLifeNanos = TimeUnit.MILLISECONDS.toNanos(halfLifeMillis);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean,
+                                                 String beanName) {
+        HikariDataSource pool = hikariPool(bean);
+        if (pool != null && pool.getMetricsTrackerFactory() == null) {
+            long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(
+                    pool.getConnectionTimeout());
+            pool.setMetricsTrackerFactory((poolName, poolStats) ->
+                    new IMetricsTracker() {
+                        @Override
+                        public void recordConnectionAcquiredNanos(
+                                long elapsedNanos) {
+                            record(elapsedNanos, System.nanoTime());
+                        }
+
+                        @Override
+                        public void recordConnectionTimeout() {
+                            timeouts.incrementAndGet();
+                            record(timeoutNanos, System.nanoTime());
+                        }
+                    });
+        }
+        return bean;
+    }
+
+    private static HikariDataSource hikariPool(Object bean) {
+        if (bean instanceof HikariDataSource pool) {
+            return pool;
+        }
+        if (bean instanceof DataSource dataSource) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    return dataSource.unwrap(HikariDataSource.class);
+                }
+            } catch (SQLException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    public double waitMillis() {
+        return waitMillis(System.nanoTime());
+    }
+
+    public int timeouts() {
+        return timeouts.get();
+    }
+
+    synchronized void record(long waitNanos, long now) {
+        double decayed = decayed(now);
+        averageNanos = decayed + SAMPLE_WEIGHT * (waitNanos - decayed);
+        updatedAt = now;
+    }
+
+    synchronized double waitMillis(long now) {
+        return decayed(now) / 1_000_000.0;
+    }
+
+    private double decayed(long now) {
+        long elapsed = now - updatedAt;
+        if (elapsed <= 0 || halfLifeNanos <= 0) {
+            return averageNanos;
+        }
+        return averageNanos * Math.pow(0.5, (double) elapsed / halfLifeNanos);
+    }
+}
@@ -0,0 +1,68 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Logs the slowest startup steps once the application is ready. The main
+ * class only buffers steps when {@code -Dstartup.report=true} or
+ * {@code STARTUP_REPORT=true} is set; the buffer is drained here so it
+ * does not outlive startup.
+ */
+@Component
+@Slf4j
+public class StartupReport {
+
+    public static final int CAPACITY = 10000;
+    static final int TOP_STEPS = 20;
+
+    public static boolean isRequested() {
+        return Boolean.parseBoolean(System.getProperty("startup.report",
+                System.getenv("STARTUP_REPORT")));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup()
+                instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        StartupTimeline timeline = startup.drainBufferedTimeline();
+        log.info("Started in {} ms ({} ms since JVM start, {} steps)",
+                event.getTimeTaken().toMillis(),
+                ManagementFactory.getRuntimeMXBean().getUptime(),
+                timeline.getEvents().size());
+        slowestSteps(timeline, TOP_STEPS).forEach(line -> log.info(line));
+    }
+
+    static List<String> slowestSteps(StartupTimeline timeline, int limit) {
+        return timeline.getEvents().stream()
+                .sorted(Comparator.comparing(
+                        StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(limit)
+                .map(StartupReport::describe)
+                .toList();
+    }
+
+    private static String describe(StartupTimeline.TimelineEvent event) {
+        StartupStep step = event.getStartupStep();
+        String tags = StreamSupport.stream(step.getTags().spliterator(), false)
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(", "));
+        Duration duration = event.getDuration();
+        return String.format("%6d ms  %s%s", duration.toMillis(),
+                step.getName(), tags.isEmpty() ? "" : " [" + tags + "]");
+    }
+}
@@ -0,0 +1,68 @@
+package com.amante.clinicmanagement.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to book the same time slot every few weeks")
+public class BookSeriesRequest {
+
+    @NotNull(message = "Doctor ID is required")
+    @Schema(
+            description = "ID of the doctor",
+            example = "1",
+            required = true
+    )
+    private Long doctorId;
+
+    @NotNull(message = "Start time is required")
+    @Schema(
+            description = "Start time of the first appointment",
+            example = "2025-12-22T14:00:00",
+            required = true
+    )
+    private LocalDateTime startTime;
+
+    @NotNull(message = "End time is required")
+    @Schema(
+            description = "End time of the first appointment",
+            example = "2025-12-22T14:30:00",
+            required = true
+    )
+    private LocalDateTime endTime;
+
+    @NotNull(message = "Number of occurrences is required")
+    @Min(value = 2, message = "A series needs at least 2 occurrences")
+    @Schema(
+            description = "Number of appointments in the series",
+            example = "10",
+            required = true
+    )
+    private Integer occurrences;
+
+    @Min(value = 1, message = "Interval must be at least 1 week")
+    @Max(value = 4, message = "Interval must not exceed 4 weeks")
+    @Schema(
+            description = "Weeks between two appointments",
+            example = "1",
+            defaultValue = "1"
+    )
+    private Integer intervalWeeks = 1;
+
+    @Size(max = 500, message = "Notes must not exceed 500 characters")
+    @Schema(
+            description = "Optional notes from patient, kept on every "
+                    + "appointment",
+            example = "Knee rehabilitation after surgery"
+    )
+    private String patientNotes;
+}
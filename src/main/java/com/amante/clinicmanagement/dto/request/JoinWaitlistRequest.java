@@ -0,0 +1,35 @@
+package com.amante.clinicmanagement.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to be offered any freed slot with a doctor")
+public class JoinWaitlistRequest {
+
+    @NotNull(message = "Doctor ID is required")
+    @Schema(description = "ID of the doctor", example = "1", required = true)
+    private Long doctorId;
+
+    @NotNull(message = "From date is required")
+    @Schema(
+            description = "First day the patient can come",
+            example = "2025-12-22",
+            required = true
+    )
+    private LocalDate fromDate;
+
+    @NotNull(message = "To date is required")
+    @Schema(
+            description = "Last day the patient can come",
+            example = "2025-12-31",
+            required = true
+    )
+    private LocalDate toDate;
+}
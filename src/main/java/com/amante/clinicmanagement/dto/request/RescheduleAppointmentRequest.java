@@ -0,0 +1,31 @@
+package com.amante.clinicmanagement.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to move an appointment to another time")
+public class RescheduleAppointmentRequest {
+
+    @NotNull(message = "Start time is required")
+    @Schema(
+            description = "New appointment start time",
+            example = "2025-12-26T10:00:00",
+            required = true
+    )
+    private LocalDateTime startTime;
+
+    @NotNull(message = "End time is required")
+    @Schema(
+            description = "New appointment end time",
+            example = "2025-12-26T10:30:00",
+            required = true
+    )
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,32 @@
+package com.amante.clinicmanagement.dto.response;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat appointment row read by the export query's constructor
+ * expression, so exported rows are never managed entities.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentExportRow {
+
+    private Long id;
+    private Long doctorId;
+    private String doctorFirstName;
+    private String doctorLastName;
+    private Long patientId;
+    private String patientFirstName;
+    private String patientLastName;
+    private String patientEmail;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Appointment.Status status;
+    private String patientNotes;
+    private String rejectionReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
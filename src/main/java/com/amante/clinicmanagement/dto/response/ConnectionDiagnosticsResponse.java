@@ -0,0 +1,41 @@
+package com.amante.clinicmanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Connection pool saturation and the top "
+        + "connection holders")
+public class ConnectionDiagnosticsResponse {
+
+    private List<PoolStats> pools;
+
+    private List<ConnectionHoldStatsDto> methods;
+
+    private List<ConnectionHoldStatsDto> routes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PoolStats {
+
+        private String name;
+
+        private int active;
+
+        private int idle;
+
+        @Schema(description = "Threads waiting for a connection")
+        private int waiting;
+
+        private int total;
+
+        private int maximumPoolSize;
+    }
+}
@@ -0,0 +1,37 @@
+package com.amante.clinicmanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "JDBC connection hold time of one service method "
+        + "or request route since startup")
+public class ConnectionHoldStatsDto {
+
+    @Schema(description = "Service method or HTTP method and route")
+    private String name;
+
+    @Schema(description = "Connections held, or requests that used one")
+    private long count;
+
+    private long totalHeldMs;
+
+    private long maxHeldMs;
+
+    @Schema(description = "Time spent in remote calls while holding "
+            + "a connection")
+    private long remoteIoMs;
+
+    private long remoteCalls;
+
+    private List<String> remoteTargets;
+
+    @Schema(description = "Holds at or above the warning threshold")
+    private long slowCount;
+}
@@ -0,0 +1,52 @@
+package com.amante.clinicmanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Appointment statistics of one doctor for one day")
+public class DoctorDailyStatsDto {
+
+    private Long doctorId;
+
+    private LocalDate date;
+
+    @Schema(description = "Appointments requested for the day, "
+            + "whatever their status now")
+    private int requested;
+
+    private int pending;
+
+    private int confirmed;
+
+    private int completed;
+
+    private int rejected;
+
+    private int cancelled;
+
+    private int expired;
+
+    @Schema(description = "Minutes of confirmed and completed appointments")
+    private int bookedMinutes;
+
+    @Schema(description = "Working minutes of the day under the doctor's "
+            + "current schedule, without breaks and days off")
+    private int availableMinutes;
+
+    @Schema(description = "bookedMinutes / availableMinutes; "
+            + "null when the doctor does not work that day")
+    private Double utilizationRate;
+
+    @Schema(description = "cancelled / requested")
+    private double cancellationRate;
+
+    @Schema(description = "rejected / requested")
+    private double rejectionRate;
+}
@@ -0,0 +1,39 @@
+package com.amante.clinicmanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Everything the doctor home screen shows")
+public class DoctorDashboardDto {
+
+    private LocalDate date;
+
+    @Schema(description = "Today's pending, confirmed and completed "
+            + "appointments in start order")
+    private List<AppointmentDto> todayAgenda;
+
+    @Schema(description = "Number of appointments in every status, "
+            + "including zeros")
+    private Map<String, Long> statusCounts;
+
+    @Schema(description = "Pending appointments waiting for a decision")
+    private long pendingCount;
+
+    @Schema(description = "Next pending or confirmed appointments "
+            + "from now on")
+    private List<AppointmentDto> upcoming;
+
+    @Schema(description = "When the dashboard was computed; it may be "
+            + "served from a short-lived cache")
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,23 @@
+package com.amante.clinicmanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a patient's medical history, newest first")
+public class MedicalHistoryPage {
+
+    private List<MedicalRecordDto> records;
+
+    @Schema(
+            description = "Pass as cursor to load older records; "
+                    + "null on the last page"
+    )
+    private String nextCursor;
+}
@@ -0,0 +1,55 @@
+package com.amante.clinicmanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Medical record with just enough of its appointment to display it. The
+ * constructor argument order is used by the repository projection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Medical record information")
+public class MedicalRecordDto {
+
+    @Schema(description = "Medical record ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Appointment ID", example = "1")
+    private Long appointmentId;
+
+    @Schema(
+            description = "Appointment start time",
+            example = "2025-12-25T14:00:00"
+    )
+    private LocalDateTime appointmentStartTime;
+
+    @Schema(description = "Doctor ID", example = "1")
+    private Long doctorId;
+
+    @Schema(description = "Doctor full name", example = "Sarah Smith")
+    private String doctorName;
+
+    @Schema(description = "Doctor specialization", example = "Cardiologist")
+    private String doctorSpecialization;
+
+    @Schema(description = "Patient ID", example = "1")
+    private Long patientId;
+
+    @Schema(description = "Patient full name", example = "Kent Carlo")
+    private String patientName;
+
+    @Schema(description = "Diagnosis", example = "Common cold")
+    private String diagnosis;
+
+    @Schema(description = "Prescription", example = "Rest and fluids")
+    private String prescription;
+
+    @Schema(description = "Created timestamp", example = "2025-12-25T14:30:00")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.amante.clinicmanagement.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ScheduleImportResult {
+
+    private int totalRows;
+    private int weeklySchedules;
+    private int breaks;
+    private int daysOff;
+    private int failedRows;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,42 @@
+package com.amante.clinicmanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A patient's place on a doctor's waitlist")
+public class WaitlistEntryDto {
+
+    private Long id;
+
+    private Long doctorId;
+
+    private String doctorName;
+
+    private LocalDate fromDate;
+
+    private LocalDate toDate;
+
+    @Schema(description = "WAITING, OFFERED, BOOKED, DECLINED, EXPIRED "
+            + "or CANCELLED")
+    private String status;
+
+    @Schema(description = "Slot held for the patient while OFFERED")
+    private LocalDateTime offeredStartTime;
+
+    private LocalDateTime offeredEndTime;
+
+    private LocalDateTime holdExpiresAt;
+
+    @Schema(description = "Appointment booked from the offer")
+    private Long appointmentId;
+
+    private LocalDateTime createdAt;
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PreUpdate;
@@ -14,15 +15,36 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(
+        name = "appointments",
+        indexes = {
+                @Index(
+                        name = "idx_appointments_doctor_start",
+                        columnList = "doctor_id, start_time"
+                ),
+                @Index(
+                        name = "idx_appointments_status_start",
+                        columnList = "status, start_time"
+                ),
+                // Only appointments still waiting for their expiry notice
+                // have a value, so draining them stays cheap
+                @Index(
+                        name = "idx_appointments_expiry_notice_due",
+                        columnList = "expiry_notice_due_at"
+                )
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Appointment {
 
+    public static final Duration MAX_DURATION = Duration.ofHours(24);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -57,12 +79,38 @@ public class Appointment {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Written only by the reminder job, so saving a stale entity
+    // cannot reset them
+    @Column(name = "reminder_claimed_at", insertable = false,
+            updatable = false)
+    private LocalDateTime reminderClaimedAt;
+
+    @Column(name = "reminder_sent_at", insertable = false,
+            updatable = false)
+    private LocalDateTime reminderSentAt;
+
+    // Written only by the expiry job: set when the appointment expires
+    // and cleared once the patient was told
+    @Column(name = "expiry_notice_due_at", insertable = false,
+            updatable = false)
+    private LocalDateTime expiryNoticeDueAt;
+
+    @Column(name = "expiry_notice_claimed_at", insertable = false,
+            updatable = false)
+    private LocalDateTime expiryNoticeClaimedAt;
+
+    @Column(name = "expiry_notice_sent_at", insertable = false,
+            updatable = false)
+    private LocalDateTime expiryNoticeSentAt;
+
     public enum Status {
         PENDING,
         CONFIRMED,
         REJECTED,
         COMPLETED,
-        CANCELLED
+        CANCELLED,
+        // Still PENDING when its start time passed
+        EXPIRED
     }
 
     @PreUpdate
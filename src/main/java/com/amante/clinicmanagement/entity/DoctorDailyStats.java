@@ -0,0 +1,91 @@
+package com.amante.clinicmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Appointment counts of one doctor for one day, by the day the
+ * appointments start. Kept up to date by status transitions and rebuilt
+ * from history by the backfill; never written through JPA.
+ */
+@Entity
+@Table(
+        name = "doctor_daily_stats",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_doctor_daily_stats_doctor_date",
+                columnNames = {"doctor_id", "stat_date"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class DoctorDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    // Every appointment requested for the day, whatever its status now
+    @Column(name = "requested_count", nullable = false)
+    private int requestedCount;
+
+    @Column(name = "pending_count", nullable = false)
+    private int pendingCount;
+
+    @Column(name = "confirmed_count", nullable = false)
+    private int confirmedCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private int completedCount;
+
+    @Column(name = "rejected_count", nullable = false)
+    private int rejectedCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private int cancelledCount;
+
+    @Column(name = "expired_count", nullable = false)
+    private int expiredCount;
+
+    // Minutes of confirmed and completed appointments
+    @Column(name = "booked_minutes", nullable = false)
+    private int bookedMinutes;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public DoctorDailyStats(Long doctorId, LocalDate statDate) {
+        this.doctorId = doctorId;
+        this.statDate = statDate;
+    }
+
+    /**
+     * Adds {@code delta} to the counter of {@code status}.
+     */
+    public void add(Appointment.Status status, int delta) {
+        switch (status) {
+            case PENDING -> pendingCount += delta;
+            case CONFIRMED -> confirmedCount += delta;
+            case COMPLETED -> completedCount += delta;
+            case REJECTED -> rejectedCount += delta;
+            case CANCELLED -> cancelledCount += delta;
+            case EXPIRED -> expiredCount += delta;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.amante.clinicmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One pre-generated bookable slot of the materialized slot inventory.
+ */
+@Entity
+@Table(
+        name = "doctor_slots",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_doctor_slots_doctor_start",
+                columnNames = {"doctor_id", "start_time"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class DoctorSlot {
+
+    // Sequence ids let Hibernate batch the bulk inserts of regeneration
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE,
+            generator = "doctor_slots_seq")
+    @SequenceGenerator(name = "doctor_slots_seq",
+            sequenceName = "doctor_slots_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.OPEN;
+
+    // Break name for BLOCKED slots
+    @Column
+    private String reason;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    public enum Status {
+        OPEN, BOOKED, BLOCKED
+    }
+}
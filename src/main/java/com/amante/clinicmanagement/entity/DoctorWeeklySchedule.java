@@ -11,6 +11,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -19,7 +20,13 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "doctor_weekly_schedule")
+@Table(
+        name = "doctor_weekly_schedule",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_weekly_schedule_doctor_day",
+                columnNames = {"doctor_id", "day_of_week"}
+        )
+)
 @Getter
 @Setter
 @NoArgsConstructor
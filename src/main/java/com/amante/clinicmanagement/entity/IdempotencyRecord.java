@@ -0,0 +1,70 @@
+package com.amante.clinicmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The first response to a request sent with an {@code Idempotency-Key},
+ * replayed to retries of that request until {@code expiresAt}. Keys are
+ * scoped to the user that sent them.
+ */
+@Entity
+@Table(
+        name = "idempotency_keys",
+        indexes = @Index(
+                name = "idx_idempotency_keys_expires",
+                columnList = "expires_at"
+        )
+)
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    // "<user email> <idempotency key>"
+    @Id
+    @Column(length = 512)
+    private String id;
+
+    // SHA-256 of method, path and body, to detect a key reused for
+    // a different request
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.IN_PROGRESS;
+
+    // While IN_PROGRESS: after this a retry may take the key over, in
+    // case the node running the first request died
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_content_type")
+    private String responseContentType;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -5,23 +5,36 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "medical_records")
+@Table(
+        name = "medical_records",
+        indexes = @Index(
+                name = "idx_medical_records_patient_created",
+                columnList = "patient_id, created_at, id"
+        )
+)
 public class MedicalRecord {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // db/partitioning drops the foreign key along with appointments' id
+    // primary key; run that schema with the partitioned profile
     @OneToOne
     @JoinColumn(name = "appointment_id", nullable = false)
     private Appointment appointment;
 
+    // Copied from the appointment so a patient's history is one index scan
+    @Column(name = "patient_id")
+    private Long patientId;
+
     @Column(columnDefinition = "TEXT")
     private String diagnosis;
 
@@ -65,6 +78,14 @@ public class MedicalRecord {
         this.appointment = appointment;
     }
 
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
     public String getDiagnosis() {
         return diagnosis;
     }
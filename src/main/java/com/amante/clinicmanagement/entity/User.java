@@ -35,7 +35,7 @@ public class User {
     private LocalDateTime createdAt = LocalDateTime.now();
 
     public enum Role {
-        PATIENT, DOCTOR
+        PATIENT, DOCTOR, ADMIN
     }
 
     public User() {}
@@ -0,0 +1,100 @@
+package com.amante.clinicmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A patient waiting for any freed slot with a doctor between two dates.
+ * While OFFERED, the offered interval is held for the patient until
+ * {@code holdExpiresAt}.
+ */
+@Entity
+@Table(
+        name = "waitlist_entries",
+        indexes = {
+                @Index(
+                        name = "idx_waitlist_entries_doctor_status",
+                        columnList = "doctor_id, status"
+                ),
+                @Index(
+                        name = "idx_waitlist_entries_status_hold",
+                        columnList = "status, hold_expires_at"
+                )
+        }
+)
+@Data
+@NoArgsConstructor
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @ManyToOne
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.WAITING;
+
+    @Column(name = "offered_start_time")
+    private LocalDateTime offeredStartTime;
+
+    @Column(name = "offered_end_time")
+    private LocalDateTime offeredEndTime;
+
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    // Queue position: earlier requests are offered freed slots first
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public enum Status {
+        WAITING,
+        OFFERED,
+        // Accepted the offer; appointmentId is the booking
+        BOOKED,
+        DECLINED,
+        // The hold ran out before the patient accepted
+        EXPIRED,
+        CANCELLED
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
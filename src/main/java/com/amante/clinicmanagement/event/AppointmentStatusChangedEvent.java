@@ -0,0 +1,73 @@
+package com.amante.clinicmanagement.event;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever an appointment is created or moves to another status.
+ * {@code previousStatus} is {@code null} for a new booking. A rescheduled
+ * appointment leaves its old interval with a {@code null}
+ * {@code newStatus} and enters the new one like a new booking.
+ */
+@Getter
+@RequiredArgsConstructor
+public class AppointmentStatusChangedEvent {
+
+    private final Long appointmentId;
+    private final Long doctorId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final Appointment.Status previousStatus;
+    private final Appointment.Status newStatus;
+
+    public static AppointmentStatusChangedEvent of(
+            Appointment appointment, Appointment.Status previousStatus) {
+        return new AppointmentStatusChangedEvent(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                appointment.getStartTime(),
+                appointment.getEndTime(),
+                previousStatus,
+                appointment.getStatus()
+        );
+    }
+
+    /**
+     * The event for {@code appointment} leaving the interval it held in
+     * {@code previousStatus} before being rescheduled.
+     */
+    public static AppointmentStatusChangedEvent left(
+            Appointment appointment,
+            LocalDateTime previousStartTime,
+            LocalDateTime previousEndTime,
+            Appointment.Status previousStatus) {
+        return new AppointmentStatusChangedEvent(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                previousStartTime,
+                previousEndTime,
+                previousStatus,
+                null
+        );
+    }
+
+    /**
+     * Whether an appointment in {@code status} keeps its time slot taken.
+     */
+    public static boolean holdsSlot(Appointment.Status status) {
+        return status != null
+                && status != Appointment.Status.CANCELLED
+                && status != Appointment.Status.EXPIRED;
+    }
+
+    public boolean isSlotTaken() {
+        return !holdsSlot(previousStatus) && holdsSlot(newStatus);
+    }
+
+    public boolean isSlotReleased() {
+        return holdsSlot(previousStatus) && !holdsSlot(newStatus);
+    }
+}
@@ -0,0 +1,24 @@
+package com.amante.clinicmanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a doctor's settings, weekly hours, breaks or days off
+ * change. {@code fromDate}/{@code toDate} narrow the affected dates when
+ * known; {@code null} means every future date.
+ */
+@Getter
+@AllArgsConstructor
+public class DoctorScheduleChangedEvent {
+
+    private final Long doctorId;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+
+    public DoctorScheduleChangedEvent(Long doctorId) {
+        this(doctorId, null, null);
+    }
+}
@@ -1,42 +1,225 @@
 package com.amante.clinicmanagement.repository;
 
+import com.amante.clinicmanagement.dto.response.AppointmentExportRow;
 import com.amante.clinicmanagement.entity.Appointment;
 import com.amante.clinicmanagement.entity.Appointment.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository
-        extends JpaRepository<Appointment, Long> {
+        extends JpaRepository<Appointment, Long>, AppointmentRepositoryCustom {
 
     List<Appointment> findByPatientId(Long patientId);
     List<Appointment> findByDoctorId(Long doctorId);
 
+    boolean existsByDoctorIdAndPatientId(Long doctorId, Long patientId);
+
+    /**
+     * Slot-holding appointments overlapping {@code [startOfDay, endOfDay)},
+     * including ones that run across either midnight.
+     */
+    default List<Appointment> findByDoctorIdAndDate(
+            Long doctorId,
+            LocalDateTime startOfDay,
+            LocalDateTime endOfDay
+    ) {
+        return findOverlappingStartingAfter(doctorId, startOfDay, endOfDay,
+                startOfDay.minus(Appointment.MAX_DURATION));
+    }
+
+    // Only read to build occupancy, also inside read-write transactions
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY,
+            value = "true"))
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.doctor.id = :doctorId " +
-            "AND a.startTime >= :startOfDay " +
-            "AND a.endTime <= :endOfDay " +
-            "AND a.status != 'CANCELLED'")
-    List<Appointment> findByDoctorIdAndDate(
+            "AND a.startTime > :earliestStart " +
+            "AND a.startTime < :endTime " +
+            "AND a.endTime > :startTime " +
+            "AND a.status NOT IN ('CANCELLED', 'EXPIRED')")
+    List<Appointment> findOverlappingStartingAfter(
+            @Param("doctorId") Long doctorId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("earliestStart") LocalDateTime earliestStart
+    );
+
+    default boolean existsOverlappingAppointment(
+            Long doctorId,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    ) {
+        return existsOverlappingAppointmentStartingAfter(doctorId, startTime,
+                endTime, startTime.minus(Appointment.MAX_DURATION));
+    }
+
+    /**
+     * Nothing can overlap {@code startTime} that started more than
+     * {@link Appointment#MAX_DURATION} earlier, so {@code earliestStart}
+     * bounds the scan and lets a partitioned table skip older months.
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a " +
+            "WHERE a.doctor.id = :doctorId " +
+            "AND a.startTime > :earliestStart " +
+            "AND ((a.startTime < :endTime " +
+            "AND a.endTime > :startTime)) " +
+            "AND a.status NOT IN ('CANCELLED', 'EXPIRED')")
+    boolean existsOverlappingAppointmentStartingAfter(
             @Param("doctorId") Long doctorId,
-            @Param("startOfDay") LocalDateTime startOfDay,
-            @Param("endOfDay") LocalDateTime endOfDay
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("earliestStart") LocalDateTime earliestStart
     );
 
+    /**
+     * Same check ignoring {@code appointmentId}, for an appointment that
+     * moves to an interval overlapping its current one.
+     */
+    default boolean existsOverlappingAppointmentExcluding(
+            Long doctorId,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            Long appointmentId
+    ) {
+        return existsOverlappingAppointmentStartingAfterExcluding(doctorId,
+                startTime, endTime, startTime.minus(Appointment.MAX_DURATION),
+                appointmentId);
+    }
+
     @Query("SELECT COUNT(a) > 0 FROM Appointment a " +
             "WHERE a.doctor.id = :doctorId " +
+            "AND a.id <> :appointmentId " +
+            "AND a.startTime > :earliestStart " +
             "AND ((a.startTime < :endTime " +
             "AND a.endTime > :startTime)) " +
-            "AND a.status != 'CANCELLED'")
-    boolean existsOverlappingAppointment(
+            "AND a.status NOT IN ('CANCELLED', 'EXPIRED')")
+    boolean existsOverlappingAppointmentStartingAfterExcluding(
             @Param("doctorId") Long doctorId,
             @Param("startTime") LocalDateTime startTime,
-            @Param("endTime") LocalDateTime endTime
+            @Param("endTime") LocalDateTime endTime,
+            @Param("earliestStart") LocalDateTime earliestStart,
+            @Param("appointmentId") Long appointmentId
+    );
+
+    // Row lock held until commit, for status changes that read the
+    // status before saving the whole row
+    @Query(value = "SELECT id FROM appointments WHERE id = :id FOR UPDATE",
+            nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+
+    // The reminder columns are not mapped for writing; a rescheduled
+    // appointment gets a reminder for its new time
+    @Modifying
+    @Query(value = "UPDATE appointments SET reminder_claimed_at = NULL, "
+            + "reminder_sent_at = NULL WHERE id = :id", nativeQuery = true)
+    int clearReminder(@Param("id") Long id);
+
+    interface TimeRange {
+        LocalDateTime getStartTime();
+        LocalDateTime getEndTime();
+    }
+
+    /**
+     * Times of the slot-holding appointments starting in
+     * {@code (from, to)}, so a whole series is checked for overlaps with
+     * one query.
+     */
+    @Query("SELECT a.startTime AS startTime, a.endTime AS endTime " +
+            "FROM Appointment a " +
+            "WHERE a.doctor.id = :doctorId " +
+            "AND a.startTime > :from " +
+            "AND a.startTime < :to " +
+            "AND a.status NOT IN ('CANCELLED', 'EXPIRED')")
+    List<TimeRange> findBlockingTimesStartingBetween(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
     );
 
     List<Appointment> findByDoctorIdAndStatus(Long doctorId, Status status);
-}
\ No newline at end of file
+
+    String EXPORT_SELECT = "SELECT new com.amante.clinicmanagement.dto"
+            + ".response.AppointmentExportRow(a.id, d.id, d.firstName, "
+            + "d.lastName, p.id, p.firstName, p.lastName, pu.email, "
+            + "a.startTime, a.endTime, a.status, a.patientNotes, "
+            + "a.rejectionReason, a.createdAt, a.updatedAt) "
+            + "FROM Appointment a JOIN a.doctor d JOIN a.patient p "
+            + "JOIN p.user pu "
+            + "WHERE a.startTime >= :from AND a.startTime < :to ";
+
+    // Must be consumed inside a transaction so PostgreSQL uses a cursor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "AND d.id = :doctorId ORDER BY a.startTime, a.id")
+    Stream<AppointmentExportRow> streamExportByDoctorId(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "ORDER BY a.startTime, a.id")
+    Stream<AppointmentExportRow> streamExport(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Everything the email templates read, in one query
+    @Query("SELECT a FROM Appointment a "
+            + "JOIN FETCH a.doctor d JOIN FETCH d.user "
+            + "JOIN FETCH a.patient p JOIN FETCH p.user "
+            + "WHERE a.id IN :ids")
+    List<Appointment> findWithParticipantsByIdIn(
+            @Param("ids") Collection<Long> ids
+    );
+
+    interface StatusCount {
+        Status getStatus();
+        long getCount();
+    }
+
+    @Query("SELECT a.status AS status, COUNT(a) AS count "
+            + "FROM Appointment a WHERE a.doctor.id = :doctorId "
+            + "GROUP BY a.status")
+    List<StatusCount> countByDoctorIdGroupByStatus(
+            @Param("doctorId") Long doctorId
+    );
+
+    // The doctor's next appointments with everything AppointmentDto reads
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY,
+            value = "true"))
+    @Query("SELECT a FROM Appointment a "
+            + "JOIN FETCH a.doctor d JOIN FETCH d.user "
+            + "JOIN FETCH a.patient p JOIN FETCH p.user "
+            + "WHERE d.id = :doctorId AND a.startTime >= :from "
+            + "AND a.status IN :statuses "
+            + "ORDER BY a.startTime, a.id")
+    List<Appointment> findUpcomingByDoctorId(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("statuses") Collection<Status> statuses,
+            Pageable pageable
+    );
+
+    @Query("SELECT MIN(a.startTime) FROM Appointment a")
+    LocalDateTime findEarliestStartTime();
+
+    @Query("SELECT MAX(a.startTime) FROM Appointment a")
+    LocalDateTime findLatestStartTime();
+}
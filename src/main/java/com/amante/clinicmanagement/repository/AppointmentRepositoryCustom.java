@@ -0,0 +1,15 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.Appointment;
+
+import java.util.List;
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Inserts {@code appointments} in a single JDBC batch and sets the
+     * generated ids on the passed objects. Rows written this way bypass
+     * the persistence context and the reminder columns stay unset.
+     */
+    void insertAll(List<Appointment> appointments);
+}
@@ -0,0 +1,69 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class AppointmentRepositoryCustomImpl
+        implements AppointmentRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO appointments (patient_id, doctor_id, start_time, "
+                    + "end_time, status, patient_notes, created_at, "
+                    + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT,
+                        new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i)
+                            throws SQLException {
+                        Appointment appointment = appointments.get(i);
+                        ps.setLong(1, appointment.getPatient().getId());
+                        ps.setLong(2, appointment.getDoctor().getId());
+                        ps.setTimestamp(3, Timestamp.valueOf(
+                                appointment.getStartTime()));
+                        ps.setTimestamp(4, Timestamp.valueOf(
+                                appointment.getEndTime()));
+                        ps.setString(5, appointment.getStatus().name());
+                        ps.setString(6, appointment.getPatientNotes());
+                        ps.setTimestamp(7, Timestamp.valueOf(
+                                appointment.getCreatedAt()));
+                        ps.setTimestamp(8, Timestamp.valueOf(
+                                appointment.getUpdatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return appointments.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < appointments.size(); i++) {
+            Number id = (Number) ids.get(i).values().iterator().next();
+            appointments.get(i).setId(id.longValue());
+        }
+    }
+}
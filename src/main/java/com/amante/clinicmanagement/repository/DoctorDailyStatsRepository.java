@@ -0,0 +1,22 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.DoctorDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DoctorDailyStatsRepository
+        extends JpaRepository<DoctorDailyStats, Long>,
+        DoctorDailyStatsRepositoryCustom {
+
+    List<DoctorDailyStats> findByDoctorIdAndStatDateBetweenOrderByStatDate(
+            Long doctorId, LocalDate from, LocalDate to
+    );
+
+    List<DoctorDailyStats> findByStatDateBetweenOrderByDoctorIdAscStatDateAsc(
+            LocalDate from, LocalDate to
+    );
+
+}
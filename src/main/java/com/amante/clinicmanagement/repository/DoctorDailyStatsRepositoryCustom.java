@@ -0,0 +1,21 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.DoctorDailyStats;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface DoctorDailyStatsRepositoryCustom {
+
+    /**
+     * Adds the counters of each delta to the row of its doctor and day in
+     * one JDBC batch, creating missing rows.
+     */
+    void addAll(Collection<DoctorDailyStats> deltas);
+
+    /**
+     * Replaces the rows of {@code [from, to)} with counts aggregated from
+     * {@code appointments}. Returns the number of rows written.
+     */
+    int rebuild(LocalDate from, LocalDate to);
+}
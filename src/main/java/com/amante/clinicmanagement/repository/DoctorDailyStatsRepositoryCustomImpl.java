@@ -0,0 +1,147 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.DoctorDailyStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class DoctorDailyStatsRepositoryCustomImpl
+        implements DoctorDailyStatsRepositoryCustom {
+
+    private static final String COLUMNS = "doctor_id, stat_date, "
+            + "requested_count, pending_count, confirmed_count, "
+            + "completed_count, rejected_count, cancelled_count, "
+            + "expired_count, booked_minutes, updated_at";
+
+    private static final String POSTGRES_ADD =
+            "INSERT INTO doctor_daily_stats (" + COLUMNS + ") "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (doctor_id, stat_date) DO UPDATE SET "
+                    + increments("doctor_daily_stats", "EXCLUDED")
+                    + ", updated_at = EXCLUDED.updated_at";
+
+    // SQL:2003 MERGE for databases without ON CONFLICT (H2 in tests)
+    private static final String MERGE_ADD =
+            "MERGE INTO doctor_daily_stats t USING (VALUES ("
+                    + "CAST(? AS BIGINT), CAST(? AS DATE), "
+                    + "CAST(? AS INTEGER), CAST(? AS INTEGER), "
+                    + "CAST(? AS INTEGER), CAST(? AS INTEGER), "
+                    + "CAST(? AS INTEGER), CAST(? AS INTEGER), "
+                    + "CAST(? AS INTEGER), CAST(? AS INTEGER), "
+                    + "CAST(? AS TIMESTAMP))) AS s(" + COLUMNS + ") "
+                    + "ON t.doctor_id = s.doctor_id "
+                    + "AND t.stat_date = s.stat_date "
+                    + "WHEN MATCHED THEN UPDATE SET "
+                    + increments("t", "s")
+                    + ", updated_at = s.updated_at "
+                    + "WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") "
+                    + "VALUES (s.doctor_id, s.stat_date, s.requested_count, "
+                    + "s.pending_count, s.confirmed_count, s.completed_count, "
+                    + "s.rejected_count, s.cancelled_count, s.expired_count, "
+                    + "s.booked_minutes, s.updated_at)";
+
+    private static final String DELETE_RANGE =
+            "DELETE FROM doctor_daily_stats "
+                    + "WHERE stat_date >= ? AND stat_date < ?";
+
+    private static final String REBUILD_RANGE =
+            "INSERT INTO doctor_daily_stats (" + COLUMNS + ") "
+                    + "SELECT doctor_id, CAST(start_time AS DATE), COUNT(*), "
+                    + countOf("PENDING") + ", " + countOf("CONFIRMED") + ", "
+                    + countOf("COMPLETED") + ", " + countOf("REJECTED") + ", "
+                    + countOf("CANCELLED") + ", " + countOf("EXPIRED") + ", "
+                    + "SUM(CASE WHEN status IN ('CONFIRMED', 'COMPLETED') "
+                    + "THEN FLOOR((EXTRACT(EPOCH FROM end_time) "
+                    + "- EXTRACT(EPOCH FROM start_time)) / 60) ELSE 0 END), ? "
+                    + "FROM appointments "
+                    + "WHERE start_time >= ? AND start_time < ? "
+                    + "GROUP BY doctor_id, CAST(start_time AS DATE)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String addSql;
+
+    @Override
+    public void addAll(Collection<DoctorDailyStats> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(addSql(), deltas, deltas.size(),
+                (ps, delta) -> {
+                    ps.setLong(1, delta.getDoctorId());
+                    ps.setDate(2, Date.valueOf(delta.getStatDate()));
+                    ps.setInt(3, delta.getRequestedCount());
+                    ps.setInt(4, delta.getPendingCount());
+                    ps.setInt(5, delta.getConfirmedCount());
+                    ps.setInt(6, delta.getCompletedCount());
+                    ps.setInt(7, delta.getRejectedCount());
+                    ps.setInt(8, delta.getCancelledCount());
+                    ps.setInt(9, delta.getExpiredCount());
+                    ps.setInt(10, delta.getBookedMinutes());
+                    ps.setTimestamp(11, now);
+                });
+    }
+
+    /**
+     * Must run in a transaction. On PostgreSQL the table is locked
+     * against concurrent increments first, so a transition committing
+     * during the rebuild is either in the aggregated snapshot or applied
+     * on top of it, never both or neither.
+     */
+    @Override
+    public int rebuild(LocalDate from, LocalDate to) {
+        if (isPostgres()) {
+            jdbcTemplate.execute("LOCK TABLE doctor_daily_stats "
+                    + "IN SHARE ROW EXCLUSIVE MODE");
+        }
+        jdbcTemplate.update(DELETE_RANGE, Date.valueOf(from),
+                Date.valueOf(to));
+        return jdbcTemplate.update(REBUILD_RANGE,
+                Timestamp.valueOf(LocalDateTime.now()),
+                Timestamp.valueOf(from.atStartOfDay()),
+                Timestamp.valueOf(to.atStartOfDay()));
+    }
+
+    private String addSql() {
+        String sql = addSql;
+        if (sql == null) {
+            sql = isPostgres() ? POSTGRES_ADD : MERGE_ADD;
+            addSql = sql;
+        }
+        return sql;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection ->
+                        connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    private static String increments(String target, String source) {
+        StringBuilder sql = new StringBuilder();
+        for (String column : new String[]{"requested_count", "pending_count",
+                "confirmed_count", "completed_count", "rejected_count",
+                "cancelled_count", "expired_count", "booked_minutes"}) {
+            if (sql.length() > 0) {
+                sql.append(", ");
+            }
+            sql.append(column).append(" = ").append(target).append('.')
+                    .append(column).append(" + ").append(source).append('.')
+                    .append(column);
+        }
+        return sql.toString();
+    }
+
+    private static String countOf(String status) {
+        return "SUM(CASE WHEN status = '" + status + "' THEN 1 ELSE 0 END)";
+    }
+}
@@ -13,6 +13,17 @@ import java.util.Optional;
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByUserId(Long userId);
 
+    @Query("SELECT d.id FROM Doctor d")
+    List<Long> findAllIds();
+
+    /**
+     * Locks the doctor's row until the transaction ends, serializing
+     * bookings for one doctor when no slot inventory claims the times.
+     */
+    @Query(value = "SELECT id FROM doctors WHERE id = :id FOR UPDATE",
+            nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+
     List<Doctor> findBySpecializationContainingIgnoreCase(
             String specialization);
 
@@ -0,0 +1,77 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.DoctorSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DoctorSlotRepository extends JpaRepository<DoctorSlot, Long> {
+
+    @Query("SELECT s FROM DoctorSlot s " +
+            "WHERE s.doctor.id = :doctorId " +
+            "AND s.startTime >= :from " +
+            "AND s.startTime < :to " +
+            "ORDER BY s.startTime")
+    List<DoctorSlot> findByDoctorIdAndRange(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    Optional<DoctorSlot> findByDoctorIdAndStartTime(
+            Long doctorId, LocalDateTime startTime);
+
+    // (doctor_id, start_time) is unique, so this touches at most one row
+    @Modifying
+    @Query("UPDATE DoctorSlot s " +
+            "SET s.status = 'BOOKED', s.appointmentId = :appointmentId " +
+            "WHERE s.doctor.id = :doctorId " +
+            "AND s.startTime = :startTime " +
+            "AND s.endTime = :endTime " +
+            "AND s.status = 'OPEN'")
+    int claim(
+            @Param("doctorId") Long doctorId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("appointmentId") Long appointmentId
+    );
+
+    @Modifying
+    @Query("UPDATE DoctorSlot s " +
+            "SET s.status = 'OPEN', s.appointmentId = NULL " +
+            "WHERE s.appointmentId = :appointmentId")
+    int releaseByAppointmentId(@Param("appointmentId") Long appointmentId);
+
+    // Regeneration reads slots without locking them; the status check
+    // keeps it from overwriting or deleting a slot claimed since
+    @Modifying
+    @Query("UPDATE DoctorSlot s " +
+            "SET s.endTime = :endTime, s.status = :status, " +
+            "s.reason = :reason, s.appointmentId = :appointmentId " +
+            "WHERE s.id = :id AND s.status <> 'BOOKED'")
+    int updateUnbooked(
+            @Param("id") Long id,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("status") DoctorSlot.Status status,
+            @Param("reason") String reason,
+            @Param("appointmentId") Long appointmentId
+    );
+
+    @Modifying
+    @Query("DELETE FROM DoctorSlot s " +
+            "WHERE s.id IN :ids AND s.status <> 'BOOKED'")
+    int deleteUnbooked(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM DoctorSlot s " +
+            "WHERE s.startTime < :before AND s.status <> 'BOOKED'")
+    int deleteUnbookedBefore(@Param("before") LocalDateTime before);
+}
@@ -9,7 +9,8 @@ import java.util.Optional;
 
 @Repository
 public interface DoctorWeeklyScheduleRepository
-        extends JpaRepository<DoctorWeeklySchedule, Long> {
+        extends JpaRepository<DoctorWeeklySchedule, Long>,
+        DoctorWeeklyScheduleRepositoryCustom {
 
     List<DoctorWeeklySchedule> findByDoctorId(Long doctorId);
 
@@ -0,0 +1,22 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+
+import java.util.List;
+
+public interface DoctorWeeklyScheduleRepositoryCustom {
+
+    /**
+     * Inserts or updates {@code schedules} of one doctor in a single JDBC
+     * batch, keyed by (doctor_id, day_of_week). Rows written this way
+     * bypass the persistence context; ids of newly inserted days are set
+     * on the passed objects.
+     */
+    void upsertAll(Long doctorId, List<DoctorWeeklySchedule> schedules);
+
+    /**
+     * Same upsert for rows of any number of doctors, taken from each
+     * row's doctor. Ids are not read back.
+     */
+    void upsertBatch(List<DoctorWeeklySchedule> schedules);
+}
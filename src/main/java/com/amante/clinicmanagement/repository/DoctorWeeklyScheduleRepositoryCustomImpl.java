@@ -0,0 +1,120 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@RequiredArgsConstructor
+public class DoctorWeeklyScheduleRepositoryCustomImpl
+        implements DoctorWeeklyScheduleRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO doctor_weekly_schedule "
+                    + "(doctor_id, day_of_week, is_available, start_time, "
+                    + "end_time, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (doctor_id, day_of_week) DO UPDATE SET "
+                    + "is_available = EXCLUDED.is_available, "
+                    + "start_time = EXCLUDED.start_time, "
+                    + "end_time = EXCLUDED.end_time, "
+                    + "updated_at = EXCLUDED.updated_at";
+
+    // SQL:2003 MERGE for databases without ON CONFLICT (H2 in tests)
+    private static final String MERGE_UPSERT =
+            "MERGE INTO doctor_weekly_schedule t USING (VALUES ("
+                    + "CAST(? AS BIGINT), CAST(? AS VARCHAR(16)), "
+                    + "CAST(? AS BOOLEAN), CAST(? AS TIME), CAST(? AS TIME), "
+                    + "CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))) "
+                    + "AS s(doctor_id, day_of_week, is_available, start_time, "
+                    + "end_time, created_at, updated_at) "
+                    + "ON t.doctor_id = s.doctor_id "
+                    + "AND t.day_of_week = s.day_of_week "
+                    + "WHEN MATCHED THEN UPDATE SET "
+                    + "is_available = s.is_available, "
+                    + "start_time = s.start_time, "
+                    + "end_time = s.end_time, "
+                    + "updated_at = s.updated_at "
+                    + "WHEN NOT MATCHED THEN INSERT "
+                    + "(doctor_id, day_of_week, is_available, start_time, "
+                    + "end_time, created_at, updated_at) "
+                    + "VALUES (s.doctor_id, s.day_of_week, s.is_available, "
+                    + "s.start_time, s.end_time, s.created_at, s.updated_at)";
+
+    private static final String SELECT_IDS =
+            "SELECT day_of_week, id FROM doctor_weekly_schedule "
+                    + "WHERE doctor_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String upsertSql;
+
+    @Override
+    public void upsertAll(Long doctorId,
+                          List<DoctorWeeklySchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return;
+        }
+
+        batchUpsert(schedules, schedule -> doctorId);
+
+        if (schedules.stream().allMatch(s -> s.getId() != null)) {
+            return;
+        }
+        Map<DayOfWeek, Long> ids = new EnumMap<>(DayOfWeek.class);
+        jdbcTemplate.query(SELECT_IDS,
+                rs -> {
+                    ids.put(DayOfWeek.valueOf(rs.getString(1)), rs.getLong(2));
+                },
+                doctorId);
+        for (DoctorWeeklySchedule schedule : schedules) {
+            if (schedule.getId() == null) {
+                schedule.setId(ids.get(schedule.getDayOfWeek()));
+            }
+        }
+    }
+
+    @Override
+    public void upsertBatch(List<DoctorWeeklySchedule> schedules) {
+        if (!schedules.isEmpty()) {
+            batchUpsert(schedules, schedule -> schedule.getDoctor().getId());
+        }
+    }
+
+    private void batchUpsert(List<DoctorWeeklySchedule> schedules,
+                             Function<DoctorWeeklySchedule, Long> doctorId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(upsertSql(), schedules, schedules.size(),
+                (ps, schedule) -> {
+                    ps.setLong(1, doctorId.apply(schedule));
+                    ps.setString(2, schedule.getDayOfWeek().name());
+                    ps.setBoolean(3, schedule.getIsAvailable());
+                    ps.setObject(4, schedule.getStartTime(), Types.TIME);
+                    ps.setObject(5, schedule.getEndTime(), Types.TIME);
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                });
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection ->
+                            connection.getMetaData().getDatabaseProductName());
+            sql = "PostgreSQL".equalsIgnoreCase(product)
+                    ? POSTGRES_UPSERT : MERGE_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+}
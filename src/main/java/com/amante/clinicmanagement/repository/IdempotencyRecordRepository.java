@@ -0,0 +1,81 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository
+        extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims {@code id} for a request in progress. A plain insert, so a
+     * concurrent claim of the same key fails on the primary key instead
+     * of being merged.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys "
+            + "(id, request_hash, status, locked_until, created_at, "
+            + "expires_at) "
+            + "VALUES (:id, :requestHash, 'IN_PROGRESS', :lockedUntil, "
+            + ":now, :expiresAt)",
+            nativeQuery = true)
+    int claim(
+            @Param("id") String id,
+            @Param("requestHash") String requestHash,
+            @Param("lockedUntil") LocalDateTime lockedUntil,
+            @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    /**
+     * Takes over a claim whose lease ran out without the request
+     * completing, for a retry of the same request.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.lockedUntil = :lockedUntil "
+            + "WHERE r.id = :id AND r.status = 'IN_PROGRESS' "
+            + "AND r.requestHash = :requestHash AND r.lockedUntil <= :now")
+    int takeOver(
+            @Param("id") String id,
+            @Param("requestHash") String requestHash,
+            @Param("lockedUntil") LocalDateTime lockedUntil,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', "
+            + "r.lockedUntil = NULL, "
+            + "r.responseStatus = :responseStatus, "
+            + "r.responseContentType = :contentType, "
+            + "r.responseBody = :body "
+            + "WHERE r.id = :id AND r.status = 'IN_PROGRESS'")
+    int complete(
+            @Param("id") String id,
+            @Param("responseStatus") int responseStatus,
+            @Param("contentType") String contentType,
+            @Param("body") String body
+    );
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r "
+            + "WHERE r.id = :id AND r.status = 'IN_PROGRESS'")
+    int deleteInProgress(@Param("id") String id);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r "
+            + "WHERE r.id = :id AND r.expiresAt <= :now")
+    int deleteIfExpired(
+            @Param("id") String id,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
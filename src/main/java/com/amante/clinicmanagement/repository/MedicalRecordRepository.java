@@ -1,13 +1,82 @@
 package com.amante.clinicmanagement.repository;
 
+import com.amante.clinicmanagement.dto.response.MedicalRecordDto;
 import com.amante.clinicmanagement.entity.MedicalRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MedicalRecordRepository
         extends JpaRepository<MedicalRecord, Long> {
 
-    Optional<MedicalRecord> findByAppointmentId(Long appointmentId);
-}
\ No newline at end of file
+    String DTO_SELECT = "SELECT new com.amante.clinicmanagement.dto"
+            + ".response.MedicalRecordDto(m.id, a.id, a.startTime, d.id, "
+            + "CONCAT(d.firstName, ' ', d.lastName), d.specialization, "
+            + "p.id, CONCAT(p.firstName, ' ', p.lastName), "
+            + "m.diagnosis, m.prescription, m.createdAt) ";
+
+    @Query(DTO_SELECT
+            + "FROM MedicalRecord m JOIN m.appointment a "
+            + "JOIN a.doctor d JOIN a.patient p "
+            + "WHERE a.id = :appointmentId")
+    Optional<MedicalRecordDto> findDtoByAppointmentId(
+            @Param("appointmentId") Long appointmentId
+    );
+
+    /**
+     * Newest records of a patient; {@code pageable} only limits the rows.
+     */
+    @Query(DTO_SELECT
+            + "FROM MedicalRecord m JOIN m.appointment a "
+            + "JOIN a.doctor d JOIN a.patient p "
+            + "WHERE m.patientId = :patientId "
+            + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MedicalRecordDto> findHistoryByPatientId(
+            @Param("patientId") Long patientId,
+            Pageable pageable
+    );
+
+    /**
+     * Records of a patient strictly older than the
+     * ({@code createdAt}, {@code id}) keyset cursor.
+     */
+    @Query(DTO_SELECT
+            + "FROM MedicalRecord m JOIN m.appointment a "
+            + "JOIN a.doctor d JOIN a.patient p "
+            + "WHERE m.patientId = :patientId "
+            + "AND (m.createdAt < :createdAt "
+            + "OR (m.createdAt = :createdAt AND m.id < :id)) "
+            + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MedicalRecordDto> findHistoryByPatientIdBefore(
+            @Param("patientId") Long patientId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query(DTO_SELECT
+            + "FROM MedicalRecord m JOIN m.appointment a "
+            + "JOIN a.doctor d JOIN a.patient p "
+            + "WHERE m.id IN :ids")
+    List<MedicalRecordDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    // id, doctor id, diagnosis and prescription of every record
+    @Query("SELECT m.id, a.doctor.id, m.diagnosis, m.prescription "
+            + "FROM MedicalRecord m JOIN m.appointment a")
+    List<Object[]> findSearchDocuments();
+
+    @Modifying
+    @Query("UPDATE MedicalRecord m SET m.patientId = "
+            + "(SELECT a.patient.id FROM Appointment a "
+            + "WHERE a = m.appointment) "
+            + "WHERE m.patientId IS NULL")
+    int backfillPatients();
+}
@@ -0,0 +1,142 @@
+package com.amante.clinicmanagement.repository;
+
+import com.amante.clinicmanagement.entity.WaitlistEntry;
+import com.amante.clinicmanagement.entity.WaitlistEntry.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository
+        extends JpaRepository<WaitlistEntry, Long> {
+
+    String ACTIVE_HOLD = "SELECT COUNT(w) > 0 FROM WaitlistEntry w "
+            + "WHERE w.doctor.id = :doctorId AND w.status = 'OFFERED' "
+            + "AND w.holdExpiresAt > :now "
+            + "AND w.offeredStartTime < :endTime "
+            + "AND w.offeredEndTime > :startTime ";
+
+    @Query(ACTIVE_HOLD)
+    boolean existsActiveHold(
+            @Param("doctorId") Long doctorId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Whether {@code [startTime, endTime)} is held for a patient other
+     * than {@code patientId}.
+     */
+    @Query(ACTIVE_HOLD + "AND w.patient.id <> :patientId")
+    boolean existsActiveHoldForOthers(
+            @Param("doctorId") Long doctorId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now,
+            @Param("patientId") Long patientId
+    );
+
+    // Holds of other patients overlapping [from, to), for series bookings
+    @Query("SELECT w.offeredStartTime AS startTime, "
+            + "w.offeredEndTime AS endTime FROM WaitlistEntry w "
+            + "WHERE w.doctor.id = :doctorId AND w.status = 'OFFERED' "
+            + "AND w.holdExpiresAt > :now "
+            + "AND w.offeredStartTime < :to "
+            + "AND w.offeredEndTime > :from "
+            + "AND w.patient.id <> :patientId")
+    List<AppointmentRepository.TimeRange> findActiveHoldTimesForOthers(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("now") LocalDateTime now,
+            @Param("patientId") Long patientId
+    );
+
+    /**
+     * Offers the interval to a WAITING entry; returns 0 when the entry
+     * was cancelled or already offered something else meanwhile.
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'OFFERED', "
+            + "w.offeredStartTime = :startTime, "
+            + "w.offeredEndTime = :endTime, "
+            + "w.holdExpiresAt = :holdExpiresAt, w.updatedAt = :now "
+            + "WHERE w.id = :id AND w.status = 'WAITING'")
+    int offer(
+            @Param("id") Long id,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("holdExpiresAt") LocalDateTime holdExpiresAt,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED', "
+            + "w.updatedAt = :now "
+            + "WHERE w.status = 'WAITING' AND w.toDate < :today")
+    int expireWaitingBefore(
+            @Param("today") LocalDate today,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Moves the entry from {@code from} to {@code to}; returns 0 when a
+     * concurrent change got there first.
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :to, w.updatedAt = :now "
+            + "WHERE w.id = :id AND w.status = :from")
+    int transition(
+            @Param("id") Long id,
+            @Param("from") Status from,
+            @Param("to") Status to,
+            @Param("now") LocalDateTime now
+    );
+
+    @Query("SELECT w FROM WaitlistEntry w "
+            + "JOIN FETCH w.doctor d JOIN FETCH d.user "
+            + "JOIN FETCH w.patient p JOIN FETCH p.user "
+            + "WHERE w.id = :id")
+    Optional<WaitlistEntry> findWithPartiesById(@Param("id") Long id);
+
+    List<WaitlistEntry> findByPatientIdOrderByCreatedAtDesc(Long patientId);
+
+    List<WaitlistEntry> findByStatusAndToDateGreaterThanEqual(
+            Status status, LocalDate toDate);
+
+    // WAITING entries covering the day, earliest request first
+    @Query("SELECT w FROM WaitlistEntry w "
+            + "WHERE w.doctor.id = :doctorId AND w.status = 'WAITING' "
+            + "AND w.fromDate <= :date AND w.toDate >= :date "
+            + "ORDER BY w.createdAt, w.id")
+    List<WaitlistEntry> findWaiting(
+            @Param("doctorId") Long doctorId,
+            @Param("date") LocalDate date,
+            Pageable pageable
+    );
+
+    List<WaitlistEntry> findByStatusAndHoldExpiresAtBefore(
+            Status status, LocalDateTime before);
+
+    @Query("SELECT COUNT(w) > 0 FROM WaitlistEntry w "
+            + "WHERE w.patient.id = :patientId AND w.doctor.id = :doctorId "
+            + "AND w.status IN :statuses "
+            + "AND w.fromDate <= :toDate AND w.toDate >= :fromDate")
+    boolean existsOverlappingEntry(
+            @Param("patientId") Long patientId,
+            @Param("doctorId") Long doctorId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("statuses") Collection<Status> statuses
+    );
+}
@@ -0,0 +1,34 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.service.AppointmentExpiryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically expires PENDING appointments that were never answered.
+ * Every node may run it; chunks are locked so rows are expired once.
+ */
+@Component
+@ConditionalOnProperty(name = "appointment-expiry.enabled",
+        havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentExpiryJob {
+
+    private final AppointmentExpiryService appointmentExpiryService;
+
+    @Scheduled(fixedDelayString = "${appointment-expiry.poll-delay-ms:300000}")
+    public void expireStalePending() {
+        try {
+            int expired = appointmentExpiryService.expireStalePending();
+            if (expired > 0) {
+                log.info("Expired {} stale pending appointments", expired);
+            }
+        } catch (RuntimeException e) {
+            log.error("Appointment expiry run failed", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.service.AppointmentExpiryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emails patients whose appointment requests expired. Every node may
+ * run it; batches are claimed so each notice is sent once.
+ */
+@Component
+@ConditionalOnProperty(name = "appointment-expiry.enabled",
+        havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentExpiryNoticeJob {
+
+    private final AppointmentExpiryService appointmentExpiryService;
+
+    @Scheduled(fixedDelayString =
+            "${appointment-expiry.notice.poll-delay-ms:60000}")
+    public void sendExpiryNotices() {
+        try {
+            int sent = appointmentExpiryService.sendExpiryNotices();
+            if (sent > 0) {
+                log.info("Sent {} appointment expiry notices", sent);
+            }
+        } catch (RuntimeException e) {
+            log.error("Appointment expiry notice run failed", e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.amante.clinicmanagement.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the monthly partitions of an appointments table converted
+ * with {@code db/partitioning/appointments-partitioned.sql}: creates
+ * partitions {@code appointment-partitions.months-ahead} months ahead
+ * and, when {@code retention-months} is set, detaches older ones into
+ * the {@code appointments_archive} schema.
+ */
+@Component
+@ConditionalOnProperty(name = "appointment-partitions.enabled",
+        havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentPartitionManager {
+
+    static final String ARCHIVE_SCHEMA = "appointments_archive";
+    private static final String PREFIX = "appointments_p";
+    private static final DateTimeFormatter SUFFIX =
+            DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${appointment-partitions.months-ahead:12}")
+    private int monthsAhead;
+
+    @Value("${appointment-partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${appointment-partitions.cron:0 30 1 * * *}")
+    public void maintain() {
+        try {
+            if (!isPartitioned()) {
+                log.warn("appointments is not partitioned; run "
+                        + "db/partitioning/appointments-partitioned.sql "
+                        + "or disable appointment-partitions");
+                return;
+            }
+            YearMonth current = YearMonth.now();
+            List<String> existing = listPartitions();
+            for (YearMonth month : missingMonths(existing, current,
+                    monthsAhead)) {
+                createPartition(month);
+            }
+            if (retentionMonths > 0) {
+                for (String partition : expiredPartitions(existing,
+                        current.minusMonths(retentionMonths))) {
+                    archivePartition(partition);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Appointment partition maintenance failed", e);
+        }
+    }
+
+    boolean isPartitioned() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection ->
+                        connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table "
+                        + "WHERE partrelid = to_regclass('appointments'))",
+                Boolean.class));
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'appointments'::regclass",
+                String.class);
+    }
+
+    /**
+     * Rows already in the default partition for that month are moved
+     * into the new partition in the same transaction; attaching a range
+     * that overlaps rows left in the default partition would fail.
+     */
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        String range = "start_time >= '" + from + "' AND start_time < '"
+                + to + "'";
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    jdbcTemplate.execute(
+                            "LOCK TABLE appointments_default IN EXCLUSIVE MODE");
+                    jdbcTemplate.execute("CREATE TABLE " + name
+                            + " (LIKE appointments INCLUDING DEFAULTS "
+                            + "INCLUDING CONSTRAINTS)");
+                    jdbcTemplate.update("INSERT INTO " + name
+                            + " SELECT * FROM appointments_default WHERE "
+                            + range);
+                    jdbcTemplate.update(
+                            "DELETE FROM appointments_default WHERE " + range);
+                    jdbcTemplate.execute("ALTER TABLE appointments "
+                            + "ATTACH PARTITION " + name + " FOR VALUES FROM ('"
+                            + from + "') TO ('" + to + "')");
+                });
+        log.info("Created appointment partition {}", name);
+    }
+
+    private void archivePartition(String name) {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    jdbcTemplate.execute(
+                            "CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+                    jdbcTemplate.execute(
+                            "ALTER TABLE appointments DETACH PARTITION " + name);
+                    jdbcTemplate.execute("ALTER TABLE " + name
+                            + " SET SCHEMA " + ARCHIVE_SCHEMA);
+                });
+        log.info("Archived appointment partition {} to {}", name,
+                ARCHIVE_SCHEMA);
+    }
+
+    static String partitionName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    static List<YearMonth> missingMonths(Collection<String> existing,
+                                         YearMonth current, int monthsAhead) {
+        Set<String> names = new HashSet<>(existing);
+        List<YearMonth> missing = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!names.contains(partitionName(month))) {
+                missing.add(month);
+            }
+        }
+        return missing;
+    }
+
+    // Monthly partitions that end on or before the cutoff month starts
+    static List<String> expiredPartitions(Collection<String> existing,
+                                          YearMonth cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (String name : existing) {
+            YearMonth month = parseMonth(name);
+            if (month != null && month.isBefore(cutoff)) {
+                expired.add(name);
+            }
+        }
+        expired.sort(null);
+        return expired;
+    }
+
+    private static YearMonth parseMonth(String name) {
+        if (!name.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.service.AppointmentReminderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls for due appointment reminders. Every node may run it; batches
+ * are claimed so each reminder is sent once.
+ */
+@Component
+@ConditionalOnProperty(name = "reminders.enabled", havingValue = "true",
+        matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentReminderJob {
+
+    private final AppointmentReminderService appointmentReminderService;
+
+    @Scheduled(fixedDelayString = "${reminders.poll-delay-ms:60000}")
+    public void sendDueReminders() {
+        try {
+            int sent = appointmentReminderService.sendDueReminders();
+            if (sent > 0) {
+                log.info("Sent {} appointment reminders", sent);
+            }
+        } catch (RuntimeException e) {
+            log.error("Appointment reminder run failed", e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.amante.clinicmanagement.scheduling;
+
+import java.util.Arrays;
+
+import static com.amante.clinicmanagement.scheduling.MinuteIntervals.MINUTES_PER_DAY;
+
+/**
+ * Minute-resolution occupancy of one doctor-day: one bit per minute for
+ * time blocked by breaks or a day off, and one bit per minute for booked
+ * appointments. Interval checks are word-level ANDs over the two bitmaps.
+ *
+ * <p>Instances are immutable; {@link #withBooked} and
+ * {@link #withoutBooked} return updated copies so a cached day can be
+ * read without locking while bookings are applied to it.
+ */
+public final class DoctorDayOccupancy {
+
+    public static final String DAY_OFF = "DAY_OFF";
+
+    private static final int WORDS = (MINUTES_PER_DAY + 63) >>> 6;
+
+    private final long[] blocked;
+    private final long[] booked;
+    private final MinuteIntervals breaks;
+    private final boolean dayOff;
+
+    private DoctorDayOccupancy(long[] blocked, long[] booked,
+                               MinuteIntervals breaks, boolean dayOff) {
+        this.blocked = blocked;
+        this.booked = booked;
+        this.breaks = breaks;
+        this.dayOff = dayOff;
+    }
+
+    public static DoctorDayOccupancy of(MinuteIntervals breaks,
+                                        MinuteIntervals booked) {
+        long[] blockedBits = new long[WORDS];
+        for (int i = 0; i < breaks.size(); i++) {
+            setRange(blockedBits, breaks.start(i), breaks.end(i));
+        }
+        long[] bookedBits = new long[WORDS];
+        for (int i = 0; i < booked.size(); i++) {
+            setRange(bookedBits, booked.start(i), booked.end(i));
+        }
+        return new DoctorDayOccupancy(blockedBits, bookedBits, breaks, false);
+    }
+
+    public static DoctorDayOccupancy dayOff() {
+        long[] blockedBits = new long[WORDS];
+        setRange(blockedBits, 0, MINUTES_PER_DAY);
+        return new DoctorDayOccupancy(blockedBits, new long[WORDS],
+                MinuteIntervals.empty(), true);
+    }
+
+    public boolean isDayOff() {
+        return dayOff;
+    }
+
+    /**
+     * Whether any minute of {@code [from, to)} falls in a break or day off.
+     */
+    public boolean isBlocked(int from, int to) {
+        return anySet(blocked, from, to);
+    }
+
+    /**
+     * Whether any minute of {@code [from, to)} is booked.
+     */
+    public boolean isBooked(int from, int to) {
+        return anySet(booked, from, to);
+    }
+
+    public boolean isFree(int from, int to) {
+        return !isBlocked(from, to) && !isBooked(from, to);
+    }
+
+    public DoctorDayOccupancy withBooked(int from, int to) {
+        long[] copy = Arrays.copyOf(booked, WORDS);
+        setRange(copy, from, to);
+        return new DoctorDayOccupancy(blocked, copy, breaks, dayOff);
+    }
+
+    public DoctorDayOccupancy withoutBooked(int from, int to) {
+        long[] copy = Arrays.copyOf(booked, WORDS);
+        clearRange(copy, from, to);
+        return new DoctorDayOccupancy(blocked, copy, breaks, dayOff);
+    }
+
+    /**
+     * Booked check used for slot listing: a slot is also taken when an
+     * appointment ends right at its start or starts right at its end.
+     */
+    boolean isBookedAround(int from, int to) {
+        return anySet(booked, from - 1, to + 1);
+    }
+
+    /**
+     * Label of the first break that overlaps {@code [from, to)}; only
+     * meaningful when {@link #isBlocked} is true.
+     */
+    String blockReason(int from, int to) {
+        for (int i = 0; i < breaks.size(); i++) {
+            if (breaks.start(i) < to && breaks.end(i) > from) {
+                return breaks.label(i);
+            }
+        }
+        return DAY_OFF;
+    }
+
+    private static boolean anySet(long[] bits, int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, MINUTES_PER_DAY);
+        if (from >= to) {
+            return false;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            return (bits[first] & firstMask & lastMask) != 0;
+        }
+        if ((bits[first] & firstMask) != 0) {
+            return true;
+        }
+        for (int i = first + 1; i < last; i++) {
+            if (bits[i] != 0) {
+                return true;
+            }
+        }
+        return (bits[last] & lastMask) != 0;
+    }
+
+    private static void setRange(long[] bits, int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, MINUTES_PER_DAY);
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            bits[first] |= firstMask & lastMask;
+            return;
+        }
+        bits[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            bits[i] = -1L;
+        }
+        bits[last] |= lastMask;
+    }
+
+    private static void clearRange(long[] bits, int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, MINUTES_PER_DAY);
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            bits[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        bits[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) {
+            bits[i] = 0L;
+        }
+        bits[last] &= ~lastMask;
+    }
+}
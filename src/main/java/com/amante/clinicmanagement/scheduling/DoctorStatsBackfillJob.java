@@ -0,0 +1,34 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.service.DoctorStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds {@code doctor_daily_stats} from the whole appointment history
+ * at startup. Enable it for the first deployment of the statistics (or
+ * on one node after the table was lost); transitions keep the rows up to
+ * date from then on.
+ */
+@Component
+@ConditionalOnProperty(name = "doctor-stats.backfill.on-startup",
+        havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorStatsBackfillJob {
+
+    private final DoctorStatsService doctorStatsService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            doctorStatsService.backfill(null, null);
+        } catch (RuntimeException e) {
+            log.error("Doctor statistics backfill failed", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes idempotency keys past their TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.cleanup.enabled",
+        havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyCleanupJob {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup.poll-delay-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            int deleted = idempotencyService.deleteExpired();
+            if (deleted > 0) {
+                log.info("Deleted {} expired idempotency keys", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Idempotency key cleanup failed", e);
+        }
+    }
+}
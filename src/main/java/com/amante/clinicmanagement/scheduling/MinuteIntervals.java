@@ -0,0 +1,156 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Intervals expressed as minute-of-day offsets, sorted by start minute.
+ * Used as the primitive input of {@link SlotCalculator}.
+ */
+public final class MinuteIntervals {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final MinuteIntervals EMPTY =
+            new MinuteIntervals(new int[0], new int[0], null);
+
+    private static final int FIELD_BITS = 21;
+    private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+    // Appointments are clamped just outside the day so that a booking
+    // ending exactly at midnight still touches the last slot.
+    private static final int MIN_MINUTE = -1;
+    private static final int MAX_MINUTE = MINUTES_PER_DAY + 1;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final String[] labels;
+
+    private MinuteIntervals(int[] starts, int[] ends, String[] labels) {
+        this.starts = starts;
+        this.ends = ends;
+        this.labels = labels;
+    }
+
+    public static MinuteIntervals empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds intervals from raw minute arrays. The arrays are sorted in
+     * place by start minute; labels may be {@code null}.
+     */
+    public static MinuteIntervals of(int[] starts, int[] ends,
+                                     String[] labels) {
+        int size = starts.length;
+        if (size == 0) {
+            return EMPTY;
+        }
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = pack(starts[i] - MIN_MINUTE, ends[i] - MIN_MINUTE, i);
+        }
+        Arrays.sort(keys);
+
+        int[] sortedStarts = new int[size];
+        int[] sortedEnds = new int[size];
+        String[] sortedLabels = labels == null ? null : new String[size];
+        for (int i = 0; i < size; i++) {
+            long key = keys[i];
+            sortedStarts[i] = (int) (key >>> (2 * FIELD_BITS)) + MIN_MINUTE;
+            sortedEnds[i] = (int) ((key >>> FIELD_BITS) & FIELD_MASK)
+                    + MIN_MINUTE;
+            if (sortedLabels != null) {
+                sortedLabels[i] = labels[(int) (key & FIELD_MASK)];
+            }
+        }
+        return new MinuteIntervals(sortedStarts, sortedEnds, sortedLabels);
+    }
+
+    /**
+     * Break intervals labelled with the upper-cased break name, which is
+     * what the slot listing reports as the unavailability reason.
+     */
+    public static MinuteIntervals ofBreaks(List<DoctorBreak> breaks) {
+        int size = breaks.size();
+        if (size == 0) {
+            return EMPTY;
+        }
+        int[] starts = new int[size];
+        int[] ends = new int[size];
+        String[] labels = new String[size];
+        for (int i = 0; i < size; i++) {
+            DoctorBreak breakTime = breaks.get(i);
+            starts[i] = minuteOfDay(breakTime.getStartTime());
+            ends[i] = minuteOfDay(breakTime.getEndTime());
+            labels[i] = breakTime.getBreakName().toUpperCase(Locale.ROOT);
+        }
+        return of(starts, ends, labels);
+    }
+
+    /**
+     * Booked intervals of {@code appointments} relative to {@code date}.
+     * Starts are rounded down and ends up to whole minutes.
+     */
+    public static MinuteIntervals ofAppointments(
+            List<Appointment> appointments, LocalDate date) {
+        int size = appointments.size();
+        if (size == 0) {
+            return EMPTY;
+        }
+        int[] starts = new int[size];
+        int[] ends = new int[size];
+        for (int i = 0; i < size; i++) {
+            Appointment appointment = appointments.get(i);
+            starts[i] = minuteOf(appointment.getStartTime(), date, false);
+            ends[i] = minuteOf(appointment.getEndTime(), date, true);
+        }
+        return of(starts, ends, null);
+    }
+
+    public static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public int start(int index) {
+        return starts[index];
+    }
+
+    public int end(int index) {
+        return ends[index];
+    }
+
+    public String label(int index) {
+        return labels == null ? null : labels[index];
+    }
+
+    static int minuteOf(LocalDateTime dateTime, LocalDate date,
+                        boolean roundUp) {
+        long dayOffset = dateTime.toLocalDate().toEpochDay()
+                - date.toEpochDay();
+        long minute = dayOffset * MINUTES_PER_DAY
+                + minuteOfDay(dateTime.toLocalTime());
+        if (roundUp && (dateTime.getSecond() != 0
+                || dateTime.getNano() != 0)) {
+            minute++;
+        }
+        return (int) Math.max(MIN_MINUTE, Math.min(MAX_MINUTE, minute));
+    }
+
+    private static long pack(int start, int end, int index) {
+        return ((long) start << (2 * FIELD_BITS))
+                | ((long) end << FIELD_BITS)
+                | index;
+    }
+}
@@ -0,0 +1,175 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.event.DoctorScheduleChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded LRU of {@link DoctorDayOccupancy} bitmaps keyed by doctor and
+ * date. Callers rebuild a missing day from the database and
+ * {@link #put} it back; committed bookings and cancellations are applied
+ * to cached days in place, and schedule changes evict the doctor.
+ *
+ * <p>Entries also expire after a TTL so that changes made by other
+ * application instances are picked up eventually. The database remains
+ * the authority for booking conflicts.
+ */
+@Component
+@Slf4j
+public class OccupancyIndex {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    // Bumped on every change so a rebuild that raced with one is dropped.
+    private long version;
+
+    public OccupancyIndex(
+            @Value("${occupancy.cache.max-entries:20000}") int maxEntries,
+            @Value("${occupancy.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > OccupancyIndex.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cached occupancy of the doctor-day, or {@code null} on a miss.
+     */
+    public synchronized DoctorDayOccupancy get(Long doctorId,
+                                               LocalDate date) {
+        Key key = new Key(doctorId, date);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt >= ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.occupancy;
+    }
+
+    /**
+     * Version to pass to {@link #put}; take it before reading the
+     * database.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Caches a rebuilt day unless something changed since
+     * {@code readVersion} was taken.
+     */
+    public synchronized void put(Long doctorId, LocalDate date,
+                                 DoctorDayOccupancy occupancy,
+                                 long readVersion) {
+        if (maxEntries <= 0 || readVersion != version) {
+            return;
+        }
+        entries.put(new Key(doctorId, date),
+                new Entry(occupancy, System.nanoTime()));
+    }
+
+    /**
+     * Whether a cached day already has a booking overlapping
+     * {@code [start, end)}. Days that are not cached report free.
+     */
+    public boolean isBooked(Long doctorId, LocalDateTime start,
+                            LocalDateTime end) {
+        for (LocalDate date = start.toLocalDate();
+             !date.isAfter(end.toLocalDate());
+             date = date.plusDays(1)) {
+            DoctorDayOccupancy occupancy = get(doctorId, date);
+            if (occupancy != null && occupancy.isBooked(
+                    MinuteIntervals.minuteOf(start, date, false),
+                    MinuteIntervals.minuteOf(end, date, true))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void markBooked(Long doctorId, LocalDateTime start,
+                                        LocalDateTime end) {
+        update(doctorId, start, end, true);
+    }
+
+    public synchronized void release(Long doctorId, LocalDateTime start,
+                                     LocalDateTime end) {
+        update(doctorId, start, end, false);
+    }
+
+    public synchronized void evictDoctor(Long doctorId) {
+        version++;
+        entries.keySet().removeIf(key -> key.doctorId.equals(doctorId));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(
+            AppointmentStatusChangedEvent event) {
+        if (event.isSlotTaken()) {
+            markBooked(event.getDoctorId(), event.getStartTime(),
+                    event.getEndTime());
+        } else if (event.isSlotReleased()) {
+            release(event.getDoctorId(), event.getStartTime(),
+                    event.getEndTime());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorScheduleChanged(DoctorScheduleChangedEvent event) {
+        log.debug("Evicting occupancy of doctor {}", event.getDoctorId());
+        evictDoctor(event.getDoctorId());
+    }
+
+    private void update(Long doctorId, LocalDateTime start,
+                        LocalDateTime end, boolean booked) {
+        version++;
+        for (LocalDate date = start.toLocalDate();
+             !date.isAfter(end.toLocalDate());
+             date = date.plusDays(1)) {
+            Entry entry = entries.get(new Key(doctorId, date));
+            if (entry == null) {
+                continue;
+            }
+            int from = MinuteIntervals.minuteOf(start, date, false);
+            int to = MinuteIntervals.minuteOf(end, date, true);
+            entry.occupancy = booked
+                    ? entry.occupancy.withBooked(from, to)
+                    : entry.occupancy.withoutBooked(from, to);
+        }
+    }
+
+    private record Key(Long doctorId, LocalDate date) {
+    }
+
+    private static final class Entry {
+        private DoctorDayOccupancy occupancy;
+        private final long loadedAt;
+
+        private Entry(DoctorDayOccupancy occupancy, long loadedAt) {
+            this.occupancy = occupancy;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
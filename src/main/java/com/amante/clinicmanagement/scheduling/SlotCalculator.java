@@ -0,0 +1,146 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.dto.response.TimeSlotDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates the bookable slots of one working day.
+ *
+ * <p>All arithmetic is done on minute-of-day {@code int}s. Breaks and
+ * booked intervals are swept with one forward-only pointer each, so a day
+ * costs O(slots + breaks + appointments) and only the returned
+ * {@link TimeSlotDto}s are allocated.
+ */
+public final class SlotCalculator {
+
+    public static final String BOOKED = "BOOKED";
+
+    private SlotCalculator() {
+    }
+
+    /**
+     * @param workStart first minute of the working window
+     * @param workEnd   minute the last slot must end by
+     * @param breaks    break intervals; a slot is blocked when it strictly
+     *                  overlaps one
+     * @param booked    booked intervals; a slot is blocked when it overlaps
+     *                  or touches one
+     */
+    public static List<TimeSlotDto> calculate(
+            LocalDate date,
+            int workStart,
+            int workEnd,
+            int slotDuration,
+            int bufferTime,
+            MinuteIntervals breaks,
+            MinuteIntervals booked
+    ) {
+        int step = slotDuration + bufferTime;
+        if (slotDuration <= 0 || step <= 0
+                || workStart + slotDuration > workEnd) {
+            return Collections.emptyList();
+        }
+
+        List<TimeSlotDto> slots =
+                new ArrayList<>((workEnd - workStart) / step + 1);
+
+        int breakCount = breaks.size();
+        int bookedCount = booked.size();
+        // First break / booking that may still overlap the current slot.
+        int breakCursor = 0;
+        int bookedCursor = 0;
+
+        for (int start = workStart;
+             start + slotDuration <= workEnd;
+             start += step) {
+            int end = start + slotDuration;
+
+            while (breakCursor < breakCount
+                    && breaks.end(breakCursor) <= start) {
+                breakCursor++;
+            }
+            String reason = null;
+            if (breakCursor < breakCount
+                    && breaks.start(breakCursor) < end) {
+                reason = breaks.label(breakCursor);
+            } else {
+                while (bookedCursor < bookedCount
+                        && booked.end(bookedCursor) < start) {
+                    bookedCursor++;
+                }
+                if (bookedCursor < bookedCount
+                        && booked.start(bookedCursor) <= end) {
+                    reason = BOOKED;
+                }
+            }
+
+            TimeSlotDto slot = new TimeSlotDto();
+            slot.setStartTime(toDateTime(date, start));
+            slot.setEndTime(toDateTime(date, end));
+            slot.setAvailable(reason == null);
+            slot.setReason(reason);
+            slots.add(slot);
+        }
+
+        return slots;
+    }
+
+    /**
+     * Same listing as {@link #calculate(LocalDate, int, int, int, int,
+     * MinuteIntervals, MinuteIntervals)}, answered from a cached
+     * {@link DoctorDayOccupancy} bitmap instead of interval lists.
+     */
+    public static List<TimeSlotDto> calculate(
+            LocalDate date,
+            int workStart,
+            int workEnd,
+            int slotDuration,
+            int bufferTime,
+            DoctorDayOccupancy occupancy
+    ) {
+        int step = slotDuration + bufferTime;
+        if (slotDuration <= 0 || step <= 0
+                || workStart + slotDuration > workEnd) {
+            return Collections.emptyList();
+        }
+
+        List<TimeSlotDto> slots =
+                new ArrayList<>((workEnd - workStart) / step + 1);
+
+        for (int start = workStart;
+             start + slotDuration <= workEnd;
+             start += step) {
+            int end = start + slotDuration;
+
+            String reason = null;
+            if (occupancy.isBlocked(start, end)) {
+                reason = occupancy.blockReason(start, end);
+            } else if (occupancy.isBookedAround(start, end)) {
+                reason = BOOKED;
+            }
+
+            TimeSlotDto slot = new TimeSlotDto();
+            slot.setStartTime(toDateTime(date, start));
+            slot.setEndTime(toDateTime(date, end));
+            slot.setAvailable(reason == null);
+            slot.setReason(reason);
+            slots.add(slot);
+        }
+
+        return slots;
+    }
+
+    private static LocalDateTime toDateTime(LocalDate date, int minute) {
+        if (minute >= MinuteIntervals.MINUTES_PER_DAY) {
+            return LocalDateTime.of(date.plusDays(1), LocalTime.MIDNIGHT);
+        }
+        return LocalDateTime.of(date,
+                LocalTime.of(minute / 60, minute % 60));
+    }
+}
@@ -0,0 +1,111 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.event.DoctorScheduleChangedEvent;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.service.SlotInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the materialized slot inventory in step with schedule changes.
+ * Changes only record the affected doctor and dates; a fixed-delay job
+ * regenerates those ranges, and a nightly run rolls the horizon forward.
+ */
+@Component
+@ConditionalOnProperty(name = "slots.materialized.enabled",
+        havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SlotInventoryJob {
+
+    private final SlotInventoryService slotInventoryService;
+    private final DoctorRepository doctorRepository;
+
+    private final Map<Long, DateRange> dirty = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        doctorRepository.findAllIds()
+                .forEach(doctorId -> markDirty(doctorId, null, null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorScheduleChanged(DoctorScheduleChangedEvent event) {
+        markDirty(event.getDoctorId(), event.getFromDate(),
+                event.getToDate());
+    }
+
+    // Slots blocked by an off-grid appointment only reopen on regeneration
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(
+            AppointmentStatusChangedEvent event) {
+        if (event.isSlotReleased()) {
+            markDirty(event.getDoctorId(),
+                    event.getStartTime().toLocalDate(),
+                    event.getEndTime().toLocalDate());
+        }
+    }
+
+    @Scheduled(fixedDelayString =
+            "${slots.materialized.refresh-delay-ms:15000}")
+    public void regenerateDirty() {
+        for (Long doctorId : dirty.keySet()) {
+            DateRange range = dirty.remove(doctorId);
+            if (range == null) {
+                continue;
+            }
+            try {
+                slotInventoryService.regenerate(doctorId, range.from,
+                        range.to);
+            } catch (RuntimeException e) {
+                log.error("Failed to regenerate slots of doctor {}",
+                        doctorId, e);
+                markDirty(doctorId, range.from, range.to);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${slots.materialized.extend-cron:0 15 0 * * *}")
+    public void extendHorizon() {
+        int purged = slotInventoryService.purgeBefore(LocalDate.now());
+        log.info("Purged {} past slots", purged);
+
+        LocalDate horizonEnd = slotInventoryService.getHorizonEnd();
+        doctorRepository.findAllIds()
+                .forEach(doctorId ->
+                        markDirty(doctorId, horizonEnd, horizonEnd));
+    }
+
+    void markDirty(Long doctorId, LocalDate from, LocalDate to) {
+        dirty.merge(doctorId, new DateRange(from, to), DateRange::union);
+    }
+
+    int pendingDoctors() {
+        return dirty.size();
+    }
+
+    // null bounds are open-ended
+    private record DateRange(LocalDate from, LocalDate to) {
+
+        DateRange union(DateRange other) {
+            LocalDate min = from == null || other.from == null
+                    ? null
+                    : (from.isBefore(other.from) ? from : other.from);
+            LocalDate max = to == null || other.to == null
+                    ? null
+                    : (to.isAfter(other.to) ? to : other.to);
+            return new DateRange(min, max);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expires waitlist holds that were not accepted in time so their slots
+ * move on to the next waiting patient.
+ */
+@Component
+@ConditionalOnProperty(name = "waitlist.expiry.enabled",
+        havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistHoldExpiryJob {
+
+    private final WaitlistService waitlistService;
+
+    @Scheduled(fixedDelayString = "${waitlist.expiry.poll-delay-ms:60000}")
+    public void expireHolds() {
+        try {
+            waitlistService.expireStale();
+        } catch (RuntimeException e) {
+            log.error("Waitlist hold expiry failed", e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.amante.clinicmanagement.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * WAITING waitlist entries queued per doctor and day in request order.
+ * An entry is queued under every day of its range, so the head of the
+ * queue for a freed slot's day is found in O(log n) without looking at
+ * entries for other days.
+ *
+ * <p>The database is the authority: the index is reloaded from it
+ * periodically, entries joined on other nodes are looked up there when
+ * a day's queue is empty, and candidates are claimed with a conditional
+ * update, so a stale entry is only a wasted attempt.
+ */
+@Component
+public class WaitlistIndex {
+
+    private static final Comparator<Waiter> REQUEST_ORDER = Comparator
+            .comparing(Waiter::requestedAt)
+            .thenComparing(Waiter::entryId);
+
+    private final Map<Key, NavigableSet<Waiter>> queues = new HashMap<>();
+    private final Map<Long, Waiter> waiters = new HashMap<>();
+
+    public synchronized void add(Long entryId, Long doctorId,
+                                 LocalDate fromDate, LocalDate toDate,
+                                 LocalDateTime requestedAt) {
+        remove(entryId);
+        Waiter waiter = new Waiter(entryId, doctorId, fromDate, toDate,
+                requestedAt);
+        waiters.put(entryId, waiter);
+        for (LocalDate date = fromDate; !date.isAfter(toDate);
+             date = date.plusDays(1)) {
+            queues.computeIfAbsent(new Key(doctorId, date),
+                    key -> new TreeSet<>(REQUEST_ORDER)).add(waiter);
+        }
+    }
+
+    public synchronized void remove(Long entryId) {
+        Waiter waiter = waiters.remove(entryId);
+        if (waiter == null) {
+            return;
+        }
+        for (LocalDate date = waiter.fromDate; !date.isAfter(waiter.toDate);
+             date = date.plusDays(1)) {
+            Key key = new Key(waiter.doctorId, date);
+            NavigableSet<Waiter> queue = queues.get(key);
+            if (queue != null && queue.remove(waiter) && queue.isEmpty()) {
+                queues.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} entry ids waiting for the doctor on
+     * {@code date}, earliest request first.
+     */
+    public synchronized List<Long> candidates(Long doctorId, LocalDate date,
+                                              int limit) {
+        NavigableSet<Waiter> queue = queues.get(new Key(doctorId, date));
+        if (queue == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limit, queue.size()));
+        Iterator<Waiter> iterator = queue.iterator();
+        while (ids.size() < limit && iterator.hasNext()) {
+            ids.add(iterator.next().entryId);
+        }
+        return ids;
+    }
+
+    /**
+     * Clears the index and refills it through {@code loader}, which
+     * calls {@link #add}; readers never see it empty in between.
+     */
+    public synchronized void rebuild(Runnable loader) {
+        clear();
+        loader.run();
+    }
+
+    public synchronized void clear() {
+        queues.clear();
+        waiters.clear();
+    }
+
+    public synchronized int size() {
+        return waiters.size();
+    }
+
+    private record Key(Long doctorId, LocalDate date) {
+    }
+
+    private record Waiter(Long entryId, Long doctorId, LocalDate fromDate,
+                          LocalDate toDate, LocalDateTime requestedAt) {
+    }
+}
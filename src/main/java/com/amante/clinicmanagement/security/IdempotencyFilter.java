@@ -0,0 +1,279 @@
+package com.amante.clinicmanagement.security;
+
+import com.amante.clinicmanagement.dto.response.ApiResponse;
+import com.amante.clinicmanagement.entity.IdempotencyRecord;
+import com.amante.clinicmanagement.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Makes retries of the configured routes safe for clients that send an
+ * {@code Idempotency-Key} header. The first request with a key runs and
+ * its response is stored; retries by the same user within the TTL get
+ * that response back, marked with {@code Idempotent-Replayed}, without
+ * reaching the controller. A retry while the first request still runs
+ * gets 409, and a key reused for a different body or path gets 422.
+ *
+ * <p>Server errors are not stored, so the request can be retried for
+ * real. Routes are configured in {@code idempotency.routes} as
+ * {@code METHOD /ant/pattern}.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<Route> routes = new ArrayList<>();
+
+    @Value("${idempotency.enabled:true}")
+    private boolean enabled;
+
+    public IdempotencyFilter(
+            IdempotencyService idempotencyService,
+            ObjectMapper objectMapper,
+            @Value("${idempotency.routes:}") List<String> routes) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        for (String route : routes) {
+            if (StringUtils.hasText(route)) {
+                this.routes.add(Route.parse(route.trim()));
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER);
+        String principal = principal();
+        if (!enabled || !StringUtils.hasText(key) || principal == null
+                || !isIdempotent(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST,
+                    KEY_HEADER + " must be at most " + MAX_KEY_LENGTH
+                            + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = hash(request, cachedRequest.body);
+        IdempotencyRecord existing =
+                idempotencyService.begin(principal, key, requestHash);
+        if (existing != null) {
+            respondToRetry(response, existing, requestHash);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse =
+                new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(cachedRequest, cachedResponse);
+            if (cachedResponse.getStatus() < 500) {
+                idempotencyService.complete(principal, key,
+                        cachedResponse.getStatus(),
+                        cachedResponse.getContentType(),
+                        new String(cachedResponse.getContentAsByteArray(),
+                                StandardCharsets.UTF_8));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.abandon(principal, key);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    boolean isIdempotent(HttpServletRequest request) {
+        String path = request.getRequestURI()
+                .substring(request.getContextPath().length());
+        for (Route route : routes) {
+            if (route.method.equals(request.getMethod())
+                    && matcher.match(route.pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void respondToRetry(HttpServletResponse response,
+                                IdempotencyRecord existing,
+                                String requestHash) throws IOException {
+        if (!existing.getRequestHash().equals(requestHash)) {
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    KEY_HEADER + " was already used for a different request");
+            return;
+        }
+        if (existing.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            reject(response, HttpStatus.CONFLICT,
+                    "A request with this " + KEY_HEADER
+                            + " is still in progress");
+            return;
+        }
+        log.debug("Replaying stored response for {}", existing.getId());
+        response.setStatus(existing.getResponseStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (existing.getResponseContentType() != null) {
+            response.setContentType(existing.getResponseContentType());
+        }
+        if (existing.getResponseBody() != null) {
+            response.getOutputStream().write(
+                    existing.getResponseBody().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status,
+                        String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ApiResponse<>(false, message, null));
+    }
+
+    private static String principal() {
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    static String hash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI()
+                    + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Route(String method, String pattern) {
+
+        static Route parse(String spec) {
+            int space = spec.indexOf(' ');
+            if (space < 0) {
+                throw new IllegalArgumentException(
+                        "Invalid idempotency route: " + spec);
+            }
+            return new Route(
+                    spec.substring(0, space).toUpperCase(Locale.ROOT),
+                    spec.substring(space + 1).trim());
+        }
+    }
+
+    /**
+     * Reads the body up front so it can be hashed and still be read by
+     * the controller.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is
+                // available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null
+                    ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(
+                    new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.amante.clinicmanagement.security;
+
+import com.amante.clinicmanagement.diagnostics.PoolWaitMonitor;
+import com.amante.clinicmanagement.dto.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of authentication, which already costs a
+ * database query. Under pressure, measured as connection pool wait time
+ * and requests in flight, LOW priority routes are rejected with 503 and
+ * Retry-After first, then NORMAL ones; CRITICAL routes such as booking
+ * and confirmation are always admitted.
+ *
+ * <p>Routes are configured in {@code load-shedding.routes} as
+ * {@code METHOD /ant/pattern=PRIORITY}, first match wins. Requests
+ * without a bearer token drop from NORMAL to LOW.
+ */
+@Component
+@Slf4j
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    public enum Priority { LOW, NORMAL, CRITICAL }
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final PoolWaitMonitor poolWaitMonitor;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<Route> routes = new ArrayList<>();
+
+    @Value("${load-shedding.enabled:true}")
+    private boolean enabled;
+
+    @Value("${load-shedding.low.pool-wait-ms:100}")
+    private long lowPoolWaitMillis;
+
+    @Value("${load-shedding.low.in-flight:100}")
+    private int lowInFlight;
+
+    @Value("${load-shedding.normal.pool-wait-ms:500}")
+    private long normalPoolWaitMillis;
+
+    @Value("${load-shedding.normal.in-flight:200}")
+    private int normalInFlight;
+
+    @Value("${load-shedding.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+
+    public LoadSheddingFilter(
+            PoolWaitMonitor poolWaitMonitor,
+            ObjectMapper objectMapper,
+            @Value("${load-shedding.routes:}") List<String> routes) {
+        this.poolWaitMonitor = poolWaitMonitor;
+        this.objectMapper = objectMapper;
+        for (String route : routes) {
+            if (StringUtils.hasText(route)) {
+                this.routes.add(Route.parse(route.trim()));
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Priority priority = priorityOf(request);
+        if (priority != Priority.CRITICAL && isShed(priority)) {
+            reject(request, response, priority);
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    Priority priorityOf(HttpServletRequest request) {
+        String path = request.getRequestURI()
+                .substring(request.getContextPath().length());
+        Priority priority = Priority.NORMAL;
+        for (Route route : routes) {
+            if (route.method.equals(request.getMethod())
+                    && matcher.match(route.pattern, path)) {
+                priority = route.priority;
+                break;
+            }
+        }
+        if (priority == Priority.NORMAL && !hasBearerToken(request)) {
+            return Priority.LOW;
+        }
+        return priority;
+    }
+
+    private boolean isShed(Priority priority) {
+        double waitMillis = poolWaitMonitor.waitMillis();
+        int current = inFlight.get();
+        if (waitMillis >= normalPoolWaitMillis || current >= normalInFlight) {
+            return true;
+        }
+        return priority == Priority.LOW
+                && (waitMillis >= lowPoolWaitMillis || current >= lowInFlight);
+    }
+
+    private void reject(HttpServletRequest request,
+                        HttpServletResponse response,
+                        Priority priority) throws IOException {
+        log.debug("Shedding {} {} ({} priority)", request.getMethod(),
+                request.getRequestURI(), priority);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ApiResponse<>(false,
+                        "Server is busy, please retry shortly", null));
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private static boolean hasBearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.startsWith(BEARER_PREFIX);
+    }
+
+    private record Route(String method, String pattern, Priority priority) {
+
+        static Route parse(String spec) {
+            int space = spec.indexOf(' ');
+            int equals = spec.lastIndexOf('=');
+            if (space < 0 || equals < space) {
+                throw new IllegalArgumentException(
+                        "Invalid load-shedding route: " + spec);
+            }
+            return new Route(
+                    spec.substring(0, space).toUpperCase(Locale.ROOT),
+                    spec.substring(space + 1, equals).trim(),
+                    Priority.valueOf(spec.substring(equals + 1).trim()
+                            .toUpperCase(Locale.ROOT)));
+        }
+    }
+}
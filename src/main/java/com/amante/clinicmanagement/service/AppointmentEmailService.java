@@ -1,10 +1,20 @@
 package com.amante.clinicmanagement.service;
 
 import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.WaitlistEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface AppointmentEmailService {
     void sendPendingAppointmentEmails(Appointment appointment);
 
+    /**
+     * One summary email each to the patient and the doctor for all
+     * appointments of a series booked together.
+     */
+    void sendSeriesPendingEmails(List<Appointment> appointments);
+
     void sendConfirmationEmail(Appointment appointment);
 
     void sendRejectionEmail(Appointment appointment);
@@ -12,4 +22,26 @@ public interface AppointmentEmailService {
     void sendCompletionEmail(Appointment appointment);
 
     void sendCancellationEmails(Appointment appointment, String cancelledBy);
+
+    /**
+     * One email each to the patient and the doctor showing the previous
+     * and the new time of a moved appointment.
+     */
+    void sendRescheduleEmails(
+            Appointment appointment,
+            LocalDateTime previousStartTime,
+            String rescheduledBy
+    );
+
+    /**
+     * Returns false when sending failed and the notice should be retried.
+     */
+    boolean sendExpiryEmail(Appointment appointment);
+
+    /**
+     * Returns false when sending failed and the reminder should be retried.
+     */
+    boolean sendReminderEmail(Appointment appointment);
+
+    void sendWaitlistOfferEmail(WaitlistEntry entry);
 }
\ No newline at end of file
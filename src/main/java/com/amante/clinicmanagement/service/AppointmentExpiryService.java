@@ -0,0 +1,17 @@
+package com.amante.clinicmanagement.service;
+
+public interface AppointmentExpiryService {
+
+    /**
+     * Moves PENDING appointments whose start time has passed to EXPIRED
+     * and marks their patients as due an expiry notice. Safe to run on
+     * several nodes at once. Returns the number of appointments expired.
+     */
+    int expireStalePending();
+
+    /**
+     * Claims and sends due expiry notices until none are left. Safe to
+     * run on several nodes at once. Returns the number of notices sent.
+     */
+    int sendExpiryNotices();
+}
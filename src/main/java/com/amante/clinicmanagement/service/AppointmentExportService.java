@@ -0,0 +1,26 @@
+package com.amante.clinicmanagement.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+public interface AppointmentExportService {
+
+    enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * Checks what the user may export and returns a body that streams the
+     * matching appointments ordered by start time. Doctors export their
+     * own appointments; admins export one doctor's, or every doctor's when
+     * {@code doctorId} is {@code null}. Missing dates leave the range open.
+     */
+    StreamingResponseBody exportAppointments(
+            String userEmail,
+            Long doctorId,
+            LocalDate from,
+            LocalDate to,
+            Format format
+    );
+}
@@ -0,0 +1,11 @@
+package com.amante.clinicmanagement.service;
+
+public interface AppointmentReminderService {
+
+    /**
+     * Claims and sends reminders for confirmed appointments starting
+     * within the reminder lead time, until none are left. Safe to run on
+     * several nodes at once. Returns the number of reminders sent.
+     */
+    int sendDueReminders();
+}
@@ -1,8 +1,11 @@
 package com.amante.clinicmanagement.service;
 
 import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.BookSeriesRequest;
 import com.amante.clinicmanagement.dto.request.RejectAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.RescheduleAppointmentRequest;
 import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.DoctorDashboardDto;
 
 import java.util.List;
 
@@ -13,6 +16,11 @@ public interface AppointmentService {
             String patientEmail
     );
 
+    List<AppointmentDto> bookSeries(
+            BookSeriesRequest request,
+            String patientEmail
+    );
+
     AppointmentDto confirmAppointment(
             Long appointmentId,
             String doctorEmail
@@ -33,7 +41,15 @@ public interface AppointmentService {
 
     List<AppointmentDto> getDoctorPendingAppointments(String doctorEmail);
 
+    DoctorDashboardDto getDoctorDashboard(String doctorEmail, int limit);
+
     AppointmentDto cancelAppointment(Long appointmentId, String userEmail);
 
+    AppointmentDto rescheduleAppointment(
+            Long appointmentId,
+            RescheduleAppointmentRequest request,
+            String userEmail
+    );
+
     AppointmentDto getAppointmentById(Long appointmentId);
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.amante.clinicmanagement.service;
+
+import com.amante.clinicmanagement.dto.response.DoctorDailyStatsDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DoctorStatsService {
+
+    /**
+     * Daily statistics of {@code [from, to]}. Doctors see their own;
+     * admins see {@code doctorId}, or every doctor when it is null.
+     */
+    List<DoctorDailyStatsDto> getDailyStats(
+            String userEmail,
+            Long doctorId,
+            LocalDate from,
+            LocalDate to
+    );
+
+    /**
+     * Rebuilds the statistics of {@code [from, to]} from the appointments
+     * table in chunks of days, each in its own transaction. {@code null}
+     * bounds default to the first and last appointment. Returns the
+     * number of rows written.
+     */
+    int backfill(LocalDate from, LocalDate to);
+}
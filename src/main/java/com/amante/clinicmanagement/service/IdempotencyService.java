@@ -0,0 +1,24 @@
+package com.amante.clinicmanagement.service;
+
+import com.amante.clinicmanagement.entity.IdempotencyRecord;
+
+public interface IdempotencyService {
+
+    /**
+     * Claims {@code key} of {@code principal} for a new request. Returns
+     * {@code null} when the caller should run the request, otherwise the
+     * live record of an earlier request with the same key, completed or
+     * still in progress.
+     */
+    IdempotencyRecord begin(String principal, String key, String requestHash);
+
+    void complete(String principal, String key, int responseStatus,
+                  String contentType, String body);
+
+    /**
+     * Releases a claim whose request failed, so a retry runs it again.
+     */
+    void abandon(String principal, String key);
+
+    int deleteExpired();
+}
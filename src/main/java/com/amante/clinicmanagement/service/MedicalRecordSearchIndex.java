@@ -0,0 +1,27 @@
+package com.amante.clinicmanagement.service;
+
+import java.util.List;
+
+/**
+ * Full-text index over the diagnosis and prescription of medical records.
+ * Selected with {@code medical-records.search.engine}: {@code postgres}
+ * (default) or {@code memory}.
+ */
+public interface MedicalRecordSearchIndex {
+
+    /**
+     * Makes a newly saved record searchable.
+     */
+    void index(
+            Long recordId,
+            Long doctorId,
+            String diagnosis,
+            String prescription
+    );
+
+    /**
+     * Ids of the doctor's records matching every term of {@code query},
+     * best match first.
+     */
+    List<Long> search(Long doctorId, String query, int limit);
+}
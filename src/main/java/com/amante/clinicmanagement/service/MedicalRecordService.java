@@ -1,14 +1,39 @@
 package com.amante.clinicmanagement.service;
 
 import com.amante.clinicmanagement.dto.request.DiagnosisRequest;
-import com.amante.clinicmanagement.entity.MedicalRecord;
+import com.amante.clinicmanagement.dto.response.MedicalHistoryPage;
+import com.amante.clinicmanagement.dto.response.MedicalRecordDto;
+
+import java.util.List;
 
 public interface MedicalRecordService {
 
-    MedicalRecord addDiagnosis(
+    MedicalRecordDto addDiagnosis(
             DiagnosisRequest request,
             String doctorEmail
     );
 
-    MedicalRecord getMedicalRecordByAppointmentId(Long appointmentId);
-}
\ No newline at end of file
+    MedicalRecordDto getMedicalRecordByAppointmentId(Long appointmentId);
+
+    /**
+     * Page of the patient's records, newest first, continuing after
+     * {@code cursor} when given. Patients may read their own history;
+     * doctors that of patients they have had appointments with.
+     */
+    MedicalHistoryPage getPatientHistory(
+            Long patientId,
+            String cursor,
+            int size,
+            String userEmail
+    );
+
+    /**
+     * The calling doctor's records whose diagnosis or prescription
+     * contains every term of {@code query}, best match first.
+     */
+    List<MedicalRecordDto> searchRecords(
+            String query,
+            int limit,
+            String doctorEmail
+    );
+}
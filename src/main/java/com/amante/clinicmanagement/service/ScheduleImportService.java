@@ -0,0 +1,19 @@
+package com.amante.clinicmanagement.service;
+
+import com.amante.clinicmanagement.dto.response.ScheduleImportResult;
+
+import java.io.InputStream;
+
+public interface ScheduleImportService {
+
+    enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * Streams weekly schedule, break and day off rows from {@code input}
+     * into the database. Invalid rows are reported and skipped; valid
+     * rows are written in batches.
+     */
+    ScheduleImportResult importSchedules(InputStream input, Format format);
+}
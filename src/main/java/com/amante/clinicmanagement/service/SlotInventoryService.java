@@ -0,0 +1,27 @@
+package com.amante.clinicmanagement.service;
+
+import com.amante.clinicmanagement.dto.response.TimeSlotDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SlotInventoryService {
+
+    boolean isEnabled();
+
+    LocalDate getHorizonEnd();
+
+    List<TimeSlotDto> getSlots(Long doctorId, LocalDate date);
+
+    void claim(
+            Long doctorId,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            Long appointmentId
+    );
+
+    void regenerate(Long doctorId, LocalDate fromDate, LocalDate toDate);
+
+    int purgeBefore(LocalDate date);
+}
@@ -0,0 +1,41 @@
+package com.amante.clinicmanagement.service;
+
+import com.amante.clinicmanagement.dto.request.JoinWaitlistRequest;
+import com.amante.clinicmanagement.dto.response.WaitlistEntryDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WaitlistService {
+
+    WaitlistEntryDto join(JoinWaitlistRequest request, String patientEmail);
+
+    List<WaitlistEntryDto> getMyEntries(String patientEmail);
+
+    /**
+     * Books the held slot for the patient.
+     */
+    WaitlistEntryDto acceptOffer(Long entryId, String patientEmail);
+
+    /**
+     * Gives up the held slot, which is offered to the next patient.
+     */
+    WaitlistEntryDto declineOffer(Long entryId, String patientEmail);
+
+    WaitlistEntryDto leave(Long entryId, String patientEmail);
+
+    /**
+     * Offers {@code [startTime, endTime)} to the first waiting patient
+     * for that doctor and day. Returns the entry id, or null when nobody
+     * took it.
+     */
+    Long offerFreedSlot(Long doctorId, LocalDateTime startTime,
+                        LocalDateTime endTime);
+
+    /**
+     * Expires lapsed holds, offering their slots to the next patient,
+     * and waiting entries whose last day passed. Returns the number of
+     * holds expired.
+     */
+    int expireStale();
+}
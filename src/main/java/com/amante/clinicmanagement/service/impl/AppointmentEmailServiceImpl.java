@@ -1,6 +1,8 @@
 package com.amante.clinicmanagement.service.impl;
 
+import com.amante.clinicmanagement.diagnostics.ConnectionHoldTracker;
 import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.WaitlistEntry;
 import com.amante.clinicmanagement.service.AppointmentEmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +15,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +36,7 @@ public class AppointmentEmailServiceImpl implements AppointmentEmailService {
             DateTimeFormatter.ofPattern("h:mm a");
 
     private final WebClient.Builder webClientBuilder;
+    private final ConnectionHoldTracker connectionHoldTracker;
 
     @Value("${brevo.api.key}")
     private String brevoApiKey;
@@ -98,6 +102,84 @@ public class AppointmentEmailServiceImpl implements AppointmentEmailService {
         }
     }
 
+    /**
+     * Send one summary for a series of pending appointments
+     * (to both patient and doctor)
+     */
+    public void sendSeriesPendingEmails(List<Appointment> appointments) {
+        if (!emailEnabled) {
+            log.info(
+                    "Email notifications disabled - "
+                            + "skipping series appointment emails"
+            );
+            return;
+        }
+
+        Appointment first = appointments.get(0);
+        try {
+            String sessionCount = String.valueOf(appointments.size());
+            String sessionList = buildSessionList(appointments);
+            String patientEmail = first.getPatient().getUser().getEmail();
+            String doctorEmail = first.getDoctor().getUser().getEmail();
+            String patientName = first.getPatient().getFirstName()
+                    + " "
+                    + first.getPatient().getLastName();
+
+            String patientHtml = replacePlaceholders(
+                    loadTemplate("templates/patient-series-pending.html"),
+                    first
+            )
+                    .replace("{sessionCount}", sessionCount)
+                    .replace("{sessionList}", sessionList);
+
+            Map<String, Object> patientEmailData = Map.of(
+                    SENDER_KEY,
+                    Map.of(EMAIL_KEY, fromEmail, "name", clinicName),
+                    "to",
+                    List.of(Map.of(EMAIL_KEY, patientEmail)),
+                    SUBJECT_KEY,
+                    "Appointment Series Request Received - " + clinicName,
+                    HTML_CONTENT_KEY,
+                    patientHtml
+            );
+
+            sendEmail(patientEmailData);
+
+            String doctorHtml = replacePlaceholders(
+                    loadTemplate("templates/doctor-series-request.html"),
+                    first
+            )
+                    .replace("{sessionCount}", sessionCount)
+                    .replace("{sessionList}", sessionList);
+
+            Map<String, Object> doctorEmailData = Map.of(
+                    SENDER_KEY,
+                    Map.of(EMAIL_KEY, fromEmail, "name", clinicName),
+                    "to",
+                    List.of(Map.of(EMAIL_KEY, doctorEmail)),
+                    SUBJECT_KEY,
+                    "🔔 New Appointment Series Request - " + patientName,
+                    HTML_CONTENT_KEY,
+                    doctorHtml
+            );
+
+            sendEmail(doctorEmailData);
+
+            log.info(
+                    "✓ Series emails sent for {} appointments starting "
+                            + "with ID: {}",
+                    appointments.size(),
+                    first.getId()
+            );
+        } catch (Exception e) {
+            log.error(
+                    "✗ Failed to send series emails for appointment ID: {}",
+                    first.getId(),
+                    e
+            );
+        }
+    }
+
     /**
      * Send confirmation email to patient when doctor accepts
      */
@@ -292,6 +374,223 @@ public class AppointmentEmailServiceImpl implements AppointmentEmailService {
         }
     }
 
+    /**
+     * Send reschedule emails to both patient and doctor
+     */
+    public void sendRescheduleEmails(
+            Appointment appointment,
+            LocalDateTime previousStartTime,
+            String rescheduledBy
+    ) {
+        if (!emailEnabled) {
+            log.info(
+                    "Email notifications disabled - "
+                            + "skipping reschedule emails"
+            );
+            return;
+        }
+
+        try {
+            String patientEmail =
+                    appointment.getPatient().getUser().getEmail();
+            String doctorEmail =
+                    appointment.getDoctor().getUser().getEmail();
+            String patientName = appointment.getPatient().getFirstName();
+            String doctorName = "Dr. "
+                    + appointment.getDoctor().getFirstName()
+                    + " "
+                    + appointment.getDoctor().getLastName();
+            String reschedulerName;
+            if (rescheduledBy.equals("PATIENT")) {
+                reschedulerName = patientName;
+            } else {
+                reschedulerName = doctorName;
+            }
+            String statusNote;
+            if (appointment.getStatus() == Appointment.Status.PENDING) {
+                statusNote = "The new time is waiting for the doctor's "
+                        + "confirmation.";
+            } else {
+                statusNote = "The appointment remains confirmed.";
+            }
+
+            String htmlTemplate = replacePlaceholders(
+                    loadTemplate("templates/appointment-rescheduled.html"),
+                    appointment
+            )
+                    .replace("{reschedulerName}", reschedulerName)
+                    .replace("{statusNote}", statusNote)
+                    .replace("{previousDate}",
+                            previousStartTime.format(DATE_FORMATTER))
+                    .replace("{previousTime}",
+                            previousStartTime.format(TIME_FORMATTER));
+
+            // Email to patient
+            Map<String, Object> patientEmailData = Map.of(
+                    SENDER_KEY,
+                    Map.of(EMAIL_KEY, fromEmail, "name", clinicName),
+                    "to",
+                    List.of(Map.of(EMAIL_KEY, patientEmail)),
+                    SUBJECT_KEY,
+                    "Appointment Rescheduled - " + clinicName,
+                    HTML_CONTENT_KEY,
+                    htmlTemplate
+                            .replace("{recipientName}", patientName)
+                            .replace("{otherPartyLabel}", "Doctor")
+                            .replace("{otherPartyName}", doctorName)
+            );
+
+            sendEmail(patientEmailData);
+
+            // Email to doctor
+            Map<String, Object> doctorEmailData = Map.of(
+                    SENDER_KEY,
+                    Map.of(EMAIL_KEY, fromEmail, "name", clinicName),
+                    "to",
+                    List.of(Map.of(EMAIL_KEY, doctorEmail)),
+                    SUBJECT_KEY,
+                    "Appointment Rescheduled - " + clinicName,
+                    HTML_CONTENT_KEY,
+                    htmlTemplate
+                            .replace("{recipientName}", doctorName)
+                            .replace("{otherPartyLabel}", "Patient")
+                            .replace("{otherPartyName}", patientName)
+            );
+
+            sendEmail(doctorEmailData);
+
+            log.info(
+                    "✓ Reschedule emails sent for appointment ID: {}",
+                    appointment.getId()
+            );
+        } catch (Exception e) {
+            log.error("✗ Failed to send reschedule emails", e);
+        }
+    }
+
+    /**
+     * Send expiry email to patient when a request was never answered
+     */
+    public boolean sendExpiryEmail(Appointment appointment) {
+        if (!emailEnabled) {
+            log.info(
+                    "Email notifications disabled - skipping expiry email"
+            );
+            return true;
+        }
+
+        try {
+            String patientEmail =
+                    appointment.getPatient().getUser().getEmail();
+            String htmlContent =
+                    loadTemplate("templates/patient-expired.html");
+            htmlContent = replacePlaceholders(htmlContent, appointment);
+
+            Map<String, Object> emailData = Map.of(
+                    SENDER_KEY,
+                    Map.of(EMAIL_KEY, fromEmail, "name", clinicName),
+                    "to",
+                    List.of(Map.of(EMAIL_KEY, patientEmail)),
+                    SUBJECT_KEY,
+                    "Appointment Request Expired - " + clinicName,
+                    HTML_CONTENT_KEY,
+                    htmlContent
+            );
+
+            sendEmail(emailData);
+            log.info("✓ Expiry email sent to patient: {}", patientEmail);
+            return true;
+        } catch (Exception e) {
+            log.error("✗ Failed to send expiry email", e);
+            return false;
+        }
+    }
+
+    /**
+     * Send reminder email to patient ahead of a confirmed appointment
+     */
+    public boolean sendReminderEmail(Appointment appointment) {
+        if (!emailEnabled) {
+            log.info(
+                    "Email notifications disabled - skipping reminder email"
+            );
+            return true;
+        }
+
+        try {
+            String patientEmail =
+                    appointment.getPatient().getUser().getEmail();
+            String htmlContent =
+                    loadTemplate("templates/patient-reminder.html");
+            htmlContent = replacePlaceholders(htmlContent, appointment);
+
+            Map<String, Object> emailData = Map.of(
+                    SENDER_KEY,
+                    Map.of(EMAIL_KEY, fromEmail, "name", clinicName),
+                    "to",
+                    List.of(Map.of(EMAIL_KEY, patientEmail)),
+                    SUBJECT_KEY,
+                    "Appointment Reminder - " + clinicName,
+                    HTML_CONTENT_KEY,
+                    htmlContent
+            );
+
+            sendEmail(emailData);
+            log.info("✓ Reminder email sent to patient: {}", patientEmail);
+            return true;
+        } catch (Exception e) {
+            log.error("✗ Failed to send reminder email", e);
+            return false;
+        }
+    }
+
+    /**
+     * Send a freed slot, held until the offer expires, to a waiting patient
+     */
+    public void sendWaitlistOfferEmail(WaitlistEntry entry) {
+        if (!emailEnabled) {
+            log.info(
+                    "Email notifications disabled - skipping waitlist email"
+            );
+            return;
+        }
+
+        try {
+            // Only renders the offered slot through the usual placeholders
+            Appointment offered = new Appointment();
+            offered.setPatient(entry.getPatient());
+            offered.setDoctor(entry.getDoctor());
+            offered.setStartTime(entry.getOfferedStartTime());
+            offered.setEndTime(entry.getOfferedEndTime());
+
+            String patientEmail = entry.getPatient().getUser().getEmail();
+            String htmlContent =
+                    loadTemplate("templates/patient-waitlist-offer.html");
+            htmlContent = replacePlaceholders(htmlContent, offered)
+                    .replace("{holdExpiresDate}", entry.getHoldExpiresAt()
+                            .format(DATE_FORMATTER))
+                    .replace("{holdExpiresTime}", entry.getHoldExpiresAt()
+                            .format(TIME_FORMATTER));
+
+            Map<String, Object> emailData = Map.of(
+                    SENDER_KEY,
+                    Map.of(EMAIL_KEY, fromEmail, "name", clinicName),
+                    "to",
+                    List.of(Map.of(EMAIL_KEY, patientEmail)),
+                    SUBJECT_KEY,
+                    "A Slot Opened Up - " + clinicName,
+                    HTML_CONTENT_KEY,
+                    htmlContent
+            );
+
+            sendEmail(emailData);
+            log.info("✓ Waitlist offer email sent to patient: {}",
+                    patientEmail);
+        } catch (Exception e) {
+            log.error("✗ Failed to send waitlist offer email", e);
+        }
+    }
+
     // ==================== PRIVATE HELPER METHODS ====================
 
     private void sendPatientPendingEmail(Appointment appointment)
@@ -341,6 +640,24 @@ public class AppointmentEmailServiceImpl implements AppointmentEmailService {
         log.info("✓ New request email sent to doctor: {}", doctorEmail);
     }
 
+    /**
+     * One line per session, in the style of the single appointment card
+     */
+    private String buildSessionList(List<Appointment> appointments) {
+        StringBuilder rows = new StringBuilder();
+        for (Appointment appointment : appointments) {
+            rows.append("<div style=\"color: #0369a1; font-size: 16px; ")
+                    .append("padding: 4px 0;\">")
+                    .append(appointment.getStartTime().format(DATE_FORMATTER))
+                    .append(", ")
+                    .append(appointment.getStartTime().format(TIME_FORMATTER))
+                    .append(" - ")
+                    .append(appointment.getEndTime().format(TIME_FORMATTER))
+                    .append("</div>");
+        }
+        return rows.toString();
+    }
+
     private void sendEmail(Map<String, Object> emailData) {
         WebClient webClient = webClientBuilder
                 .baseUrl("https://api.brevo.com")
@@ -351,12 +668,12 @@ public class AppointmentEmailServiceImpl implements AppointmentEmailService {
                 .defaultHeader("api-key", brevoApiKey)
                 .build();
 
-        webClient.post()
+        connectionHoldTracker.remote("brevo", () -> webClient.post()
                 .uri("/v3/smtp/email")
                 .bodyValue(emailData)
                 .retrieve()
                 .bodyToMono(String.class)
-                .block();
+                .block());
     }
 
     /**
@@ -0,0 +1,267 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.service.AppointmentEmailService;
+import com.amante.clinicmanagement.service.AppointmentExpiryService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Expires stale PENDING appointments in chunks. Each chunk is one short
+ * transaction: lock up to {@code appointment-expiry.chunk-size} rows
+ * with {@code FOR UPDATE SKIP LOCKED}, so concurrent nodes take
+ * different rows, then flip them all with a single {@code UPDATE}.
+ * <p>
+ * That {@code UPDATE} also stamps {@code expiry_notice_due_at}; the
+ * patients are emailed separately, in claimed batches like reminders, so
+ * a failed or interrupted send is retried instead of lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentExpiryServiceImpl implements AppointmentExpiryService {
+
+    private static final String SELECT_STALE =
+            "SELECT id, doctor_id, start_time, end_time FROM appointments "
+                    + "WHERE status = 'PENDING' AND start_time < :cutoff "
+                    + "ORDER BY start_time "
+                    + "LIMIT :limit "
+                    + "FOR UPDATE SKIP LOCKED";
+
+    private static final String EXPIRE =
+            "UPDATE appointments SET status = 'EXPIRED', updated_at = :now, "
+                    + "expiry_notice_due_at = :now "
+                    + "WHERE id IN (:ids) AND status = 'PENDING'";
+
+    // Served by idx_appointments_expiry_notice_due
+    private static final String SELECT_NOTICE_DUE =
+            "SELECT id FROM appointments "
+                    + "WHERE expiry_notice_due_at IS NOT NULL "
+                    + "AND (expiry_notice_claimed_at IS NULL "
+                    + "OR expiry_notice_claimed_at < :claimExpiry) "
+                    + "ORDER BY expiry_notice_due_at "
+                    + "LIMIT :limit "
+                    + "FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_NOTICES =
+            "UPDATE appointments SET expiry_notice_claimed_at = :now "
+                    + "WHERE id IN (:ids)";
+
+    private static final String MARK_NOTICES_SENT =
+            "UPDATE appointments SET expiry_notice_sent_at = :now, "
+                    + "expiry_notice_due_at = NULL "
+                    + "WHERE id IN (:ids)";
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentEmailService appointmentEmailService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${appointment-expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${appointment-expiry.notice.batch-size:200}")
+    private int noticeBatchSize;
+
+    @Value("${appointment-expiry.notice.claim-timeout-minutes:10}")
+    private int noticeClaimTimeoutMinutes;
+
+    @Value("${appointment-expiry.notice.send-concurrency:4}")
+    private int noticeSendConcurrency;
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void startSender() {
+        sender = Executors.newFixedThreadPool(noticeSendConcurrency);
+    }
+
+    @PreDestroy
+    void stopSender() {
+        sender.shutdown();
+    }
+
+    private static final String STATUS_CHECK_DEFINITION =
+            "SELECT pg_get_constraintdef(oid) FROM pg_constraint "
+                    + "WHERE conrelid = 'appointments'::regclass "
+                    + "AND conname = 'appointments_status_check'";
+
+    /**
+     * Hibernate adds a CHECK constraint listing the statuses when it
+     * creates the table, but its schema update never widens it. Only
+     * replaces it when a status is missing: the new constraint is added
+     * NOT VALID, which needs just a brief lock, and validated afterwards
+     * without blocking writes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void allowExpiredStatus() {
+        String product = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) connection ->
+                        connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return;
+        }
+        List<String> definitions = jdbcTemplate.getJdbcTemplate()
+                .queryForList(STATUS_CHECK_DEFINITION, String.class);
+        if (!definitions.isEmpty() && allowsAllStatuses(definitions.get(0))) {
+            return;
+        }
+
+        String statuses = Arrays.stream(Appointment.Status.values())
+                .map(status -> "'" + status.name() + "'")
+                .collect(Collectors.joining(", "));
+        log.info("Widening appointments_status_check to {}", statuses);
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    jdbcTemplate.getJdbcTemplate().execute(
+                            "ALTER TABLE appointments "
+                                    + "DROP CONSTRAINT IF EXISTS "
+                                    + "appointments_status_check");
+                    jdbcTemplate.getJdbcTemplate().execute(
+                            "ALTER TABLE appointments "
+                                    + "ADD CONSTRAINT appointments_status_check "
+                                    + "CHECK (status IN (" + statuses + ")) "
+                                    + "NOT VALID");
+                });
+        jdbcTemplate.getJdbcTemplate().execute(
+                "ALTER TABLE appointments "
+                        + "VALIDATE CONSTRAINT appointments_status_check");
+    }
+
+    static boolean allowsAllStatuses(String constraintDefinition) {
+        return Arrays.stream(Appointment.Status.values())
+                .allMatch(status -> constraintDefinition.contains(
+                        "'" + status.name() + "'"));
+    }
+
+    @Override
+    public int expireStalePending() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        int expired = 0;
+        List<Long> chunk;
+        do {
+            chunk = expireChunk(cutoff);
+            expired += chunk.size();
+        } while (chunk.size() == chunkSize);
+        return expired;
+    }
+
+    List<Long> expireChunk(LocalDateTime cutoff) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<AppointmentStatusChangedEvent> events = jdbcTemplate.query(
+                    SELECT_STALE,
+                    new MapSqlParameterSource()
+                            .addValue("cutoff", Timestamp.valueOf(cutoff))
+                            .addValue("limit", chunkSize),
+                    (rs, rowNum) -> new AppointmentStatusChangedEvent(
+                            rs.getLong("id"),
+                            rs.getLong("doctor_id"),
+                            rs.getTimestamp("start_time").toLocalDateTime(),
+                            rs.getTimestamp("end_time").toLocalDateTime(),
+                            Appointment.Status.PENDING,
+                            Appointment.Status.EXPIRED));
+            if (events.isEmpty()) {
+                return List.of();
+            }
+
+            List<Long> ids = events.stream()
+                    .map(AppointmentStatusChangedEvent::getAppointmentId)
+                    .collect(Collectors.toList());
+            jdbcTemplate.update(EXPIRE, new MapSqlParameterSource()
+                    .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                    .addValue("ids", ids));
+            // Releases slots in the occupancy index and slot inventory
+            events.forEach(eventPublisher::publishEvent);
+            return ids;
+        });
+    }
+
+    @Override
+    public int sendExpiryNotices() {
+        int sent = 0;
+        List<Long> claimed;
+        do {
+            claimed = claimNotices(LocalDateTime.now());
+            if (!claimed.isEmpty()) {
+                sent += send(claimed);
+            }
+        } while (claimed.size() == noticeBatchSize);
+        return sent;
+    }
+
+    List<Long> claimNotices(LocalDateTime now) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_NOTICE_DUE,
+                    new MapSqlParameterSource()
+                            .addValue("claimExpiry", Timestamp.valueOf(
+                                    now.minusMinutes(noticeClaimTimeoutMinutes)))
+                            .addValue("limit", noticeBatchSize),
+                    Long.class);
+            if (!ids.isEmpty()) {
+                jdbcTemplate.update(CLAIM_NOTICES, new MapSqlParameterSource()
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("ids", ids));
+            }
+            return ids;
+        });
+    }
+
+    private int send(List<Long> ids) {
+        List<Appointment> appointments =
+                appointmentRepository.findWithParticipantsByIdIn(ids);
+
+        List<CompletableFuture<Long>> sends =
+                new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            sends.add(CompletableFuture.supplyAsync(
+                    () -> appointmentEmailService.sendExpiryEmail(appointment)
+                            ? appointment.getId() : null,
+                    sender));
+        }
+
+        List<Long> sent = new ArrayList<>(sends.size());
+        for (CompletableFuture<Long> send : sends) {
+            Long id = send.join();
+            if (id != null) {
+                sent.add(id);
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            jdbcTemplate.update(MARK_NOTICES_SENT, new MapSqlParameterSource()
+                    .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                    .addValue("ids", sent));
+        }
+
+        if (sent.size() < ids.size()) {
+            log.warn("{} of {} expiry notices failed and will be retried",
+                    ids.size() - sent.size(), ids.size());
+        }
+        return sent.size();
+    }
+}
@@ -0,0 +1,169 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.AppointmentExportRow;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.service.AppointmentExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams appointments straight from a database cursor to the response.
+ * Rows are read as {@link AppointmentExportRow} projections inside a
+ * read-only transaction and written one at a time, so memory use does
+ * not depend on the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentExportServiceImpl implements AppointmentExportService {
+
+    private static final String CSV_HEADER = "id,doctorId,doctorName,"
+            + "patientId,patientName,patientEmail,startTime,endTime,status,"
+            + "patientNotes,rejectionReason,createdAt,updatedAt";
+
+    // Open range bounds that every supported database can store
+    private static final LocalDateTime EARLIEST =
+            LocalDate.of(1900, 1, 1).atStartOfDay();
+    private static final LocalDateTime LATEST =
+            LocalDate.of(9999, 12, 31).atStartOfDay();
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public StreamingResponseBody exportAppointments(
+            String userEmail,
+            Long doctorId,
+            LocalDate from,
+            LocalDate to,
+            Format format
+    ) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Long scope;
+        if (user.getRole() == User.Role.DOCTOR) {
+            Doctor doctor = doctorRepository.findByUserId(user.getId())
+                    .orElseThrow(() ->
+                            new RuntimeException("Doctor profile not found")
+                    );
+            if (doctorId != null && !doctorId.equals(doctor.getId())) {
+                throw new RuntimeException(
+                        "Doctors can only export their own appointments");
+            }
+            scope = doctor.getId();
+        } else if (user.getRole() == User.Role.ADMIN) {
+            scope = doctorId;
+        } else {
+            throw new RuntimeException(
+                    "Only doctors and admins can export appointments");
+        }
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new RuntimeException(
+                    "Start date must be before or equal to end date");
+        }
+        LocalDateTime start = from == null ? EARLIEST : from.atStartOfDay();
+        LocalDateTime end = to == null
+                ? LATEST : to.plusDays(1).atStartOfDay();
+
+        return out -> {
+            try {
+                write(scope, start, end, format, out);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private void write(Long doctorId, LocalDateTime start, LocalDateTime end,
+                       Format format, OutputStream out) {
+        TransactionTemplate transaction =
+                new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            long count = 0;
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try (Stream<AppointmentExportRow> rows = doctorId == null
+                    ? appointmentRepository.streamExport(start, end)
+                    : appointmentRepository.streamExportByDoctorId(
+                            doctorId, start, end)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                Iterator<AppointmentExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    AppointmentExportRow row = iterator.next();
+                    if (format == Format.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                    }
+                    writer.write('\n');
+                    count++;
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("Exported {} appointments", count);
+        });
+    }
+
+    private static void writeCsv(Writer writer, AppointmentExportRow row)
+            throws IOException {
+        writer.write(String.join(",",
+                String.valueOf(row.getId()),
+                String.valueOf(row.getDoctorId()),
+                csv(row.getDoctorFirstName() + " " + row.getDoctorLastName()),
+                String.valueOf(row.getPatientId()),
+                csv(row.getPatientFirstName() + " "
+                        + row.getPatientLastName()),
+                csv(row.getPatientEmail()),
+                csv(row.getStartTime()),
+                csv(row.getEndTime()),
+                csv(row.getStatus()),
+                csv(row.getPatientNotes()),
+                csv(row.getRejectionReason()),
+                csv(row.getCreatedAt()),
+                csv(row.getUpdatedAt())));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+                && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,154 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.service.AppointmentEmailService;
+import com.amante.clinicmanagement.service.AppointmentReminderService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends "upcoming appointment" reminders in claimed batches.
+ * <p>
+ * A batch is claimed by locking due rows with
+ * {@code FOR UPDATE SKIP LOCKED} and stamping {@code reminder_claimed_at}
+ * in one short transaction, so nodes running concurrently never pick the
+ * same appointment and no lock is held while emails go out. A claim that
+ * is never marked sent, because the node died or the email failed,
+ * expires after {@code reminders.claim-timeout-minutes} and is retried.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentReminderServiceImpl
+        implements AppointmentReminderService {
+
+    // Served by idx_appointments_status_start, earliest appointments first
+    private static final String SELECT_DUE =
+            "SELECT id FROM appointments "
+                    + "WHERE status = 'CONFIRMED' "
+                    + "AND start_time > ? AND start_time <= ? "
+                    + "AND reminder_sent_at IS NULL "
+                    + "AND (reminder_claimed_at IS NULL "
+                    + "OR reminder_claimed_at < ?) "
+                    + "ORDER BY start_time "
+                    + "LIMIT ? "
+                    + "FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM =
+            "UPDATE appointments SET reminder_claimed_at = ? WHERE id = ?";
+
+    private static final String MARK_SENT =
+            "UPDATE appointments SET reminder_sent_at = ? WHERE id = ?";
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentEmailService appointmentEmailService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${reminders.lead-hours:24}")
+    private int leadHours;
+
+    @Value("${reminders.batch-size:200}")
+    private int batchSize;
+
+    @Value("${reminders.claim-timeout-minutes:10}")
+    private int claimTimeoutMinutes;
+
+    @Value("${reminders.send-concurrency:8}")
+    private int sendConcurrency;
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void startSender() {
+        sender = Executors.newFixedThreadPool(sendConcurrency);
+    }
+
+    @PreDestroy
+    void stopSender() {
+        sender.shutdown();
+    }
+
+    @Override
+    public int sendDueReminders() {
+        int sent = 0;
+        List<Long> claimed;
+        do {
+            claimed = claimBatch(LocalDateTime.now());
+            if (!claimed.isEmpty()) {
+                sent += send(claimed);
+            }
+        } while (claimed.size() == batchSize);
+        return sent;
+    }
+
+    List<Long> claimBatch(LocalDateTime now) {
+        Timestamp claimedAt = Timestamp.valueOf(now);
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_DUE, Long.class,
+                    claimedAt,
+                    Timestamp.valueOf(now.plusHours(leadHours)),
+                    Timestamp.valueOf(now.minusMinutes(claimTimeoutMinutes)),
+                    batchSize);
+            if (!ids.isEmpty()) {
+                jdbcTemplate.batchUpdate(CLAIM, ids, ids.size(),
+                        (ps, id) -> {
+                            ps.setTimestamp(1, claimedAt);
+                            ps.setLong(2, id);
+                        });
+            }
+            return ids;
+        });
+    }
+
+    private int send(List<Long> ids) {
+        List<Appointment> appointments =
+                appointmentRepository.findWithParticipantsByIdIn(ids);
+
+        List<CompletableFuture<Long>> sends =
+                new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            sends.add(CompletableFuture.supplyAsync(
+                    () -> appointmentEmailService.sendReminderEmail(appointment)
+                            ? appointment.getId() : null,
+                    sender));
+        }
+
+        List<Long> sent = new ArrayList<>(sends.size());
+        for (CompletableFuture<Long> send : sends) {
+            Long id = send.join();
+            if (id != null) {
+                sent.add(id);
+            }
+        }
+
+        Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(MARK_SENT, sent, sent.size(),
+                (ps, id) -> {
+                    ps.setTimestamp(1, sentAt);
+                    ps.setLong(2, id);
+                });
+
+        if (sent.size() < ids.size()) {
+            log.warn("{} of {} reminders failed and will be retried",
+                    ids.size() - sent.size(), ids.size());
+        }
+        return sent.size();
+    }
+}
@@ -1,40 +1,78 @@
 package com.amante.clinicmanagement.service.impl;
 
 import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.BookSeriesRequest;
 import com.amante.clinicmanagement.dto.request.RejectAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.RescheduleAppointmentRequest;
 import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.DoctorDashboardDto;
 import com.amante.clinicmanagement.entity.Appointment;
 import com.amante.clinicmanagement.entity.Doctor;
 import com.amante.clinicmanagement.entity.Patient;
 import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
 import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.AppointmentRepository.StatusCount;
+import com.amante.clinicmanagement.repository.AppointmentRepository.TimeRange;
 import com.amante.clinicmanagement.repository.DoctorRepository;
 import com.amante.clinicmanagement.repository.PatientRepository;
 import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.repository.WaitlistEntryRepository;
+import com.amante.clinicmanagement.scheduling.OccupancyIndex;
 import com.amante.clinicmanagement.service.AppointmentEmailService;
 import com.amante.clinicmanagement.service.AppointmentService;
+import com.amante.clinicmanagement.service.SlotInventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class AppointmentServiceImpl implements AppointmentService {
 
     private static final String USER_NOT_FOUND = "User not found";
     private static final String APPOINTMENT_NOT_FOUND = "Appointment not found";
+    private static final int MAX_DASHBOARD_UPCOMING = 20;
+    private static final Set<Appointment.Status> AGENDA_STATUSES = EnumSet.of(
+            Appointment.Status.PENDING,
+            Appointment.Status.CONFIRMED,
+            Appointment.Status.COMPLETED
+    );
 
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
     private final AppointmentEmailService emailService;
+    private final OccupancyIndex occupancyIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SlotInventoryService slotInventoryService;
+    private final DoctorDashboardCache dashboardCache;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+
+    // Bounds the agenda query: today's appointments plus the upcoming ones
+    @Value("${dashboard.max-appointments:100}")
+    private int dashboardMaxAppointments;
+
+    @Value("${appointment-series.max-occurrences:26}")
+    private int seriesMaxOccurrences;
 
     private Patient getPatientByEmail(String email) {
         User user = userRepository.findByEmail(email)
@@ -73,14 +111,55 @@ public class AppointmentServiceImpl implements AppointmentService {
         Doctor doctor = doctorRepository.findById(request.getDoctorId())
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
 
-        boolean hasOverlap = appointmentRepository.existsOverlappingAppointment(
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new RuntimeException("End time must be after start time");
+        }
+
+        if (Duration.between(request.getStartTime(), request.getEndTime())
+                .compareTo(Appointment.MAX_DURATION) > 0) {
+            throw new RuntimeException(
+                    "Appointment cannot be longer than 24 hours"
+            );
+        }
+
+        // A slot offered from the waitlist is held for that patient
+        if (waitlistEntryRepository.existsActiveHoldForOthers(
                 doctor.getId(),
                 request.getStartTime(),
-                request.getEndTime()
-        );
+                request.getEndTime(),
+                LocalDateTime.now(),
+                patient.getId()
+        )) {
+            throw new RuntimeException(
+                    "Time slot is held for a waitlisted patient"
+            );
+        }
+
+        // With the slot inventory the claim below replaces overlap checks
+        boolean claimSlot = slotInventoryService.isEnabled();
+        if (!claimSlot) {
+            // A cached occupancy bitmap answers most conflicts without a
+            // query; a free answer is still confirmed against the database.
+            if (occupancyIndex.isBooked(
+                    doctor.getId(),
+                    request.getStartTime(),
+                    request.getEndTime()
+            )) {
+                throw new RuntimeException("Time slot is already booked");
+            }
 
-        if (hasOverlap) {
-            throw new RuntimeException("Time slot is already booked");
+            // Held until commit so no other booking passes the check below
+            doctorRepository.lockById(doctor.getId());
+            boolean hasOverlap =
+                    appointmentRepository.existsOverlappingAppointment(
+                            doctor.getId(),
+                            request.getStartTime(),
+                            request.getEndTime()
+                    );
+
+            if (hasOverlap) {
+                throw new RuntimeException("Time slot is already booked");
+            }
         }
 
         Appointment appointment = new Appointment();
@@ -94,6 +173,16 @@ public class AppointmentServiceImpl implements AppointmentService {
         appointment.setUpdatedAt(LocalDateTime.now());
 
         appointment = appointmentRepository.save(appointment);
+        if (claimSlot) {
+            slotInventoryService.claim(
+                    doctor.getId(),
+                    appointment.getStartTime(),
+                    appointment.getEndTime(),
+                    appointment.getId()
+            );
+        }
+        eventPublisher.publishEvent(
+                AppointmentStatusChangedEvent.of(appointment, null));
 
         log.info(
                 "✓ Appointment created with PENDING status, ID: {}",
@@ -109,6 +198,150 @@ public class AppointmentServiceImpl implements AppointmentService {
         return convertToDto(appointment);
     }
 
+    /**
+     * Books the same slot every {@code intervalWeeks} weeks, all or none.
+     * Every occurrence is checked against one range query, the rows are
+     * inserted in one JDBC batch and both parties get one summary email.
+     */
+    @Override
+    @Transactional
+    public List<AppointmentDto> bookSeries(
+            BookSeriesRequest request,
+            String patientEmail
+    ) {
+        Patient patient = getPatientByEmail(patientEmail);
+        log.info(
+                "=== Booking series of {} appointments for patient: {} ===",
+                request.getOccurrences(),
+                patient.getUser().getEmail()
+        );
+
+        Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new RuntimeException("End time must be after start time");
+        }
+
+        if (Duration.between(request.getStartTime(), request.getEndTime())
+                .compareTo(Appointment.MAX_DURATION) > 0) {
+            throw new RuntimeException(
+                    "Appointment cannot be longer than 24 hours"
+            );
+        }
+
+        if (request.getOccurrences() > seriesMaxOccurrences) {
+            throw new RuntimeException(
+                    "A series cannot have more than "
+                            + seriesMaxOccurrences + " occurrences"
+            );
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!request.getStartTime().isAfter(now)) {
+            throw new RuntimeException("Series cannot start in the past");
+        }
+
+        int intervalWeeks = request.getIntervalWeeks() != null
+                ? request.getIntervalWeeks() : 1;
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < request.getOccurrences(); i++) {
+            Appointment appointment = new Appointment();
+            appointment.setPatient(patient);
+            appointment.setDoctor(doctor);
+            appointment.setStartTime(
+                    request.getStartTime().plusWeeks((long) i * intervalWeeks));
+            appointment.setEndTime(
+                    request.getEndTime().plusWeeks((long) i * intervalWeeks));
+            appointment.setStatus(Appointment.Status.PENDING);
+            appointment.setPatientNotes(request.getPatientNotes());
+            appointment.setCreatedAt(now);
+            appointment.setUpdatedAt(now);
+            appointments.add(appointment);
+        }
+        LocalDateTime from = appointments.get(0).getStartTime();
+        LocalDateTime to = appointments.get(appointments.size() - 1)
+                .getEndTime();
+
+        // With the slot inventory the claims below replace overlap checks
+        boolean claimSlots = slotInventoryService.isEnabled();
+        if (!claimSlots) {
+            doctorRepository.lockById(doctor.getId());
+        }
+
+        Appointment held = firstOverlap(appointments,
+                waitlistEntryRepository.findActiveHoldTimesForOthers(
+                        doctor.getId(), from, to, now, patient.getId()));
+        if (held != null) {
+            throw new RuntimeException(
+                    "Time slot on " + held.getStartTime().toLocalDate()
+                            + " is held for a waitlisted patient"
+            );
+        }
+
+        if (!claimSlots) {
+            Appointment booked = firstOverlap(appointments,
+                    appointmentRepository.findBlockingTimesStartingBetween(
+                            doctor.getId(),
+                            from.minus(Appointment.MAX_DURATION),
+                            to
+                    ));
+            if (booked != null) {
+                throw new RuntimeException(
+                        "Time slot on " + booked.getStartTime().toLocalDate()
+                                + " is already booked"
+                );
+            }
+        }
+
+        appointmentRepository.insertAll(appointments);
+        for (Appointment appointment : appointments) {
+            if (claimSlots) {
+                slotInventoryService.claim(
+                        doctor.getId(),
+                        appointment.getStartTime(),
+                        appointment.getEndTime(),
+                        appointment.getId()
+                );
+            }
+            eventPublisher.publishEvent(
+                    AppointmentStatusChangedEvent.of(appointment, null));
+        }
+
+        log.info(
+                "✓ Series of {} appointments created with PENDING status, "
+                        + "first ID: {}",
+                appointments.size(),
+                appointments.get(0).getId()
+        );
+
+        try {
+            emailService.sendSeriesPendingEmails(appointments);
+        } catch (RuntimeException e) {
+            log.error("Failed to send series appointment emails", e);
+        }
+
+        return appointments.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    private static Appointment firstOverlap(
+            List<Appointment> appointments,
+            List<TimeRange> taken
+    ) {
+        for (Appointment appointment : appointments) {
+            for (TimeRange range : taken) {
+                if (range.getStartTime().isBefore(appointment.getEndTime())
+                        && range.getEndTime()
+                        .isAfter(appointment.getStartTime())) {
+                    return appointment;
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     @Transactional
     public AppointmentDto confirmAppointment(
@@ -139,9 +372,12 @@ public class AppointmentServiceImpl implements AppointmentService {
             );
         }
 
+        Appointment.Status previousStatus = appointment.getStatus();
         appointment.setStatus(Appointment.Status.CONFIRMED);
         appointment.setUpdatedAt(LocalDateTime.now());
         appointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(
+                AppointmentStatusChangedEvent.of(appointment, previousStatus));
 
         try {
             emailService.sendConfirmationEmail(appointment);
@@ -183,10 +419,13 @@ public class AppointmentServiceImpl implements AppointmentService {
             );
         }
 
+        Appointment.Status previousStatus = appointment.getStatus();
         appointment.setStatus(Appointment.Status.REJECTED);
         appointment.setRejectionReason(request.getRejectionReason());
         appointment.setUpdatedAt(LocalDateTime.now());
         appointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(
+                AppointmentStatusChangedEvent.of(appointment, previousStatus));
 
         try {
             emailService.sendRejectionEmail(appointment);
@@ -227,9 +466,12 @@ public class AppointmentServiceImpl implements AppointmentService {
             );
         }
 
+        Appointment.Status previousStatus = appointment.getStatus();
         appointment.setStatus(Appointment.Status.COMPLETED);
         appointment.setUpdatedAt(LocalDateTime.now());
         appointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(
+                AppointmentStatusChangedEvent.of(appointment, previousStatus));
 
         try {
             emailService.sendCompletionEmail(appointment);
@@ -284,6 +526,69 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One grouped count and one bounded agenda query; today's agenda and
+     * the upcoming list are both cut from the agenda rows.
+     */
+    @Override
+    public DoctorDashboardDto getDoctorDashboard(
+            String doctorEmail,
+            int limit
+    ) {
+        int upcomingLimit = Math.max(1,
+                Math.min(limit, MAX_DASHBOARD_UPCOMING));
+        DoctorDashboardDto cached =
+                dashboardCache.get(doctorEmail, upcomingLimit);
+        if (cached != null) {
+            return cached;
+        }
+        long version = dashboardCache.version();
+        Doctor doctor = getDoctorByEmail(doctorEmail);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        for (Appointment.Status status : Appointment.Status.values()) {
+            statusCounts.put(status.name(), 0L);
+        }
+        for (StatusCount count : appointmentRepository
+                .countByDoctorIdGroupByStatus(doctor.getId())) {
+            statusCounts.put(count.getStatus().name(), count.getCount());
+        }
+
+        List<Appointment> agenda = appointmentRepository
+                .findUpcomingByDoctorId(
+                        doctor.getId(),
+                        today.atStartOfDay(),
+                        AGENDA_STATUSES,
+                        PageRequest.of(0, dashboardMaxAppointments)
+                );
+        List<AppointmentDto> todayAgenda = agenda.stream()
+                .filter(appointment -> appointment.getStartTime()
+                        .toLocalDate().equals(today))
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        List<AppointmentDto> upcoming = agenda.stream()
+                .filter(appointment -> appointment.getStatus()
+                        != Appointment.Status.COMPLETED
+                        && !appointment.getStartTime().isBefore(now))
+                .limit(upcomingLimit)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+
+        DoctorDashboardDto dashboard = new DoctorDashboardDto(
+                today,
+                todayAgenda,
+                statusCounts,
+                statusCounts.get(Appointment.Status.PENDING.name()),
+                upcoming,
+                now
+        );
+        dashboardCache.put(doctorEmail, upcomingLimit, doctor.getId(),
+                dashboard, version);
+        return dashboard;
+    }
+
     @Override
     @Transactional
     public AppointmentDto cancelAppointment(
@@ -300,6 +605,9 @@ public class AppointmentServiceImpl implements AppointmentService {
                 user.getRole()
         );
 
+        // Locked like in rescheduleAppointment, whose new times the save
+        // below would otherwise overwrite
+        appointmentRepository.lockById(appointmentId);
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() ->
                         new RuntimeException(APPOINTMENT_NOT_FOUND)
@@ -313,37 +621,18 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new RuntimeException("Cannot cancel completed appointment");
         }
 
-        if (user.getRole() == User.Role.PATIENT) {
-            Patient patient = patientRepository.findByUserId(user.getId())
-                    .orElseThrow(() ->
-                            new RuntimeException("Patient profile not found")
-                    );
-
-            if (!appointment.getPatient().getId().equals(patient.getId())) {
-                throw new RuntimeException(
-                        "You are not authorized to cancel this appointment"
-                );
-            }
-        } else {
-            if (user.getRole() == User.Role.DOCTOR) {
-                Doctor doctor = doctorRepository.findByUserId(user.getId())
-                        .orElseThrow(() ->
-                                new RuntimeException("Doctor profile not found")
-                        );
-
-                if (!appointment.getDoctor().getId().equals(doctor.getId())) {
-                    throw new RuntimeException(
-                            "You are not authorized to cancel this appointment"
-                    );
-                }
-            } else {
-                throw new RuntimeException("Invalid user role");
-            }
+        if (appointment.getStatus() == Appointment.Status.EXPIRED) {
+            throw new RuntimeException("Cannot cancel expired appointment");
         }
 
+        checkParticipant(appointment, user, "cancel");
+
+        Appointment.Status previousStatus = appointment.getStatus();
         appointment.setStatus(Appointment.Status.CANCELLED);
         appointment.setUpdatedAt(LocalDateTime.now());
         appointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(
+                AppointmentStatusChangedEvent.of(appointment, previousStatus));
 
         try {
             emailService.sendCancellationEmails(
@@ -357,6 +646,139 @@ public class AppointmentServiceImpl implements AppointmentService {
         return convertToDto(appointment);
     }
 
+    /**
+     * Moves a pending or confirmed appointment in one transaction: the
+     * new interval is checked with one overlap query that ignores the
+     * appointment itself, so the slot cannot be taken in between.
+     * Patients send a confirmed appointment back for approval.
+     */
+    @Override
+    @Transactional
+    public AppointmentDto rescheduleAppointment(
+            Long appointmentId,
+            RescheduleAppointmentRequest request,
+            String userEmail
+    ) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
+
+        log.info(
+                "=== Rescheduling appointment ID: {} by user: {} (Role: {}) ===",
+                appointmentId,
+                userEmail,
+                user.getRole()
+        );
+
+        // Locked before reading so the expiry job or a cancellation cannot
+        // change the status between the check below and the save
+        appointmentRepository.lockById(appointmentId);
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() ->
+                        new RuntimeException(APPOINTMENT_NOT_FOUND)
+                );
+
+        checkParticipant(appointment, user, "reschedule");
+
+        if (appointment.getStatus() != Appointment.Status.PENDING
+                && appointment.getStatus() != Appointment.Status.CONFIRMED) {
+            throw new RuntimeException(
+                    "Only pending or confirmed appointments can be "
+                            + "rescheduled"
+            );
+        }
+
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new RuntimeException("End time must be after start time");
+        }
+
+        if (Duration.between(request.getStartTime(), request.getEndTime())
+                .compareTo(Appointment.MAX_DURATION) > 0) {
+            throw new RuntimeException(
+                    "Appointment cannot be longer than 24 hours"
+            );
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!request.getStartTime().isAfter(now)) {
+            throw new RuntimeException(
+                    "Appointment cannot be moved into the past"
+            );
+        }
+
+        if (request.getStartTime().equals(appointment.getStartTime())
+                && request.getEndTime().equals(appointment.getEndTime())) {
+            throw new RuntimeException("Appointment is already at this time");
+        }
+
+        Long doctorId = appointment.getDoctor().getId();
+        if (waitlistEntryRepository.existsActiveHoldForOthers(
+                doctorId,
+                request.getStartTime(),
+                request.getEndTime(),
+                now,
+                appointment.getPatient().getId()
+        )) {
+            throw new RuntimeException(
+                    "Time slot is held for a waitlisted patient"
+            );
+        }
+
+        // The occupancy cache still marks the current interval as booked,
+        // so only the database check below can see past the appointment
+        boolean claimSlot = slotInventoryService.isEnabled();
+        if (!claimSlot) {
+            doctorRepository.lockById(doctorId);
+            if (appointmentRepository.existsOverlappingAppointmentExcluding(
+                    doctorId,
+                    request.getStartTime(),
+                    request.getEndTime(),
+                    appointmentId
+            )) {
+                throw new RuntimeException("Time slot is already booked");
+            }
+        }
+
+        LocalDateTime previousStartTime = appointment.getStartTime();
+        LocalDateTime previousEndTime = appointment.getEndTime();
+        Appointment.Status previousStatus = appointment.getStatus();
+        if (user.getRole() == User.Role.PATIENT) {
+            appointment.setStatus(Appointment.Status.PENDING);
+        }
+        appointment.setStartTime(request.getStartTime());
+        appointment.setEndTime(request.getEndTime());
+        appointment.setUpdatedAt(now);
+        appointment = appointmentRepository.save(appointment);
+        appointmentRepository.clearReminder(appointmentId);
+
+        // Frees the old slot, including its inventory claim, before the
+        // new interval is claimed like a new booking
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.left(
+                appointment, previousStartTime, previousEndTime,
+                previousStatus));
+        if (claimSlot) {
+            slotInventoryService.claim(
+                    doctorId,
+                    appointment.getStartTime(),
+                    appointment.getEndTime(),
+                    appointmentId
+            );
+        }
+        eventPublisher.publishEvent(
+                AppointmentStatusChangedEvent.of(appointment, null));
+
+        try {
+            emailService.sendRescheduleEmails(
+                    appointment,
+                    previousStartTime,
+                    user.getRole().name()
+            );
+        } catch (RuntimeException e) {
+            log.error("Failed to send reschedule emails", e);
+        }
+
+        return convertToDto(appointment);
+    }
+
     @Override
     public AppointmentDto getAppointmentById(Long appointmentId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
@@ -367,6 +789,45 @@ public class AppointmentServiceImpl implements AppointmentService {
         return convertToDto(appointment);
     }
 
+    /**
+     * Only the appointment's own patient or doctor may {@code action} it.
+     */
+    private void checkParticipant(
+            Appointment appointment,
+            User user,
+            String action
+    ) {
+        if (user.getRole() == User.Role.PATIENT) {
+            Patient patient = patientRepository.findByUserId(user.getId())
+                    .orElseThrow(() ->
+                            new RuntimeException("Patient profile not found")
+                    );
+
+            if (!appointment.getPatient().getId().equals(patient.getId())) {
+                throw new RuntimeException(
+                        "You are not authorized to " + action
+                                + " this appointment"
+                );
+            }
+        } else {
+            if (user.getRole() == User.Role.DOCTOR) {
+                Doctor doctor = doctorRepository.findByUserId(user.getId())
+                        .orElseThrow(() ->
+                                new RuntimeException("Doctor profile not found")
+                        );
+
+                if (!appointment.getDoctor().getId().equals(doctor.getId())) {
+                    throw new RuntimeException(
+                            "You are not authorized to " + action
+                                    + " this appointment"
+                    );
+                }
+            } else {
+                throw new RuntimeException("Invalid user role");
+            }
+        }
+    }
+
     private AppointmentDto convertToDto(Appointment appointment) {
         AppointmentDto dto = new AppointmentDto();
         dto.setId(appointment.getId());
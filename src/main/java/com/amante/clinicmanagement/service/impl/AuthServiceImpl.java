@@ -37,6 +37,12 @@ public class AuthServiceImpl implements AuthService {
     public AuthResponse register(RegisterRequest request) {
         log.info("Attempting registration for email: {}", request.getEmail());
 
+        if (request.getRole() == User.Role.ADMIN) {
+            log.warn("Registration failed: Admin self-registration - {}",
+                    request.getEmail());
+            throw new RuntimeException("Admin accounts cannot be registered");
+        }
+
         if (userRepository.existsByEmail(request.getEmail())) {
             log.warn("Registration failed: Email already exists - {}",
                     request.getEmail());
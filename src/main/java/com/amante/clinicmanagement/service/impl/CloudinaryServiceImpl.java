@@ -1,5 +1,6 @@
 package com.amante.clinicmanagement.service.impl;
 
+import com.amante.clinicmanagement.diagnostics.ConnectionHoldTracker;
 import com.amante.clinicmanagement.service.CloudinaryService;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.Transformation;
@@ -18,10 +19,15 @@ public class CloudinaryServiceImpl implements CloudinaryService {
     private static final int IMAGE_DIMENSION = 500;
     private static final int MINIMUM_URL_PARTS = 2;
 
+    private static final String REMOTE_TARGET = "cloudinary";
+
     private final Cloudinary cloudinary;
+    private final ConnectionHoldTracker connectionHoldTracker;
 
-    public CloudinaryServiceImpl(Cloudinary cloudinary) {
+    public CloudinaryServiceImpl(Cloudinary cloudinary,
+                                 ConnectionHoldTracker connectionHoldTracker) {
         this.cloudinary = cloudinary;
+        this.connectionHoldTracker = connectionHoldTracker;
     }
 
     @Override
@@ -39,18 +45,20 @@ public class CloudinaryServiceImpl implements CloudinaryService {
 
         String publicId = folder + "/" + UUID.randomUUID().toString();
 
-        Map uploadResult = cloudinary.uploader().upload(file.getBytes(),
-                ObjectUtils.asMap(
-                        "public_id", publicId,
-                        "folder", folder,
-                        "resource_type", "image",
-                        "transformation", new Transformation()
-                                .width(IMAGE_DIMENSION)
-                                .height(IMAGE_DIMENSION)
-                                .crop("fill")
-                                .gravity("face")
-                                .quality("auto")
-                ));
+        byte[] bytes = file.getBytes();
+        Map uploadResult = connectionHoldTracker.remote(REMOTE_TARGET,
+                () -> cloudinary.uploader().upload(bytes,
+                        ObjectUtils.asMap(
+                                "public_id", publicId,
+                                "folder", folder,
+                                "resource_type", "image",
+                                "transformation", new Transformation()
+                                        .width(IMAGE_DIMENSION)
+                                        .height(IMAGE_DIMENSION)
+                                        .crop("fill")
+                                        .gravity("face")
+                                        .quality("auto")
+                        )));
 
         return (String) uploadResult.get("secure_url");
     }
@@ -61,7 +69,9 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         String publicId = extractPublicIdFromUrl(imageUrl);
 
         if (publicId != null) {
-            cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+            connectionHoldTracker.remote(REMOTE_TARGET,
+                    () -> cloudinary.uploader().destroy(publicId,
+                            ObjectUtils.emptyMap()));
         }
     }
 
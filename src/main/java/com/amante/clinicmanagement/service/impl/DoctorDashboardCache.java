@@ -0,0 +1,101 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.DoctorDashboardDto;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of doctor dashboards keyed by the doctor's login and
+ * the requested number of upcoming appointments, so a cache hit needs no
+ * query at all. Committed status changes evict the doctor; the TTL
+ * covers changes made by other application instances and a dashboard
+ * never outlives the day it was computed for.
+ */
+@Component
+public class DoctorDashboardCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    // Bumped on every eviction so a dashboard computed across one is dropped
+    private long version;
+
+    public DoctorDashboardCache(
+            @Value("${dashboard.cache.max-entries:10000}") int maxEntries,
+            @Value("${dashboard.cache.ttl-seconds:15}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > DoctorDashboardCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cached dashboard, or {@code null} on a miss.
+     */
+    public synchronized DoctorDashboardDto get(String doctorEmail,
+                                               int limit) {
+        Key key = new Key(doctorEmail, limit);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt >= ttlNanos
+                || !entry.dashboard.getDate().equals(LocalDate.now())) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.dashboard;
+    }
+
+    /**
+     * Version to pass to {@link #put}; take it before reading the
+     * database.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized void put(String doctorEmail, int limit,
+                                 Long doctorId, DoctorDashboardDto dashboard,
+                                 long readVersion) {
+        if (maxEntries <= 0 || readVersion != version) {
+            return;
+        }
+        entries.put(new Key(doctorEmail, limit),
+                new Entry(doctorId, dashboard, System.nanoTime()));
+    }
+
+    public synchronized void evictDoctor(Long doctorId) {
+        version++;
+        entries.values().removeIf(entry -> entry.doctorId.equals(doctorId));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(
+            AppointmentStatusChangedEvent event) {
+        evictDoctor(event.getDoctorId());
+    }
+
+    private record Key(String doctorEmail, int limit) {
+    }
+
+    private record Entry(Long doctorId, DoctorDashboardDto dashboard,
+                         long loadedAt) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.amante.clinicmanagement.service.impl;
 
+import com.amante.clinicmanagement.config.ReplicaRoutingDataSource;
 import com.amante.clinicmanagement.dto.request.AddBreakRequest;
 import com.amante.clinicmanagement.dto.request.AddDayOffRequest;
 import com.amante.clinicmanagement.dto.request.UpdateDoctorProfileRequest;
@@ -19,6 +20,7 @@ import com.amante.clinicmanagement.entity.DoctorDayOff;
 import com.amante.clinicmanagement.entity.DoctorSettings;
 import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
 import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.event.DoctorScheduleChangedEvent;
 import com.amante.clinicmanagement.repository.AppointmentRepository;
 import com.amante.clinicmanagement.repository.DoctorBreakRepository;
 import com.amante.clinicmanagement.repository.DoctorDayOffRepository;
@@ -26,10 +28,16 @@ import com.amante.clinicmanagement.repository.DoctorRepository;
 import com.amante.clinicmanagement.repository.DoctorSettingsRepository;
 import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
 import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.scheduling.DoctorDayOccupancy;
+import com.amante.clinicmanagement.scheduling.MinuteIntervals;
+import com.amante.clinicmanagement.scheduling.OccupancyIndex;
+import com.amante.clinicmanagement.scheduling.SlotCalculator;
 import com.amante.clinicmanagement.service.CloudinaryService;
 import com.amante.clinicmanagement.service.DoctorService;
+import com.amante.clinicmanagement.service.SlotInventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -37,21 +45,21 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class DoctorServiceImpl implements DoctorService {
     private static final String DOCTOR_NOT_FOUND = "Doctor not found";
     private static final int DEFAULT_SLOT_DURATION = 30;
@@ -66,6 +74,9 @@ public class DoctorServiceImpl implements DoctorService {
     private final DoctorDayOffRepository doctorDayOffRepository;
     private final CloudinaryService cloudinaryService;
     private final UserRepository userRepository;
+    private final OccupancyIndex occupancyIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SlotInventoryService slotInventoryService;
 
     private Doctor getDoctorByEmail(String email) {
         User user = userRepository.findByEmail(email)
@@ -110,23 +121,18 @@ public class DoctorServiceImpl implements DoctorService {
         Doctor doctor = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new RuntimeException(DOCTOR_NOT_FOUND));
 
+        if (slotInventoryService.isEnabled()) {
+            return slotInventoryService.getSlots(doctorId, date);
+        }
+
         DoctorSettings settings = doctorSettingsRepository
                 .findByDoctorId(doctorId)
                 .orElse(new DoctorSettings(doctor, DEFAULT_SLOT_DURATION,
                         DEFAULT_BUFFER_TIME, DEFAULT_TIMEZONE));
 
-        ZoneId doctorTimezone = ZoneId.of(settings.getTimezone());
-
         DayOfWeek dayOfWeek = date.getDayOfWeek();
-        List<DoctorDayOff> recurringDaysOff = doctorDayOffRepository
-                .findRecurringByDoctorIdAndDayOfWeek(doctorId, dayOfWeek);
-        if (!recurringDaysOff.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<DoctorDayOff> daysOff = doctorDayOffRepository
-                .findByDoctorIdAndDate(doctorId, date);
-        if (!daysOff.isEmpty()) {
+        DoctorDayOccupancy occupancy = getOccupancy(doctorId, date);
+        if (occupancy.isDayOff()) {
             return Collections.emptyList();
         }
 
@@ -140,83 +146,51 @@ public class DoctorServiceImpl implements DoctorService {
         LocalTime workStartTime = schedule.getStartTime();
         LocalTime workEndTime = schedule.getEndTime();
 
-        int slotDuration = settings.getSlotDuration();
-        int bufferTime = settings.getBufferTime();
-
-        List<DoctorBreak> breaks = doctorBreakRepository
-                .findByDoctorIdAndDay(doctorId, dayOfWeek.name());
-
-        ZonedDateTime startOfDay = date.atTime(workStartTime)
-                .atZone(doctorTimezone);
-        ZonedDateTime endOfDay = date.atTime(workEndTime)
-                .atZone(doctorTimezone);
-
-        LocalDateTime startOfDayLocal = startOfDay.toLocalDateTime();
-        LocalDateTime endOfDayLocal = endOfDay.toLocalDateTime();
-        List<Appointment> bookedAppointments = appointmentRepository
-                .findByDoctorIdAndDate(doctorId, startOfDayLocal,
-                        endOfDayLocal);
-
-        List<TimeSlotDto> slots = new ArrayList<>();
-        ZonedDateTime currentSlot = startOfDay;
-
-        while (currentSlot.isBefore(endOfDay)) {
-            ZonedDateTime slotEnd = currentSlot.plusMinutes(slotDuration);
-            if (slotEnd.isAfter(endOfDay)) {
-                break;
-            }
-
-            boolean isDuringBreak = false;
-            String breakReason = null;
-
-            for (DoctorBreak breakTime : breaks) {
-                ZonedDateTime breakStart = date
-                        .atTime(breakTime.getStartTime())
-                        .atZone(doctorTimezone);
-                ZonedDateTime breakEnd = date
-                        .atTime(breakTime.getEndTime())
-                        .atZone(doctorTimezone);
-
-                if (currentSlot.isBefore(breakEnd)
-                        && slotEnd.isAfter(breakStart)) {
-                    isDuringBreak = true;
-                    breakReason = breakTime.getBreakName()
-                            .toUpperCase(Locale.ROOT);
-                    break;
-                }
-            }
-
-            boolean isAvailable = true;
-            String reason = null;
-
-            if (isDuringBreak) {
-                isAvailable = false;
-                reason = breakReason;
-            } else {
-                LocalDateTime currentSlotLocal = currentSlot.toLocalDateTime();
-                LocalDateTime slotEndLocal = slotEnd.toLocalDateTime();
-
-                for (Appointment apt : bookedAppointments) {
-                    if (!(currentSlotLocal.isAfter(apt.getEndTime()) ||
-                            slotEndLocal.isBefore(apt.getStartTime()))) {
-                        isAvailable = false;
-                        reason = "BOOKED";
-                        break;
-                    }
-                }
-            }
+        return SlotCalculator.calculate(
+                date,
+                MinuteIntervals.minuteOfDay(workStartTime),
+                MinuteIntervals.minuteOfDay(workEndTime),
+                settings.getSlotDuration(),
+                settings.getBufferTime(),
+                occupancy
+        );
+    }
 
-            TimeSlotDto slot = new TimeSlotDto();
-            slot.setStartTime(currentSlot.toLocalDateTime());
-            slot.setEndTime(slotEnd.toLocalDateTime());
-            slot.setAvailable(isAvailable);
-            slot.setReason(reason);
-            slots.add(slot);
+    // Serves the doctor-day from the occupancy cache, rebuilding it from
+    // days off, breaks and appointments on a miss. Only rebuilds read
+    // from the primary are cached.
+    private DoctorDayOccupancy getOccupancy(Long doctorId, LocalDate date) {
+        DoctorDayOccupancy cached = occupancyIndex.get(doctorId, date);
+        if (cached != null) {
+            return cached;
+        }
 
-            currentSlot = slotEnd.plusMinutes(bufferTime);
+        long version = occupancyIndex.version();
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        DoctorDayOccupancy occupancy;
+        if (!doctorDayOffRepository
+                .findRecurringByDoctorIdAndDayOfWeek(doctorId, dayOfWeek)
+                .isEmpty()
+                || !doctorDayOffRepository
+                .findByDoctorIdAndDate(doctorId, date).isEmpty()) {
+            occupancy = DoctorDayOccupancy.dayOff();
+        } else {
+            List<DoctorBreak> breaks = doctorBreakRepository
+                    .findByDoctorIdAndDay(doctorId, dayOfWeek.name());
+            List<Appointment> bookedAppointments = appointmentRepository
+                    .findByDoctorIdAndDate(doctorId, date.atStartOfDay(),
+                            date.plusDays(1).atStartOfDay());
+            occupancy = DoctorDayOccupancy.of(
+                    MinuteIntervals.ofBreaks(breaks),
+                    MinuteIntervals.ofAppointments(bookedAppointments, date));
         }
 
-        return slots;
+        // A lagging replica can still show a cancelled slot as booked,
+        // and booking trusts a cached booked bit without a query
+        if (!ReplicaRoutingDataSource.isReplicaRead()) {
+            occupancyIndex.put(doctorId, date, occupancy, version);
+        }
+        return occupancy;
     }
 
     @Override
@@ -332,7 +306,11 @@ public class DoctorServiceImpl implements DoctorService {
         settings.setBufferTime(request.getBufferTime());
         settings.setTimezone(request.getTimezone());
 
-        return convertSettingsToDto(doctorSettingsRepository.save(settings));
+        DoctorSettingsDto saved =
+                convertSettingsToDto(doctorSettingsRepository.save(settings));
+        eventPublisher.publishEvent(
+                new DoctorScheduleChangedEvent(doctor.getId()));
+        return saved;
     }
 
     @Override
@@ -340,7 +318,16 @@ public class DoctorServiceImpl implements DoctorService {
     public List<WeeklyScheduleDto> updateWeeklySchedule(
             String email, UpdateWeeklyScheduleRequest request) {
         Doctor doctor = getDoctorByEmail(email);
+
+        Map<DayOfWeek, DoctorWeeklySchedule> existing =
+                new EnumMap<>(DayOfWeek.class);
+        for (DoctorWeeklySchedule schedule
+                : weeklyScheduleRepository.findByDoctorId(doctor.getId())) {
+            existing.put(schedule.getDayOfWeek(), schedule);
+        }
+
         List<DoctorWeeklySchedule> updatedSchedules = new ArrayList<>();
+        List<DoctorWeeklySchedule> changed = new ArrayList<>();
 
         for (Map.Entry<?, UpdateWeeklyScheduleRequest.DaySchedule> entry
                 : request.getSchedule().entrySet()) {
@@ -355,17 +342,32 @@ public class DoctorServiceImpl implements DoctorService {
             UpdateWeeklyScheduleRequest.DaySchedule daySchedule =
                     entry.getValue();
 
-            DoctorWeeklySchedule schedule = weeklyScheduleRepository
-                    .findByDoctorIdAndDayOfWeek(doctor.getId(), day)
-                    .orElse(new DoctorWeeklySchedule());
+            DoctorWeeklySchedule current = existing.get(day);
+            if (current != null && isSameDay(current, daySchedule)) {
+                updatedSchedules.add(current);
+                continue;
+            }
 
-            schedule.setDoctor(doctor);
-            schedule.setDayOfWeek(day);
-            schedule.setIsAvailable(daySchedule.getAvailable());
-            schedule.setStartTime(daySchedule.getStartTime());
-            schedule.setEndTime(daySchedule.getEndTime());
+            // Written with one batched upsert below; managed entities are
+            // left untouched so Hibernate does not flush them as well.
+            DoctorWeeklySchedule schedule = new DoctorWeeklySchedule(
+                    doctor,
+                    day,
+                    daySchedule.getAvailable(),
+                    daySchedule.getStartTime(),
+                    daySchedule.getEndTime()
+            );
+            if (current != null) {
+                schedule.setId(current.getId());
+            }
+            changed.add(schedule);
+            updatedSchedules.add(schedule);
+        }
 
-            updatedSchedules.add(weeklyScheduleRepository.save(schedule));
+        if (!changed.isEmpty()) {
+            weeklyScheduleRepository.upsertAll(doctor.getId(), changed);
+            eventPublisher.publishEvent(
+                    new DoctorScheduleChangedEvent(doctor.getId()));
         }
 
         return updatedSchedules.stream()
@@ -373,6 +375,17 @@ public class DoctorServiceImpl implements DoctorService {
                 .collect(Collectors.toList());
     }
 
+    private static boolean isSameDay(
+            DoctorWeeklySchedule schedule,
+            UpdateWeeklyScheduleRequest.DaySchedule daySchedule) {
+        return Objects.equals(schedule.getIsAvailable(),
+                daySchedule.getAvailable())
+                && Objects.equals(schedule.getStartTime(),
+                daySchedule.getStartTime())
+                && Objects.equals(schedule.getEndTime(),
+                daySchedule.getEndTime());
+    }
+
     @Override
     @Transactional
     public DoctorBreakDto addBreak(String email, AddBreakRequest request) {
@@ -385,7 +398,11 @@ public class DoctorServiceImpl implements DoctorService {
         breakEntity.setEndTime(request.getEndTime());
         breakEntity.setDayOfWeek(request.getDayOfWeek());
 
-        return convertBreakToDto(doctorBreakRepository.save(breakEntity));
+        DoctorBreakDto saved =
+                convertBreakToDto(doctorBreakRepository.save(breakEntity));
+        eventPublisher.publishEvent(
+                new DoctorScheduleChangedEvent(doctor.getId()));
+        return saved;
     }
 
     @Override
@@ -406,7 +423,11 @@ public class DoctorServiceImpl implements DoctorService {
         breakEntity.setEndTime(request.getEndTime());
         breakEntity.setDayOfWeek(request.getDayOfWeek());
 
-        return convertBreakToDto(doctorBreakRepository.save(breakEntity));
+        DoctorBreakDto saved =
+                convertBreakToDto(doctorBreakRepository.save(breakEntity));
+        eventPublisher.publishEvent(
+                new DoctorScheduleChangedEvent(doctor.getId()));
+        return saved;
     }
 
     @Override
@@ -422,6 +443,8 @@ public class DoctorServiceImpl implements DoctorService {
         }
 
         doctorBreakRepository.delete(breakEntity);
+        eventPublisher.publishEvent(
+                new DoctorScheduleChangedEvent(doctor.getId()));
     }
 
     @Override
@@ -443,7 +466,10 @@ public class DoctorServiceImpl implements DoctorService {
                     DayOfWeek.valueOf(request.getRecurringDay()));
         }
 
-        return convertDayOffToDto(doctorDayOffRepository.save(dayOff));
+        DoctorDayOffDto saved =
+                convertDayOffToDto(doctorDayOffRepository.save(dayOff));
+        eventPublisher.publishEvent(dayOffChanged(doctor, dayOff, null));
+        return saved;
     }
 
     @Override
@@ -460,6 +486,10 @@ public class DoctorServiceImpl implements DoctorService {
                     "Day off does not belong to this doctor");
         }
 
+        DoctorDayOff previous = new DoctorDayOff(doctor,
+                dayOff.getStartDate(), dayOff.getEndDate(), null, null);
+        previous.setIsRecurring(dayOff.getIsRecurring());
+
         dayOff.setStartDate(request.getStartDate());
         dayOff.setEndDate(request.getEndDate());
         dayOff.setReason(request.getReason());
@@ -473,7 +503,10 @@ public class DoctorServiceImpl implements DoctorService {
             dayOff.setRecurringDay(null);
         }
 
-        return convertDayOffToDto(doctorDayOffRepository.save(dayOff));
+        DoctorDayOffDto saved =
+                convertDayOffToDto(doctorDayOffRepository.save(dayOff));
+        eventPublisher.publishEvent(dayOffChanged(doctor, dayOff, previous));
+        return saved;
     }
 
     @Override
@@ -490,6 +523,26 @@ public class DoctorServiceImpl implements DoctorService {
         }
 
         doctorDayOffRepository.delete(dayOff);
+        eventPublisher.publishEvent(dayOffChanged(doctor, dayOff, null));
+    }
+
+    // Non-recurring days off only affect their own date range.
+    private DoctorScheduleChangedEvent dayOffChanged(
+            Doctor doctor, DoctorDayOff dayOff, DoctorDayOff previous) {
+        if (Boolean.TRUE.equals(dayOff.getIsRecurring())
+                || (previous != null
+                && Boolean.TRUE.equals(previous.getIsRecurring()))) {
+            return new DoctorScheduleChangedEvent(doctor.getId());
+        }
+        LocalDate from = dayOff.getStartDate();
+        LocalDate to = dayOff.getEndDate();
+        if (previous != null) {
+            from = from.isBefore(previous.getStartDate())
+                    ? from : previous.getStartDate();
+            to = to.isAfter(previous.getEndDate())
+                    ? to : previous.getEndDate();
+        }
+        return new DoctorScheduleChangedEvent(doctor.getId(), from, to);
     }
 
     private DoctorDto convertToDto(Doctor doctor) {
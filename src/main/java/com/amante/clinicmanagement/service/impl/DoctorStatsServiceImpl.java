@@ -0,0 +1,374 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.DoctorDailyStatsDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+import com.amante.clinicmanagement.entity.DoctorDailyStats;
+import com.amante.clinicmanagement.entity.DoctorDayOff;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorBreakRepository;
+import com.amante.clinicmanagement.repository.DoctorDailyStatsRepository;
+import com.amante.clinicmanagement.repository.DoctorDayOffRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.scheduling.MinuteIntervals;
+import com.amante.clinicmanagement.service.DoctorStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-doctor daily statistics kept in {@code doctor_daily_stats}.
+ * Every status transition adds its delta to the row of the appointment's
+ * day in the transaction that made it, so the rows stay exact without
+ * ever scanning {@code appointments}; the backfill rebuilds them from
+ * history once, or after the table was lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorStatsServiceImpl implements DoctorStatsService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final Comparator<DoctorDailyStats> ROW_ORDER = Comparator
+            .comparing(DoctorDailyStats::getDoctorId)
+            .thenComparing(DoctorDailyStats::getStatDate);
+
+    private final DoctorDailyStatsRepository statsRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final UserRepository userRepository;
+    private final DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+    private final DoctorBreakRepository doctorBreakRepository;
+    private final DoctorDayOffRepository doctorDayOffRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${doctor-stats.max-range-days:366}")
+    private int maxRangeDays;
+
+    @Value("${doctor-stats.backfill.chunk-days:31}")
+    private int chunkDays;
+
+    /**
+     * Runs inside the transaction that changed the appointment. Deltas
+     * are summed per doctor and day and written in one batch just before
+     * that transaction commits, in a fixed row order so concurrent
+     * transactions cannot deadlock on them.
+     */
+    @EventListener
+    public void onAppointmentStatusChanged(
+            AppointmentStatusChangedEvent event) {
+        DoctorDailyStats delta = delta(event);
+        if (delta == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statsRepository.addAll(List.of(delta));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<DoctorDailyStats, DoctorDailyStats> pending =
+                (Map<DoctorDailyStats, DoctorDailyStats>)
+                        TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<DoctorDailyStats, DoctorDailyStats> deltas =
+                    new TreeMap<>(ROW_ORDER);
+            pending = deltas;
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void beforeCommit(boolean readOnly) {
+                            statsRepository.addAll(deltas.values());
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                            TransactionSynchronizationManager
+                                    .unbindResourceIfPossible(
+                                            DoctorStatsServiceImpl.this);
+                        }
+                    });
+        }
+        pending.merge(delta, delta, DoctorStatsServiceImpl::sum);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DoctorDailyStatsDto> getDailyStats(
+            String userEmail,
+            Long doctorId,
+            LocalDate from,
+            LocalDate to
+    ) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Long scope;
+        if (user.getRole() == User.Role.DOCTOR) {
+            Doctor doctor = doctorRepository.findByUserId(user.getId())
+                    .orElseThrow(() ->
+                            new RuntimeException("Doctor profile not found")
+                    );
+            if (doctorId != null && !doctorId.equals(doctor.getId())) {
+                throw new RuntimeException(
+                        "Doctors can only view their own statistics");
+            }
+            scope = doctor.getId();
+        } else if (user.getRole() == User.Role.ADMIN) {
+            scope = doctorId;
+        } else {
+            throw new RuntimeException(
+                    "Only doctors and admins can view statistics");
+        }
+
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null
+                ? end.minusDays(DEFAULT_RANGE_DAYS - 1) : from;
+        if (start.isAfter(end)) {
+            throw new RuntimeException(
+                    "Start date must be before or equal to end date");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxRangeDays) {
+            throw new RuntimeException(
+                    "Date range cannot exceed " + maxRangeDays + " days");
+        }
+
+        List<DoctorDailyStats> rows = scope == null
+                ? statsRepository
+                .findByStatDateBetweenOrderByDoctorIdAscStatDateAsc(
+                        start, end)
+                : statsRepository
+                .findByDoctorIdAndStatDateBetweenOrderByStatDate(
+                        scope, start, end);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, WorkingTime> workingTimes = loadWorkingTimes(scope);
+        return rows.stream()
+                .map(row -> convertToDto(row, workingTimes.getOrDefault(
+                        row.getDoctorId(), WorkingTime.NONE)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int backfill(LocalDate from, LocalDate to) {
+        LocalDate start = from;
+        LocalDate end = to;
+        if (start == null || end == null) {
+            LocalDateTime earliest =
+                    appointmentRepository.findEarliestStartTime();
+            if (earliest == null) {
+                return 0;
+            }
+            if (start == null) {
+                start = earliest.toLocalDate();
+            }
+            if (end == null) {
+                end = appointmentRepository.findLatestStartTime()
+                        .toLocalDate();
+            }
+        }
+        if (start.isAfter(end)) {
+            throw new RuntimeException(
+                    "Start date must be before or equal to end date");
+        }
+
+        TransactionTemplate transaction =
+                new TransactionTemplate(transactionManager);
+        int rows = 0;
+        for (LocalDate chunkStart = start; !chunkStart.isAfter(end);
+             chunkStart = chunkStart.plusDays(chunkDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(chunkDays);
+            LocalDate rebuildEnd = chunkEnd.isAfter(end.plusDays(1))
+                    ? end.plusDays(1) : chunkEnd;
+            LocalDate rebuildStart = chunkStart;
+            Integer written = transaction.execute(status ->
+                    statsRepository.rebuild(rebuildStart, rebuildEnd));
+            rows += written == null ? 0 : written;
+            log.debug("Rebuilt doctor statistics of {}..{}",
+                    rebuildStart, rebuildEnd.minusDays(1));
+        }
+        log.info("Backfilled {} doctor statistics rows for {}..{}",
+                rows, start, end);
+        return rows;
+    }
+
+    static DoctorDailyStats delta(AppointmentStatusChangedEvent event) {
+        Appointment.Status previous = event.getPreviousStatus();
+        Appointment.Status next = event.getNewStatus();
+        if (previous == next) {
+            return null;
+        }
+        int minutes = (int) Duration.between(event.getStartTime(),
+                event.getEndTime()).toMinutes();
+        DoctorDailyStats delta = new DoctorDailyStats(event.getDoctorId(),
+                event.getStartTime().toLocalDate());
+        if (previous == null) {
+            delta.setRequestedCount(1);
+        } else {
+            delta.add(previous, -1);
+            if (isBooked(previous)) {
+                delta.setBookedMinutes(-minutes);
+            }
+        }
+        if (next != null) {
+            delta.add(next, 1);
+            if (isBooked(next)) {
+                delta.setBookedMinutes(delta.getBookedMinutes() + minutes);
+            }
+        } else {
+            // Rescheduled away; the new day counts it as requested
+            delta.setRequestedCount(-1);
+        }
+        return delta;
+    }
+
+    private static boolean isBooked(Appointment.Status status) {
+        return status == Appointment.Status.CONFIRMED
+                || status == Appointment.Status.COMPLETED;
+    }
+
+    private static DoctorDailyStats sum(DoctorDailyStats a,
+                                        DoctorDailyStats b) {
+        a.setRequestedCount(a.getRequestedCount() + b.getRequestedCount());
+        a.setPendingCount(a.getPendingCount() + b.getPendingCount());
+        a.setConfirmedCount(a.getConfirmedCount() + b.getConfirmedCount());
+        a.setCompletedCount(a.getCompletedCount() + b.getCompletedCount());
+        a.setRejectedCount(a.getRejectedCount() + b.getRejectedCount());
+        a.setCancelledCount(a.getCancelledCount() + b.getCancelledCount());
+        a.setExpiredCount(a.getExpiredCount() + b.getExpiredCount());
+        a.setBookedMinutes(a.getBookedMinutes() + b.getBookedMinutes());
+        return a;
+    }
+
+    // One load of the (small) schedule tables, for one or all doctors
+    private Map<Long, WorkingTime> loadWorkingTimes(Long doctorId) {
+        List<DoctorWeeklySchedule> weekly = doctorId == null
+                ? weeklyScheduleRepository.findAll()
+                : weeklyScheduleRepository.findByDoctorId(doctorId);
+        List<DoctorBreak> breaks = doctorId == null
+                ? doctorBreakRepository.findAll()
+                : doctorBreakRepository.findByDoctorId(doctorId);
+        List<DoctorDayOff> daysOff = doctorId == null
+                ? doctorDayOffRepository.findAll()
+                : doctorDayOffRepository.findByDoctorId(doctorId);
+
+        Map<Long, WorkingTime> workingTimes = new HashMap<>();
+        for (DoctorWeeklySchedule schedule : weekly) {
+            workingTimes.computeIfAbsent(schedule.getDoctor().getId(),
+                            id -> new WorkingTime())
+                    .weekly.put(schedule.getDayOfWeek(), schedule);
+        }
+        for (DoctorBreak doctorBreak : breaks) {
+            workingTimes.computeIfAbsent(doctorBreak.getDoctor().getId(),
+                    id -> new WorkingTime()).breaks.add(doctorBreak);
+        }
+        for (DoctorDayOff dayOff : daysOff) {
+            workingTimes.computeIfAbsent(dayOff.getDoctor().getId(),
+                    id -> new WorkingTime()).daysOff.add(dayOff);
+        }
+        return workingTimes;
+    }
+
+    private DoctorDailyStatsDto convertToDto(DoctorDailyStats row,
+                                             WorkingTime workingTime) {
+        int available = workingTime.availableMinutes(row.getStatDate());
+        int requested = row.getRequestedCount();
+        return new DoctorDailyStatsDto(
+                row.getDoctorId(),
+                row.getStatDate(),
+                requested,
+                row.getPendingCount(),
+                row.getConfirmedCount(),
+                row.getCompletedCount(),
+                row.getRejectedCount(),
+                row.getCancelledCount(),
+                row.getExpiredCount(),
+                row.getBookedMinutes(),
+                available,
+                available == 0
+                        ? null : (double) row.getBookedMinutes() / available,
+                requested == 0
+                        ? 0 : (double) row.getCancelledCount() / requested,
+                requested == 0
+                        ? 0 : (double) row.getRejectedCount() / requested
+        );
+    }
+
+    private static final class WorkingTime {
+
+        private static final WorkingTime NONE = new WorkingTime();
+
+        private final Map<DayOfWeek, DoctorWeeklySchedule> weekly =
+                new HashMap<>();
+        private final List<DoctorBreak> breaks = new ArrayList<>();
+        private final List<DoctorDayOff> daysOff = new ArrayList<>();
+
+        int availableMinutes(LocalDate date) {
+            DoctorWeeklySchedule schedule = weekly.get(date.getDayOfWeek());
+            if (schedule == null
+                    || !Boolean.TRUE.equals(schedule.getIsAvailable())
+                    || schedule.getStartTime() == null
+                    || schedule.getEndTime() == null
+                    || SlotInventoryServiceImpl.isDayOff(date, daysOff)) {
+                return 0;
+            }
+            boolean[] working =
+                    new boolean[MinuteIntervals.MINUTES_PER_DAY];
+            int start = MinuteIntervals.minuteOfDay(schedule.getStartTime());
+            int end = MinuteIntervals.minuteOfDay(schedule.getEndTime());
+            for (int minute = start; minute < end; minute++) {
+                working[minute] = true;
+            }
+            String dayName = date.getDayOfWeek().name();
+            for (DoctorBreak doctorBreak : breaks) {
+                if (SlotInventoryServiceImpl.ALL_DAYS.equals(
+                        doctorBreak.getDayOfWeek())
+                        || dayName.equals(doctorBreak.getDayOfWeek())) {
+                    int breakEnd = MinuteIntervals.minuteOfDay(
+                            doctorBreak.getEndTime());
+                    for (int minute = MinuteIntervals.minuteOfDay(
+                            doctorBreak.getStartTime());
+                         minute < breakEnd; minute++) {
+                        working[minute] = false;
+                    }
+                }
+            }
+            int minutes = 0;
+            for (boolean isWorking : working) {
+                if (isWorking) {
+                    minutes++;
+                }
+            }
+            return minutes;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.entity.IdempotencyRecord;
+import com.amante.clinicmanagement.repository.IdempotencyRecordRepository;
+import com.amante.clinicmanagement.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Idempotency keys stored in {@code idempotency_keys}, which is shared by
+ * all application instances and decides which request runs. Completed
+ * responses are also kept in a bounded per-instance LRU map so a retry
+ * storm is answered without a query; they never change once stored, so
+ * the map only has to respect their expiry.
+ *
+ * <p>A claim in progress carries a short lease. A retry that finds it
+ * run out takes the key over, so a node dying mid-request does not
+ * block the key until its TTL.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transaction;
+    private final int maxEntries;
+    private final long ttlHours;
+    private final long leaseSeconds;
+    private final LinkedHashMap<String, IdempotencyRecord> completed;
+
+    public IdempotencyServiceImpl(
+            IdempotencyRecordRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${idempotency.cache.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${idempotency.in-progress-lease-seconds:60}")
+            long leaseSeconds) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxEntries = maxEntries;
+        this.ttlHours = ttlHours;
+        this.leaseSeconds = leaseSeconds;
+        this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > IdempotencyServiceImpl.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public IdempotencyRecord begin(String principal, String key,
+                                   String requestHash) {
+        String id = id(principal, key);
+        LocalDateTime now = LocalDateTime.now();
+
+        IdempotencyRecord cached = cached(id, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        LocalDateTime lockedUntil = now.plusSeconds(leaseSeconds);
+        IdempotencyRecord existing = repository.findById(id).orElse(null);
+        if (existing != null) {
+            if (existing.getExpiresAt().isAfter(now)) {
+                if (isAbandoned(existing, now)
+                        && takeOver(id, requestHash, lockedUntil, now)) {
+                    log.info("Took over idempotency key {} after its lease "
+                            + "ran out", key);
+                    return null;
+                }
+                remember(existing);
+                return existing;
+            }
+            transaction.executeWithoutResult(status ->
+                    repository.deleteIfExpired(id, now));
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> repository.claim(
+                    id, requestHash, lockedUntil, now,
+                    now.plusHours(ttlHours)));
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            // Another request with the same key claimed it first
+            IdempotencyRecord winner = repository.findById(id)
+                    .orElseGet(() -> inProgress(id, requestHash, now));
+            remember(winner);
+            return winner;
+        }
+    }
+
+    @Override
+    public void complete(String principal, String key, int responseStatus,
+                         String contentType, String body) {
+        String id = id(principal, key);
+        Integer updated = transaction.execute(status -> repository.complete(
+                id, responseStatus, contentType, body));
+        if (updated == null || updated == 0) {
+            log.warn("Idempotency key {} was released before completion", key);
+            return;
+        }
+        repository.findById(id).ifPresent(this::remember);
+    }
+
+    @Override
+    public void abandon(String principal, String key) {
+        transaction.executeWithoutResult(status ->
+                repository.deleteInProgress(id(principal, key)));
+    }
+
+    @Override
+    public int deleteExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            completed.values().removeIf(record ->
+                    !record.getExpiresAt().isAfter(now));
+        }
+        Integer deleted = transaction.execute(status ->
+                repository.deleteExpired(now));
+        return deleted == null ? 0 : deleted;
+    }
+
+    private boolean takeOver(String id, String requestHash,
+                             LocalDateTime lockedUntil, LocalDateTime now) {
+        Integer updated = transaction.execute(status ->
+                repository.takeOver(id, requestHash, lockedUntil, now));
+        return updated != null && updated == 1;
+    }
+
+    // A request still in progress past its lease is assumed lost with the
+    // node that ran it
+    private static boolean isAbandoned(IdempotencyRecord record,
+                                       LocalDateTime now) {
+        return record.getStatus() == IdempotencyRecord.Status.IN_PROGRESS
+                && record.getLockedUntil() != null
+                && !record.getLockedUntil().isAfter(now);
+    }
+
+    private synchronized IdempotencyRecord cached(String id,
+                                                  LocalDateTime now) {
+        IdempotencyRecord record = completed.get(id);
+        if (record != null && !record.getExpiresAt().isAfter(now)) {
+            completed.remove(id);
+            return null;
+        }
+        return record;
+    }
+
+    private synchronized void remember(IdempotencyRecord record) {
+        if (maxEntries > 0
+                && record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+            completed.put(record.getId(), record);
+        }
+    }
+
+    private static IdempotencyRecord inProgress(String id, String requestHash,
+                                                LocalDateTime now) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(id);
+        record.setRequestHash(requestHash);
+        record.setExpiresAt(now);
+        return record;
+    }
+
+    private static String id(String principal, String key) {
+        return principal + " " + key;
+    }
+}
@@ -0,0 +1,114 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.repository.MedicalRecordRepository;
+import com.amante.clinicmanagement.service.MedicalRecordSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index held in memory, one per doctor, for databases without
+ * text search (H2 in tests). Terms are lower-cased words without
+ * stemming; records rank by how often the query terms occur.
+ */
+@Component
+@ConditionalOnProperty(name = "medical-records.search.engine",
+        havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryMedicalRecordSearchIndex
+        implements MedicalRecordSearchIndex {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "as", "at", "by", "for", "in", "is", "of",
+            "on", "or", "the", "to", "with");
+
+    private final MedicalRecordRepository medicalRecordRepository;
+
+    // doctorId -> term -> recordId -> occurrences
+    private final Map<Long, Map<String, Map<Long, Integer>>> postings =
+            new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> documents =
+                medicalRecordRepository.findSearchDocuments();
+        for (Object[] document : documents) {
+            index((Long) document[0], (Long) document[1],
+                    (String) document[2], (String) document[3]);
+        }
+        log.info("Indexed {} medical records for search", documents.size());
+    }
+
+    @Override
+    public void index(Long recordId, Long doctorId, String diagnosis,
+                      String prescription) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String field : new String[] {diagnosis, prescription}) {
+            if (field != null) {
+                tokenize(field).forEach(
+                        term -> counts.merge(term, 1, Integer::sum));
+            }
+        }
+        Map<String, Map<Long, Integer>> terms = postings.computeIfAbsent(
+                doctorId, id -> new ConcurrentHashMap<>());
+        counts.forEach((term, count) -> terms
+                .computeIfAbsent(term, t -> new ConcurrentHashMap<>())
+                .put(recordId, count));
+    }
+
+    @Override
+    public List<Long> search(Long doctorId, String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        Map<String, Map<Long, Integer>> terms = postings.get(doctorId);
+        if (queryTerms.isEmpty() || terms == null) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String term : queryTerms) {
+            Map<Long, Integer> matches = terms.getOrDefault(term, Map.of());
+            if (scores == null) {
+                scores = new HashMap<>(matches);
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ranked =
+                new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey())
+                .reversed());
+        return ranked.stream()
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT)
+                .split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+}
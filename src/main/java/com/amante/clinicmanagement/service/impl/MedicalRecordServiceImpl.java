@@ -1,28 +1,53 @@
 package com.amante.clinicmanagement.service.impl;
 
 import com.amante.clinicmanagement.dto.request.DiagnosisRequest;
+import com.amante.clinicmanagement.dto.response.MedicalHistoryPage;
+import com.amante.clinicmanagement.dto.response.MedicalRecordDto;
 import com.amante.clinicmanagement.entity.Appointment;
 import com.amante.clinicmanagement.entity.Doctor;
 import com.amante.clinicmanagement.entity.MedicalRecord;
+import com.amante.clinicmanagement.entity.Patient;
 import com.amante.clinicmanagement.entity.User;
 import com.amante.clinicmanagement.repository.AppointmentRepository;
 import com.amante.clinicmanagement.repository.DoctorRepository;
 import com.amante.clinicmanagement.repository.MedicalRecordRepository;
+import com.amante.clinicmanagement.repository.PatientRepository;
 import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.service.MedicalRecordSearchIndex;
 import com.amante.clinicmanagement.service.MedicalRecordService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
 public class MedicalRecordServiceImpl implements MedicalRecordService {
 
     private final MedicalRecordRepository medicalRecordRepository;
     private final AppointmentRepository appointmentRepository;
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
+    private final PatientRepository patientRepository;
+    private final MedicalRecordSearchIndex searchIndex;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
 
     private Doctor getDoctorByEmail(String email) {
         User user = userRepository.findByEmail(email)
@@ -36,7 +61,7 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
 
     @Override
     @Transactional
-    public MedicalRecord addDiagnosis(
+    public MedicalRecordDto addDiagnosis(
             DiagnosisRequest request,
             String doctorEmail
     ) {
@@ -61,23 +86,194 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
             );
         }
 
+        if (appointment.getStatus() == Appointment.Status.EXPIRED) {
+            throw new RuntimeException(
+                    "Cannot add diagnosis to expired appointment"
+            );
+        }
+
         appointment.setStatus(Appointment.Status.COMPLETED);
         appointmentRepository.save(appointment);
 
         MedicalRecord record = new MedicalRecord();
         record.setAppointment(appointment);
+        record.setPatientId(appointment.getPatient().getId());
         record.setDiagnosis(request.getDiagnosis());
         record.setPrescription(request.getPrescription());
         record.setCreatedAt(LocalDateTime.now());
 
-        return medicalRecordRepository.save(record);
+        MedicalRecord saved = medicalRecordRepository.save(record);
+        searchIndex.index(saved.getId(), doctor.getId(),
+                saved.getDiagnosis(), saved.getPrescription());
+
+        return convertToDto(saved);
     }
 
     @Override
-    public MedicalRecord getMedicalRecordByAppointmentId(Long appointmentId) {
-        return medicalRecordRepository.findByAppointmentId(appointmentId)
+    public MedicalRecordDto getMedicalRecordByAppointmentId(
+            Long appointmentId
+    ) {
+        return medicalRecordRepository.findDtoByAppointmentId(appointmentId)
                 .orElseThrow(() -> new RuntimeException(
                         "Medical record not found"
                 ));
     }
-}
\ No newline at end of file
+
+    @Override
+    public MedicalHistoryPage getPatientHistory(
+            Long patientId,
+            String cursor,
+            int size,
+            String userEmail
+    ) {
+        checkHistoryAccess(patientId, userEmail);
+
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new RuntimeException(
+                    "Page size must be between 1 and "
+                            + MAX_HISTORY_PAGE_SIZE
+            );
+        }
+
+        // One extra row tells whether an older page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<MedicalRecordDto> records;
+        if (cursor == null || cursor.isBlank()) {
+            records = medicalRecordRepository.findHistoryByPatientId(
+                    patientId, limit);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            records = medicalRecordRepository.findHistoryByPatientIdBefore(
+                    patientId,
+                    position.createdAt(),
+                    position.id(),
+                    limit
+            );
+        }
+
+        String nextCursor = null;
+        if (records.size() > size) {
+            records = records.subList(0, size);
+            MedicalRecordDto last = records.get(size - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getId())
+                    .encode();
+        }
+        return new MedicalHistoryPage(records, nextCursor);
+    }
+
+    @Override
+    public List<MedicalRecordDto> searchRecords(
+            String query,
+            int limit,
+            String doctorEmail
+    ) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Search query is required");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new RuntimeException(
+                    "Limit must be between 1 and " + MAX_SEARCH_RESULTS
+            );
+        }
+
+        Doctor doctor = getDoctorByEmail(doctorEmail);
+        List<Long> ids = searchIndex.search(doctor.getId(), query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Keep the index's ranking
+        Map<Long, MedicalRecordDto> byId = new HashMap<>();
+        for (MedicalRecordDto dto
+                : medicalRecordRepository.findDtosByIdIn(ids)) {
+            byId.put(dto.getId(), dto);
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillRecordPatients() {
+        int updated = medicalRecordRepository.backfillPatients();
+        if (updated > 0) {
+            log.info("Backfilled patient on {} medical records", updated);
+        }
+    }
+
+    private void checkHistoryAccess(Long patientId, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (user.getRole() == User.Role.PATIENT) {
+            Patient patient = patientRepository.findByUserId(user.getId())
+                    .orElseThrow(() -> new RuntimeException(
+                            "Patient profile not found"
+                    ));
+            if (!patient.getId().equals(patientId)) {
+                throw new RuntimeException(
+                        "You can only view your own medical history"
+                );
+            }
+        } else if (user.getRole() == User.Role.DOCTOR) {
+            Doctor doctor = doctorRepository.findByUserId(user.getId())
+                    .orElseThrow(() -> new RuntimeException(
+                            "Doctor profile not found"
+                    ));
+            if (!appointmentRepository.existsByDoctorIdAndPatientId(
+                    doctor.getId(), patientId)) {
+                throw new RuntimeException(
+                        "You can only view the history of your own patients"
+                );
+            }
+        } else {
+            throw new RuntimeException("Invalid user role");
+        }
+    }
+
+    private MedicalRecordDto convertToDto(MedicalRecord record) {
+        Appointment appointment = record.getAppointment();
+        return new MedicalRecordDto(
+                record.getId(),
+                appointment.getId(),
+                appointment.getStartTime(),
+                appointment.getDoctor().getId(),
+                appointment.getDoctor().getFirstName()
+                        + " "
+                        + appointment.getDoctor().getLastName(),
+                appointment.getDoctor().getSpecialization(),
+                appointment.getPatient().getId(),
+                appointment.getPatient().getFirstName()
+                        + " "
+                        + appointment.getPatient().getLastName(),
+                record.getDiagnosis(),
+                record.getPrescription(),
+                record.getCreatedAt()
+        );
+    }
+
+    // Position of the last record returned, as "createdAt_id" in base64
+    private record HistoryCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (createdAt + "_" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String[] parts = new String(
+                        Base64.getUrlDecoder().decode(cursor),
+                        StandardCharsets.UTF_8
+                ).split("_", 2);
+                return new HistoryCursor(LocalDateTime.parse(parts[0]),
+                        Long.valueOf(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException
+                     | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.service.MedicalRecordSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Searches a generated {@code tsvector} column with a GIN index.
+ * PostgreSQL computes the column on every insert and update, so
+ * {@link #index} has nothing to do.
+ */
+@Component
+@ConditionalOnProperty(name = "medical-records.search.engine",
+        havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresMedicalRecordSearchIndex
+        implements MedicalRecordSearchIndex {
+
+    // Hibernate's schema update does not know generated columns
+    private static final String ADD_COLUMN =
+            "ALTER TABLE medical_records "
+                    + "ADD COLUMN IF NOT EXISTS search_vector tsvector "
+                    + "GENERATED ALWAYS AS (to_tsvector('english', "
+                    + "coalesce(diagnosis, '') || ' ' "
+                    + "|| coalesce(prescription, ''))) STORED";
+
+    private static final String CREATE_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_medical_records_search "
+                    + "ON medical_records USING GIN (search_vector)";
+
+    private static final String SEARCH =
+            "SELECT m.id FROM medical_records m "
+                    + "JOIN appointments a ON a.id = m.appointment_id, "
+                    + "plainto_tsquery('english', ?) q "
+                    + "WHERE a.doctor_id = ? AND m.search_vector @@ q "
+                    + "ORDER BY ts_rank(m.search_vector, q) DESC, m.id DESC "
+                    + "LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchColumn() {
+        jdbcTemplate.execute(ADD_COLUMN);
+        jdbcTemplate.execute(CREATE_INDEX);
+        log.info("Medical record search column is ready");
+    }
+
+    @Override
+    public void index(Long recordId, Long doctorId, String diagnosis,
+                      String prescription) {
+    }
+
+    @Override
+    public List<Long> search(Long doctorId, String query, int limit) {
+        return jdbcTemplate.queryForList(SEARCH, Long.class,
+                query, doctorId, limit);
+    }
+}
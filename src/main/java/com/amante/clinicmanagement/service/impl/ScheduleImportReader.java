@@ -0,0 +1,167 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.service.ScheduleImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads import rows one line at a time as field name to value maps,
+ * either from CSV with a header line or from NDJSON objects. Blank lines
+ * and empty values are skipped, so nothing beyond the current line is
+ * held in memory.
+ */
+abstract class ScheduleImportReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    private ScheduleImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static ScheduleImportReader of(ScheduleImportService.Format format,
+                                   BufferedReader reader,
+                                   ObjectMapper objectMapper) {
+        return format == ScheduleImportService.Format.CSV
+                ? new Csv(reader)
+                : new Ndjson(reader, objectMapper);
+    }
+
+    /**
+     * Next row, or {@code null} at the end of the input. A malformed line
+     * is consumed and reported with an {@link IllegalArgumentException}.
+     */
+    Map<String, String> next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == BOM) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            Map<String, String> row = parse(line);
+            if (row != null) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Line number of the row last returned by {@link #next}.
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    // null for lines that carry no row, such as the CSV header
+    abstract Map<String, String> parse(String line);
+
+    private static final class Csv extends ScheduleImportReader {
+
+        private List<String> header;
+
+        private Csv(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        Map<String, String> parse(String line) {
+            List<String> fields = split(line);
+            if (header == null) {
+                header = fields;
+                return null;
+            }
+            if (fields.size() > header.size()) {
+                throw new IllegalArgumentException(
+                        "Row has more fields than the header");
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    row.put(header.get(i), fields.get(i));
+                }
+            }
+            return row;
+        }
+
+        static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < line.length()
+                            && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString().trim());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            fields.add(field.toString().trim());
+            return fields;
+        }
+    }
+
+    private static final class Ndjson extends ScheduleImportReader {
+
+        private final ObjectMapper objectMapper;
+
+        private Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Map<String, String> parse(String line) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON");
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException(
+                        "Each line must be a JSON object");
+            }
+            Map<String, String> row = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String value = field.getValue().asText();
+                if (!field.getValue().isNull() && !value.isBlank()) {
+                    row.put(field.getKey(), value.trim());
+                }
+            }
+            return row;
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.request.AddBreakRequest;
+import com.amante.clinicmanagement.dto.request.AddDayOffRequest;
+import com.amante.clinicmanagement.dto.request.UpdateWeeklyScheduleRequest;
+import com.amante.clinicmanagement.dto.response.ScheduleImportResult;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+import com.amante.clinicmanagement.entity.DoctorDayOff;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.event.DoctorScheduleChangedEvent;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.service.ScheduleImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of weekly schedules, breaks and days off. Rows are parsed
+ * and validated one at a time and written in JDBC batches, each batch in
+ * its own transaction, so memory use does not grow with the file. A
+ * batch the database rejects is retried row by row, so a bad row only
+ * costs that row.
+ *
+ * <p>Every row has a {@code type} of {@code WEEKLY}, {@code BREAK} or
+ * {@code DAY_OFF} and a {@code doctorId}; the other fields follow the
+ * single-row schedule endpoints.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleImportServiceImpl implements ScheduleImportService {
+
+    private static final String INSERT_BREAK =
+            "INSERT INTO doctor_breaks (doctor_id, day_of_week, break_name, "
+                    + "start_time, end_time, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_DAY_OFF =
+            "INSERT INTO doctor_days_off (doctor_id, start_date, end_date, "
+                    + "reason, type, is_recurring, recurring_day, "
+                    + "created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // SQLSTATE for a foreign key violation, e.g. a doctor deleted
+    // while the import ran
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${schedule-import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${schedule-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    public ScheduleImportResult importSchedules(InputStream input,
+                                                Format format) {
+        Map<Long, Doctor> doctors = new HashMap<>();
+        for (Long doctorId : doctorRepository.findAllIds()) {
+            Doctor doctor = new Doctor();
+            doctor.setId(doctorId);
+            doctors.put(doctorId, doctor);
+        }
+
+        ScheduleImportResult result = new ScheduleImportResult();
+        Set<Long> changedDoctors = new HashSet<>();
+        Batch batch = new Batch();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            ScheduleImportReader rows =
+                    ScheduleImportReader.of(format, reader, objectMapper);
+            while (true) {
+                Map<String, String> row;
+                try {
+                    row = rows.next();
+                } catch (IllegalArgumentException e) {
+                    result.setTotalRows(result.getTotalRows() + 1);
+                    reject(result, rows.lineNumber(), e.getMessage(), 1);
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                result.setTotalRows(result.getTotalRows() + 1);
+                try {
+                    batch.add(rows.lineNumber(), row, doctors);
+                } catch (IllegalArgumentException e) {
+                    reject(result, rows.lineNumber(), e.getMessage(), 1);
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    flush(batch, result, changedDoctors);
+                    batch = new Batch();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import file", e);
+        }
+        flush(batch, result, changedDoctors);
+
+        for (Long doctorId : changedDoctors) {
+            eventPublisher.publishEvent(
+                    new DoctorScheduleChangedEvent(doctorId));
+        }
+
+        log.info("Schedule import: {} rows, {} weekly, {} breaks, "
+                        + "{} days off, {} failed",
+                result.getTotalRows(), result.getWeeklySchedules(),
+                result.getBreaks(), result.getDaysOff(),
+                result.getFailedRows());
+        return result;
+    }
+
+    private void flush(Batch batch, ScheduleImportResult result,
+                       Set<Long> changedDoctors) {
+        if (batch.size() == 0) {
+            return;
+        }
+        List<DoctorWeeklySchedule> weekly =
+                batch.rows(DoctorWeeklySchedule.class);
+        List<DoctorBreak> breaks = batch.rows(DoctorBreak.class);
+        List<DoctorDayOff> daysOff = batch.rows(DoctorDayOff.class);
+        try {
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status ->
+                            write(weekly, breaks, daysOff));
+        } catch (DataAccessException e) {
+            if (batch.size() == 1) {
+                // Driver text names tables and values; keep it in the log
+                log.warn("Schedule import line {} rejected",
+                        batch.firstLine(), e);
+                reject(result, batch.firstLine(),
+                        rowFailure(e, batch.rows.get(0)), 1);
+                return;
+            }
+            // The rows already in the failed batch were rolled back
+            log.warn("Schedule import batch at lines {}-{} failed, "
+                            + "retrying row by row",
+                    batch.firstLine(), batch.lastLine(), e);
+            for (Row row : batch.rows) {
+                flush(new Batch(row), result, changedDoctors);
+            }
+            return;
+        }
+        result.setWeeklySchedules(result.getWeeklySchedules() + weekly.size());
+        result.setBreaks(result.getBreaks() + breaks.size());
+        result.setDaysOff(result.getDaysOff() + daysOff.size());
+        for (Row row : batch.rows) {
+            changedDoctors.add(row.doctorId());
+        }
+    }
+
+    private void write(List<DoctorWeeklySchedule> weekly,
+                       List<DoctorBreak> breaks,
+                       List<DoctorDayOff> daysOff) {
+        weeklyScheduleRepository.upsertBatch(weekly);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (!breaks.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BREAK, breaks,
+                    breaks.size(), (ps, breakEntity) -> {
+                        ps.setLong(1, breakEntity.getDoctor().getId());
+                        ps.setString(2, breakEntity.getDayOfWeek());
+                        ps.setString(3, breakEntity.getBreakName());
+                        ps.setObject(4, breakEntity.getStartTime(),
+                                Types.TIME);
+                        ps.setObject(5, breakEntity.getEndTime(),
+                                Types.TIME);
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                    });
+        }
+        if (!daysOff.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DAY_OFF, daysOff,
+                    daysOff.size(), (ps, dayOff) -> {
+                        ps.setLong(1, dayOff.getDoctor().getId());
+                        ps.setDate(2, Date.valueOf(dayOff.getStartDate()));
+                        ps.setDate(3, Date.valueOf(dayOff.getEndDate()));
+                        ps.setString(4, dayOff.getReason());
+                        ps.setString(5, dayOff.getType().name());
+                        ps.setBoolean(6, dayOff.getIsRecurring());
+                        ps.setString(7, dayOff.getRecurringDay() == null
+                                ? null : dayOff.getRecurringDay().name());
+                        ps.setTimestamp(8, now);
+                        ps.setTimestamp(9, now);
+                    });
+        }
+    }
+
+    private static String rowFailure(DataAccessException e, Row row) {
+        Throwable cause = e.getMostSpecificCause();
+        String detail = String.valueOf(cause.getMessage()).toLowerCase();
+        if (detail.contains("uk_weekly_schedule_doctor_day")) {
+            return "Weekly schedule for this doctor and day already exists";
+        }
+        if (cause instanceof SQLException sql
+                && FOREIGN_KEY_VIOLATION.equals(sql.getSQLState())) {
+            return "Doctor not found: " + row.doctorId();
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return "Row conflicts with existing schedule data";
+        }
+        return "Row could not be saved";
+    }
+
+    private void reject(ScheduleImportResult result, long line,
+                        String message, int rows) {
+        result.setFailedRows(result.getFailedRows() + rows);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(
+                    new ScheduleImportResult.RowError(line, message));
+        }
+    }
+
+    // A parsed row: the entity to write and where it came from
+    private record Row(long line, Long doctorId, Object entity) {
+    }
+
+    private static final class Batch {
+
+        private final List<Row> rows = new ArrayList<>();
+
+        Batch() {
+        }
+
+        Batch(Row row) {
+            rows.add(row);
+        }
+
+        int size() {
+            return rows.size();
+        }
+
+        long firstLine() {
+            return rows.get(0).line();
+        }
+
+        long lastLine() {
+            return rows.get(rows.size() - 1).line();
+        }
+
+        <T> List<T> rows(Class<T> type) {
+            List<T> entities = new ArrayList<>();
+            for (Row row : rows) {
+                if (type.isInstance(row.entity())) {
+                    entities.add(type.cast(row.entity()));
+                }
+            }
+            return entities;
+        }
+
+        void add(long line, Map<String, String> row,
+                 Map<Long, Doctor> doctors) {
+            String type = required(row, "type");
+            Long doctorId = parse(row, "doctorId", Long::valueOf);
+            Doctor doctor = doctors.get(doctorId);
+            if (doctor == null) {
+                throw new IllegalArgumentException(
+                        "Doctor not found: " + doctorId);
+            }
+
+            Object entity = switch (type) {
+                case "WEEKLY" -> weeklySchedule(doctor, row);
+                case "BREAK" -> doctorBreak(doctor, row);
+                case "DAY_OFF" -> dayOff(doctor, row);
+                default -> throw new IllegalArgumentException(
+                        "Invalid type. Must be WEEKLY, BREAK, or DAY_OFF");
+            };
+            rows.add(new Row(line, doctorId, entity));
+        }
+
+        private static DoctorWeeklySchedule weeklySchedule(
+                Doctor doctor, Map<String, String> row) {
+            DayOfWeek day = parse(row, "dayOfWeek", DayOfWeek::valueOf);
+            UpdateWeeklyScheduleRequest.DaySchedule schedule =
+                    new UpdateWeeklyScheduleRequest.DaySchedule(
+                            optional(row, "available", Batch::parseBoolean,
+                                    true),
+                            optional(row, "startTime", LocalTime::parse,
+                                    null),
+                            optional(row, "endTime", LocalTime::parse, null));
+            schedule.validate();
+
+            DoctorWeeklySchedule entity = new DoctorWeeklySchedule();
+            entity.setDoctor(doctor);
+            entity.setDayOfWeek(day);
+            entity.setIsAvailable(schedule.getAvailable());
+            entity.setStartTime(schedule.getStartTime());
+            entity.setEndTime(schedule.getEndTime());
+            return entity;
+        }
+
+        private static DoctorBreak doctorBreak(Doctor doctor,
+                                               Map<String, String> row) {
+            AddBreakRequest request = new AddBreakRequest(
+                    required(row, "breakName"),
+                    parse(row, "startTime", LocalTime::parse),
+                    parse(row, "endTime", LocalTime::parse),
+                    row.getOrDefault("dayOfWeek", "ALL"));
+            request.validate();
+
+            return new DoctorBreak(doctor, request.getDayOfWeek(),
+                    request.getBreakName(), request.getStartTime(),
+                    request.getEndTime());
+        }
+
+        private static DoctorDayOff dayOff(Doctor doctor,
+                                           Map<String, String> row) {
+            LocalDate startDate = parse(row, "startDate", LocalDate::parse);
+            AddDayOffRequest request = new AddDayOffRequest(
+                    startDate,
+                    optional(row, "endDate", LocalDate::parse, startDate),
+                    row.get("reason"),
+                    row.getOrDefault("dayOffType",
+                            DoctorDayOff.DayOffType.PERSONAL.name()),
+                    optional(row, "recurring", Batch::parseBoolean, false),
+                    row.get("dayOfWeek"));
+            request.validate();
+            if (request.getIsRecurring()
+                    && request.getRecurringDay() == null) {
+                throw new IllegalArgumentException(
+                        "dayOfWeek is required for a recurring day off");
+            }
+
+            DoctorDayOff dayOff = new DoctorDayOff(doctor,
+                    request.getStartDate(), request.getEndDate(),
+                    request.getReason(),
+                    DoctorDayOff.DayOffType.valueOf(request.getType()));
+            dayOff.setIsRecurring(request.getIsRecurring());
+            if (request.getIsRecurring()) {
+                dayOff.setRecurringDay(
+                        DayOfWeek.valueOf(request.getRecurringDay()));
+            }
+            return dayOff;
+        }
+
+        private static Boolean parseBoolean(String value) {
+            if ("true".equalsIgnoreCase(value)) {
+                return true;
+            }
+            if ("false".equalsIgnoreCase(value)) {
+                return false;
+            }
+            throw new IllegalArgumentException(value);
+        }
+
+        private static String required(Map<String, String> row,
+                                       String field) {
+            String value = row.get(field);
+            if (value == null) {
+                throw new IllegalArgumentException(field + " is required");
+            }
+            return value;
+        }
+
+        private static <T> T parse(Map<String, String> row, String field,
+                                   Parser<T> parser) {
+            String value = required(row, field);
+            try {
+                return parser.parse(value);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException(
+                        "Invalid " + field + ": " + value);
+            }
+        }
+
+        private static <T> T optional(Map<String, String> row, String field,
+                                      Parser<T> parser, T defaultValue) {
+            return row.containsKey(field)
+                    ? parse(row, field, parser) : defaultValue;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parse(String value);
+    }
+}
@@ -0,0 +1,328 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.TimeSlotDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+import com.amante.clinicmanagement.entity.DoctorDayOff;
+import com.amante.clinicmanagement.entity.DoctorSettings;
+import com.amante.clinicmanagement.entity.DoctorSlot;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorBreakRepository;
+import com.amante.clinicmanagement.repository.DoctorDayOffRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorSettingsRepository;
+import com.amante.clinicmanagement.repository.DoctorSlotRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.scheduling.DoctorDayOccupancy;
+import com.amante.clinicmanagement.scheduling.MinuteIntervals;
+import com.amante.clinicmanagement.scheduling.SlotCalculator;
+import com.amante.clinicmanagement.service.SlotInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Optional slot inventory: bookable slots are written to
+ * {@code doctor_slots} ahead of time and booking claims one with a
+ * conditional update instead of running an overlap query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotInventoryServiceImpl implements SlotInventoryService {
+
+    private static final int DEFAULT_SLOT_DURATION = 30;
+    private static final int DEFAULT_BUFFER_TIME = 0;
+    static final String ALL_DAYS = "ALL";
+
+    private final DoctorSlotRepository doctorSlotRepository;
+    private final DoctorRepository doctorRepository;
+    private final DoctorSettingsRepository doctorSettingsRepository;
+    private final DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+    private final DoctorBreakRepository doctorBreakRepository;
+    private final DoctorDayOffRepository doctorDayOffRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${slots.materialized.enabled:false}")
+    private boolean enabled;
+
+    @Value("${slots.materialized.weeks-ahead:4}")
+    private int weeksAhead;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public LocalDate getHorizonEnd() {
+        return LocalDate.now().plusWeeks(weeksAhead).minusDays(1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TimeSlotDto> getSlots(Long doctorId, LocalDate date) {
+        return doctorSlotRepository.findByDoctorIdAndRange(
+                        doctorId,
+                        date.atStartOfDay(),
+                        date.plusDays(1).atStartOfDay()
+                )
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void claim(Long doctorId, LocalDateTime startTime,
+                      LocalDateTime endTime, Long appointmentId) {
+        int claimed = doctorSlotRepository.claim(
+                doctorId, startTime, endTime, appointmentId);
+        if (claimed == 1) {
+            return;
+        }
+
+        boolean slotExists = doctorSlotRepository
+                .findByDoctorIdAndStartTime(doctorId, startTime)
+                .filter(slot -> slot.getEndTime().equals(endTime))
+                .isPresent();
+        if (slotExists) {
+            throw new RuntimeException("Time slot is already booked");
+        }
+        throw new RuntimeException(
+                "Requested time does not match an available slot");
+    }
+
+    @EventListener
+    public void onAppointmentStatusChanged(
+            AppointmentStatusChangedEvent event) {
+        if (enabled && event.isSlotReleased()) {
+            doctorSlotRepository.releaseByAppointmentId(
+                    event.getAppointmentId());
+        }
+    }
+
+    /**
+     * Brings the slots of {@code [fromDate, toDate]} in line with the
+     * doctor's current schedule. {@code null} bounds default to today and
+     * the end of the horizon. Booked slots are never touched, including
+     * ones claimed while this runs.
+     */
+    @Override
+    @Transactional
+    public void regenerate(Long doctorId, LocalDate fromDate,
+                           LocalDate toDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate horizonEnd = getHorizonEnd();
+        LocalDate from = fromDate == null || fromDate.isBefore(today)
+                ? today : fromDate;
+        LocalDate to = toDate == null || toDate.isAfter(horizonEnd)
+                ? horizonEnd : toDate;
+        if (from.isAfter(to)) {
+            return;
+        }
+
+        Doctor doctor = doctorRepository.findById(doctorId).orElse(null);
+        if (doctor == null) {
+            return;
+        }
+
+        DoctorSettings settings = doctorSettingsRepository
+                .findByDoctorId(doctorId)
+                .orElse(new DoctorSettings(doctor, DEFAULT_SLOT_DURATION,
+                        DEFAULT_BUFFER_TIME, null));
+        Map<DayOfWeek, DoctorWeeklySchedule> weekly =
+                new EnumMap<>(DayOfWeek.class);
+        for (DoctorWeeklySchedule schedule
+                : weeklyScheduleRepository.findByDoctorId(doctorId)) {
+            weekly.put(schedule.getDayOfWeek(), schedule);
+        }
+        List<DoctorBreak> breaks =
+                doctorBreakRepository.findByDoctorId(doctorId);
+        List<DoctorDayOff> daysOff =
+                doctorDayOffRepository.findByDoctorId(doctorId);
+
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = to.plusDays(1).atStartOfDay();
+        List<Appointment> appointments = appointmentRepository
+                .findByDoctorIdAndDate(doctorId, rangeStart, rangeEnd);
+
+        Map<LocalDateTime, DoctorSlot> existing = new HashMap<>();
+        for (DoctorSlot slot : doctorSlotRepository
+                .findByDoctorIdAndRange(doctorId, rangeStart, rangeEnd)) {
+            existing.put(slot.getStartTime(), slot);
+        }
+
+        // The slots were read without a lock and booking may claim one
+        // before this commits, so changes go through conditional
+        // statements that skip BOOKED rows instead of entity flushes
+        List<DoctorSlot> toInsert = new ArrayList<>();
+        int updated = 0;
+        for (LocalDate date = from; !date.isAfter(to);
+             date = date.plusDays(1)) {
+            for (DoctorSlot wanted : buildDay(doctor, date, settings,
+                    weekly.get(date.getDayOfWeek()), breaks, daysOff,
+                    appointments)) {
+                DoctorSlot current = existing.remove(wanted.getStartTime());
+                if (current == null) {
+                    toInsert.add(wanted);
+                } else if (current.getStatus() != DoctorSlot.Status.BOOKED
+                        && !sameSlot(current, wanted)) {
+                    updated += doctorSlotRepository.updateUnbooked(
+                            current.getId(), wanted.getEndTime(),
+                            wanted.getStatus(), wanted.getReason(),
+                            wanted.getAppointmentId());
+                }
+            }
+        }
+
+        List<Long> toDelete = existing.values().stream()
+                .filter(slot -> slot.getStatus() != DoctorSlot.Status.BOOKED)
+                .map(DoctorSlot::getId)
+                .collect(Collectors.toList());
+        int deleted = toDelete.isEmpty()
+                ? 0 : doctorSlotRepository.deleteUnbooked(toDelete);
+        doctorSlotRepository.saveAll(toInsert);
+
+        log.debug("Regenerated slots of doctor {} for {}..{}: "
+                        + "{} added, {} changed, {} removed",
+                doctorId, from, to, toInsert.size(), updated, deleted);
+    }
+
+    @Override
+    @Transactional
+    public int purgeBefore(LocalDate date) {
+        return doctorSlotRepository.deleteUnbookedBefore(date.atStartOfDay());
+    }
+
+    private List<DoctorSlot> buildDay(Doctor doctor, LocalDate date,
+                                      DoctorSettings settings,
+                                      DoctorWeeklySchedule schedule,
+                                      List<DoctorBreak> breaks,
+                                      List<DoctorDayOff> daysOff,
+                                      List<Appointment> appointments) {
+        if (schedule == null
+                || !Boolean.TRUE.equals(schedule.getIsAvailable())
+                || isDayOff(date, daysOff)) {
+            return List.of();
+        }
+
+        String dayName = date.getDayOfWeek().name();
+        List<DoctorBreak> dayBreaks = breaks.stream()
+                .filter(b -> ALL_DAYS.equals(b.getDayOfWeek())
+                        || dayName.equals(b.getDayOfWeek()))
+                .collect(Collectors.toList());
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+        List<Appointment> dayAppointments = appointments.stream()
+                .filter(a -> a.getStartTime().isBefore(dayEnd)
+                        && a.getEndTime().isAfter(dayStart))
+                .collect(Collectors.toList());
+
+        DoctorDayOccupancy booked = DoctorDayOccupancy.of(
+                MinuteIntervals.empty(),
+                MinuteIntervals.ofAppointments(dayAppointments, date));
+        Map<LocalDateTime, Appointment> exact = new HashMap<>();
+        for (Appointment appointment : dayAppointments) {
+            exact.put(appointment.getStartTime(), appointment);
+        }
+
+        List<TimeSlotDto> computed = SlotCalculator.calculate(
+                date,
+                MinuteIntervals.minuteOfDay(schedule.getStartTime()),
+                MinuteIntervals.minuteOfDay(schedule.getEndTime()),
+                settings.getSlotDuration(),
+                settings.getBufferTime(),
+                DoctorDayOccupancy.of(MinuteIntervals.ofBreaks(dayBreaks),
+                        MinuteIntervals.empty())
+        );
+
+        List<DoctorSlot> slots = new ArrayList<>(computed.size());
+        for (TimeSlotDto dto : computed) {
+            DoctorSlot slot = new DoctorSlot();
+            slot.setDoctor(doctor);
+            slot.setStartTime(dto.getStartTime());
+            slot.setEndTime(dto.getEndTime());
+            if (dto.getReason() != null) {
+                slot.setStatus(DoctorSlot.Status.BLOCKED);
+                slot.setReason(dto.getReason());
+            } else {
+                Appointment match = exact.get(dto.getStartTime());
+                if (match != null
+                        && match.getEndTime().equals(dto.getEndTime())) {
+                    slot.setStatus(DoctorSlot.Status.BOOKED);
+                    slot.setAppointmentId(match.getId());
+                } else if (booked.isBooked(
+                        MinuteIntervals.minuteOfDay(
+                                dto.getStartTime().toLocalTime()),
+                        minuteOfDayOrMidnight(date, dto.getEndTime()))) {
+                    // Overlapped by an appointment booked off the slot grid
+                    slot.setStatus(DoctorSlot.Status.BLOCKED);
+                    slot.setReason(SlotCalculator.BOOKED);
+                }
+            }
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    private static boolean sameSlot(DoctorSlot current, DoctorSlot wanted) {
+        return current.getEndTime().equals(wanted.getEndTime())
+                && current.getStatus() == wanted.getStatus()
+                && Objects.equals(current.getReason(), wanted.getReason())
+                && Objects.equals(current.getAppointmentId(),
+                        wanted.getAppointmentId());
+    }
+
+    static boolean isDayOff(LocalDate date,
+                                    List<DoctorDayOff> daysOff) {
+        for (DoctorDayOff dayOff : daysOff) {
+            if (Boolean.TRUE.equals(dayOff.getIsRecurring())) {
+                if (dayOff.getRecurringDay() == date.getDayOfWeek()) {
+                    return true;
+                }
+            } else if (!date.isBefore(dayOff.getStartDate())
+                    && !date.isAfter(dayOff.getEndDate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int minuteOfDayOrMidnight(LocalDate date,
+                                             LocalDateTime time) {
+        return time.toLocalDate().isAfter(date)
+                ? MinuteIntervals.MINUTES_PER_DAY
+                : MinuteIntervals.minuteOfDay(time.toLocalTime());
+    }
+
+    private TimeSlotDto convertToDto(DoctorSlot slot) {
+        TimeSlotDto dto = new TimeSlotDto();
+        dto.setStartTime(slot.getStartTime());
+        dto.setEndTime(slot.getEndTime());
+        dto.setAvailable(slot.getStatus() == DoctorSlot.Status.OPEN);
+        if (slot.getStatus() == DoctorSlot.Status.BOOKED) {
+            dto.setReason(SlotCalculator.BOOKED);
+        } else {
+            dto.setReason(slot.getReason());
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,414 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.JoinWaitlistRequest;
+import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.WaitlistEntryDto;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.entity.WaitlistEntry;
+import com.amante.clinicmanagement.entity.WaitlistEntry.Status;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.PatientRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.repository.WaitlistEntryRepository;
+import com.amante.clinicmanagement.scheduling.WaitlistIndex;
+import com.amante.clinicmanagement.service.AppointmentEmailService;
+import com.amante.clinicmanagement.service.AppointmentService;
+import com.amante.clinicmanagement.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Waitlist of patients for freed slots. Entries are persisted in
+ * {@code waitlist_entries}; the WAITING ones are also queued in the
+ * {@link WaitlistIndex}, so a released slot finds its first waiting
+ * patient without querying the table. Other nodes' joins only reach the
+ * index on the next periodic reload, so an empty queue falls back to the
+ * table. The slot is then held for that patient until the offer is
+ * accepted, declined or expires.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final String ENTRY_NOT_FOUND = "Waitlist entry not found";
+    private static final Set<Status> ACTIVE =
+            EnumSet.of(Status.WAITING, Status.OFFERED);
+    // Entries tried for one slot; each attempt is a single-row update
+    private static final int MAX_CANDIDATES = 20;
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final UserRepository userRepository;
+    private final AppointmentService appointmentService;
+    private final AppointmentEmailService emailService;
+    private final WaitlistIndex waitlistIndex;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${waitlist.hold-minutes:30}")
+    private int holdMinutes;
+
+    @Value("${waitlist.max-range-days:31}")
+    private int maxRangeDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        log.info("Loaded {} waiting waitlist entries", reloadIndex());
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto join(JoinWaitlistRequest request,
+                                 String patientEmail) {
+        Patient patient = getPatientByEmail(patientEmail);
+        Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        LocalDate from = request.getFromDate();
+        LocalDate to = request.getToDate();
+        if (from.isAfter(to)) {
+            throw new RuntimeException(
+                    "From date must be before or equal to to date");
+        }
+        if (from.isBefore(LocalDate.now())) {
+            throw new RuntimeException("From date cannot be in the past");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new RuntimeException(
+                    "Waitlist range cannot exceed " + maxRangeDays + " days");
+        }
+        if (waitlistEntryRepository.existsOverlappingEntry(patient.getId(),
+                doctor.getId(), from, to, ACTIVE)) {
+            throw new RuntimeException(
+                    "You are already on this doctor's waitlist for these dates");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setPatient(patient);
+        entry.setDoctor(doctor);
+        entry.setFromDate(from);
+        entry.setToDate(to);
+        entry.setStatus(Status.WAITING);
+        entry.setCreatedAt(LocalDateTime.now());
+        WaitlistEntry saved = waitlistEntryRepository.save(entry);
+        afterCommit(() -> index(saved));
+
+        log.info("Patient {} joined the waitlist of doctor {} for {}..{}",
+                patient.getId(), doctor.getId(), from, to);
+        return convertToDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getMyEntries(String patientEmail) {
+        Patient patient = getPatientByEmail(patientEmail);
+        return waitlistEntryRepository
+                .findByPatientIdOrderByCreatedAtDesc(patient.getId())
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto acceptOffer(Long entryId, String patientEmail) {
+        WaitlistEntry entry = getOwnEntry(entryId, patientEmail);
+        if (entry.getStatus() != Status.OFFERED) {
+            throw new RuntimeException("Only offered slots can be accepted");
+        }
+        if (!entry.getHoldExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("The hold on this slot has expired");
+        }
+        // Wins or loses against a concurrent expiry as a whole
+        transition(entry, Status.BOOKED, "Only offered slots can be accepted");
+
+        // The hold keeps other patients out; overlap checks still apply
+        AppointmentDto appointment = appointmentService.bookAppointment(
+                new BookAppointmentRequest(
+                        entry.getDoctor().getId(),
+                        entry.getOfferedStartTime(),
+                        entry.getOfferedEndTime(),
+                        "Booked from the waitlist"
+                ),
+                patientEmail
+        );
+        entry.setAppointmentId(appointment.getId());
+
+        log.info("Waitlist entry {} booked appointment {}",
+                entryId, appointment.getId());
+        return convertToDto(entry);
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto declineOffer(Long entryId, String patientEmail) {
+        WaitlistEntry entry = getOwnEntry(entryId, patientEmail);
+        if (entry.getStatus() != Status.OFFERED) {
+            throw new RuntimeException("Only offered slots can be declined");
+        }
+        transition(entry, Status.DECLINED, "Only offered slots can be declined");
+        releaseHold(entry);
+        return convertToDto(entry);
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto leave(Long entryId, String patientEmail) {
+        WaitlistEntry entry = getOwnEntry(entryId, patientEmail);
+        Status previous = entry.getStatus();
+        if (!ACTIVE.contains(previous)) {
+            throw new RuntimeException(
+                    "Only waiting or offered entries can be cancelled");
+        }
+        transition(entry, Status.CANCELLED,
+                "Only waiting or offered entries can be cancelled");
+        if (previous == Status.OFFERED) {
+            releaseHold(entry);
+        } else {
+            afterCommit(() -> waitlistIndex.remove(entryId));
+        }
+        return convertToDto(entry);
+    }
+
+    /**
+     * Runs after the transaction that cancelled or expired an
+     * appointment committed, so the slot is free in the database.
+     * Rejected appointments keep their slot and never get here.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(
+            AppointmentStatusChangedEvent event) {
+        if (!event.isSlotReleased()) {
+            return;
+        }
+        try {
+            offerFreedSlot(event.getDoctorId(), event.getStartTime(),
+                    event.getEndTime());
+        } catch (RuntimeException e) {
+            log.error("Failed to offer appointment {}'s slot to the waitlist",
+                    event.getAppointmentId(), e);
+        }
+    }
+
+    @Override
+    public Long offerFreedSlot(Long doctorId, LocalDateTime startTime,
+                               LocalDateTime endTime) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!startTime.isAfter(now)) {
+            return null;
+        }
+        List<Long> candidates = candidates(doctorId, startTime.toLocalDate());
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        LocalDateTime holdExpiresAt = now.plusMinutes(holdMinutes);
+        if (holdExpiresAt.isAfter(startTime)) {
+            holdExpiresAt = startTime;
+        }
+        LocalDateTime holdUntil = holdExpiresAt;
+        TransactionTemplate transaction =
+                new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (Long entryId : candidates) {
+            Boolean offered = transaction.execute(status -> {
+                if (appointmentRepository.existsOverlappingAppointment(
+                        doctorId, startTime, endTime)
+                        || waitlistEntryRepository.existsActiveHold(
+                        doctorId, startTime, endTime, now)) {
+                    return null;
+                }
+                return waitlistEntryRepository.offer(entryId, startTime,
+                        endTime, holdUntil, now) == 1;
+            });
+            if (offered == null) {
+                log.debug("Slot {} of doctor {} was taken before it could "
+                        + "be offered", startTime, doctorId);
+                return null;
+            }
+            // Offered now, or no longer waiting: either way out of the queue
+            waitlistIndex.remove(entryId);
+            if (offered) {
+                log.info("Offered slot {} of doctor {} to waitlist entry {} "
+                        + "until {}", startTime, doctorId, entryId, holdUntil);
+                notifyOffer(entryId, transaction);
+                return entryId;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int expireStale() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionTemplate transaction =
+                new TransactionTemplate(transactionManager);
+
+        int expired = 0;
+        for (WaitlistEntry lapsed : waitlistEntryRepository
+                .findByStatusAndHoldExpiresAtBefore(Status.OFFERED, now)) {
+            // Loses to an acceptance that got there first
+            Integer expiredNow = transaction.execute(status ->
+                    waitlistEntryRepository.transition(lapsed.getId(),
+                            Status.OFFERED, Status.EXPIRED, now));
+            if (expiredNow != null && expiredNow == 1) {
+                expired++;
+                offerFreedSlot(lapsed.getDoctor().getId(),
+                        lapsed.getOfferedStartTime(),
+                        lapsed.getOfferedEndTime());
+            }
+        }
+
+        LocalDate today = now.toLocalDate();
+        Integer outdated = transaction.execute(status ->
+                waitlistEntryRepository.expireWaitingBefore(today, now));
+        // Also drops the past days and picks up other nodes' changes
+        reloadIndex();
+
+        if (expired > 0 || (outdated != null && outdated > 0)) {
+            log.info("Expired {} waitlist holds and {} outdated entries",
+                    expired, outdated);
+        }
+        return expired;
+    }
+
+    private int reloadIndex() {
+        List<WaitlistEntry> waiting = waitlistEntryRepository
+                .findByStatusAndToDateGreaterThanEqual(Status.WAITING,
+                        LocalDate.now());
+        waitlistIndex.rebuild(() -> waiting.forEach(this::index));
+        return waiting.size();
+    }
+
+    private List<Long> candidates(Long doctorId, LocalDate date) {
+        List<Long> indexed = waitlistIndex.candidates(doctorId, date,
+                MAX_CANDIDATES);
+        if (!indexed.isEmpty()) {
+            return indexed;
+        }
+        // Entries joined on another node since the last reload
+        List<WaitlistEntry> waiting = waitlistEntryRepository.findWaiting(
+                doctorId, date, PageRequest.of(0, MAX_CANDIDATES));
+        waiting.forEach(this::index);
+        return waiting.stream().map(WaitlistEntry::getId).toList();
+    }
+
+    private void releaseHold(WaitlistEntry entry) {
+        Long doctorId = entry.getDoctor().getId();
+        LocalDateTime start = entry.getOfferedStartTime();
+        LocalDateTime end = entry.getOfferedEndTime();
+        afterCommit(() -> offerFreedSlot(doctorId, start, end));
+    }
+
+    private void notifyOffer(Long entryId,
+                             TransactionTemplate transaction) {
+        // Loaded in its own transaction; the email is sent after it ends
+        WaitlistEntry entry = transaction.execute(status ->
+                waitlistEntryRepository.findWithPartiesById(entryId)
+                        .orElse(null));
+        if (entry == null) {
+            return;
+        }
+        try {
+            emailService.sendWaitlistOfferEmail(entry);
+        } catch (RuntimeException e) {
+            log.error("Failed to send waitlist offer email", e);
+        }
+    }
+
+    private WaitlistEntry getOwnEntry(Long entryId, String patientEmail) {
+        Patient patient = getPatientByEmail(patientEmail);
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .orElseThrow(() -> new RuntimeException(ENTRY_NOT_FOUND));
+        if (!entry.getPatient().getId().equals(patient.getId())) {
+            throw new RuntimeException(
+                    "You are not authorized to change this waitlist entry");
+        }
+        return entry;
+    }
+
+    // Conditional on the status read, so concurrent changes cannot both win
+    private void transition(WaitlistEntry entry, Status to, String conflict) {
+        if (waitlistEntryRepository.transition(entry.getId(),
+                entry.getStatus(), to, LocalDateTime.now()) != 1) {
+            throw new RuntimeException(conflict);
+        }
+        entry.setStatus(to);
+    }
+
+    private Patient getPatientByEmail(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return patientRepository.findByUserId(user.getId())
+                .orElseThrow(() -> new RuntimeException(
+                        "Patient profile not found. " +
+                                "Please complete your profile first."
+                ));
+    }
+
+    private void index(WaitlistEntry entry) {
+        waitlistIndex.add(entry.getId(), entry.getDoctor().getId(),
+                entry.getFromDate(), entry.getToDate(), entry.getCreatedAt());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+    }
+
+    private WaitlistEntryDto convertToDto(WaitlistEntry entry) {
+        Doctor doctor = entry.getDoctor();
+        return new WaitlistEntryDto(
+                entry.getId(),
+                doctor.getId(),
+                "Dr. " + doctor.getFirstName() + " " + doctor.getLastName(),
+                entry.getFromDate(),
+                entry.getToDate(),
+                entry.getStatus().name(),
+                entry.getOfferedStartTime(),
+                entry.getOfferedEndTime(),
+                entry.getHoldExpiresAt(),
+                entry.getAppointmentId(),
+                entry.getCreatedAt()
+        );
+    }
+}
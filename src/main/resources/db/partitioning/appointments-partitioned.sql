@@ -0,0 +1,89 @@
+-- Converts appointments into a table range-partitioned by start_time,
+-- one partition per month. PostgreSQL 12 or later.
+--
+-- Run once, with the application stopped:
+--   psql "$DATABASE_URL" -f appointments-partitioned.sql
+-- then start the application with the partitioned profile so it keeps
+-- creating future months and, if configured, archives old ones.
+--
+-- The primary key of a partitioned table must include the partition key,
+-- so it becomes (id, start_time) and foreign keys that reference
+-- appointments(id), such as medical_records', are dropped. The default
+-- mapping still declares that foreign key; the partitioned profile
+-- validates the schema instead of letting ddl-auto=update re-add it.
+-- Rows outside every monthly partition land in appointments_default
+-- until their month is created.
+
+BEGIN;
+
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT conrelid::regclass AS referencing, conname
+        FROM pg_constraint
+        WHERE confrelid = 'appointments'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I',
+                fk.referencing, fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE appointments RENAME TO appointments_unpartitioned;
+ALTER INDEX IF EXISTS idx_appointments_doctor_start
+    RENAME TO idx_appointments_unpartitioned_doctor_start;
+ALTER INDEX IF EXISTS idx_appointments_status_start
+    RENAME TO idx_appointments_unpartitioned_status_start;
+ALTER INDEX IF EXISTS idx_appointments_expiry_notice_due
+    RENAME TO idx_appointments_unpartitioned_expiry_notice_due;
+
+CREATE TABLE appointments (
+    LIKE appointments_unpartitioned
+        INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING IDENTITY
+) PARTITION BY RANGE (start_time);
+
+ALTER TABLE appointments ADD PRIMARY KEY (id, start_time);
+CREATE INDEX idx_appointments_doctor_start
+    ON appointments (doctor_id, start_time);
+CREATE INDEX idx_appointments_status_start
+    ON appointments (status, start_time);
+CREATE INDEX idx_appointments_expiry_notice_due
+    ON appointments (expiry_notice_due_at);
+
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+
+DO $$
+DECLARE
+    month date;
+    last_month date;
+BEGIN
+    SELECT date_trunc('month', coalesce(min(start_time), now()))::date
+    INTO month
+    FROM appointments_unpartitioned;
+    SELECT date_trunc('month', greatest(coalesce(max(start_time), now()),
+            now()))::date
+    INTO last_month
+    FROM appointments_unpartitioned;
+
+    WHILE month <= last_month LOOP
+        EXECUTE format(
+                'CREATE TABLE %I PARTITION OF appointments '
+                        || 'FOR VALUES FROM (%L) TO (%L)',
+                'appointments_p' || to_char(month, 'YYYY_MM'),
+                month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO appointments OVERRIDING SYSTEM VALUE
+SELECT * FROM appointments_unpartitioned;
+
+SELECT setval(pg_get_serial_sequence('appointments', 'id'),
+        coalesce((SELECT max(id) FROM appointments), 0) + 1, false);
+
+DROP TABLE appointments_unpartitioned;
+
+COMMIT;
+
+ANALYZE appointments;
@@ -0,0 +1,46 @@
+package com.amante.clinicmanagement.config;
+
+import com.amante.clinicmanagement.dto.request.LoginRequest;
+import com.amante.clinicmanagement.dto.response.ApiResponse;
+import com.amante.clinicmanagement.dto.response.ScheduleImportResult;
+import com.amante.clinicmanagement.entity.Appointment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeHintsConfig.ClinicRuntimeHints().registerHints(hints,
+                getClass().getClassLoader());
+    }
+
+    @Test
+    void testRegisterHints_DtosAndEntitiesAreBindable() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(LoginRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(ApiResponse.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(ScheduleImportResult.RowError.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(Appointment.Status.class).test(hints));
+    }
+
+    @Test
+    void testRegisterHints_LibraryTypesAndTemplates() {
+        for (String type : NativeHintsConfig.REFLECTIVE_TYPES) {
+            assertNotNull(hints.reflection().getTypeHint(
+                    TypeReference.of(type)), type);
+        }
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("templates/patient-reminder.html").test(hints));
+    }
+}
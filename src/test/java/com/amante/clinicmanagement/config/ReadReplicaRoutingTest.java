@@ -0,0 +1,159 @@
+package com.amante.clinicmanagement.config;
+
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.scheduling.OccupancyIndex;
+import com.amante.clinicmanagement.service.DoctorService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Both pools point at the same in-memory database, so the schema exists
+ * on each; which pool served a statement tells the routing apart. To try
+ * it against a real replica, point datasource.replica.url elsewhere.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingdb;DB_CLOSE_DELAY=-1;"
+                + "MODE=PostgreSQL",
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=jdbc:h2:mem:routingdb;DB_CLOSE_DELAY=-1;"
+                + "MODE=PostgreSQL",
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+        "datasource.replica.read-your-writes-ms=60000"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReadOnlyTransaction_UsesReplica() {
+        assertEquals("replica", poolUsedBy(true));
+    }
+
+    @Test
+    void testReadWriteTransaction_UsesPrimary() {
+        assertEquals("primary", poolUsedBy(false));
+    }
+
+    @Test
+    void testReadAfterOwnWrite_StaysOnPrimary() {
+        authenticate("patient@test.com");
+        poolUsedBy(false);
+
+        assertEquals("primary", poolUsedBy(true));
+
+        authenticate("other@test.com");
+        assertEquals("replica", poolUsedBy(true));
+    }
+
+    @Test
+    void testUnauthenticatedWrite_DoesNotPinReads() {
+        poolUsedBy(false);
+
+        assertEquals("replica", poolUsedBy(true));
+    }
+
+    @Test
+    void testReplicaRead_MarkedForTransaction() {
+        TransactionTemplate template =
+                new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        assertEquals(Boolean.TRUE, template.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return ReplicaRoutingDataSource.isReplicaRead();
+        }));
+        assertFalse(ReplicaRoutingDataSource.isReplicaRead());
+
+        template.setReadOnly(false);
+        assertEquals(Boolean.FALSE, template.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return ReplicaRoutingDataSource.isReplicaRead();
+        }));
+    }
+
+    @Test
+    void testAvailabilityFromReplica_NotCachedInOccupancyIndex() {
+        Doctor doctor = fixtures.doctor("routing-doctor");
+        LocalDate day = LocalDate.now().plusDays(7);
+
+        doctorService.getAvailableSlots(doctor.getId(), day);
+        assertNull(occupancyIndex.get(doctor.getId(), day));
+
+        // Pinned to the primary after a write: safe to cache
+        authenticate("patient@test.com");
+        poolUsedBy(false);
+        doctorService.getAvailableSlots(doctor.getId(), day);
+        assertNotNull(occupancyIndex.get(doctor.getId(), day));
+    }
+
+    private String poolUsedBy(boolean readOnly) {
+        TransactionTemplate template =
+                new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> {
+                    connection.createStatement().execute("SELECT 1");
+                    if (activeConnections(replicaDataSource) > 0) {
+                        return "replica";
+                    }
+                    assertTrue(activeConnections(primaryDataSource) > 0);
+                    return "primary";
+                }));
+    }
+
+    private static int activeConnections(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null,
+                        List.of()));
+    }
+}
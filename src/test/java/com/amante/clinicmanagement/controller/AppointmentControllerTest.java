@@ -1,9 +1,13 @@
 package com.amante.clinicmanagement.controller;
 
 import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.BookSeriesRequest;
 import com.amante.clinicmanagement.dto.request.RejectAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.RescheduleAppointmentRequest;
 import com.amante.clinicmanagement.dto.response.ApiResponse;
 import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.DoctorDashboardDto;
+import com.amante.clinicmanagement.service.AppointmentExportService;
 import com.amante.clinicmanagement.service.AppointmentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +15,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -30,6 +38,9 @@ class AppointmentControllerTest {
     @Mock
     private AppointmentService appointmentService;
 
+    @Mock
+    private AppointmentExportService appointmentExportService;
+
     @Mock
     private Authentication authentication;
 
@@ -76,6 +87,23 @@ class AppointmentControllerTest {
         verify(appointmentService).bookAppointment(request, TEST_EMAIL);
     }
 
+    @Test
+    void testBookSeries() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookSeriesRequest request = new BookSeriesRequest(200L, start, start.plusMinutes(30), 10, 1, "Knee");
+        List<AppointmentDto> series = List.of(sampleAppointmentDto);
+
+        when(authentication.getName()).thenReturn(TEST_EMAIL);
+        when(appointmentService.bookSeries(request, TEST_EMAIL)).thenReturn(series);
+
+        ResponseEntity<ApiResponse<List<AppointmentDto>>> response = appointmentController.bookSeries(request, authentication);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isSuccess());
+        assertEquals("Appointment series request submitted!", response.getBody().getMessage());
+        assertEquals(series, response.getBody().getData());
+    }
+
     @Test
     void testConfirmAppointment() {
         // Arrange
@@ -179,6 +207,24 @@ class AppointmentControllerTest {
         verify(appointmentService).getDoctorPendingAppointments(TEST_EMAIL);
     }
 
+    @Test
+    void testGetDashboard() {
+        // Arrange
+        DoctorDashboardDto dashboard = new DoctorDashboardDto();
+        dashboard.setPendingCount(2);
+
+        when(authentication.getName()).thenReturn(TEST_EMAIL);
+        when(appointmentService.getDoctorDashboard(TEST_EMAIL, 5)).thenReturn(dashboard);
+
+        // Act
+        ResponseEntity<ApiResponse<DoctorDashboardDto>> response = appointmentController.getDashboard(5, authentication);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Dashboard retrieved.", response.getBody().getMessage());
+        assertEquals(2, response.getBody().getData().getPendingCount());
+    }
+
     @Test
     void testCancelAppointment() {
         // Arrange
@@ -200,6 +246,23 @@ class AppointmentControllerTest {
         verify(appointmentService).cancelAppointment(appointmentId, TEST_EMAIL);
     }
 
+    @Test
+    void testRescheduleAppointment() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        RescheduleAppointmentRequest request = new RescheduleAppointmentRequest(start, start.plusMinutes(30));
+
+        when(authentication.getName()).thenReturn(TEST_EMAIL);
+        when(appointmentService.rescheduleAppointment(1L, request, TEST_EMAIL))
+                .thenReturn(sampleAppointmentDto);
+
+        ResponseEntity<ApiResponse<AppointmentDto>> response =
+                appointmentController.rescheduleAppointment(1L, request, authentication);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Appointment rescheduled.", response.getBody().getMessage());
+        assertEquals(sampleAppointmentDto, response.getBody().getData());
+    }
+
     @Test
     void testGetAppointmentById() {
         // Arrange
@@ -217,4 +280,27 @@ class AppointmentControllerTest {
 
         verify(appointmentService).getAppointmentById(appointmentId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExportAppointments() {
+        // Arrange
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        StreamingResponseBody body = out -> { };
+        when(authentication.getName()).thenReturn(TEST_EMAIL);
+        when(appointmentExportService.exportAppointments(TEST_EMAIL, 200L, from, to,
+                AppointmentExportService.Format.NDJSON)).thenReturn(body);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response =
+                appointmentController.exportAppointments(
+                        AppointmentExportService.Format.NDJSON, 200L, from, to, authentication);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(body, response.getBody());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"appointments.ndjson\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+    }
+}
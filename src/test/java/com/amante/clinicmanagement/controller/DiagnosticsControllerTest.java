@@ -0,0 +1,54 @@
+package com.amante.clinicmanagement.controller;
+
+import com.amante.clinicmanagement.diagnostics.ConnectionHoldTracker;
+import com.amante.clinicmanagement.diagnostics.ConnectionPoolStats;
+import com.amante.clinicmanagement.dto.response.ConnectionDiagnosticsResponse;
+import com.amante.clinicmanagement.dto.response.ConnectionDiagnosticsResponse.PoolStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DiagnosticsControllerTest {
+
+    @Mock
+    private ConnectionHoldTracker connectionHoldTracker;
+
+    @Mock
+    private ConnectionPoolStats connectionPoolStats;
+
+    @InjectMocks
+    private DiagnosticsController diagnosticsController;
+
+    @Test
+    void testGetConnections_CapsLimit() {
+        PoolStats pool = new PoolStats("HikariPool-1", 10, 0, 4, 10, 10);
+        when(connectionPoolStats.snapshot()).thenReturn(List.of(pool));
+        when(connectionHoldTracker.topMethods(100)).thenReturn(List.of());
+        when(connectionHoldTracker.topRoutes(100)).thenReturn(List.of());
+
+        ResponseEntity<ConnectionDiagnosticsResponse> response =
+                diagnosticsController.getConnections(5000);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(4, response.getBody().getPools().get(0).getWaiting());
+    }
+
+    @Test
+    void testResetConnections_ReturnsNoContent() {
+        ResponseEntity<Void> response =
+                diagnosticsController.resetConnections();
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(connectionHoldTracker).reset();
+    }
+}
@@ -0,0 +1,95 @@
+package com.amante.clinicmanagement.controller;
+
+import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.DoctorDashboardDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.service.AppointmentService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import com.amante.clinicmanagement.support.StatementCounter;
+import com.amante.clinicmanagement.support.StatementCounterConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The doctor dashboard replaces three endpoints with one grouped count
+ * and one bounded agenda query, and a repeat within the TTL is free.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementCounterConfig.class)
+class DoctorDashboardReadPathTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void testGetDashboard_TwoQueriesAfterLookupThenCached() {
+        Doctor doctor = fixtures.doctor("doctor");
+        Patient patient = fixtures.patient("patient");
+
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        LocalDateTime tomorrow = startOfToday.plusDays(1).plusHours(9);
+        save(doctor, patient, startOfToday, Appointment.Status.COMPLETED);
+        save(doctor, patient, startOfToday.minusDays(1),
+                Appointment.Status.CANCELLED);
+        for (int i = 0; i < 8; i++) {
+            save(doctor, patient, tomorrow.plusHours(i), i % 2 == 0
+                    ? Appointment.Status.PENDING
+                    : Appointment.Status.CONFIRMED);
+        }
+        String doctorEmail = doctor.getUser().getEmail();
+
+        statementCounter.reset();
+        DoctorDashboardDto dashboard = appointmentService
+                .getDoctorDashboard(doctorEmail, 3);
+        // Two to resolve the doctor, then the count and the agenda
+        assertEquals(4, statementCounter.count());
+
+        assertEquals(1, dashboard.getTodayAgenda().size());
+        assertEquals(4L, dashboard.getPendingCount());
+        assertEquals(1L, dashboard.getStatusCounts().get("CANCELLED"));
+        assertEquals(List.of(tomorrow, tomorrow.plusHours(1),
+                        tomorrow.plusHours(2)),
+                dashboard.getUpcoming().stream()
+                        .map(AppointmentDto::getStartTime).toList());
+        assertEquals("Kent Carlo", dashboard.getUpcoming().get(0)
+                .getPatientName());
+
+        statementCounter.reset();
+        assertSame(dashboard, appointmentService
+                .getDoctorDashboard(doctorEmail, 3));
+        assertEquals(0, statementCounter.count());
+    }
+
+    private void save(Doctor doctor, Patient patient, LocalDateTime start,
+                      Appointment.Status status) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusMinutes(30));
+        appointment.setStatus(status);
+        appointmentRepository.save(appointment);
+    }
+}
@@ -3,6 +3,7 @@ package com.amante.clinicmanagement.controller;
 import com.amante.clinicmanagement.dto.request.*;
 import com.amante.clinicmanagement.dto.response.*;
 import com.amante.clinicmanagement.service.DoctorService;
+import com.amante.clinicmanagement.service.ScheduleImportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -32,6 +35,9 @@ class DoctorScheduleControllerTest {
     @Mock
     private DoctorService doctorService;
 
+    @Mock
+    private ScheduleImportService scheduleImportService;
+
     @Mock
     private Authentication authentication;
 
@@ -255,4 +261,29 @@ class DoctorScheduleControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(doctorService).deleteDayOff(TEST_EMAIL, dayOffId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testImportSchedules_DetectsFormatFromContentType() {
+        // Arrange
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        ScheduleImportResult mockResult = new ScheduleImportResult();
+
+        when(scheduleImportService.importSchedules(body, ScheduleImportService.Format.CSV))
+                .thenReturn(mockResult);
+        when(scheduleImportService.importSchedules(body, ScheduleImportService.Format.NDJSON))
+                .thenReturn(mockResult);
+
+        // Act
+        ResponseEntity<ScheduleImportResult> csvResponse =
+                doctorScheduleController.importSchedules("text/csv; charset=UTF-8", body);
+        ResponseEntity<ScheduleImportResult> ndjsonResponse =
+                doctorScheduleController.importSchedules("application/x-ndjson", body);
+
+        // Assert
+        assertEquals(HttpStatus.OK, csvResponse.getStatusCode());
+        assertEquals(mockResult, csvResponse.getBody());
+        assertEquals(mockResult, ndjsonResponse.getBody());
+        verify(scheduleImportService).importSchedules(body, ScheduleImportService.Format.CSV);
+        verify(scheduleImportService).importSchedules(body, ScheduleImportService.Format.NDJSON);
+    }
+}
@@ -0,0 +1,64 @@
+package com.amante.clinicmanagement.controller;
+
+import com.amante.clinicmanagement.dto.response.ApiResponse;
+import com.amante.clinicmanagement.dto.response.DoctorDailyStatsDto;
+import com.amante.clinicmanagement.service.DoctorStatsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorStatsControllerTest {
+
+    @Mock
+    private DoctorStatsService doctorStatsService;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private DoctorStatsController doctorStatsController;
+
+    @Test
+    void testGetDailyStats() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 31);
+        List<DoctorDailyStatsDto> stats = List.of(new DoctorDailyStatsDto());
+
+        when(authentication.getName()).thenReturn("admin@test.com");
+        when(doctorStatsService.getDailyStats("admin@test.com", 1L, from, to))
+                .thenReturn(stats);
+
+        ResponseEntity<ApiResponse<List<DoctorDailyStatsDto>>> response =
+                doctorStatsController.getDailyStats(1L, from, to,
+                        authentication);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isSuccess());
+        assertEquals(stats, response.getBody().getData());
+    }
+
+    @Test
+    void testBackfill() {
+        when(doctorStatsService.backfill(null, null)).thenReturn(42);
+
+        ResponseEntity<ApiResponse<Integer>> response =
+                doctorStatsController.backfill(null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(42, response.getBody().getData());
+        verify(doctorStatsService).backfill(null, null);
+    }
+}
@@ -2,7 +2,8 @@ package com.amante.clinicmanagement.controller;
 
 import com.amante.clinicmanagement.dto.request.DiagnosisRequest;
 import com.amante.clinicmanagement.dto.response.ApiResponse;
-import com.amante.clinicmanagement.entity.MedicalRecord;
+import com.amante.clinicmanagement.dto.response.MedicalHistoryPage;
+import com.amante.clinicmanagement.dto.response.MedicalRecordDto;
 import com.amante.clinicmanagement.service.MedicalRecordService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,17 +36,21 @@ class MedicalRecordControllerTest {
     @InjectMocks
     private MedicalRecordController medicalRecordController;
 
-    private MedicalRecord sampleRecord;
+    private MedicalRecordDto sampleRecord;
     private final String TEST_EMAIL = "doctor@test.com";
 
     @BeforeEach
     void setUp() {
-        // Setup reusable MedicalRecord entity
-        // We pass null for Appointment to avoid mocking extra dependencies,
-        // as the controller doesn't inspect the Appointment object itself.
-        sampleRecord = new MedicalRecord(
+        // Setup reusable MedicalRecord DTO
+        sampleRecord = new MedicalRecordDto(
                 1L,
-                null, // Appointment entity
+                100L,
+                LocalDateTime.now(),
+                200L,
+                "Sarah Smith",
+                "General",
+                300L,
+                "Kent Carlo",
                 "Common Cold",
                 "Rest and plenty of fluids",
                 LocalDateTime.now()
@@ -61,7 +67,7 @@ class MedicalRecordControllerTest {
                 .thenReturn(sampleRecord);
 
         // Act
-        ResponseEntity<ApiResponse<MedicalRecord>> response =
+        ResponseEntity<ApiResponse<MedicalRecordDto>> response =
                 medicalRecordController.addDiagnosis(request, authentication);
 
         // Assert
@@ -83,7 +89,7 @@ class MedicalRecordControllerTest {
                 .thenReturn(sampleRecord);
 
         // Act
-        ResponseEntity<ApiResponse<MedicalRecord>> response =
+        ResponseEntity<ApiResponse<MedicalRecordDto>> response =
                 medicalRecordController.getMedicalRecord(appointmentId);
 
         // Assert
@@ -95,4 +101,40 @@ class MedicalRecordControllerTest {
 
         verify(medicalRecordService).getMedicalRecordByAppointmentId(appointmentId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetPatientHistory() {
+        // Arrange
+        MedicalHistoryPage page = new MedicalHistoryPage(List.of(sampleRecord), "cursor-2");
+
+        when(authentication.getName()).thenReturn(TEST_EMAIL);
+        when(medicalRecordService.getPatientHistory(300L, "cursor-1", 20, TEST_EMAIL))
+                .thenReturn(page);
+
+        // Act
+        ResponseEntity<ApiResponse<MedicalHistoryPage>> response =
+                medicalRecordController.getPatientHistory(300L, "cursor-1", 20, authentication);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isSuccess());
+        assertEquals(page, response.getBody().getData());
+    }
+
+    @Test
+    void testSearchRecords() {
+        // Arrange
+        when(authentication.getName()).thenReturn(TEST_EMAIL);
+        when(medicalRecordService.searchRecords("amoxicillin", 20, TEST_EMAIL))
+                .thenReturn(List.of(sampleRecord));
+
+        // Act
+        ResponseEntity<ApiResponse<List<MedicalRecordDto>>> response =
+                medicalRecordController.searchRecords("amoxicillin", 20, authentication);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isSuccess());
+        assertEquals(List.of(sampleRecord), response.getBody().getData());
+    }
+}
@@ -0,0 +1,194 @@
+package com.amante.clinicmanagement.controller;
+
+import com.amante.clinicmanagement.dto.response.ApiResponse;
+import com.amante.clinicmanagement.dto.response.MedicalHistoryPage;
+import com.amante.clinicmanagement.dto.response.MedicalRecordDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.MedicalRecord;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.MedicalRecordRepository;
+import com.amante.clinicmanagement.service.impl.MedicalRecordServiceImpl;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import com.amante.clinicmanagement.support.StatementCounter;
+import com.amante.clinicmanagement.support.StatementCounterConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures statements and payload of the medical record read endpoints.
+ * The single-record read is compared against serializing the
+ * {@link MedicalRecord} entity graph, which the endpoint used to do.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementCounterConfig.class)
+class MedicalRecordReadPathTest {
+
+    @Autowired
+    private MedicalRecordController medicalRecordController;
+
+    @Autowired
+    private MedicalRecordServiceImpl medicalRecordService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Test
+    void testGetMedicalRecord_OneStatementAndNoUserData() throws Exception {
+        MedicalRecord record = createRecord();
+        Long appointmentId = record.getAppointment().getId();
+
+        statementCounter.reset();
+        ResponseEntity<ApiResponse<MedicalRecordDto>> response =
+                medicalRecordController.getMedicalRecord(appointmentId);
+        int dtoStatements = statementCounter.count();
+        String dtoJson = objectMapper.writeValueAsString(response.getBody());
+
+        statementCounter.reset();
+        String entityJson = transactionTemplate.execute(status -> {
+            try {
+                // Same query the former findByAppointmentId derived
+                return objectMapper.writeValueAsString(entityManager
+                        .createQuery("SELECT m FROM MedicalRecord m "
+                                        + "WHERE m.appointment.id = :id",
+                                MedicalRecord.class)
+                        .setParameter("id", appointmentId)
+                        .getSingleResult());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        int entityStatements = statementCounter.count();
+
+        assertEquals(1, dtoStatements, "statements for the DTO read");
+        assertTrue(dtoStatements < entityStatements,
+                () -> "DTO read: " + dtoStatements + " statement(s), "
+                        + "entity graph: " + entityStatements);
+        assertTrue(dtoJson.length() < entityJson.length() / 2,
+                () -> "DTO JSON: " + dtoJson.length() + " bytes, "
+                        + "entity JSON: " + entityJson.length() + " bytes");
+        assertTrue(entityJson.contains("\"password\""));
+        assertFalse(dtoJson.contains("password"));
+        assertFalse(dtoJson.contains("bio"));
+
+        MedicalRecordDto dto = response.getBody().getData();
+        assertEquals(appointmentId, dto.getAppointmentId());
+        assertEquals("Sarah Smith", dto.getDoctorName());
+        assertEquals("Kent Carlo", dto.getPatientName());
+        assertEquals("Common cold", dto.getDiagnosis());
+    }
+
+    @Test
+    void testGetPatientHistory_KeysetPagesWithoutNPlusOne() {
+        MedicalRecord first = createRecord();
+        Appointment appointment = first.getAppointment();
+        for (int i = 1; i < 5; i++) {
+            Appointment next = new Appointment();
+            next.setDoctor(appointment.getDoctor());
+            next.setPatient(appointment.getPatient());
+            next.setStartTime(appointment.getStartTime().plusDays(i));
+            next.setEndTime(appointment.getEndTime().plusDays(i));
+            next.setStatus(Appointment.Status.COMPLETED);
+            saveRecord(appointmentRepository.save(next), "Visit " + i);
+        }
+        Long patientId = appointment.getPatient().getId();
+        String doctorEmail = appointment.getDoctor().getUser().getEmail();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            statementCounter.reset();
+            MedicalHistoryPage page = medicalRecordService.getPatientHistory(
+                    patientId, cursor, 2, doctorEmail);
+            // Three for the access check, then one for the whole page
+            assertEquals(4, statementCounter.count());
+            page.getRecords().forEach(record -> seen.add(record.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(seen.stream().sorted(Comparator.reverseOrder()).toList(),
+                seen);
+    }
+
+    @Test
+    void testBackfillRecordPatients_CopiesPatientFromAppointment() {
+        MedicalRecord record = createRecord();
+        record.setPatientId(null);
+        medicalRecordRepository.save(record);
+
+        medicalRecordService.backfillRecordPatients();
+
+        MedicalHistoryPage page = medicalRecordService.getPatientHistory(
+                record.getAppointment().getPatient().getId(), null, 10,
+                record.getAppointment().getDoctor().getUser().getEmail());
+        assertEquals(List.of(record.getId()), page.getRecords().stream()
+                .map(MedicalRecordDto::getId).toList());
+    }
+
+    private MedicalRecord createRecord() {
+        Doctor doctor = fixtures.doctor("doctor");
+        doctor.setBio("Twenty years of family medicine");
+        doctor = doctorRepository.save(doctor);
+
+        Patient patient = fixtures.patient("patient");
+
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setStartTime(LocalDateTime.of(2030, 1, 7, 9, 0));
+        appointment.setEndTime(LocalDateTime.of(2030, 1, 7, 9, 30));
+        appointment.setStatus(Appointment.Status.COMPLETED);
+        return saveRecord(appointmentRepository.save(appointment),
+                "Common cold");
+    }
+
+    private MedicalRecord saveRecord(Appointment appointment,
+                                     String diagnosis) {
+        MedicalRecord record = new MedicalRecord();
+        record.setAppointment(appointment);
+        record.setPatientId(appointment.getPatient().getId());
+        record.setDiagnosis(diagnosis);
+        record.setPrescription("Rest and fluids");
+        return medicalRecordRepository.save(record);
+    }
+}
@@ -0,0 +1,83 @@
+package com.amante.clinicmanagement.controller;
+
+import com.amante.clinicmanagement.dto.request.JoinWaitlistRequest;
+import com.amante.clinicmanagement.dto.response.ApiResponse;
+import com.amante.clinicmanagement.dto.response.WaitlistEntryDto;
+import com.amante.clinicmanagement.service.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistControllerTest {
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private WaitlistController waitlistController;
+
+    private final String TEST_EMAIL = "patient@test.com";
+
+    private WaitlistEntryDto entry;
+
+    @BeforeEach
+    void setUp() {
+        entry = new WaitlistEntryDto();
+        entry.setId(5L);
+        when(authentication.getName()).thenReturn(TEST_EMAIL);
+    }
+
+    @Test
+    void testJoin() {
+        JoinWaitlistRequest request = new JoinWaitlistRequest(1L,
+                LocalDate.now(), LocalDate.now().plusDays(7));
+        when(waitlistService.join(request, TEST_EMAIL)).thenReturn(entry);
+
+        ResponseEntity<ApiResponse<WaitlistEntryDto>> response =
+                waitlistController.join(request, authentication);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Added to the waitlist.", response.getBody().getMessage());
+        assertEquals(entry, response.getBody().getData());
+    }
+
+    @Test
+    void testGetMyEntries() {
+        when(waitlistService.getMyEntries(TEST_EMAIL)).thenReturn(List.of(entry));
+
+        ResponseEntity<ApiResponse<List<WaitlistEntryDto>>> response =
+                waitlistController.getMyEntries(authentication);
+
+        assertEquals(List.of(entry), response.getBody().getData());
+    }
+
+    @Test
+    void testAcceptDeclineAndLeave() {
+        when(waitlistService.acceptOffer(5L, TEST_EMAIL)).thenReturn(entry);
+        when(waitlistService.declineOffer(5L, TEST_EMAIL)).thenReturn(entry);
+        when(waitlistService.leave(5L, TEST_EMAIL)).thenReturn(entry);
+
+        assertEquals(entry, waitlistController.acceptOffer(5L, authentication)
+                .getBody().getData());
+        assertEquals("Offer declined.", waitlistController
+                .declineOffer(5L, authentication).getBody().getMessage());
+        assertEquals("Left the waitlist.", waitlistController
+                .leave(5L, authentication).getBody().getMessage());
+    }
+}
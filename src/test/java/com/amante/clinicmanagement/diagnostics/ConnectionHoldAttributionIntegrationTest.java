@@ -0,0 +1,47 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import com.amante.clinicmanagement.dto.response.ConnectionHoldStatsDto;
+import com.amante.clinicmanagement.service.DoctorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Goes through a real {@code @Transactional} service method, where the
+ * JPA transaction manager opens the connection before the transaction
+ * has a name.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConnectionHoldAttributionIntegrationTest {
+
+    private static final String GET_ALL_DOCTORS =
+            "com.amante.clinicmanagement.service.impl"
+                    + ".DoctorServiceImpl.getAllDoctors";
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private ConnectionHoldTracker tracker;
+
+    @Test
+    void testTransactionalServiceMethod_AttributedByName() {
+        tracker.reset();
+
+        doctorService.getAllDoctors();
+
+        List<ConnectionHoldStatsDto> methods = tracker.topMethods(100);
+        ConnectionHoldStatsDto stats = methods.stream()
+                .filter(method -> method.getName().equals(GET_ALL_DOCTORS))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(
+                        "getAllDoctors not recorded: " + methods));
+        assertEquals(1, stats.getCount());
+    }
+}
@@ -0,0 +1,142 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import com.amante.clinicmanagement.dto.response.ConnectionHoldStatsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionHoldTrackerTest {
+
+    private static final String BOOK =
+            "com.amante.clinicmanagement.service.impl"
+                    + ".AppointmentServiceImpl.bookAppointment";
+
+    private final ConnectionHoldTracker tracker =
+            new ConnectionHoldTracker(60_000);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+    }
+
+    // ==================== HOLD TESTS ====================
+
+    @Test
+    void testRemote_WhileHolding_ChargedToTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionName(BOOK);
+        ConnectionHoldTracker.Hold hold = tracker.acquired();
+        String result = tracker.remote("brevo", () -> "sent");
+        tracker.remote("brevo", () -> "sent");
+        tracker.released(hold);
+
+        assertEquals("sent", result);
+        ConnectionHoldStatsDto stats = tracker.topMethods(10).get(0);
+        assertEquals(BOOK, stats.getName());
+        assertEquals(1, stats.getCount());
+        assertEquals(2, stats.getRemoteCalls());
+        assertEquals(List.of("brevo"), stats.getRemoteTargets());
+        assertEquals(0, stats.getSlowCount());
+    }
+
+    @Test
+    void testRemote_WithoutConnection_NotRecorded() throws Exception {
+        ConnectionHoldTracker.Hold hold = tracker.acquired();
+        tracker.released(hold);
+
+        tracker.remote("cloudinary", () -> null);
+
+        ConnectionHoldStatsDto stats = tracker.topMethods(10).get(0);
+        assertEquals(ConnectionHoldTracker.NO_TRANSACTION, stats.getName());
+        assertEquals(0, stats.getRemoteCalls());
+    }
+
+    @Test
+    void testAfterBegin_NamesConnectionOpenedBeforeTransactionName() {
+        TransactionExecution transaction = mock(TransactionExecution.class);
+        when(transaction.getTransactionName()).thenReturn(BOOK);
+
+        ConnectionHoldTracker.Hold hold = tracker.acquired();
+        tracker.afterBegin(transaction, null);
+        tracker.released(hold);
+
+        assertEquals(BOOK, tracker.topMethods(10).get(0).getName());
+    }
+
+    @Test
+    void testReleased_OverThreshold_CountsSlow() {
+        ConnectionHoldTracker strict = new ConnectionHoldTracker(0);
+
+        strict.released(strict.acquired());
+
+        assertEquals(1, strict.topMethods(10).get(0).getSlowCount());
+    }
+
+    @Test
+    void testTopMethods_OrdersByTotalHeldTime() throws InterruptedException {
+        TransactionSynchronizationManager.setCurrentTransactionName("fast");
+        tracker.released(tracker.acquired());
+        TransactionSynchronizationManager.setCurrentTransactionName("slow");
+        ConnectionHoldTracker.Hold hold = tracker.acquired();
+        Thread.sleep(5);
+        tracker.released(hold);
+
+        List<ConnectionHoldStatsDto> top = tracker.topMethods(1);
+
+        assertEquals(1, top.size());
+        assertEquals("slow", top.get(0).getName());
+    }
+
+    // ==================== REQUEST TESTS ====================
+
+    @Test
+    void testEndRequest_SumsConnectionsOfRequest() {
+        tracker.beginRequest();
+        tracker.released(tracker.acquired());
+        tracker.released(tracker.acquired());
+        tracker.endRequest("GET /api/doctors/{id}/slots");
+
+        tracker.beginRequest();
+        tracker.endRequest("GET /api/doctors");
+
+        List<ConnectionHoldStatsDto> routes = tracker.topRoutes(10);
+        assertEquals(1, routes.size());
+        assertEquals("GET /api/doctors/{id}/slots", routes.get(0).getName());
+        assertEquals(1, routes.get(0).getCount());
+    }
+
+    @Test
+    void testReset_ClearsStatistics() {
+        tracker.released(tracker.acquired());
+
+        tracker.reset();
+
+        assertTrue(tracker.topMethods(10).isEmpty());
+    }
+
+    // ==================== DATA SOURCE TESTS ====================
+
+    @Test
+    void testTrackingDataSource_ReportsCloseOnce() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConnectionTrackingDataSource dataSource =
+                new ConnectionTrackingDataSource(target, tracker);
+
+        Connection tracked = dataSource.getConnection();
+        tracked.close();
+        tracked.close();
+
+        verify(connection, times(2)).close();
+        assertEquals(1, tracker.topMethods(10).get(0).getCount());
+    }
+}
@@ -0,0 +1,33 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The default setup: a single pool behind the connection tracking
+ * wrapper, which must not hide it from the monitor.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PoolWaitMonitorContextTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testMonitor_AttachedToWrappedPool() throws SQLException {
+        assertInstanceOf(ConnectionTrackingDataSource.class, dataSource);
+
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+
+        assertNotNull(pool.getMetricsTrackerFactory());
+    }
+}
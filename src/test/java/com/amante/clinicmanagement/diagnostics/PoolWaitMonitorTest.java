@@ -0,0 +1,58 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolWaitMonitorTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final PoolWaitMonitor monitor = new PoolWaitMonitor(1000);
+
+    @Test
+    void testRecord_MovesAverageTowardsSamples() {
+        long now = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            monitor.record(200 * MS, now);
+        }
+
+        assertEquals(200.0, monitor.waitMillis(now), 1.0);
+    }
+
+    @Test
+    void testWaitMillis_HalvesPerHalfLifeWithoutSamples() {
+        long now = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            monitor.record(200 * MS, now);
+        }
+
+        assertEquals(100.0, monitor.waitMillis(now + 1000 * MS), 1.0);
+        assertEquals(50.0, monitor.waitMillis(now + 2000 * MS), 1.0);
+    }
+
+    @Test
+    void testPostProcess_AttachesToHikariPools() {
+        HikariDataSource pool = new HikariDataSource();
+
+        monitor.postProcessAfterInitialization(pool, "dataSource");
+
+        assertNotNull(pool.getMetricsTrackerFactory());
+        pool.close();
+    }
+
+    @Test
+    void testPostProcess_AttachesToWrappedPool() {
+        HikariDataSource pool = new HikariDataSource();
+        ConnectionTrackingDataSource tracked = new ConnectionTrackingDataSource(
+                pool, new ConnectionHoldTracker(60_000));
+
+        monitor.postProcessAfterInitialization(tracked, "dataSource");
+
+        assertNotNull(pool.getMetricsTrackerFactory());
+        pool.close();
+    }
+}
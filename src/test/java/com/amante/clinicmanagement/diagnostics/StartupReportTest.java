@@ -0,0 +1,33 @@
+package com.amante.clinicmanagement.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupReportTest {
+
+    @Test
+    void testSlowestSteps_OrdersByDurationWithTags() throws Exception {
+        BufferingApplicationStartup startup =
+                new BufferingApplicationStartup(100);
+        startup.start("fast").end();
+        StartupStep slow = startup.start("spring.beans.instantiate")
+                .tag("beanName", "entityManagerFactory");
+        // Well above the first step's one-off class loading
+        Thread.sleep(200);
+        slow.end();
+        startup.start("other").end();
+
+        List<String> steps = StartupReport.slowestSteps(
+                startup.getBufferedTimeline(), 2);
+
+        assertEquals(2, steps.size());
+        assertTrue(steps.get(0).endsWith("spring.beans.instantiate "
+                + "[beanName=entityManagerFactory]"));
+        assertFalse(steps.get(1).contains("spring.beans.instantiate"));
+    }
+}
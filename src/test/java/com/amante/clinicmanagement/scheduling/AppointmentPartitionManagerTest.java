@@ -0,0 +1,93 @@
+package com.amante.clinicmanagement.scheduling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentPartitionManagerTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2030, 11);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AppointmentPartitionManager partitionManager;
+
+    // ==================== PLANNING TESTS ====================
+
+    @Test
+    void testPartitionName_UsesYearAndMonth() {
+        assertEquals("appointments_p2030_02",
+                AppointmentPartitionManager.partitionName(
+                        YearMonth.of(2030, 2)));
+    }
+
+    @Test
+    void testMissingMonths_SkipsExistingAndCrossesYear() {
+        List<YearMonth> missing = AppointmentPartitionManager.missingMonths(
+                List.of("appointments_default", "appointments_p2030_11",
+                        "appointments_p2031_01"),
+                CURRENT, 3);
+
+        assertEquals(List.of(YearMonth.of(2030, 12), YearMonth.of(2031, 2)),
+                missing);
+    }
+
+    @Test
+    void testExpiredPartitions_KeepsDefaultAndRetainedMonths() {
+        List<String> expired = AppointmentPartitionManager.expiredPartitions(
+                List.of("appointments_p2030_09", "appointments_default",
+                        "appointments_p2030_07", "appointments_p2030_08",
+                        "appointments_p2030_10"),
+                YearMonth.of(2030, 9));
+
+        assertEquals(List.of("appointments_p2030_07", "appointments_p2030_08"),
+                expired);
+    }
+
+    // ==================== MAINTENANCE TESTS ====================
+
+    @Test
+    void testMaintain_NotPostgres_RunsNoDdl() {
+        when(jdbcTemplate.execute(
+                ArgumentMatchers.<ConnectionCallback<String>>any()))
+                .thenReturn("H2");
+
+        partitionManager.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void testMaintain_TableNotPartitioned_RunsNoDdl() {
+        when(jdbcTemplate.execute(
+                ArgumentMatchers.<ConnectionCallback<String>>any()))
+                .thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class)))
+                .thenReturn(false);
+
+        partitionManager.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,107 @@
+package com.amante.clinicmanagement.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the partitioning script against a real PostgreSQL and checks with
+ * EXPLAIN that the hot-path queries only scan the partitions they need.
+ * Set POSTGRES_TEST_URL (a JDBC URL with user and password) to run it.
+ */
+@EnabledIfEnvironmentVariable(named = "POSTGRES_TEST_URL", matches = ".+")
+class AppointmentPartitionPruningTest {
+
+    private static final String SCHEMA = "partition_pruning_test";
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = new SingleConnectionDataSource(
+                System.getenv("POSTGRES_TEST_URL"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+        jdbcTemplate.execute("CREATE TABLE appointments ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "doctor_id BIGINT NOT NULL, "
+                + "patient_id BIGINT NOT NULL, "
+                + "start_time TIMESTAMP(6) NOT NULL, "
+                + "end_time TIMESTAMP(6) NOT NULL, "
+                + "status VARCHAR(255) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO appointments "
+                + "(doctor_id, patient_id, start_time, end_time, status) "
+                + "SELECT 1 + i % 5, 1, "
+                + "TIMESTAMP '2030-01-01' + i * INTERVAL '1 hour', "
+                + "TIMESTAMP '2030-01-01' + i * INTERVAL '1 hour' "
+                + "+ INTERVAL '30 minutes', 'CONFIRMED' "
+                + "FROM generate_series(0, 24 * 89) AS i");
+
+        jdbcTemplate.execute(new String(new ClassPathResource(
+                "db/partitioning/appointments-partitioned.sql")
+                .getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void testScript_MovesEveryRowIntoMonthlyPartitions() {
+        assertEquals(24 * 89 + 1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments_default", Integer.class));
+        assertEquals(24 * 31, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments_p2030_01", Integer.class));
+    }
+
+    @Test
+    void testDoctorDayQuery_ScansOnePartition() {
+        String plan = explain("SELECT * FROM appointments "
+                + "WHERE doctor_id = 1 "
+                + "AND start_time >= '2030-02-10' "
+                + "AND start_time < '2030-02-11'");
+
+        assertTrue(plan.contains("appointments_p2030_02"), plan);
+        assertFalse(plan.contains("appointments_p2030_01"), plan);
+        assertFalse(plan.contains("appointments_p2030_03"), plan);
+        assertFalse(plan.contains("appointments_default"), plan);
+    }
+
+    @Test
+    void testOverlapQuery_BoundedByMaxDuration_ScansAdjacentPartitions() {
+        // existsOverlappingAppointment adds start_time > start - 24 hours
+        String plan = explain("SELECT 1 FROM appointments "
+                + "WHERE doctor_id = 1 "
+                + "AND status NOT IN ('CANCELLED', 'EXPIRED') "
+                + "AND start_time < '2030-03-01 09:30' "
+                + "AND end_time > '2030-03-01 09:00' "
+                + "AND start_time > '2030-02-28 09:00'");
+
+        assertTrue(plan.contains("appointments_p2030_02"), plan);
+        assertTrue(plan.contains("appointments_p2030_03"), plan);
+        assertFalse(plan.contains("appointments_p2030_01"), plan);
+    }
+
+    private String explain(String sql) {
+        List<String> lines = jdbcTemplate.queryForList(
+                "EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+}
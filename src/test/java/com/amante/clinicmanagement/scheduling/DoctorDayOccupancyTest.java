@@ -0,0 +1,76 @@
+package com.amante.clinicmanagement.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoctorDayOccupancyTest {
+
+    // ==================== BITMAP TESTS ====================
+
+    @Test
+    void testIsBooked_HalfOpenRangesAcrossWordBoundaries() {
+        DoctorDayOccupancy occupancy = DoctorDayOccupancy.of(
+                MinuteIntervals.empty(),
+                MinuteIntervals.of(new int[]{60, 540},
+                        new int[]{130, 570}, null));
+
+        assertTrue(occupancy.isBooked(60, 61));
+        assertTrue(occupancy.isBooked(0, 1440));
+        assertTrue(occupancy.isBooked(129, 200));
+        assertFalse(occupancy.isBooked(130, 540));
+        assertFalse(occupancy.isBooked(0, 60));
+        assertTrue(occupancy.isBooked(569, 570));
+        assertFalse(occupancy.isBooked(570, 1440));
+        assertFalse(occupancy.isBooked(600, 600));
+    }
+
+    @Test
+    void testIsBlocked_BreaksAndDayOff() {
+        DoctorDayOccupancy occupancy = DoctorDayOccupancy.of(
+                MinuteIntervals.of(new int[]{720}, new int[]{780},
+                        new String[]{"LUNCH"}),
+                MinuteIntervals.empty());
+
+        assertTrue(occupancy.isBlocked(750, 810));
+        assertFalse(occupancy.isBlocked(780, 810));
+        assertFalse(occupancy.isBooked(720, 780));
+        assertEquals("LUNCH", occupancy.blockReason(750, 810));
+        assertFalse(occupancy.isFree(700, 721));
+        assertTrue(occupancy.isFree(600, 720));
+
+        DoctorDayOccupancy dayOff = DoctorDayOccupancy.dayOff();
+        assertTrue(dayOff.isDayOff());
+        assertTrue(dayOff.isBlocked(1439, 1440));
+        assertEquals(DoctorDayOccupancy.DAY_OFF, dayOff.blockReason(0, 30));
+    }
+
+    @Test
+    void testIsBookedAround_TouchingBookingsCount() {
+        DoctorDayOccupancy occupancy = DoctorDayOccupancy.of(
+                MinuteIntervals.empty(),
+                MinuteIntervals.of(new int[]{540}, new int[]{570}, null));
+
+        assertTrue(occupancy.isBookedAround(570, 600));
+        assertTrue(occupancy.isBookedAround(510, 540));
+        assertFalse(occupancy.isBookedAround(571, 600));
+        assertFalse(occupancy.isBookedAround(0, 30));
+    }
+
+    @Test
+    void testWithBookedAndWithoutBooked_ReturnCopies() {
+        DoctorDayOccupancy empty = DoctorDayOccupancy.of(
+                MinuteIntervals.empty(), MinuteIntervals.empty());
+
+        DoctorDayOccupancy booked = empty.withBooked(100, 400);
+        assertFalse(empty.isBooked(0, 1440));
+        assertTrue(booked.isBooked(399, 400));
+        assertFalse(booked.isBooked(400, 1440));
+
+        DoctorDayOccupancy released = booked.withoutBooked(200, 300);
+        assertTrue(released.isBooked(100, 200));
+        assertFalse(released.isBooked(200, 300));
+        assertTrue(released.isBooked(300, 301));
+        assertTrue(booked.isBooked(250, 251));
+    }
+}
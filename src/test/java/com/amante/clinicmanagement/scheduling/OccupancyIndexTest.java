@@ -0,0 +1,138 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.event.DoctorScheduleChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 6);
+
+    private static DoctorDayOccupancy emptyDay() {
+        return DoctorDayOccupancy.of(
+                MinuteIntervals.empty(), MinuteIntervals.empty());
+    }
+
+    // ==================== CACHE TESTS ====================
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsedDay() {
+        OccupancyIndex index = new OccupancyIndex(2, 60);
+
+        index.put(1L, DATE, emptyDay(), index.version());
+        index.put(1L, DATE.plusDays(1), emptyDay(), index.version());
+        index.get(1L, DATE);
+        index.put(1L, DATE.plusDays(2), emptyDay(), index.version());
+
+        assertEquals(2, index.size());
+        assertNotNull(index.get(1L, DATE));
+        assertNull(index.get(1L, DATE.plusDays(1)));
+        assertNotNull(index.get(1L, DATE.plusDays(2)));
+    }
+
+    @Test
+    void testPut_StaleRebuildIsDropped() {
+        OccupancyIndex index = new OccupancyIndex(10, 60);
+
+        long version = index.version();
+        index.markBooked(1L, DATE.atTime(9, 0), DATE.atTime(9, 30));
+        index.put(1L, DATE, emptyDay(), version);
+
+        assertNull(index.get(1L, DATE));
+    }
+
+    @Test
+    void testGet_ExpiredEntryIsAMiss() {
+        OccupancyIndex index = new OccupancyIndex(10, 0);
+
+        index.put(1L, DATE, emptyDay(), index.version());
+
+        assertNull(index.get(1L, DATE));
+    }
+
+    @Test
+    void testPut_ZeroCapacityDisablesCaching() {
+        OccupancyIndex index = new OccupancyIndex(0, 60);
+
+        index.put(1L, DATE, emptyDay(), index.version());
+
+        assertEquals(0, index.size());
+    }
+
+    // ==================== INCREMENTAL UPDATE TESTS ====================
+
+    @Test
+    void testAppointmentEvents_MarkAndReleaseCachedDay() {
+        OccupancyIndex index = new OccupancyIndex(10, 60);
+        index.put(1L, DATE, emptyDay(), index.version());
+
+        index.onAppointmentStatusChanged(event(null,
+                Appointment.Status.PENDING));
+        assertTrue(index.isBooked(1L, DATE.atTime(9, 15),
+                DATE.atTime(9, 45)));
+        assertFalse(index.isBooked(1L, DATE.atTime(10, 0),
+                DATE.atTime(10, 30)));
+
+        index.onAppointmentStatusChanged(event(Appointment.Status.PENDING,
+                Appointment.Status.CONFIRMED));
+        assertTrue(index.isBooked(1L, DATE.atTime(9, 0),
+                DATE.atTime(9, 30)));
+
+        index.onAppointmentStatusChanged(event(Appointment.Status.CONFIRMED,
+                Appointment.Status.CANCELLED));
+        assertFalse(index.isBooked(1L, DATE.atTime(9, 0),
+                DATE.atTime(9, 30)));
+
+        index.onAppointmentStatusChanged(event(null,
+                Appointment.Status.PENDING));
+        index.onAppointmentStatusChanged(event(Appointment.Status.PENDING,
+                Appointment.Status.EXPIRED));
+        assertFalse(index.isBooked(1L, DATE.atTime(9, 0),
+                DATE.atTime(9, 30)));
+    }
+
+    @Test
+    void testIsBooked_UncachedDayReportsFree() {
+        OccupancyIndex index = new OccupancyIndex(10, 60);
+
+        index.markBooked(1L, DATE.atTime(9, 0), DATE.atTime(9, 30));
+
+        assertFalse(index.isBooked(1L, DATE.atTime(9, 0),
+                DATE.atTime(9, 30)));
+    }
+
+    @Test
+    void testIsBooked_SpansMidnight() {
+        OccupancyIndex index = new OccupancyIndex(10, 60);
+        index.put(1L, DATE.plusDays(1), emptyDay().withBooked(0, 30),
+                index.version());
+
+        assertTrue(index.isBooked(1L, DATE.atTime(23, 30),
+                DATE.plusDays(1).atTime(0, 15)));
+        assertFalse(index.isBooked(1L, DATE.atTime(23, 0),
+                DATE.atTime(23, 59)));
+    }
+
+    @Test
+    void testScheduleChange_EvictsOnlyThatDoctor() {
+        OccupancyIndex index = new OccupancyIndex(10, 60);
+        index.put(1L, DATE, emptyDay(), index.version());
+        index.put(2L, DATE, emptyDay(), index.version());
+
+        index.onDoctorScheduleChanged(new DoctorScheduleChangedEvent(1L));
+
+        assertNull(index.get(1L, DATE));
+        assertNotNull(index.get(2L, DATE));
+    }
+
+    private static AppointmentStatusChangedEvent event(
+            Appointment.Status previous, Appointment.Status current) {
+        return new AppointmentStatusChangedEvent(1L, 1L,
+                DATE.atTime(9, 0), DATE.atTime(9, 30), previous, current);
+    }
+}
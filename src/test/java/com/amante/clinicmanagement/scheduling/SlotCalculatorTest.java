@@ -0,0 +1,186 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.dto.response.TimeSlotDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotCalculatorTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 6);
+
+    // ==================== MINUTE INTERVALS TESTS ====================
+
+    @Test
+    void testOfBreaks_SortsByStartAndUppercasesLabels() {
+        List<DoctorBreak> breaks = List.of(
+                breakAt("Lunch", 12, 0, 13, 0),
+                breakAt("Coffee", 10, 0, 10, 15)
+        );
+
+        MinuteIntervals intervals = MinuteIntervals.ofBreaks(breaks);
+
+        assertEquals(2, intervals.size());
+        assertEquals(600, intervals.start(0));
+        assertEquals(615, intervals.end(0));
+        assertEquals("COFFEE", intervals.label(0));
+        assertEquals(720, intervals.start(1));
+        assertEquals("LUNCH", intervals.label(1));
+    }
+
+    @Test
+    void testOfAppointments_RoundsOutwardAndClampsOtherDays() {
+        List<Appointment> appointments = List.of(
+                appointment(DATE.atTime(9, 0, 30), DATE.atTime(9, 29, 10)),
+                appointment(DATE.minusDays(1).atTime(23, 0),
+                        DATE.plusDays(1).atTime(1, 0))
+        );
+
+        MinuteIntervals intervals =
+                MinuteIntervals.ofAppointments(appointments, DATE);
+
+        assertEquals(-1, intervals.start(0));
+        assertEquals(1441, intervals.end(0));
+        assertEquals(540, intervals.start(1));
+        assertEquals(570, intervals.end(1));
+        assertNull(intervals.label(1));
+    }
+
+    // ==================== SLOT CALCULATION TESTS ====================
+
+    @Test
+    void testCalculate_BreaksTakePrecedenceAndBookingsTouchInclusive() {
+        MinuteIntervals breaks = MinuteIntervals.ofBreaks(
+                List.of(breakAt("Lunch", 12, 0, 13, 0)));
+        MinuteIntervals booked = MinuteIntervals.ofAppointments(
+                List.of(appointment(DATE.atTime(9, 0), DATE.atTime(9, 30))),
+                DATE);
+
+        List<TimeSlotDto> slots = SlotCalculator.calculate(
+                DATE, 9 * 60, 17 * 60, 30, 0, breaks, booked);
+
+        assertEquals(16, slots.size());
+        assertEquals(SlotCalculator.BOOKED, slots.get(0).getReason());
+        // Slot starting when the booking ends is still blocked
+        assertEquals(SlotCalculator.BOOKED, slots.get(1).getReason());
+        assertTrue(slots.get(2).getAvailable());
+        assertEquals("LUNCH", slots.get(6).getReason());
+        assertEquals("LUNCH", slots.get(7).getReason());
+        assertTrue(slots.get(8).getAvailable());
+        assertEquals(DATE.atTime(16, 30), slots.get(15).getStartTime());
+        assertEquals(DATE.atTime(17, 0), slots.get(15).getEndTime());
+    }
+
+    @Test
+    void testCalculate_BufferAndShortWindowAndInvalidDuration() {
+        List<TimeSlotDto> buffered = SlotCalculator.calculate(DATE,
+                9 * 60, 10 * 60, 20, 10,
+                MinuteIntervals.empty(), MinuteIntervals.empty());
+        assertEquals(2, buffered.size());
+        assertEquals(DATE.atTime(9, 30), buffered.get(1).getStartTime());
+
+        assertTrue(SlotCalculator.calculate(DATE, 9 * 60, 9 * 60 + 20, 30, 0,
+                MinuteIntervals.empty(), MinuteIntervals.empty()).isEmpty());
+        assertTrue(SlotCalculator.calculate(DATE, 9 * 60, 17 * 60, 0, 0,
+                MinuteIntervals.empty(), MinuteIntervals.empty()).isEmpty());
+    }
+
+    @Test
+    void testCalculate_SlotEndingAtMidnightRollsOverDate() {
+        List<TimeSlotDto> slots = SlotCalculator.calculate(DATE,
+                23 * 60, 24 * 60, 60, 0,
+                MinuteIntervals.empty(), MinuteIntervals.empty());
+
+        assertEquals(1, slots.size());
+        assertEquals(DATE.plusDays(1).atStartOfDay(),
+                slots.get(0).getEndTime());
+    }
+
+    @Test
+    void testCalculate_MatchesNaiveScanAndBitmapOnRandomDays() {
+        Random random = new Random(42);
+        for (int day = 0; day < 500; day++) {
+            int workStart = random.nextInt(12 * 60);
+            int workEnd = workStart + random.nextInt(12 * 60);
+            int duration = 5 + random.nextInt(56);
+            int buffer = random.nextInt(16);
+            int[][] breaks = randomIntervals(random, random.nextInt(6), 90);
+            int[][] booked = randomIntervals(random, random.nextInt(60), 60);
+
+            String[] labels = new String[breaks[0].length];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = "B" + i;
+            }
+
+            MinuteIntervals breakIntervals = MinuteIntervals.of(
+                    breaks[0].clone(), breaks[1].clone(), labels.clone());
+            MinuteIntervals bookedIntervals = MinuteIntervals.of(
+                    booked[0].clone(), booked[1].clone(), null);
+            List<TimeSlotDto> actual = SlotCalculator.calculate(DATE,
+                    workStart, workEnd, duration, buffer,
+                    breakIntervals, bookedIntervals);
+            List<TimeSlotDto> fromBitmap = SlotCalculator.calculate(DATE,
+                    workStart, workEnd, duration, buffer,
+                    DoctorDayOccupancy.of(breakIntervals, bookedIntervals));
+
+            List<Boolean> expected = new ArrayList<>();
+            for (int s = workStart; s + duration <= workEnd;
+                 s += duration + buffer) {
+                int e = s + duration;
+                boolean blocked = false;
+                for (int i = 0; i < breaks[0].length && !blocked; i++) {
+                    blocked = s < breaks[1][i] && e > breaks[0][i];
+                }
+                for (int i = 0; i < booked[0].length && !blocked; i++) {
+                    blocked = s <= booked[1][i] && e >= booked[0][i];
+                }
+                expected.add(!blocked);
+            }
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), actual.get(i).getAvailable(),
+                        "day " + day + " slot " + i);
+                assertEquals(actual.get(i).getReason(),
+                        fromBitmap.get(i).getReason(),
+                        "day " + day + " slot " + i);
+            }
+        }
+    }
+
+    private static int[][] randomIntervals(Random random, int count,
+                                           int maxLength) {
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = random.nextInt(24 * 60 - maxLength);
+            ends[i] = starts[i] + 1 + random.nextInt(maxLength);
+        }
+        return new int[][]{starts, ends};
+    }
+
+    private static DoctorBreak breakAt(String name, int startHour,
+                                       int startMinute, int endHour,
+                                       int endMinute) {
+        return new DoctorBreak(null, "ALL", name,
+                LocalTime.of(startHour, startMinute),
+                LocalTime.of(endHour, endMinute));
+    }
+
+    private static Appointment appointment(LocalDateTime start,
+                                           LocalDateTime end) {
+        Appointment appointment = new Appointment();
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        return appointment;
+    }
+}
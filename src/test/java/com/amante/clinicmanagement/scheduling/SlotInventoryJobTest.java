@@ -0,0 +1,82 @@
+package com.amante.clinicmanagement.scheduling;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.event.DoctorScheduleChangedEvent;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.service.SlotInventoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotInventoryJobTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private SlotInventoryService slotInventoryService;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @InjectMocks
+    private SlotInventoryJob slotInventoryJob;
+
+    @Test
+    void testRegenerateDirty_MergesRangesPerDoctor() {
+        slotInventoryJob.onDoctorScheduleChanged(
+                new DoctorScheduleChangedEvent(1L, DATE, DATE.plusDays(1)));
+        slotInventoryJob.onDoctorScheduleChanged(
+                new DoctorScheduleChangedEvent(1L, DATE.plusDays(3),
+                        DATE.plusDays(4)));
+        slotInventoryJob.onDoctorScheduleChanged(
+                new DoctorScheduleChangedEvent(2L, DATE, DATE));
+        slotInventoryJob.onDoctorScheduleChanged(
+                new DoctorScheduleChangedEvent(2L));
+
+        slotInventoryJob.regenerateDirty();
+
+        verify(slotInventoryService).regenerate(1L, DATE, DATE.plusDays(4));
+        verify(slotInventoryService).regenerate(2L, null, null);
+        assertEquals(0, slotInventoryJob.pendingDoctors());
+    }
+
+    @Test
+    void testRegenerateDirty_FailureKeepsDoctorDirty() {
+        slotInventoryJob.onAppointmentStatusChanged(
+                new AppointmentStatusChangedEvent(5L, 1L, DATE.atTime(9, 0),
+                        DATE.atTime(9, 30), Appointment.Status.PENDING,
+                        Appointment.Status.CANCELLED));
+        doThrow(new RuntimeException("db down"))
+                .when(slotInventoryService).regenerate(1L, DATE, DATE);
+
+        slotInventoryJob.regenerateDirty();
+
+        assertEquals(1, slotInventoryJob.pendingDoctors());
+    }
+
+    @Test
+    void testSeedAndExtendHorizon_MarkAllDoctors() {
+        when(doctorRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(slotInventoryService.getHorizonEnd()).thenReturn(DATE);
+
+        slotInventoryJob.extendHorizon();
+        slotInventoryJob.regenerateDirty();
+
+        verify(slotInventoryService).purgeBefore(LocalDate.now());
+        verify(slotInventoryService).regenerate(1L, DATE, DATE);
+        verify(slotInventoryService).regenerate(2L, DATE, DATE);
+
+        slotInventoryJob.seed();
+        assertEquals(2, slotInventoryJob.pendingDoctors());
+    }
+}
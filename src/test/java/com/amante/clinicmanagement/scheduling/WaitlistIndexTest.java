@@ -0,0 +1,85 @@
+package com.amante.clinicmanagement.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 6);
+    private static final LocalDateTime REQUESTED = DATE.minusDays(7).atStartOfDay();
+
+    // ==================== QUEUE TESTS ====================
+
+    @Test
+    void testCandidates_EarliestRequestFirst() {
+        WaitlistIndex index = new WaitlistIndex();
+
+        index.add(3L, 1L, DATE, DATE, REQUESTED.plusHours(2));
+        index.add(1L, 1L, DATE, DATE.plusDays(3), REQUESTED);
+        index.add(2L, 1L, DATE, DATE, REQUESTED.plusHours(1));
+
+        assertEquals(List.of(1L, 2L, 3L), index.candidates(1L, DATE, 10));
+        assertEquals(List.of(1L, 2L), index.candidates(1L, DATE, 2));
+    }
+
+    @Test
+    void testCandidates_OnlyEntriesCoveringTheDayAndDoctor() {
+        WaitlistIndex index = new WaitlistIndex();
+
+        index.add(1L, 1L, DATE, DATE.plusDays(2), REQUESTED);
+        index.add(2L, 1L, DATE.plusDays(2), DATE.plusDays(4), REQUESTED);
+        index.add(3L, 2L, DATE, DATE.plusDays(2), REQUESTED);
+
+        assertEquals(List.of(1L), index.candidates(1L, DATE.plusDays(1), 10));
+        assertEquals(List.of(1L, 2L), index.candidates(1L, DATE.plusDays(2), 10));
+        assertEquals(List.of(2L), index.candidates(1L, DATE.plusDays(4), 10));
+        assertTrue(index.candidates(1L, DATE.plusDays(5), 10).isEmpty());
+    }
+
+    @Test
+    void testRemove_LeavesEveryDayOfTheRange() {
+        WaitlistIndex index = new WaitlistIndex();
+
+        index.add(1L, 1L, DATE, DATE.plusDays(2), REQUESTED);
+        index.add(2L, 1L, DATE, DATE, REQUESTED.plusHours(1));
+        index.remove(1L);
+
+        assertEquals(List.of(2L), index.candidates(1L, DATE, 10));
+        assertTrue(index.candidates(1L, DATE.plusDays(1), 10).isEmpty());
+        assertEquals(1, index.size());
+
+        // Unknown ids are ignored
+        index.remove(99L);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testAdd_SameEntryAgainReplacesIt() {
+        WaitlistIndex index = new WaitlistIndex();
+
+        index.add(1L, 1L, DATE, DATE.plusDays(2), REQUESTED);
+        index.add(1L, 1L, DATE.plusDays(1), DATE.plusDays(1), REQUESTED);
+
+        assertTrue(index.candidates(1L, DATE, 10).isEmpty());
+        assertEquals(List.of(1L), index.candidates(1L, DATE.plusDays(1), 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testRebuild_ReplacesEveryEntry() {
+        WaitlistIndex index = new WaitlistIndex();
+
+        index.add(1L, 1L, DATE, DATE.plusDays(1), REQUESTED);
+        index.rebuild(() -> index.add(2L, 1L, DATE.plusDays(1),
+                DATE.plusDays(1), REQUESTED));
+
+        assertEquals(1, index.size());
+        assertTrue(index.candidates(1L, DATE, 10).isEmpty());
+        assertEquals(List.of(2L), index.candidates(1L, DATE.plusDays(1), 10));
+    }
+}
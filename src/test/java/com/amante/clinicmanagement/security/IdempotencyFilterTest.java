@@ -0,0 +1,247 @@
+package com.amante.clinicmanagement.security;
+
+import com.amante.clinicmanagement.entity.IdempotencyRecord;
+import com.amante.clinicmanagement.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"doctorId\":1}";
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(idempotencyService, new ObjectMapper(),
+                List.of("POST /api/appointments",
+                        "put /api/appointments/*/cancel"));
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("patient@test.com",
+                        null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testIsIdempotent_MatchesConfiguredRoutes() {
+        assertTrue(filter.isIdempotent(
+                request("POST", "/api/appointments", "k")));
+        assertTrue(filter.isIdempotent(
+                request("PUT", "/api/appointments/5/cancel", "k")));
+        assertFalse(filter.isIdempotent(
+                request("PUT", "/api/appointments/5/confirm", "k")));
+    }
+
+    @Test
+    void testFirstRequest_RunsAndStoresResponse()
+            throws ServletException, IOException {
+        doAnswer(invocation -> {
+            // The controller can still read the hashed body
+            ServletRequest request = invocation.getArgument(0);
+            byte[] body = request.getInputStream().readAllBytes();
+            assertEquals(BODY, new String(body, StandardCharsets.UTF_8));
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setStatus(201);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"success\":true}");
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/appointments", "key-1"),
+                response, filterChain);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"success\":true}", response.getContentAsString());
+        verify(idempotencyService).complete("patient@test.com", "key-1", 201,
+                "application/json", "{\"success\":true}");
+        verify(idempotencyService, never()).abandon(any(), any());
+    }
+
+    @Test
+    void testFirstRequest_BodyReadableWithReadListener()
+            throws ServletException, IOException {
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = {false};
+        doAnswer(invocation -> {
+            ServletInputStream input = ((ServletRequest)
+                    invocation.getArgument(0)).getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) {
+                        read.write(input.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(request("POST", "/api/appointments", "key-1"),
+                new MockHttpServletResponse(), filterChain);
+
+        assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead[0]);
+    }
+
+    @Test
+    void testCompletedKey_ReplaysStoredResponse()
+            throws ServletException, IOException {
+        MockHttpServletRequest request =
+                request("POST", "/api/appointments", "key-1");
+        IdempotencyRecord record = record(request);
+        record.setStatus(IdempotencyRecord.Status.COMPLETED);
+        record.setResponseStatus(201);
+        record.setResponseContentType("application/json");
+        record.setResponseBody("{\"success\":true}");
+        when(idempotencyService.begin(eq("patient@test.com"), eq("key-1"),
+                anyString())).thenReturn(record);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("true",
+                response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"success\":true}", response.getContentAsString());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testInProgressKey_Returns409() throws ServletException, IOException {
+        MockHttpServletRequest request =
+                request("POST", "/api/appointments", "key-1");
+        when(idempotencyService.begin(any(), any(), any()))
+                .thenReturn(record(request));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(409, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testKeyReusedForDifferentBody_Returns422()
+            throws ServletException, IOException {
+        IdempotencyRecord record =
+                record(request("POST", "/api/appointments", "key-1"));
+        record.setStatus(IdempotencyRecord.Status.COMPLETED);
+        when(idempotencyService.begin(any(), any(), any())).thenReturn(record);
+
+        MockHttpServletRequest request =
+                request("POST", "/api/appointments", "key-1");
+        request.setContent("{\"doctorId\":2}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(422, response.getStatus());
+        assertTrue(response.getContentAsString().contains("different request"));
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testServerError_AbandonsKey() throws ServletException, IOException {
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setStatus(500);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(request("POST", "/api/appointments", "key-1"),
+                new MockHttpServletResponse(), filterChain);
+
+        verify(idempotencyService).abandon("patient@test.com", "key-1");
+        verify(idempotencyService, never())
+                .complete(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void testKeyTooLong_Returns400() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/appointments", "k".repeat(256)),
+                response, filterChain);
+
+        assertEquals(400, response.getStatus());
+        verifyNoInteractions(idempotencyService, filterChain);
+    }
+
+    @Test
+    void testWithoutKeyOrUser_PassesThrough()
+            throws ServletException, IOException {
+        filter.doFilter(request("POST", "/api/appointments", null),
+                new MockHttpServletResponse(), filterChain);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request("POST", "/api/appointments", "key-1"),
+                new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain, times(2)).doFilter(any(), any());
+        verifyNoInteractions(idempotencyService);
+    }
+
+    private static MockHttpServletRequest request(String method, String path,
+                                                  String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.KEY_HEADER, key);
+        }
+        return request;
+    }
+
+    private static IdempotencyRecord record(MockHttpServletRequest request) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId("patient@test.com key-1");
+        record.setRequestHash(IdempotencyFilter.hash(request,
+                BODY.getBytes(StandardCharsets.UTF_8)));
+        return record;
+    }
+}
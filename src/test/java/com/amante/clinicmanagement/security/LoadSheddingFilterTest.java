@@ -0,0 +1,155 @@
+package com.amante.clinicmanagement.security;
+
+import com.amante.clinicmanagement.diagnostics.PoolWaitMonitor;
+import com.amante.clinicmanagement.security.LoadSheddingFilter.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadSheddingFilterTest {
+
+    @Mock
+    private PoolWaitMonitor poolWaitMonitor;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private LoadSheddingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LoadSheddingFilter(poolWaitMonitor, new ObjectMapper(),
+                List.of("POST /api/appointments=CRITICAL",
+                        "GET /api/doctors/*/availability=LOW",
+                        "get /api/doctors = low"));
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "lowPoolWaitMillis", 100L);
+        ReflectionTestUtils.setField(filter, "lowInFlight", 100);
+        ReflectionTestUtils.setField(filter, "normalPoolWaitMillis", 500L);
+        ReflectionTestUtils.setField(filter, "normalInFlight", 200);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 7);
+    }
+
+    // ==================== PRIORITY TESTS ====================
+
+    @Test
+    void testPriorityOf_MatchesConfiguredRoutes() {
+        assertEquals(Priority.CRITICAL,
+                filter.priorityOf(request("POST", "/api/appointments", false)));
+        assertEquals(Priority.LOW, filter.priorityOf(
+                request("GET", "/api/doctors/5/availability", true)));
+        assertEquals(Priority.LOW,
+                filter.priorityOf(request("GET", "/api/doctors", true)));
+    }
+
+    @Test
+    void testPriorityOf_AnonymousNormalRequest_IsLow() {
+        assertEquals(Priority.NORMAL,
+                filter.priorityOf(request("GET", "/api/doctors/5", true)));
+        assertEquals(Priority.LOW,
+                filter.priorityOf(request("GET", "/api/doctors/5", false)));
+    }
+
+    // ==================== SHEDDING TESTS ====================
+
+    @Test
+    void testDoFilter_NoPressure_AdmitsEverything()
+            throws ServletException, IOException {
+        when(poolWaitMonitor.waitMillis()).thenReturn(5.0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/api/doctors", false), response,
+                filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void testDoFilter_ModeratePoolWait_ShedsLowOnly()
+            throws ServletException, IOException {
+        when(poolWaitMonitor.waitMillis()).thenReturn(150.0);
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/doctors/5/availability", true),
+                shed, filterChain);
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/appointments/my-appointments",
+                true), admitted, filterChain);
+
+        assertEquals(503, shed.getStatus());
+        assertEquals("7", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("\"success\":false"));
+        assertEquals(200, admitted.getStatus());
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    void testDoFilter_SeverePoolWait_KeepsCriticalRoutes()
+            throws ServletException, IOException {
+        when(poolWaitMonitor.waitMillis()).thenReturn(900.0);
+
+        MockHttpServletResponse normal = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/appointments/my-appointments",
+                true), normal, filterChain);
+        MockHttpServletResponse booking = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/appointments", true),
+                booking, filterChain);
+
+        assertEquals(503, normal.getStatus());
+        assertEquals(200, booking.getStatus());
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    void testDoFilter_InFlightLimit_ShedsLow()
+            throws ServletException, IOException {
+        ReflectionTestUtils.setField(filter, "lowInFlight", 1);
+        when(poolWaitMonitor.waitMillis()).thenReturn(0.0);
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        doAnswer(invocation -> {
+            filter.doFilter(request("GET", "/api/doctors", false), nested,
+                    mock(FilterChain.class));
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(request("POST", "/api/appointments", true),
+                new MockHttpServletResponse(), filterChain);
+
+        assertEquals(503, nested.getStatus());
+    }
+
+    @Test
+    void testConstructor_InvalidRoute_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoadSheddingFilter(poolWaitMonitor,
+                        new ObjectMapper(), List.of("/api/doctors")));
+    }
+
+    private static MockHttpServletRequest request(String method, String uri,
+                                                  boolean authenticated) {
+        MockHttpServletRequest request =
+                new MockHttpServletRequest(method, uri);
+        if (authenticated) {
+            request.addHeader("Authorization", "Bearer token");
+        }
+        return request;
+    }
+}
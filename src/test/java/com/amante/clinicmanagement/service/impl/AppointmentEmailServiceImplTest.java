@@ -1,9 +1,11 @@
 package com.amante.clinicmanagement.service.impl;
 
+import com.amante.clinicmanagement.diagnostics.ConnectionHoldTracker;
 import com.amante.clinicmanagement.entity.Appointment;
 import com.amante.clinicmanagement.entity.Doctor;
 import com.amante.clinicmanagement.entity.Patient;
 import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.entity.WaitlistEntry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockedConstruction;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -29,6 +32,8 @@ import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -49,6 +54,10 @@ class AppointmentEmailServiceImplTest {
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
+    @Spy
+    private ConnectionHoldTracker connectionHoldTracker =
+            new ConnectionHoldTracker(2000);
+
     @InjectMocks
     private AppointmentEmailServiceImpl emailService;
 
@@ -298,6 +307,144 @@ class AppointmentEmailServiceImplTest {
         verify(webClient, atLeast(5)).post();
     }
 
+    // ==================== RESCHEDULE EMAIL TESTS ====================
+
+    @Test
+    void sendRescheduleEmails_AllScenarios() throws IOException {
+        LocalDateTime previousStart = LocalDateTime.of(2024, 12, 24, 9, 0);
+
+        // Test 1: One combined email each to patient and doctor
+        emailService.sendRescheduleEmails(appointment, previousStart, "PATIENT");
+        verify(webClient, times(2)).post();
+        verify(requestBodyUriSpec, times(2)).bodyValue(emailDataCaptor.capture());
+        emailDataCaptor.getAllValues().forEach(email ->
+                assertThat(email.get("subject")).asString().contains("Appointment Rescheduled")
+        );
+
+        // Test 2: Email disabled
+        ReflectionTestUtils.setField(emailService, "emailEnabled", false);
+        emailService.sendRescheduleEmails(appointment, previousStart, "DOCTOR");
+        verify(webClient, times(2)).post();
+
+        // Test 3: Exception handled
+        ReflectionTestUtils.setField(emailService, "emailEnabled", true);
+        when(responseSpec.bodyToMono(String.class))
+                .thenReturn(Mono.error(new RuntimeException("API Error")));
+        assertDoesNotThrow(() -> emailService.sendRescheduleEmails(appointment, previousStart, "DOCTOR"));
+        verify(webClient, times(3)).post();
+    }
+
+    // ==================== EXPIRY EMAIL TESTS ====================
+
+    @Test
+    void sendExpiryEmail_AllScenarios() throws IOException {
+        // Test 1: Success
+        assertTrue(emailService.sendExpiryEmail(appointment));
+        verify(webClient, times(1)).post();
+        verify(requestBodyUriSpec).bodyValue(emailDataCaptor.capture());
+        assertThat(emailDataCaptor.getValue().get("subject")).asString().contains("Appointment Request Expired");
+
+        // Test 2: Email disabled counts as done
+        ReflectionTestUtils.setField(emailService, "emailEnabled", false);
+        assertTrue(emailService.sendExpiryEmail(appointment));
+        verify(webClient, times(1)).post();
+
+        // Test 3: Failure is reported so the notice is retried
+        ReflectionTestUtils.setField(emailService, "emailEnabled", true);
+        when(responseSpec.bodyToMono(String.class))
+                .thenReturn(Mono.error(new RuntimeException("API Error")));
+        assertFalse(emailService.sendExpiryEmail(appointment));
+        verify(webClient, times(2)).post();
+    }
+
+    // ==================== REMINDER EMAIL TESTS ====================
+
+    @Test
+    void sendReminderEmail_AllScenarios() throws IOException {
+        // Test 1: Success
+        assertTrue(emailService.sendReminderEmail(appointment));
+        verify(webClient, times(1)).post();
+        verify(requestBodyUriSpec).bodyValue(emailDataCaptor.capture());
+        assertThat(emailDataCaptor.getValue().get("subject")).asString().contains("Appointment Reminder");
+
+        // Test 2: Email disabled counts as done
+        ReflectionTestUtils.setField(emailService, "emailEnabled", false);
+        assertTrue(emailService.sendReminderEmail(appointment));
+        verify(webClient, times(1)).post();
+
+        // Test 3: Failure is reported so the reminder is retried
+        ReflectionTestUtils.setField(emailService, "emailEnabled", true);
+        when(responseSpec.bodyToMono(String.class))
+                .thenReturn(Mono.error(new RuntimeException("API Error")));
+        assertFalse(emailService.sendReminderEmail(appointment));
+        verify(webClient, times(2)).post();
+    }
+
+    // ==================== WAITLIST OFFER EMAIL TESTS ====================
+
+    @Test
+    void sendWaitlistOfferEmail_AllScenarios() throws IOException {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(5L);
+        entry.setPatient(patient);
+        entry.setDoctor(doctor);
+        entry.setOfferedStartTime(LocalDateTime.of(2024, 12, 25, 10, 0));
+        entry.setOfferedEndTime(LocalDateTime.of(2024, 12, 25, 10, 30));
+        entry.setHoldExpiresAt(LocalDateTime.of(2024, 12, 20, 9, 30));
+
+        // Test 1: Success
+        emailService.sendWaitlistOfferEmail(entry);
+        verify(webClient, times(1)).post();
+        verify(requestBodyUriSpec).bodyValue(emailDataCaptor.capture());
+        assertThat(emailDataCaptor.getValue().get("subject")).asString().contains("A Slot Opened Up");
+        assertThat(emailDataCaptor.getValue().get("htmlContent")).asString().contains("Kent");
+
+        // Test 2: Email disabled
+        ReflectionTestUtils.setField(emailService, "emailEnabled", false);
+        emailService.sendWaitlistOfferEmail(entry);
+        verify(webClient, times(1)).post();
+
+        // Test 3: Exception handled
+        ReflectionTestUtils.setField(emailService, "emailEnabled", true);
+        when(responseSpec.bodyToMono(String.class))
+                .thenReturn(Mono.error(new RuntimeException("API Error")));
+        assertDoesNotThrow(() -> emailService.sendWaitlistOfferEmail(entry));
+        verify(webClient, times(2)).post();
+    }
+
+    @Test
+    void sendSeriesPendingEmails_AllScenarios() throws IOException {
+        Appointment second = new Appointment();
+        second.setId(2L);
+        second.setPatient(patient);
+        second.setDoctor(doctor);
+        second.setStartTime(appointment.getStartTime().plusWeeks(1));
+        second.setEndTime(appointment.getEndTime().plusWeeks(1));
+        List<Appointment> series = List.of(appointment, second);
+
+        // Test 1: Success - one summary each to patient and doctor
+        emailService.sendSeriesPendingEmails(series);
+        verify(webClient, times(2)).post();
+        verify(requestBodyUriSpec, times(2)).bodyValue(emailDataCaptor.capture());
+        assertThat(emailDataCaptor.getAllValues().get(0).get("subject")).asString()
+                .contains("Appointment Series Request Received");
+        assertThat(emailDataCaptor.getAllValues().get(0).get("htmlContent")).asString().contains("Kent");
+        assertThat(emailDataCaptor.getAllValues().get(1).get("subject")).asString()
+                .contains("New Appointment Series Request");
+
+        // Test 2: Email disabled
+        ReflectionTestUtils.setField(emailService, "emailEnabled", false);
+        emailService.sendSeriesPendingEmails(series);
+        verify(webClient, times(2)).post();
+
+        // Test 3: Exception handled
+        ReflectionTestUtils.setField(emailService, "emailEnabled", true);
+        when(responseSpec.bodyToMono(String.class))
+                .thenReturn(Mono.error(new RuntimeException("API Error")));
+        assertDoesNotThrow(() -> emailService.sendSeriesPendingEmails(series));
+        verify(webClient, times(3)).post();
+    }
+
     // ==================== PLACEHOLDER REPLACEMENT TESTS ====================
 
     @Test
@@ -0,0 +1,194 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.service.AppointmentEmailService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the expiry SQL against the test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentExpiryIntegrationTest {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentEmailService emailService;
+    private ApplicationEventPublisher eventPublisher;
+    private AppointmentExpiryServiceImpl expiryService;
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(AppointmentEmailService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        expiryService = new AppointmentExpiryServiceImpl(appointmentRepository,
+                emailService, jdbcTemplate, transactionManager, eventPublisher);
+        ReflectionTestUtils.setField(expiryService, "chunkSize", 2);
+        ReflectionTestUtils.setField(expiryService, "noticeBatchSize", 2);
+        ReflectionTestUtils.setField(expiryService,
+                "noticeClaimTimeoutMinutes", 10);
+        ReflectionTestUtils.setField(expiryService,
+                "noticeSendConcurrency", 2);
+        expiryService.startSender();
+
+        doctor = fixtures.doctor("expiry-doctor");
+        patient = fixtures.patient("expiry-patient");
+    }
+
+    @AfterEach
+    void tearDown() {
+        expiryService.stopSender();
+        // Keep due notices from leaking into other tests' claims
+        jdbcTemplate.getJdbcTemplate().update("UPDATE appointments "
+                + "SET expiry_notice_due_at = NULL "
+                + "WHERE expiry_notice_due_at IS NOT NULL");
+    }
+
+    // ==================== EXPIRY TESTS ====================
+
+    @Test
+    void testExpireStalePending_ExpiresPastPendingInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> stale = List.of(
+                book(now.minusDays(2), Appointment.Status.PENDING),
+                book(now.minusDays(1), Appointment.Status.PENDING),
+                book(now.minusHours(1), Appointment.Status.PENDING));
+        Long upcoming = book(now.plusHours(1), Appointment.Status.PENDING);
+        Long confirmed = book(now.minusHours(2), Appointment.Status.CONFIRMED);
+
+        assertTrue(expiryService.expireStalePending() >= 3);
+
+        for (Long id : stale) {
+            assertEquals(Appointment.Status.EXPIRED, status(id));
+            assertNotNull(appointmentRepository.findById(id).orElseThrow()
+                    .getExpiryNoticeDueAt());
+        }
+        // Patients are emailed by the notice job, not while expiring
+        verifyNoInteractions(emailService);
+        assertEquals(Appointment.Status.PENDING, status(upcoming));
+        assertEquals(Appointment.Status.CONFIRMED, status(confirmed));
+
+        ArgumentCaptor<AppointmentStatusChangedEvent> events =
+                ArgumentCaptor.forClass(AppointmentStatusChangedEvent.class);
+        verify(eventPublisher, atLeast(3)).publishEvent(events.capture());
+        AppointmentStatusChangedEvent event = events.getAllValues().stream()
+                .filter(e -> e.getAppointmentId().equals(stale.get(0)))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(event.isSlotReleased());
+        assertEquals(doctor.getId(), event.getDoctorId());
+
+        // Expired requests no longer block their slot
+        assertFalse(appointmentRepository.existsOverlappingAppointment(
+                doctor.getId(), now.minusDays(2), now.minusDays(2)
+                        .plusMinutes(30)));
+
+        assertEquals(0, expiryService.expireStalePending());
+    }
+
+    // ==================== NOTICE TESTS ====================
+
+    @Test
+    void testSendExpiryNotices_SendsEachOnceAndRetriesFailures() {
+        LocalDateTime now = LocalDateTime.now();
+        Long first = book(now.minusDays(1), Appointment.Status.PENDING);
+        Long second = book(now.minusHours(2), Appointment.Status.PENDING);
+        Long failing = book(now.minusHours(1), Appointment.Status.PENDING);
+        expiryService.expireStalePending();
+        when(emailService.sendExpiryEmail(any())).thenAnswer(invocation ->
+                !invocation.<Appointment>getArgument(0).getId()
+                        .equals(failing));
+
+        assertTrue(expiryService.sendExpiryNotices() >= 2);
+
+        for (Long id : List.of(first, second)) {
+            verify(emailService).sendExpiryEmail(
+                    argThat(appointment -> appointment.getId().equals(id)));
+            Appointment sent = appointmentRepository.findById(id)
+                    .orElseThrow();
+            assertNull(sent.getExpiryNoticeDueAt());
+            assertNotNull(sent.getExpiryNoticeSentAt());
+        }
+        Appointment unsent = appointmentRepository.findById(failing)
+                .orElseThrow();
+        assertNotNull(unsent.getExpiryNoticeDueAt());
+        assertNull(unsent.getExpiryNoticeSentAt());
+
+        // The failed claim is left alone until it times out
+        clearInvocations(emailService);
+        assertEquals(0, expiryService.sendExpiryNotices());
+        verifyNoInteractions(emailService);
+
+        assertEquals(List.of(failing), expiryService.claimNotices(
+                now.plusMinutes(11)));
+    }
+
+    // ==================== STATUS CONSTRAINT TESTS ====================
+
+    @Test
+    void testAllowsAllStatuses_ReadsPostgresConstraintDefinition() {
+        String withoutExpired = "CHECK (((status)::text = ANY ((ARRAY["
+                + "'PENDING'::character varying, 'CONFIRMED'::character "
+                + "varying, 'REJECTED'::character varying, "
+                + "'CANCELLED'::character varying, 'COMPLETED'::character "
+                + "varying])::text[])))";
+        String current = "CHECK (((status)::text = ANY ((ARRAY["
+                + "'PENDING'::character varying, 'CONFIRMED'::character "
+                + "varying, 'REJECTED'::character varying, "
+                + "'CANCELLED'::character varying, 'COMPLETED'::character "
+                + "varying, 'EXPIRED'::character varying])::text[])))";
+
+        assertFalse(AppointmentExpiryServiceImpl
+                .allowsAllStatuses(withoutExpired));
+        assertTrue(AppointmentExpiryServiceImpl.allowsAllStatuses(current));
+    }
+
+    private Long book(LocalDateTime start, Appointment.Status status) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusMinutes(30));
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment).getId();
+    }
+
+    private Appointment.Status status(Long id) {
+        return appointmentRepository.findById(id).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,183 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.AppointmentExportRow;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.service.AppointmentExportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentExportServiceImplTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private AppointmentExportServiceImpl appointmentExportService;
+
+    private User doctorUser;
+    private Doctor doctor;
+    private AppointmentExportRow row;
+
+    @BeforeEach
+    void setUp() {
+        doctorUser = new User(10L, "doctor@test.com", "password",
+                User.Role.DOCTOR, true, LocalDateTime.now());
+        doctor = new Doctor();
+        doctor.setId(1L);
+
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 0);
+        row = new AppointmentExportRow(5L, 1L, "Sarah", "Smith", 7L,
+                "Kent", "Carlo", "kent@test.com", start, start.plusMinutes(30),
+                Appointment.Status.CONFIRMED, "Headache, since \"Monday\"",
+                null, start.minusDays(1), start.minusDays(1));
+    }
+
+    // ==================== FORMAT TESTS ====================
+
+    @Test
+    void testExportAppointments_Csv_WritesHeaderAndEscapedRows()
+            throws IOException {
+        when(userRepository.findByEmail("doctor@test.com"))
+                .thenReturn(Optional.of(doctorUser));
+        when(doctorRepository.findByUserId(10L))
+                .thenReturn(Optional.of(doctor));
+        AtomicBoolean closed = new AtomicBoolean();
+        when(appointmentRepository.streamExportByDoctorId(eq(1L),
+                eq(LocalDateTime.of(2025, 3, 1, 0, 0)),
+                eq(LocalDateTime.of(2025, 4, 1, 0, 0))))
+                .thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+
+        String output = run(appointmentExportService.exportAppointments(
+                "doctor@test.com", null, LocalDate.of(2025, 3, 1),
+                LocalDate.of(2025, 3, 31), Format.CSV));
+
+        String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,doctorId,doctorName,"));
+        assertEquals("5,1,Sarah Smith,7,Kent Carlo,kent@test.com,"
+                + "2025-03-01T09:00,2025-03-01T09:30,CONFIRMED,"
+                + "\"Headache, since \"\"Monday\"\"\",,"
+                + "2025-02-28T09:00,2025-02-28T09:00", lines[1]);
+        assertTrue(closed.get());
+        verify(transactionManager).getTransaction(argThat(
+                TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testExportAppointments_Ndjson_AdminExportsAllDoctors()
+            throws IOException {
+        User admin = new User(20L, "admin@test.com", "password",
+                User.Role.ADMIN, true, LocalDateTime.now());
+        when(userRepository.findByEmail("admin@test.com"))
+                .thenReturn(Optional.of(admin));
+        when(appointmentRepository.streamExport(any(), any()))
+                .thenReturn(Stream.of(row, row));
+
+        String output = run(appointmentExportService.exportAppointments(
+                "admin@test.com", null, null, null, Format.NDJSON));
+
+        String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"startTime\":\"2025-03-01T09:00:00\""));
+        assertTrue(lines[0].contains("\"status\":\"CONFIRMED\""));
+        verify(appointmentRepository, never())
+                .streamExportByDoctorId(any(), any(), any());
+        verifyNoInteractions(doctorRepository);
+    }
+
+    // ==================== ACCESS TESTS ====================
+
+    @Test
+    void testExportAppointments_DoctorRequestsOtherDoctor_ThrowsException() {
+        when(userRepository.findByEmail("doctor@test.com"))
+                .thenReturn(Optional.of(doctorUser));
+        when(doctorRepository.findByUserId(10L))
+                .thenReturn(Optional.of(doctor));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> appointmentExportService.exportAppointments(
+                        "doctor@test.com", 2L, null, null, Format.CSV));
+
+        assertEquals("Doctors can only export their own appointments",
+                exception.getMessage());
+    }
+
+    @Test
+    void testExportAppointments_Patient_ThrowsException() {
+        User patient = new User(30L, "patient@test.com", "password",
+                User.Role.PATIENT, true, LocalDateTime.now());
+        when(userRepository.findByEmail("patient@test.com"))
+                .thenReturn(Optional.of(patient));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> appointmentExportService.exportAppointments(
+                        "patient@test.com", null, null, null, Format.CSV));
+
+        assertEquals("Only doctors and admins can export appointments",
+                exception.getMessage());
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    void testExportAppointments_InvertedRange_ThrowsException() {
+        when(userRepository.findByEmail("doctor@test.com"))
+                .thenReturn(Optional.of(doctorUser));
+        when(doctorRepository.findByUserId(10L))
+                .thenReturn(Optional.of(doctor));
+
+        assertThrows(RuntimeException.class,
+                () -> appointmentExportService.exportAppointments(
+                        "doctor@test.com", null, LocalDate.of(2025, 3, 2),
+                        LocalDate.of(2025, 3, 1), Format.CSV));
+    }
+
+    private static String run(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,176 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.service.AppointmentEmailService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the reminder claim SQL against the test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentReminderIntegrationTest {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentEmailService emailService;
+    private AppointmentReminderServiceImpl reminderService;
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(AppointmentEmailService.class);
+        reminderService = new AppointmentReminderServiceImpl(
+                appointmentRepository, emailService, jdbcTemplate,
+                transactionManager);
+        ReflectionTestUtils.setField(reminderService, "leadHours", 24);
+        ReflectionTestUtils.setField(reminderService, "batchSize", 2);
+        ReflectionTestUtils.setField(reminderService,
+                "claimTimeoutMinutes", 10);
+        ReflectionTestUtils.setField(reminderService, "sendConcurrency", 2);
+        reminderService.startSender();
+
+        doctor = fixtures.doctor("reminder-doctor");
+        patient = fixtures.patient("reminder-patient");
+    }
+
+    @AfterEach
+    void tearDown() {
+        reminderService.stopSender();
+        // Keep due appointments from leaking into other tests' claims
+        jdbcTemplate.update("UPDATE appointments SET reminder_sent_at = ? "
+                + "WHERE reminder_sent_at IS NULL", LocalDateTime.now());
+    }
+
+    // ==================== SEND TESTS ====================
+
+    @Test
+    void testSendDueReminders_SendsEachDueAppointmentOnce() {
+        when(emailService.sendReminderEmail(any())).thenReturn(true);
+        LocalDateTime now = LocalDateTime.now();
+        Long dueSoon = book(now.plusHours(2), Appointment.Status.CONFIRMED);
+        Long dueLater = book(now.plusHours(20), Appointment.Status.CONFIRMED);
+        Long dueLast = book(now.plusHours(23), Appointment.Status.CONFIRMED);
+        Long pending = book(now.plusHours(3), Appointment.Status.PENDING);
+        Long tooFar = book(now.plusHours(30), Appointment.Status.CONFIRMED);
+
+        int sent = reminderService.sendDueReminders();
+
+        assertTrue(sent >= 3);
+        for (Long id : List.of(dueSoon, dueLater, dueLast)) {
+            verify(emailService).sendReminderEmail(withId(id));
+            assertNotNull(appointmentRepository.findById(id).orElseThrow()
+                    .getReminderSentAt());
+        }
+        verify(emailService, never()).sendReminderEmail(withId(pending));
+        verify(emailService, never()).sendReminderEmail(withId(tooFar));
+
+        clearInvocations(emailService);
+        assertEquals(0, reminderService.sendDueReminders());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void testSendDueReminders_FailedSendIsRetriedAfterClaimExpires() {
+        when(emailService.sendReminderEmail(any())).thenReturn(false);
+        LocalDateTime now = LocalDateTime.now();
+        Long id = book(now.plusHours(5), Appointment.Status.CONFIRMED);
+
+        reminderService.sendDueReminders();
+
+        assertNull(appointmentRepository.findById(id).orElseThrow()
+                .getReminderSentAt());
+        assertFalse(reminderService.claimBatch(now.plusMinutes(5))
+                .contains(id));
+        assertTrue(reminderService.claimBatch(now.plusMinutes(11))
+                .contains(id));
+    }
+
+    // ==================== CLAIM TESTS ====================
+
+    @Test
+    void testClaimBatch_SkipsRowsLockedByAnotherNode() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Long id = book(now.plusHours(6), Appointment.Status.CONFIRMED);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Another node holding the row lock mid-claim
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager)
+                        .executeWithoutResult(status -> {
+                            jdbcTemplate.queryForList("SELECT id FROM "
+                                    + "appointments WHERE id = ? FOR UPDATE",
+                                    Long.class, id);
+                            locked.countDown();
+                            await(release);
+                        }));
+        try {
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            assertFalse(reminderService.claimBatch(now).contains(id));
+        } finally {
+            release.countDown();
+            otherNode.get(5, TimeUnit.SECONDS);
+        }
+
+        assertTrue(reminderService.claimBatch(now).contains(id));
+        assertFalse(reminderService.claimBatch(now).contains(id));
+    }
+
+    private Long book(LocalDateTime start, Appointment.Status status) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusMinutes(30));
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment).getId();
+    }
+
+    private static Appointment withId(Long id) {
+        return argThat(appointment -> appointment.getId().equals(id));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.RescheduleAppointmentRequest;
+import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorDailyStats;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorDailyStatsRepository;
+import com.amante.clinicmanagement.service.AppointmentService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Moves appointments against the test database: the self-excluding
+ * overlap check, conflicts and the statistics rows of both days.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentRescheduleIntegrationTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorDailyStatsRepository statsRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Doctor doctor;
+    private String patientEmail;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        doctor = fixtures.doctor("reschedule-doctor");
+        patientEmail = fixtures.patient("reschedule-patient")
+                .getUser().getEmail();
+
+        day = LocalDate.now().plusDays(20);
+    }
+
+    @Test
+    void testReschedule_OverlappingItsOwnSlot_Moves() {
+        AppointmentDto booked = book(day.atTime(10, 0));
+
+        AppointmentDto moved = appointmentService.rescheduleAppointment(
+                booked.getId(),
+                new RescheduleAppointmentRequest(day.atTime(10, 15),
+                        day.atTime(10, 45)),
+                patientEmail);
+
+        assertEquals(booked.getId(), moved.getId());
+        Appointment row = appointmentRepository.findById(booked.getId())
+                .orElseThrow();
+        assertEquals(day.atTime(10, 15), row.getStartTime());
+        assertEquals(day.atTime(10, 45), row.getEndTime());
+        // The part it left is free again, the part it took is not
+        assertNotNull(book(day.atTime(9, 45)).getId());
+        assertThrows(RuntimeException.class, () -> book(day.atTime(10, 30)));
+    }
+
+    @Test
+    void testReschedule_Conflict_LeavesAppointmentInPlace() {
+        AppointmentDto first = book(day.atTime(10, 0));
+        book(day.atTime(11, 0));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> appointmentService.rescheduleAppointment(first.getId(),
+                        new RescheduleAppointmentRequest(day.atTime(11, 15),
+                                day.atTime(11, 45)),
+                        patientEmail));
+
+        assertEquals("Time slot is already booked", exception.getMessage());
+        assertEquals(day.atTime(10, 0), appointmentRepository
+                .findById(first.getId()).orElseThrow().getStartTime());
+    }
+
+    @Test
+    void testReschedule_ToAnotherDay_MovesStatistics() {
+        AppointmentDto booked = book(day.atTime(10, 0));
+
+        appointmentService.rescheduleAppointment(booked.getId(),
+                new RescheduleAppointmentRequest(day.plusDays(1).atTime(9, 0),
+                        day.plusDays(1).atTime(9, 30)),
+                patientEmail);
+
+        List<DoctorDailyStats> rows = statsRepository
+                .findByDoctorIdAndStatDateBetweenOrderByStatDate(
+                        doctor.getId(), day, day.plusDays(1));
+        assertEquals(2, rows.size());
+        assertEquals(0, rows.get(0).getRequestedCount());
+        assertEquals(0, rows.get(0).getPendingCount());
+        assertEquals(1, rows.get(1).getRequestedCount());
+        assertEquals(1, rows.get(1).getPendingCount());
+    }
+
+    @Test
+    void testReschedule_CancelledMeanwhile_DoesNotResurrect()
+            throws Exception {
+        AppointmentDto booked = book(day.atTime(10, 0));
+
+        TransactionTemplate transaction =
+                new TransactionTemplate(transactionManager);
+        CompletableFuture<AppointmentDto> reschedule =
+                transaction.execute(status -> {
+                    // An uncommitted cancellation holds the row
+                    Appointment row = appointmentRepository
+                            .findById(booked.getId()).orElseThrow();
+                    row.setStatus(Appointment.Status.CANCELLED);
+                    appointmentRepository.saveAndFlush(row);
+
+                    CompletableFuture<AppointmentDto> future =
+                            CompletableFuture.supplyAsync(() ->
+                                    appointmentService.rescheduleAppointment(
+                                            booked.getId(),
+                                            new RescheduleAppointmentRequest(
+                                                    day.atTime(14, 0),
+                                                    day.atTime(14, 30)),
+                                            patientEmail));
+                    sleep(200);
+                    assertFalse(future.isDone());
+                    return future;
+                });
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> reschedule.get(10, TimeUnit.SECONDS));
+        assertEquals("Only pending or confirmed appointments can be "
+                + "rescheduled", exception.getCause().getMessage());
+        Appointment row = appointmentRepository.findById(booked.getId())
+                .orElseThrow();
+        assertEquals(Appointment.Status.CANCELLED, row.getStatus());
+        assertEquals(day.atTime(10, 0), row.getStartTime());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private AppointmentDto book(LocalDateTime start) {
+        return appointmentService.bookAppointment(new BookAppointmentRequest(
+                doctor.getId(), start, start.plusMinutes(30), null),
+                patientEmail);
+    }
+}
@@ -0,0 +1,101 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.BookSeriesRequest;
+import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.service.AppointmentService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books series through the JDBC batch insert and checks that a conflict
+ * in any occurrence leaves none of them behind.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentSeriesIntegrationTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    private Doctor doctor;
+    private String patientEmail;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        doctor = fixtures.doctor("series-doctor");
+        patientEmail = fixtures.patient("series-patient")
+                .getUser().getEmail();
+
+        start = LocalDate.now().plusDays(3).atTime(15, 0);
+    }
+
+    @Test
+    void testBookSeries_InsertsEveryOccurrence() {
+        List<AppointmentDto> series = appointmentService.bookSeries(
+                new BookSeriesRequest(doctor.getId(), start,
+                        start.plusMinutes(45), 5, 1, "Knee"),
+                patientEmail);
+
+        assertEquals(5, series.size());
+        List<Appointment> stored =
+                appointmentRepository.findByDoctorId(doctor.getId());
+        assertEquals(5, stored.size());
+        for (int i = 0; i < series.size(); i++) {
+            Appointment row = appointmentRepository
+                    .findById(series.get(i).getId()).orElseThrow();
+            assertEquals(start.plusWeeks(i), row.getStartTime());
+            assertEquals(start.plusWeeks(i).plusMinutes(45),
+                    row.getEndTime());
+            assertEquals(Appointment.Status.PENDING, row.getStatus());
+            assertEquals("Knee", row.getPatientNotes());
+        }
+
+        // The booked occurrences block single bookings like any other
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> appointmentService.bookAppointment(
+                        new BookAppointmentRequest(doctor.getId(),
+                                start.plusWeeks(2).plusMinutes(30),
+                                start.plusWeeks(2).plusMinutes(60), null),
+                        patientEmail));
+        assertEquals("Time slot is already booked", exception.getMessage());
+    }
+
+    @Test
+    void testBookSeries_OneConflict_BooksNothing() {
+        appointmentService.bookAppointment(new BookAppointmentRequest(
+                doctor.getId(), start.plusWeeks(6).minusMinutes(15),
+                start.plusWeeks(6).plusMinutes(15), null), patientEmail);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> appointmentService.bookSeries(
+                        new BookSeriesRequest(doctor.getId(), start,
+                                start.plusMinutes(30), 4, 2, null),
+                        patientEmail));
+
+        assertEquals("Time slot on " + start.plusWeeks(6).toLocalDate()
+                + " is already booked", exception.getMessage());
+        assertEquals(1,
+                appointmentRepository.findByDoctorId(doctor.getId()).size());
+    }
+}
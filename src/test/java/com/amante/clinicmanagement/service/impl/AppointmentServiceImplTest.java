@@ -1,28 +1,42 @@
 package com.amante.clinicmanagement.service.impl;
 
 import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.BookSeriesRequest;
 import com.amante.clinicmanagement.dto.request.RejectAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.RescheduleAppointmentRequest;
 import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.DoctorDashboardDto;
 import com.amante.clinicmanagement.entity.Appointment;
 import com.amante.clinicmanagement.entity.Doctor;
 import com.amante.clinicmanagement.entity.Patient;
 import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
 import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.AppointmentRepository.StatusCount;
+import com.amante.clinicmanagement.repository.AppointmentRepository.TimeRange;
 import com.amante.clinicmanagement.repository.DoctorRepository;
 import com.amante.clinicmanagement.repository.PatientRepository;
 import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.repository.WaitlistEntryRepository;
+import com.amante.clinicmanagement.scheduling.OccupancyIndex;
 import com.amante.clinicmanagement.service.AppointmentEmailService;
+import com.amante.clinicmanagement.service.SlotInventoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -51,6 +65,22 @@ class AppointmentServiceImplTest {
     @Mock
     private AppointmentEmailService emailService;
 
+    @Mock
+    private OccupancyIndex occupancyIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SlotInventoryService slotInventoryService;
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Spy
+    private DoctorDashboardCache dashboardCache =
+            new DoctorDashboardCache(100, 60);
+
     @InjectMocks
     private AppointmentServiceImpl appointmentService;
 
@@ -64,6 +94,11 @@ class AppointmentServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(appointmentService,
+                "dashboardMaxAppointments", 100);
+        ReflectionTestUtils.setField(appointmentService,
+                "seriesMaxOccurrences", 26);
+
         // Setup patient user
         patientUser = new User();
         patientUser.setId(1L);
@@ -166,6 +201,19 @@ class AppointmentServiceImplTest {
         exception = assertThrows(RuntimeException.class, () ->
                 appointmentService.bookAppointment(bookRequest, "patient@test.com"));
         assertEquals("Time slot is already booked", exception.getMessage());
+
+        // End before start
+        LocalDateTime start = bookRequest.getStartTime();
+        bookRequest.setEndTime(start.minusMinutes(30));
+        exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.bookAppointment(bookRequest, "patient@test.com"));
+        assertEquals("End time must be after start time", exception.getMessage());
+
+        // Longer than an appointment may last
+        bookRequest.setEndTime(start.plusHours(25));
+        exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.bookAppointment(bookRequest, "patient@test.com"));
+        assertEquals("Appointment cannot be longer than 24 hours", exception.getMessage());
     }
 
     @Test
@@ -184,6 +232,160 @@ class AppointmentServiceImplTest {
         verify(emailService).sendPendingAppointmentEmails(any(Appointment.class));
     }
 
+    @Test
+    @DisplayName("Book appointment - Cached occupancy rejects without overlap query")
+    void bookAppointment_OccupancyIndexHit_SkipsOverlapQuery() {
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(occupancyIndex.isBooked(eq(1L), any(), any())).thenReturn(true);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.bookAppointment(bookRequest, "patient@test.com"));
+        assertEquals("Time slot is already booked", exception.getMessage());
+        verify(appointmentRepository, never()).existsOverlappingAppointment(anyLong(), any(), any());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+    }
+
+    @Test
+    @DisplayName("Book appointment - Materialized inventory claims the slot")
+    void bookAppointment_MaterializedInventory_ClaimsSlot() {
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(slotInventoryService.isEnabled()).thenReturn(true);
+        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+
+        appointmentService.bookAppointment(bookRequest, "patient@test.com");
+        verify(slotInventoryService).claim(1L, appointment.getStartTime(),
+                appointment.getEndTime(), 1L);
+        verify(appointmentRepository, never()).existsOverlappingAppointment(anyLong(), any(), any());
+        verifyNoInteractions(occupancyIndex);
+
+        // A lost claim fails the booking before any email goes out
+        doThrow(new RuntimeException("Time slot is already booked")).when(slotInventoryService)
+                .claim(anyLong(), any(), any(), anyLong());
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.bookAppointment(bookRequest, "patient@test.com"));
+        assertEquals("Time slot is already booked", exception.getMessage());
+        verify(emailService, times(1)).sendPendingAppointmentEmails(any(Appointment.class));
+    }
+
+    @Test
+    @DisplayName("Book appointment - Slot held for a waitlisted patient")
+    void bookAppointment_HeldForWaitlist_Throws() {
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(waitlistEntryRepository.existsActiveHoldForOthers(eq(1L),
+                eq(bookRequest.getStartTime()), eq(bookRequest.getEndTime()), any(), eq(1L)))
+                .thenReturn(true);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.bookAppointment(bookRequest, "patient@test.com"));
+        assertEquals("Time slot is held for a waitlisted patient", exception.getMessage());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+    }
+
+    @Test
+    @DisplayName("Book and cancel appointment - Publish status change events")
+    void bookAndCancelAppointment_PublishStatusChangedEvents() {
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(appointmentRepository.existsOverlappingAppointment(anyLong(), any(), any())).thenReturn(false);
+        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+        when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
+
+        appointmentService.bookAppointment(bookRequest, "patient@test.com");
+        appointmentService.cancelAppointment(1L, "patient@test.com");
+
+        ArgumentCaptor<AppointmentStatusChangedEvent> captor =
+                ArgumentCaptor.forClass(AppointmentStatusChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertTrue(captor.getAllValues().get(0).isSlotTaken());
+        assertEquals(Appointment.Status.PENDING, captor.getAllValues().get(1).getPreviousStatus());
+        assertTrue(captor.getAllValues().get(1).isSlotReleased());
+    }
+
+    // ==================== bookSeries Tests ====================
+
+    @Test
+    @DisplayName("Book series - One batch insert, one summary email")
+    void bookSeries_Success_InsertsBatchAndSendsOneSummary() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookSeriesRequest request = new BookSeriesRequest(1L, start,
+                start.plusMinutes(45), 10, 1, "Knee");
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        doAnswer(invocation -> {
+            List<Appointment> rows = invocation.getArgument(0);
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(appointmentRepository).insertAll(anyList());
+
+        List<AppointmentDto> result = appointmentService.bookSeries(request, "patient@test.com");
+
+        assertEquals(10, result.size());
+        assertEquals(100L, result.get(0).getId());
+        assertEquals(start.plusWeeks(9), result.get(9).getStartTime());
+        assertEquals("PENDING", result.get(9).getStatus());
+        verify(doctorRepository).lockById(1L);
+        verify(appointmentRepository).findBlockingTimesStartingBetween(1L,
+                start.minusHours(24), start.plusWeeks(9).plusMinutes(45));
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(eventPublisher, times(10)).publishEvent(any(AppointmentStatusChangedEvent.class));
+        verify(emailService).sendSeriesPendingEmails(argThat(rows -> rows.size() == 10));
+        verify(emailService, never()).sendPendingAppointmentEmails(any());
+    }
+
+    @Test
+    @DisplayName("Book series - A booked occurrence rejects the whole series")
+    void bookSeries_OneOccurrenceBooked_Throws() {
+        LocalDateTime start = LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(9, 0));
+        BookSeriesRequest request = new BookSeriesRequest(1L, start,
+                start.plusMinutes(30), 4, 2, null);
+        TimeRange booked = mock(TimeRange.class);
+        when(booked.getStartTime()).thenReturn(start.plusWeeks(4).plusMinutes(15));
+        when(booked.getEndTime()).thenReturn(start.plusWeeks(4).plusMinutes(45));
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(appointmentRepository.findBlockingTimesStartingBetween(eq(1L), any(), any()))
+                .thenReturn(List.of(booked));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.bookSeries(request, "patient@test.com"));
+        assertEquals("Time slot on " + start.plusWeeks(4).toLocalDate() + " is already booked",
+                exception.getMessage());
+        verify(appointmentRepository, never()).insertAll(anyList());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    @DisplayName("Book series - Invalid requests")
+    void bookSeries_InvalidRequests_Throw() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+
+        RuntimeException tooMany = assertThrows(RuntimeException.class, () ->
+                appointmentService.bookSeries(new BookSeriesRequest(1L, start,
+                        start.plusMinutes(30), 27, 1, null), "patient@test.com"));
+        assertEquals("A series cannot have more than 26 occurrences", tooMany.getMessage());
+
+        RuntimeException past = assertThrows(RuntimeException.class, () ->
+                appointmentService.bookSeries(new BookSeriesRequest(1L, start.minusDays(2),
+                        start.minusDays(2).plusMinutes(30), 5, 1, null), "patient@test.com"));
+        assertEquals("Series cannot start in the past", past.getMessage());
+
+        verify(appointmentRepository, never()).insertAll(anyList());
+    }
+
     // ==================== confirmAppointment Tests ====================
 
     @Test
@@ -487,6 +689,92 @@ class AppointmentServiceImplTest {
         assertTrue(exception.getMessage().contains("Doctor profile not found"));
     }
 
+    // ==================== getDoctorDashboard Tests ====================
+
+    @Test
+    @DisplayName("Get doctor dashboard - Agenda, counts and upcoming from two queries")
+    void getDoctorDashboard_BuildsFromCountsAndAgenda() {
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        Appointment completedToday = appointmentAt(2L, startOfToday,
+                Appointment.Status.COMPLETED);
+        Appointment confirmedToday = appointmentAt(3L,
+                startOfToday.plusMinutes(30), Appointment.Status.CONFIRMED);
+        Appointment later = appointmentAt(4L,
+                LocalDateTime.now().plusDays(2), Appointment.Status.CONFIRMED);
+
+        when(userRepository.findByEmail("doctor@test.com")).thenReturn(Optional.of(doctorUser));
+        when(doctorRepository.findByUserId(2L)).thenReturn(Optional.of(doctor));
+        when(appointmentRepository.countByDoctorIdGroupByStatus(1L)).thenReturn(List.of(
+                statusCount(Appointment.Status.PENDING, 3),
+                statusCount(Appointment.Status.COMPLETED, 7)));
+        when(appointmentRepository.findUpcomingByDoctorId(eq(1L), eq(startOfToday),
+                anyCollection(), any()))
+                .thenReturn(List.of(completedToday, confirmedToday, appointment, later));
+
+        DoctorDashboardDto result = appointmentService.getDoctorDashboard("doctor@test.com", 1);
+
+        assertEquals(LocalDate.now(), result.getDate());
+        assertEquals(List.of(2L, 3L), result.getTodayAgenda().stream()
+                .map(AppointmentDto::getId).toList());
+        assertEquals(3L, result.getPendingCount());
+        assertEquals(7L, result.getStatusCounts().get("COMPLETED"));
+        assertEquals(0L, result.getStatusCounts().get("EXPIRED"));
+        assertEquals(Appointment.Status.values().length, result.getStatusCounts().size());
+        assertEquals(1, result.getUpcoming().size());
+        assertEquals(1L, result.getUpcoming().get(0).getId());
+
+        // Served from the cache
+        assertSame(result, appointmentService.getDoctorDashboard("doctor@test.com", 1));
+        verify(appointmentRepository, times(1)).countByDoctorIdGroupByStatus(1L);
+        verify(userRepository, times(1)).findByEmail("doctor@test.com");
+    }
+
+    @Test
+    @DisplayName("Get doctor dashboard - Status change evicts the cached dashboard")
+    void getDoctorDashboard_StatusChangeEvicts() {
+        when(userRepository.findByEmail("doctor@test.com")).thenReturn(Optional.of(doctorUser));
+        when(doctorRepository.findByUserId(2L)).thenReturn(Optional.of(doctor));
+        when(appointmentRepository.countByDoctorIdGroupByStatus(1L)).thenReturn(List.of());
+        when(appointmentRepository.findUpcomingByDoctorId(eq(1L), any(), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        DoctorDashboardDto first = appointmentService.getDoctorDashboard("doctor@test.com", 50);
+        dashboardCache.onAppointmentStatusChanged(
+                AppointmentStatusChangedEvent.of(appointment, null));
+        DoctorDashboardDto second = appointmentService.getDoctorDashboard("doctor@test.com", 50);
+
+        assertNotSame(first, second);
+        assertEquals(0L, second.getPendingCount());
+        verify(appointmentRepository, times(2)).countByDoctorIdGroupByStatus(1L);
+    }
+
+    private Appointment appointmentAt(Long id, LocalDateTime start,
+                                      Appointment.Status status) {
+        Appointment other = new Appointment();
+        other.setId(id);
+        other.setPatient(patient);
+        other.setDoctor(doctor);
+        other.setStartTime(start);
+        other.setEndTime(start.plusMinutes(30));
+        other.setStatus(status);
+        return other;
+    }
+
+    private static StatusCount statusCount(Appointment.Status status,
+                                           long count) {
+        return new StatusCount() {
+            @Override
+            public Appointment.Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
     // ==================== cancelAppointment Tests ====================
 
     @Test
@@ -553,6 +841,12 @@ class AppointmentServiceImplTest {
                 appointmentService.cancelAppointment(1L, "patient@test.com"));
         assertEquals("Cannot cancel completed appointment", exception.getMessage());
 
+        // Expired appointment
+        appointment.setStatus(Appointment.Status.EXPIRED);
+        exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.cancelAppointment(1L, "patient@test.com"));
+        assertEquals("Cannot cancel expired appointment", exception.getMessage());
+
         // Patient not authorized
         appointment.setStatus(Appointment.Status.PENDING);
         Patient anotherPatient = new Patient();
@@ -617,6 +911,117 @@ class AppointmentServiceImplTest {
         verify(emailService).sendCancellationEmails(any(Appointment.class), eq("PATIENT"));
     }
 
+    // ==================== rescheduleAppointment Tests ====================
+
+    @Test
+    @DisplayName("Reschedule appointment - Patient moves a confirmed appointment")
+    void rescheduleAppointment_Patient_MovesAndAwaitsApproval() {
+        LocalDateTime previousStart = appointment.getStartTime();
+        LocalDateTime previousEnd = appointment.getEndTime();
+        LocalDateTime newStart = previousStart.plusMinutes(30);
+        appointment.setStatus(Appointment.Status.CONFIRMED);
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+
+        AppointmentDto result = appointmentService.rescheduleAppointment(1L,
+                new RescheduleAppointmentRequest(newStart, newStart.plusHours(1)), "patient@test.com");
+
+        assertEquals(newStart, result.getStartTime());
+        assertEquals("PENDING", result.getStatus());
+        verify(doctorRepository).lockById(1L);
+        verify(appointmentRepository).existsOverlappingAppointmentExcluding(1L, newStart,
+                newStart.plusHours(1), 1L);
+        verify(appointmentRepository).clearReminder(1L);
+        ArgumentCaptor<AppointmentStatusChangedEvent> captor =
+                ArgumentCaptor.forClass(AppointmentStatusChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        AppointmentStatusChangedEvent left = captor.getAllValues().get(0);
+        assertTrue(left.isSlotReleased());
+        assertEquals(previousStart, left.getStartTime());
+        assertEquals(previousEnd, left.getEndTime());
+        assertEquals(Appointment.Status.CONFIRMED, left.getPreviousStatus());
+        assertTrue(captor.getAllValues().get(1).isSlotTaken());
+        assertEquals(newStart, captor.getAllValues().get(1).getStartTime());
+        verify(emailService).sendRescheduleEmails(appointment, previousStart, "PATIENT");
+        verify(emailService, never()).sendCancellationEmails(any(), any());
+    }
+
+    @Test
+    @DisplayName("Reschedule appointment - Doctor keeps it confirmed, inventory claims the slot")
+    void rescheduleAppointment_DoctorWithInventory_ClaimsSlot() {
+        LocalDateTime newStart = appointment.getStartTime().plusDays(1);
+        appointment.setStatus(Appointment.Status.CONFIRMED);
+        when(userRepository.findByEmail("doctor@test.com")).thenReturn(Optional.of(doctorUser));
+        when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
+        when(doctorRepository.findByUserId(2L)).thenReturn(Optional.of(doctor));
+        when(slotInventoryService.isEnabled()).thenReturn(true);
+        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+
+        AppointmentDto result = appointmentService.rescheduleAppointment(1L,
+                new RescheduleAppointmentRequest(newStart, newStart.plusMinutes(30)), "doctor@test.com");
+
+        assertEquals("CONFIRMED", result.getStatus());
+        verify(slotInventoryService).claim(1L, newStart, newStart.plusMinutes(30), 1L);
+        verify(doctorRepository, never()).lockById(any());
+        verify(appointmentRepository, never()).existsOverlappingAppointmentExcluding(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Reschedule appointment - All error cases")
+    void rescheduleAppointment_ErrorCases() {
+        LocalDateTime newStart = appointment.getStartTime().plusHours(2);
+        RescheduleAppointmentRequest request =
+                new RescheduleAppointmentRequest(newStart, newStart.plusMinutes(30));
+        when(userRepository.findByEmail("patient@test.com")).thenReturn(Optional.of(patientUser));
+        when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+
+        // Slot taken by another appointment
+        when(appointmentRepository.existsOverlappingAppointmentExcluding(1L, newStart,
+                newStart.plusMinutes(30), 1L)).thenReturn(true);
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.rescheduleAppointment(1L, request, "patient@test.com"));
+        assertEquals("Time slot is already booked", exception.getMessage());
+
+        // Held for a waitlisted patient
+        when(waitlistEntryRepository.existsActiveHoldForOthers(eq(1L), eq(newStart),
+                eq(newStart.plusMinutes(30)), any(), eq(1L))).thenReturn(true);
+        exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.rescheduleAppointment(1L, request, "patient@test.com"));
+        assertEquals("Time slot is held for a waitlisted patient", exception.getMessage());
+
+        // Same interval
+        exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.rescheduleAppointment(1L, new RescheduleAppointmentRequest(
+                        appointment.getStartTime(), appointment.getEndTime()), "patient@test.com"));
+        assertEquals("Appointment is already at this time", exception.getMessage());
+
+        // In the past
+        exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.rescheduleAppointment(1L, new RescheduleAppointmentRequest(
+                        newStart.minusDays(3), newStart.minusDays(3).plusMinutes(30)), "patient@test.com"));
+        assertEquals("Appointment cannot be moved into the past", exception.getMessage());
+
+        // Completed appointment
+        appointment.setStatus(Appointment.Status.COMPLETED);
+        exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.rescheduleAppointment(1L, request, "patient@test.com"));
+        assertEquals("Only pending or confirmed appointments can be rescheduled", exception.getMessage());
+
+        // Someone else's appointment
+        Patient anotherPatient = new Patient();
+        anotherPatient.setId(999L);
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(anotherPatient));
+        exception = assertThrows(RuntimeException.class, () ->
+                appointmentService.rescheduleAppointment(1L, request, "patient@test.com"));
+        assertEquals("You are not authorized to reschedule this appointment", exception.getMessage());
+
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verifyNoInteractions(emailService);
+    }
+
     // ==================== getAppointmentById Tests ====================
 
     @Test
@@ -244,6 +244,18 @@ class AuthServiceImplTest {
         verify(patientRepository, never()).save(any(Patient.class));
     }
 
+    @Test
+    void register_AdminRole_ThrowsException() {
+        doctorRegisterRequest.setRole(User.Role.ADMIN);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            authService.register(doctorRegisterRequest);
+        });
+
+        assertEquals("Admin accounts cannot be registered", exception.getMessage());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     // ==================== LOGIN TESTS ====================
 
     @Test
@@ -1,5 +1,6 @@
 package com.amante.clinicmanagement.service.impl;
 
+import com.amante.clinicmanagement.diagnostics.ConnectionHoldTracker;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.Uploader;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 
@@ -28,6 +30,10 @@ class CloudinaryServiceImplTest {
     @Mock
     private Uploader uploader;
 
+    @Spy
+    private ConnectionHoldTracker connectionHoldTracker =
+            new ConnectionHoldTracker(2000);
+
     @InjectMocks
     private CloudinaryServiceImpl cloudinaryService;
 
@@ -0,0 +1,240 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.DoctorDailyStatsDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+import com.amante.clinicmanagement.entity.DoctorDailyStats;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorBreakRepository;
+import com.amante.clinicmanagement.repository.DoctorDailyStatsRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.service.DoctorStatsService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the statistics upsert and rebuild SQL against the test database
+ * and checks that incremental maintenance and the backfill agree.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DoctorDailyStatsIntegrationTest {
+
+    // A Monday far enough ahead not to meet other tests' appointments
+    private static final LocalDate DAY = LocalDate.of(2031, 3, 10);
+
+    @Autowired
+    private DoctorStatsService doctorStatsService;
+
+    @Autowired
+    private DoctorDailyStatsRepository statsRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+
+    @Autowired
+    private DoctorBreakRepository doctorBreakRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+
+        doctor = fixtures.doctor("stats-doctor");
+        patient = fixtures.patient("stats-patient");
+
+        DoctorWeeklySchedule monday = new DoctorWeeklySchedule();
+        monday.setDoctor(doctor);
+        monday.setDayOfWeek(DAY.getDayOfWeek());
+        monday.setStartTime(LocalTime.of(9, 0));
+        monday.setEndTime(LocalTime.of(17, 0));
+        weeklyScheduleRepository.save(monday);
+
+        DoctorBreak lunch = new DoctorBreak();
+        lunch.setDoctor(doctor);
+        lunch.setDayOfWeek("ALL");
+        lunch.setBreakName("Lunch");
+        lunch.setStartTime(LocalTime.of(12, 0));
+        lunch.setEndTime(LocalTime.of(13, 0));
+        doctorBreakRepository.save(lunch);
+    }
+
+    // ==================== INCREMENTAL MAINTENANCE TESTS ====================
+
+    @Test
+    void testTransitions_MaintainDailyRow() {
+        Long confirmed = book(DAY.atTime(9, 0));
+        Long cancelled = book(DAY.atTime(10, 0));
+        Long rejected = book(DAY.atTime(11, 0));
+        book(DAY.atTime(14, 0));
+        book(DAY.plusDays(1).atTime(9, 0));
+
+        change(confirmed, Appointment.Status.CONFIRMED);
+        change(confirmed, Appointment.Status.COMPLETED);
+        change(cancelled, Appointment.Status.CONFIRMED);
+        change(cancelled, Appointment.Status.CANCELLED);
+        change(rejected, Appointment.Status.REJECTED);
+
+        DoctorDailyStats row = row(DAY);
+        assertEquals(4, row.getRequestedCount());
+        assertEquals(1, row.getPendingCount());
+        assertEquals(0, row.getConfirmedCount());
+        assertEquals(1, row.getCompletedCount());
+        assertEquals(1, row.getRejectedCount());
+        assertEquals(1, row.getCancelledCount());
+        assertEquals(30, row.getBookedMinutes());
+        assertEquals(1, row(DAY.plusDays(1)).getRequestedCount());
+
+        List<DoctorDailyStatsDto> stats = doctorStatsService.getDailyStats(
+                doctor.getUser().getEmail(), null, DAY, DAY.plusDays(1));
+        assertEquals(2, stats.size());
+        DoctorDailyStatsDto monday = stats.get(0);
+        assertEquals(DAY, monday.getDate());
+        assertEquals(420, monday.getAvailableMinutes());
+        assertEquals(30.0 / 420, monday.getUtilizationRate(), 1e-9);
+        assertEquals(0.25, monday.getCancellationRate(), 1e-9);
+        assertEquals(0.25, monday.getRejectionRate(), 1e-9);
+        // Not a working day: no capacity, so no utilization rate
+        assertEquals(0, stats.get(1).getAvailableMinutes());
+        assertNull(stats.get(1).getUtilizationRate());
+    }
+
+    @Test
+    void testTransition_RolledBack_LeavesRowUnchanged() {
+        Long id = book(DAY.atTime(9, 0));
+
+        assertThrows(IllegalStateException.class, () ->
+                transaction.executeWithoutResult(status -> {
+                    publish(id, Appointment.Status.CONFIRMED);
+                    throw new IllegalStateException("rollback");
+                }));
+
+        DoctorDailyStats row = row(DAY);
+        assertEquals(1, row.getPendingCount());
+        assertEquals(0, row.getConfirmedCount());
+        assertEquals(0, row.getBookedMinutes());
+    }
+
+    // ==================== BACKFILL TESTS ====================
+
+    @Test
+    void testBackfill_MatchesIncrementalRows() {
+        Long completed = book(DAY.atTime(9, 0));
+        Long cancelled = book(DAY.atTime(10, 0));
+        book(DAY.plusDays(3).atTime(9, 0));
+        change(completed, Appointment.Status.CONFIRMED);
+        change(completed, Appointment.Status.COMPLETED);
+        change(cancelled, Appointment.Status.CANCELLED);
+        List<DoctorDailyStats> incremental = rows();
+
+        // Lose the rows, then rebuild them in chunks smaller than the range
+        transaction.executeWithoutResult(status ->
+                statsRepository.deleteAll(incremental));
+        assertTrue(rows().isEmpty());
+        Object target = AopTestUtils.getTargetObject(doctorStatsService);
+        ReflectionTestUtils.setField(target, "chunkDays", 2);
+        try {
+            assertTrue(doctorStatsService.backfill(DAY, DAY.plusDays(3)) >= 2);
+        } finally {
+            ReflectionTestUtils.setField(target, "chunkDays", 31);
+        }
+
+        List<DoctorDailyStats> rebuilt = rows();
+        assertEquals(incremental.size(), rebuilt.size());
+        for (int i = 0; i < rebuilt.size(); i++) {
+            assertSameCounts(incremental.get(i), rebuilt.get(i));
+        }
+
+        // Rebuilding again replaces instead of adding up
+        doctorStatsService.backfill(DAY, DAY);
+        assertSameCounts(incremental.get(0), row(DAY));
+    }
+
+    private Long book(LocalDateTime start) {
+        return transaction.execute(status -> {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setStartTime(start);
+            appointment.setEndTime(start.plusMinutes(30));
+            appointment.setStatus(Appointment.Status.PENDING);
+            appointment = appointmentRepository.save(appointment);
+            eventPublisher.publishEvent(
+                    AppointmentStatusChangedEvent.of(appointment, null));
+            return appointment.getId();
+        });
+    }
+
+    private void change(Long id, Appointment.Status next) {
+        transaction.executeWithoutResult(status -> publish(id, next));
+    }
+
+    private void publish(Long id, Appointment.Status next) {
+        Appointment appointment =
+                appointmentRepository.findById(id).orElseThrow();
+        Appointment.Status previous = appointment.getStatus();
+        appointment.setStatus(next);
+        eventPublisher.publishEvent(
+                AppointmentStatusChangedEvent.of(appointment, previous));
+    }
+
+    private List<DoctorDailyStats> rows() {
+        return statsRepository.findByDoctorIdAndStatDateBetweenOrderByStatDate(
+                doctor.getId(), DAY, DAY.plusDays(6));
+    }
+
+    private DoctorDailyStats row(LocalDate date) {
+        return rows().stream()
+                .filter(row -> row.getStatDate().equals(date))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void assertSameCounts(DoctorDailyStats expected,
+                                         DoctorDailyStats actual) {
+        assertEquals(expected.getStatDate(), actual.getStatDate());
+        assertEquals(expected.getRequestedCount(), actual.getRequestedCount());
+        assertEquals(expected.getPendingCount(), actual.getPendingCount());
+        assertEquals(expected.getConfirmedCount(), actual.getConfirmedCount());
+        assertEquals(expected.getCompletedCount(), actual.getCompletedCount());
+        assertEquals(expected.getRejectedCount(), actual.getRejectedCount());
+        assertEquals(expected.getCancelledCount(), actual.getCancelledCount());
+        assertEquals(expected.getExpiredCount(), actual.getExpiredCount());
+        assertEquals(expected.getBookedMinutes(), actual.getBookedMinutes());
+    }
+}
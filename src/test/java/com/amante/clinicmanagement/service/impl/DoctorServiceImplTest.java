@@ -27,15 +27,21 @@ import com.amante.clinicmanagement.repository.DoctorRepository;
 import com.amante.clinicmanagement.repository.DoctorSettingsRepository;
 import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
 import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.scheduling.OccupancyIndex;
+import com.amante.clinicmanagement.event.DoctorScheduleChangedEvent;
 import com.amante.clinicmanagement.service.CloudinaryService;
+import com.amante.clinicmanagement.service.SlotInventoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -81,6 +87,15 @@ class DoctorServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private OccupancyIndex occupancyIndex = new OccupancyIndex(100, 60);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SlotInventoryService slotInventoryService;
+
     @InjectMocks
     private DoctorServiceImpl doctorService;
 
@@ -229,6 +244,7 @@ class DoctorServiceImplTest {
         assertTrue(result.isEmpty());
 
         // Test specific date day off
+        occupancyIndex.evictDoctor(1L);
         when(doctorDayOffRepository.findRecurringByDoctorIdAndDayOfWeek(1L, DayOfWeek.MONDAY))
                 .thenReturn(Collections.emptyList());
         when(doctorDayOffRepository.findByDoctorIdAndDate(1L, testDate)).thenReturn(List.of(testDayOff));
@@ -273,7 +289,8 @@ class DoctorServiceImplTest {
                 LocalDateTime.of(2025, 1, 6, 10, 0),
                 LocalDateTime.of(2025, 1, 6, 10, 30),
                 Appointment.Status.CONFIRMED, "Notes", null,
-                LocalDateTime.now(), LocalDateTime.now()
+                LocalDateTime.now(), LocalDateTime.now(), null, null,
+                null, null, null
         );
 
         when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
@@ -339,7 +356,8 @@ class DoctorServiceImplTest {
                 LocalDateTime.of(2025, 1, 6, 9, 0),
                 LocalDateTime.of(2025, 1, 6, 9, 30),
                 Appointment.Status.CONFIRMED, "Notes", null,
-                LocalDateTime.now(), LocalDateTime.now()
+                LocalDateTime.now(), LocalDateTime.now(), null, null,
+                null, null, null
         );
 
         when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
@@ -399,6 +417,21 @@ class DoctorServiceImplTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testGetAvailableSlots_MaterializedInventory_ReadsSlotTable() {
+        LocalDate testDate = LocalDate.of(2025, 1, 6);
+        TimeSlotDto slot = new TimeSlotDto();
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(slotInventoryService.isEnabled()).thenReturn(true);
+        when(slotInventoryService.getSlots(1L, testDate)).thenReturn(List.of(slot));
+
+        List<TimeSlotDto> result = doctorService.getAvailableSlots(1L, testDate);
+
+        assertEquals(List.of(slot), result);
+        verifyNoInteractions(doctorSettingsRepository, weeklyScheduleRepository,
+                doctorBreakRepository, appointmentRepository);
+    }
+
     @Test
     void testGetAvailableSlots_DoctorNotFound_ThrowsException() {
         when(doctorRepository.findById(999L)).thenReturn(Optional.empty());
@@ -611,22 +644,41 @@ class DoctorServiceImplTest {
 
         when(userRepository.findByEmail("doctor@test.com")).thenReturn(Optional.of(testUser));
         when(doctorRepository.findByUserId(1L)).thenReturn(Optional.of(testDoctor));
-        when(weeklyScheduleRepository.save(any(DoctorWeeklySchedule.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // Test with existing schedule
-        when(weeklyScheduleRepository.findByDoctorIdAndDayOfWeek(1L, DayOfWeek.MONDAY))
-                .thenReturn(Optional.of(testSchedule));
+        testSchedule.setId(5L);
+        when(weeklyScheduleRepository.findByDoctorId(1L)).thenReturn(List.of(testSchedule));
         List<WeeklyScheduleDto> result = doctorService.updateWeeklySchedule("doctor@test.com", request);
         assertEquals(1, result.size());
+        assertEquals(5L, result.get(0).getId());
+        assertEquals(LocalTime.of(8, 0), result.get(0).getStartTime());
 
         // Test without existing schedule
-        when(weeklyScheduleRepository.findByDoctorIdAndDayOfWeek(1L, DayOfWeek.MONDAY))
-                .thenReturn(Optional.empty());
+        when(weeklyScheduleRepository.findByDoctorId(1L)).thenReturn(Collections.emptyList());
         result = doctorService.updateWeeklySchedule("doctor@test.com", request);
         assertEquals(1, result.size());
 
-        verify(weeklyScheduleRepository, times(2)).save(any(DoctorWeeklySchedule.class));
+        verify(weeklyScheduleRepository, times(2)).upsertAll(eq(1L), anyList());
+        verify(weeklyScheduleRepository, never()).save(any(DoctorWeeklySchedule.class));
+    }
+
+    @Test
+    void testUpdateWeeklySchedule_UnchangedDays_SkipsUpsert() {
+        Map<DayOfWeek, UpdateWeeklyScheduleRequest.DaySchedule> scheduleMap = new HashMap<>();
+        scheduleMap.put(DayOfWeek.MONDAY, new UpdateWeeklyScheduleRequest.DaySchedule(
+                testSchedule.getIsAvailable(), testSchedule.getStartTime(), testSchedule.getEndTime()
+        ));
+        UpdateWeeklyScheduleRequest request = new UpdateWeeklyScheduleRequest(scheduleMap);
+
+        when(userRepository.findByEmail("doctor@test.com")).thenReturn(Optional.of(testUser));
+        when(doctorRepository.findByUserId(1L)).thenReturn(Optional.of(testDoctor));
+        when(weeklyScheduleRepository.findByDoctorId(1L)).thenReturn(List.of(testSchedule));
+
+        List<WeeklyScheduleDto> result = doctorService.updateWeeklySchedule("doctor@test.com", request);
+
+        assertEquals(1, result.size());
+        verify(weeklyScheduleRepository, never()).upsertAll(any(), anyList());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -640,13 +692,12 @@ class DoctorServiceImplTest {
 
         when(userRepository.findByEmail("doctor@test.com")).thenReturn(Optional.of(testUser));
         when(doctorRepository.findByUserId(1L)).thenReturn(Optional.of(testDoctor));
-        when(weeklyScheduleRepository.findByDoctorIdAndDayOfWeek(1L, DayOfWeek.MONDAY))
-                .thenReturn(Optional.of(testSchedule));
-        when(weeklyScheduleRepository.save(any(DoctorWeeklySchedule.class))).thenReturn(testSchedule);
+        when(weeklyScheduleRepository.findByDoctorId(1L)).thenReturn(Collections.emptyList());
 
         List<WeeklyScheduleDto> result = doctorService.updateWeeklySchedule("doctor@test.com", request);
         assertNotNull(result);
-        verify(weeklyScheduleRepository).findByDoctorIdAndDayOfWeek(1L, DayOfWeek.MONDAY);
+        assertEquals(DayOfWeek.MONDAY, result.get(0).getDayOfWeek());
+        verify(weeklyScheduleRepository).upsertAll(eq(1L), anyList());
     }
 
     // ==================== BREAK CRUD TESTS ====================
@@ -812,6 +863,28 @@ class DoctorServiceImplTest {
         assertEquals("Day off does not belong to this doctor", exception.getMessage());
     }
 
+    @Test
+    void testUpdateDayOff_PublishesAffectedDateRange() {
+        testDayOff.setIsRecurring(false);
+        LocalDate oldStart = testDayOff.getStartDate();
+        AddDayOffRequest request = new AddDayOffRequest(
+                oldStart.plusDays(10), oldStart.plusDays(12), "Moved", "VACATION", false, null
+        );
+        when(userRepository.findByEmail("doctor@test.com")).thenReturn(Optional.of(testUser));
+        when(doctorRepository.findByUserId(1L)).thenReturn(Optional.of(testDoctor));
+        when(doctorDayOffRepository.findById(1L)).thenReturn(Optional.of(testDayOff));
+        when(doctorDayOffRepository.save(any(DoctorDayOff.class))).thenReturn(testDayOff);
+
+        doctorService.updateDayOff("doctor@test.com", 1L, request);
+
+        ArgumentCaptor<DoctorScheduleChangedEvent> captor =
+                ArgumentCaptor.forClass(DoctorScheduleChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(1L, captor.getValue().getDoctorId());
+        assertEquals(oldStart, captor.getValue().getFromDate());
+        assertEquals(oldStart.plusDays(12), captor.getValue().getToDate());
+    }
+
     @Test
     void testDeleteDayOff_SuccessAndErrors() {
         when(userRepository.findByEmail("doctor@test.com")).thenReturn(Optional.of(testUser));
@@ -0,0 +1,292 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.DoctorDailyStatsDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorDailyStats;
+import com.amante.clinicmanagement.entity.DoctorDayOff;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorBreakRepository;
+import com.amante.clinicmanagement.repository.DoctorDailyStatsRepository;
+import com.amante.clinicmanagement.repository.DoctorDayOffRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorStatsServiceImplTest {
+
+    @Mock
+    private DoctorDailyStatsRepository statsRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+
+    @Mock
+    private DoctorBreakRepository doctorBreakRepository;
+
+    @Mock
+    private DoctorDayOffRepository doctorDayOffRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DoctorStatsServiceImpl doctorStatsService;
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+    private User doctorUser;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(doctorStatsService, "maxRangeDays", 366);
+        ReflectionTestUtils.setField(doctorStatsService, "chunkDays", 31);
+
+        doctorUser = new User(10L, "doctor@test.com", "password",
+                User.Role.DOCTOR, true, LocalDateTime.now());
+        doctor = new Doctor();
+        doctor.setId(1L);
+        doctor.setUser(doctorUser);
+    }
+
+    // ==================== DELTA TESTS ====================
+
+    @Test
+    void testDelta_NewBooking_CountsRequestAndPending() {
+        DoctorDailyStats delta = DoctorStatsServiceImpl.delta(
+                event(null, Appointment.Status.PENDING));
+
+        assertEquals(1L, delta.getDoctorId());
+        assertEquals(MONDAY, delta.getStatDate());
+        assertEquals(1, delta.getRequestedCount());
+        assertEquals(1, delta.getPendingCount());
+        assertEquals(0, delta.getBookedMinutes());
+    }
+
+    @Test
+    void testDelta_Confirm_MovesCountAndBooksMinutes() {
+        DoctorDailyStats delta = DoctorStatsServiceImpl.delta(event(
+                Appointment.Status.PENDING, Appointment.Status.CONFIRMED));
+
+        assertEquals(0, delta.getRequestedCount());
+        assertEquals(-1, delta.getPendingCount());
+        assertEquals(1, delta.getConfirmedCount());
+        assertEquals(30, delta.getBookedMinutes());
+    }
+
+    @Test
+    void testDelta_CancelConfirmed_ReleasesMinutes() {
+        DoctorDailyStats delta = DoctorStatsServiceImpl.delta(event(
+                Appointment.Status.CONFIRMED, Appointment.Status.CANCELLED));
+
+        assertEquals(-1, delta.getConfirmedCount());
+        assertEquals(1, delta.getCancelledCount());
+        assertEquals(-30, delta.getBookedMinutes());
+    }
+
+    @Test
+    void testDelta_Complete_KeepsMinutesBooked() {
+        DoctorDailyStats delta = DoctorStatsServiceImpl.delta(event(
+                Appointment.Status.CONFIRMED, Appointment.Status.COMPLETED));
+
+        assertEquals(-1, delta.getConfirmedCount());
+        assertEquals(1, delta.getCompletedCount());
+        assertEquals(0, delta.getBookedMinutes());
+    }
+
+    @Test
+    void testDelta_RescheduledAway_RemovesRequestFromOldDay() {
+        DoctorDailyStats delta = DoctorStatsServiceImpl.delta(
+                event(Appointment.Status.CONFIRMED, null));
+
+        assertEquals(MONDAY, delta.getStatDate());
+        assertEquals(-1, delta.getRequestedCount());
+        assertEquals(-1, delta.getConfirmedCount());
+        assertEquals(-30, delta.getBookedMinutes());
+    }
+
+    @Test
+    void testDelta_SameStatus_ReturnsNull() {
+        assertNull(DoctorStatsServiceImpl.delta(event(
+                Appointment.Status.PENDING, Appointment.Status.PENDING)));
+    }
+
+    @Test
+    void testOnAppointmentStatusChanged_WithoutTransaction_WritesAtOnce() {
+        doctorStatsService.onAppointmentStatusChanged(
+                event(null, Appointment.Status.PENDING));
+
+        verify(statsRepository).addAll(argThat(deltas -> deltas.size() == 1));
+    }
+
+    // ==================== GET DAILY STATS TESTS ====================
+
+    @Test
+    void testGetDailyStats_Doctor_ComputesRates() {
+        DoctorDailyStats row = new DoctorDailyStats(1L, MONDAY);
+        row.setRequestedCount(4);
+        row.setCompletedCount(2);
+        row.setCancelledCount(1);
+        row.setRejectedCount(1);
+        row.setBookedMinutes(120);
+
+        DoctorWeeklySchedule schedule = new DoctorWeeklySchedule();
+        schedule.setDoctor(doctor);
+        schedule.setDayOfWeek(MONDAY.getDayOfWeek());
+        schedule.setStartTime(LocalTime.of(9, 0));
+        schedule.setEndTime(LocalTime.of(13, 0));
+
+        when(userRepository.findByEmail("doctor@test.com"))
+                .thenReturn(Optional.of(doctorUser));
+        when(doctorRepository.findByUserId(10L))
+                .thenReturn(Optional.of(doctor));
+        when(statsRepository.findByDoctorIdAndStatDateBetweenOrderByStatDate(
+                1L, MONDAY, MONDAY.plusDays(1))).thenReturn(List.of(row));
+        when(weeklyScheduleRepository.findByDoctorId(1L))
+                .thenReturn(List.of(schedule));
+
+        List<DoctorDailyStatsDto> stats = doctorStatsService.getDailyStats(
+                "doctor@test.com", null, MONDAY, MONDAY.plusDays(1));
+
+        assertEquals(1, stats.size());
+        DoctorDailyStatsDto dto = stats.get(0);
+        assertEquals(240, dto.getAvailableMinutes());
+        assertEquals(0.5, dto.getUtilizationRate(), 1e-9);
+        assertEquals(0.25, dto.getCancellationRate(), 1e-9);
+        assertEquals(0.25, dto.getRejectionRate(), 1e-9);
+    }
+
+    @Test
+    void testGetDailyStats_DayOff_HasNoCapacity() {
+        DoctorDailyStats row = new DoctorDailyStats(1L, MONDAY);
+        row.setRequestedCount(1);
+
+        DoctorWeeklySchedule schedule = new DoctorWeeklySchedule();
+        schedule.setDoctor(doctor);
+        schedule.setDayOfWeek(MONDAY.getDayOfWeek());
+        schedule.setStartTime(LocalTime.of(9, 0));
+        schedule.setEndTime(LocalTime.of(13, 0));
+        DoctorDayOff dayOff = new DoctorDayOff();
+        dayOff.setDoctor(doctor);
+        dayOff.setStartDate(MONDAY);
+        dayOff.setEndDate(MONDAY);
+
+        when(userRepository.findByEmail("doctor@test.com"))
+                .thenReturn(Optional.of(doctorUser));
+        when(doctorRepository.findByUserId(10L))
+                .thenReturn(Optional.of(doctor));
+        when(statsRepository.findByDoctorIdAndStatDateBetweenOrderByStatDate(
+                1L, MONDAY, MONDAY)).thenReturn(List.of(row));
+        when(weeklyScheduleRepository.findByDoctorId(1L))
+                .thenReturn(List.of(schedule));
+        when(doctorDayOffRepository.findByDoctorId(1L))
+                .thenReturn(List.of(dayOff));
+
+        DoctorDailyStatsDto dto = doctorStatsService.getDailyStats(
+                "doctor@test.com", 1L, MONDAY, MONDAY).get(0);
+
+        assertEquals(0, dto.getAvailableMinutes());
+        assertNull(dto.getUtilizationRate());
+    }
+
+    @Test
+    void testGetDailyStats_DoctorAsksForAnotherDoctor_Throws() {
+        when(userRepository.findByEmail("doctor@test.com"))
+                .thenReturn(Optional.of(doctorUser));
+        when(doctorRepository.findByUserId(10L))
+                .thenReturn(Optional.of(doctor));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                doctorStatsService.getDailyStats("doctor@test.com", 2L,
+                        null, null));
+
+        assertEquals("Doctors can only view their own statistics",
+                exception.getMessage());
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void testGetDailyStats_Patient_Throws() {
+        User patientUser = new User(20L, "patient@test.com", "password",
+                User.Role.PATIENT, true, LocalDateTime.now());
+        when(userRepository.findByEmail("patient@test.com"))
+                .thenReturn(Optional.of(patientUser));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                doctorStatsService.getDailyStats("patient@test.com", null,
+                        null, null));
+
+        assertEquals("Only doctors and admins can view statistics",
+                exception.getMessage());
+    }
+
+    @Test
+    void testGetDailyStats_AdminAllDoctors_RangeTooLong_Throws() {
+        User admin = new User(30L, "admin@test.com", "password",
+                User.Role.ADMIN, true, LocalDateTime.now());
+        when(userRepository.findByEmail("admin@test.com"))
+                .thenReturn(Optional.of(admin));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                doctorStatsService.getDailyStats("admin@test.com", null,
+                        MONDAY, MONDAY.plusDays(366)));
+
+        assertEquals("Date range cannot exceed 366 days",
+                exception.getMessage());
+    }
+
+    // ==================== BACKFILL TESTS ====================
+
+    @Test
+    void testBackfill_NoAppointments_ReturnsZero() {
+        when(appointmentRepository.findEarliestStartTime()).thenReturn(null);
+
+        assertEquals(0, doctorStatsService.backfill(null, null));
+        verify(statsRepository, never()).rebuild(any(), any());
+    }
+
+    @Test
+    void testBackfill_EndBeforeStart_Throws() {
+        assertThrows(RuntimeException.class, () ->
+                doctorStatsService.backfill(MONDAY, MONDAY.minusDays(1)));
+    }
+
+    private static AppointmentStatusChangedEvent event(
+            Appointment.Status previous, Appointment.Status next) {
+        LocalDateTime start = MONDAY.atTime(9, 0);
+        return new AppointmentStatusChangedEvent(5L, 1L, start,
+                start.plusMinutes(30), previous, next);
+    }
+}
@@ -0,0 +1,114 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.entity.IdempotencyRecord;
+import com.amante.clinicmanagement.repository.IdempotencyRecordRepository;
+import com.amante.clinicmanagement.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Claims, completes and expires idempotency keys against the test
+ * database, the source of truth shared by all instances.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceIntegrationTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    private String principal;
+
+    @BeforeEach
+    void setUp() {
+        principal = "idempotency-" + System.nanoTime() + "@test.com";
+    }
+
+    @Test
+    void testBegin_SecondClaimSeesFirstUntilCompleted() {
+        assertNull(idempotencyService.begin(principal, "key-1", "hash"));
+
+        IdempotencyRecord inProgress =
+                idempotencyService.begin(principal, "key-1", "hash");
+        assertEquals(IdempotencyRecord.Status.IN_PROGRESS,
+                inProgress.getStatus());
+
+        idempotencyService.complete(principal, "key-1", 201,
+                "application/json", "{\"success\":true}");
+        // Read from the table as another instance would
+        IdempotencyRecord stored =
+                repository.findById(principal + " key-1").orElseThrow();
+        assertEquals(IdempotencyRecord.Status.COMPLETED, stored.getStatus());
+
+        IdempotencyRecord replay =
+                idempotencyService.begin(principal, "key-1", "hash");
+        assertEquals(201, replay.getResponseStatus());
+        assertEquals("{\"success\":true}", replay.getResponseBody());
+
+        // Keys are scoped to the user
+        assertNull(idempotencyService.begin(
+                "other-" + principal, "key-1", "hash"));
+    }
+
+    @Test
+    void testAbandon_LetsRetryRunAgain() {
+        assertNull(idempotencyService.begin(principal, "key-1", "hash"));
+
+        idempotencyService.abandon(principal, "key-1");
+
+        assertNull(idempotencyService.begin(principal, "key-1", "hash"));
+    }
+
+    @Test
+    void testInProgressPastLease_TakenOverByRetryOfSameRequest() {
+        IdempotencyRecord lost = new IdempotencyRecord();
+        lost.setId(principal + " key-1");
+        lost.setRequestHash("hash");
+        lost.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+        lost.setExpiresAt(LocalDateTime.now().plusHours(1));
+        repository.save(lost);
+
+        // A different request never takes the key over
+        assertEquals(IdempotencyRecord.Status.IN_PROGRESS, idempotencyService
+                .begin(principal, "key-1", "other-hash").getStatus());
+
+        assertNull(idempotencyService.begin(principal, "key-1", "hash"));
+
+        // The new lease holds off further retries
+        assertEquals(IdempotencyRecord.Status.IN_PROGRESS,
+                idempotencyService.begin(principal, "key-1", "hash")
+                        .getStatus());
+    }
+
+    @Test
+    void testExpiredKey_IsReclaimedAndDeleted() {
+        IdempotencyRecord expired = new IdempotencyRecord();
+        expired.setId(principal + " old");
+        expired.setRequestHash("hash");
+        expired.setStatus(IdempotencyRecord.Status.COMPLETED);
+        expired.setResponseStatus(201);
+        expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        repository.save(expired);
+        IdempotencyRecord stale = new IdempotencyRecord();
+        stale.setId(principal + " stale");
+        stale.setRequestHash("hash");
+        stale.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        repository.save(stale);
+
+        assertNull(idempotencyService.begin(principal, "old", "other-hash"));
+
+        assertTrue(idempotencyService.deleteExpired() >= 1);
+        assertFalse(repository.existsById(principal + " stale"));
+        assertTrue(repository.existsById(principal + " old"));
+    }
+}
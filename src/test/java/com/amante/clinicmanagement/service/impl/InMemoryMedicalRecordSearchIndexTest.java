@@ -0,0 +1,66 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.repository.MedicalRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryMedicalRecordSearchIndexTest {
+
+    @Mock
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @InjectMocks
+    private InMemoryMedicalRecordSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex.index(1L, 10L, "Otitis media",
+                "Amoxicillin 500mg, three times daily");
+        searchIndex.index(2L, 10L, "Strep throat",
+                "Amoxicillin. Finish the amoxicillin course");
+        searchIndex.index(3L, 10L, "Migraine", null);
+        searchIndex.index(4L, 20L, "Sinusitis", "Amoxicillin 875mg");
+    }
+
+    // ==================== SEARCH TESTS ====================
+
+    @Test
+    void testSearch_ScopedToDoctorAndRankedByOccurrences() {
+        assertEquals(List.of(2L, 1L), searchIndex.search(10L, "amoxicillin", 10));
+        assertEquals(List.of(4L), searchIndex.search(20L, "Amoxicillin", 10));
+        assertEquals(List.of(), searchIndex.search(30L, "amoxicillin", 10));
+    }
+
+    @Test
+    void testSearch_RequiresEveryTermAndIgnoresStopWords() {
+        assertEquals(List.of(1L),
+                searchIndex.search(10L, "amoxicillin for otitis", 10));
+        assertEquals(List.of(), searchIndex.search(10L, "amoxicillin migraine", 10));
+        assertEquals(List.of(), searchIndex.search(10L, "the", 10));
+    }
+
+    @Test
+    void testSearch_AppliesLimit() {
+        assertEquals(List.of(2L), searchIndex.search(10L, "amoxicillin", 1));
+    }
+
+    @Test
+    void testLoad_IndexesExistingRecords() {
+        when(medicalRecordRepository.findSearchDocuments()).thenReturn(List.<Object[]>of(
+                new Object[] {5L, 20L, "Bronchitis", "Azithromycin"}));
+
+        searchIndex.load();
+
+        assertEquals(List.of(5L), searchIndex.search(20L, "azithromycin", 10));
+    }
+}
@@ -1,26 +1,34 @@
 package com.amante.clinicmanagement.service.impl;
 
 import com.amante.clinicmanagement.dto.request.DiagnosisRequest;
+import com.amante.clinicmanagement.dto.response.MedicalHistoryPage;
+import com.amante.clinicmanagement.dto.response.MedicalRecordDto;
 import com.amante.clinicmanagement.entity.Appointment;
 import com.amante.clinicmanagement.entity.Doctor;
 import com.amante.clinicmanagement.entity.MedicalRecord;
+import com.amante.clinicmanagement.entity.Patient;
 import com.amante.clinicmanagement.entity.User;
 import com.amante.clinicmanagement.repository.AppointmentRepository;
 import com.amante.clinicmanagement.repository.DoctorRepository;
 import com.amante.clinicmanagement.repository.MedicalRecordRepository;
+import com.amante.clinicmanagement.repository.PatientRepository;
 import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.service.MedicalRecordSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +46,12 @@ class MedicalRecordServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private MedicalRecordSearchIndex searchIndex;
+
     @InjectMocks
     private MedicalRecordServiceImpl medicalRecordService;
 
@@ -58,11 +72,19 @@ class MedicalRecordServiceImplTest {
         testDoctor = new Doctor();
         testDoctor.setId(1L);
         testDoctor.setUser(testUser);
+        testDoctor.setFirstName("Sarah");
+        testDoctor.setLastName("Smith");
+
+        Patient testPatient = new Patient();
+        testPatient.setId(2L);
+        testPatient.setFirstName("Kent");
+        testPatient.setLastName("Carlo");
 
         // Setup test appointment
         testAppointment = new Appointment();
         testAppointment.setId(1L);
         testAppointment.setDoctor(testDoctor);
+        testAppointment.setPatient(testPatient);
         testAppointment.setStatus(Appointment.Status.PENDING);
 
         // Setup test diagnosis request
@@ -95,7 +117,7 @@ class MedicalRecordServiceImplTest {
                 .thenReturn(testMedicalRecord);
 
         // Act
-        MedicalRecord result = medicalRecordService.addDiagnosis(
+        MedicalRecordDto result = medicalRecordService.addDiagnosis(
                 testDiagnosisRequest,
                 testUser.getEmail()
         );
@@ -104,7 +126,11 @@ class MedicalRecordServiceImplTest {
         assertNotNull(result);
         assertEquals(testMedicalRecord.getDiagnosis(), result.getDiagnosis());
         assertEquals(testMedicalRecord.getPrescription(), result.getPrescription());
+        assertEquals(1L, result.getAppointmentId());
+        assertEquals("Sarah Smith", result.getDoctorName());
+        assertEquals("Kent Carlo", result.getPatientName());
         assertEquals(Appointment.Status.COMPLETED, testAppointment.getStatus());
+        verify(searchIndex).index(1L, 1L, "Common cold", "Rest and fluids");
 
         verify(userRepository).findByEmail(testUser.getEmail());
         verify(doctorRepository).findByUserId(testUser.getId());
@@ -178,19 +204,19 @@ class MedicalRecordServiceImplTest {
     void getMedicalRecordByAppointmentId_SuccessAndNotFound() {
         // Test 1: Success
         Long appointmentId = 1L;
-        when(medicalRecordRepository.findByAppointmentId(appointmentId))
-                .thenReturn(Optional.of(testMedicalRecord));
+        MedicalRecordDto dto = new MedicalRecordDto(1L, appointmentId, null, 1L,
+                "Sarah Smith", null, 2L, "Kent Carlo", "Common cold",
+                "Rest and fluids", testMedicalRecord.getCreatedAt());
+        when(medicalRecordRepository.findDtoByAppointmentId(appointmentId))
+                .thenReturn(Optional.of(dto));
 
-        MedicalRecord result = medicalRecordService.getMedicalRecordByAppointmentId(appointmentId);
+        MedicalRecordDto result = medicalRecordService.getMedicalRecordByAppointmentId(appointmentId);
 
-        assertNotNull(result);
-        assertEquals(testMedicalRecord.getId(), result.getId());
-        assertEquals(testMedicalRecord.getDiagnosis(), result.getDiagnosis());
-        assertEquals(testMedicalRecord.getPrescription(), result.getPrescription());
+        assertSame(dto, result);
 
         // Test 2: Not found
         Long notFoundId = 999L;
-        when(medicalRecordRepository.findByAppointmentId(notFoundId))
+        when(medicalRecordRepository.findDtoByAppointmentId(notFoundId))
                 .thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
@@ -199,7 +225,141 @@ class MedicalRecordServiceImplTest {
         assertEquals("Medical record not found", exception.getMessage());
 
         // Verify calls
-        verify(medicalRecordRepository).findByAppointmentId(appointmentId);
-        verify(medicalRecordRepository).findByAppointmentId(notFoundId);
+        verify(medicalRecordRepository).findDtoByAppointmentId(appointmentId);
+        verify(medicalRecordRepository).findDtoByAppointmentId(notFoundId);
+    }
+
+    // =============== getPatientHistory Tests ===============
+
+    @Test
+    void getPatientHistory_PagesWithKeysetCursor() {
+        testUser.setRole(User.Role.DOCTOR);
+        when(userRepository.findByEmail(testUser.getEmail()))
+                .thenReturn(Optional.of(testUser));
+        when(doctorRepository.findByUserId(testUser.getId()))
+                .thenReturn(Optional.of(testDoctor));
+        when(appointmentRepository.existsByDoctorIdAndPatientId(1L, 2L))
+                .thenReturn(true);
+
+        LocalDateTime newest = LocalDateTime.of(2025, 3, 1, 10, 0, 0, 123000);
+        List<MedicalRecordDto> firstRows = List.of(
+                historyRow(3L, newest),
+                historyRow(2L, newest.minusDays(1)),
+                historyRow(1L, newest.minusDays(2)));
+        when(medicalRecordRepository.findHistoryByPatientId(eq(2L), any()))
+                .thenReturn(firstRows);
+
+        // Test 1: first page has one more row than requested
+        MedicalHistoryPage first = medicalRecordService.getPatientHistory(
+                2L, null, 2, testUser.getEmail());
+
+        assertEquals(2, first.getRecords().size());
+        assertNotNull(first.getNextCursor());
+        verify(medicalRecordRepository).findHistoryByPatientId(2L,
+                PageRequest.of(0, 3));
+
+        // Test 2: the cursor continues after the last returned record
+        when(medicalRecordRepository.findHistoryByPatientIdBefore(
+                eq(2L), eq(newest.minusDays(1)), eq(2L), any()))
+                .thenReturn(List.of(historyRow(1L, newest.minusDays(2))));
+
+        MedicalHistoryPage second = medicalRecordService.getPatientHistory(
+                2L, first.getNextCursor(), 2, testUser.getEmail());
+
+        assertEquals(1, second.getRecords().size());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getPatientHistory_AllValidationErrors() {
+        // Test 1: Patient reading another patient's history
+        User patientUser = new User(5L, "patient@clinic.com", "password",
+                User.Role.PATIENT, true, LocalDateTime.now());
+        Patient patient = new Patient();
+        patient.setId(7L);
+        when(userRepository.findByEmail(patientUser.getEmail()))
+                .thenReturn(Optional.of(patientUser));
+        when(patientRepository.findByUserId(5L)).thenReturn(Optional.of(patient));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                medicalRecordService.getPatientHistory(2L, null, 20, patientUser.getEmail()));
+        assertEquals("You can only view your own medical history", exception.getMessage());
+
+        // Test 2: Doctor without appointments with the patient
+        testUser.setRole(User.Role.DOCTOR);
+        when(userRepository.findByEmail(testUser.getEmail()))
+                .thenReturn(Optional.of(testUser));
+        when(doctorRepository.findByUserId(testUser.getId()))
+                .thenReturn(Optional.of(testDoctor));
+        when(appointmentRepository.existsByDoctorIdAndPatientId(1L, 2L))
+                .thenReturn(false);
+
+        exception = assertThrows(RuntimeException.class, () ->
+                medicalRecordService.getPatientHistory(2L, null, 20, testUser.getEmail()));
+        assertEquals("You can only view the history of your own patients", exception.getMessage());
+
+        // Test 3: Page size out of range
+        exception = assertThrows(RuntimeException.class, () ->
+                medicalRecordService.getPatientHistory(7L, null, 0, patientUser.getEmail()));
+        assertEquals("Page size must be between 1 and 100", exception.getMessage());
+
+        // Test 4: Malformed cursor
+        exception = assertThrows(RuntimeException.class, () ->
+                medicalRecordService.getPatientHistory(7L, "not-a-cursor", 20, patientUser.getEmail()));
+        assertEquals("Invalid cursor", exception.getMessage());
+
+        verify(medicalRecordRepository, never()).findHistoryByPatientId(any(), any());
+    }
+
+    // =============== searchRecords Tests ===============
+
+    @Test
+    void searchRecords_KeepsIndexRanking() {
+        when(userRepository.findByEmail(testUser.getEmail()))
+                .thenReturn(Optional.of(testUser));
+        when(doctorRepository.findByUserId(testUser.getId()))
+                .thenReturn(Optional.of(testDoctor));
+        when(searchIndex.search(1L, "amoxicillin", 20))
+                .thenReturn(List.of(5L, 9L, 4L));
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 10, 0);
+        // Record 4 was indexed but its transaction rolled back
+        when(medicalRecordRepository.findDtosByIdIn(List.of(5L, 9L, 4L)))
+                .thenReturn(List.of(historyRow(9L, createdAt),
+                        historyRow(5L, createdAt)));
+
+        List<MedicalRecordDto> result = medicalRecordService.searchRecords(
+                "amoxicillin", 20, testUser.getEmail());
+
+        assertEquals(List.of(5L, 9L),
+                result.stream().map(MedicalRecordDto::getId).toList());
+    }
+
+    @Test
+    void searchRecords_AllValidationErrors() {
+        // Test 1: Blank query
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                medicalRecordService.searchRecords(" ", 20, testUser.getEmail()));
+        assertEquals("Search query is required", exception.getMessage());
+
+        // Test 2: Limit out of range
+        exception = assertThrows(RuntimeException.class, () ->
+                medicalRecordService.searchRecords("fever", 101, testUser.getEmail()));
+        assertEquals("Limit must be between 1 and 100", exception.getMessage());
+
+        // Test 3: No matches skips the record lookup
+        when(userRepository.findByEmail(testUser.getEmail()))
+                .thenReturn(Optional.of(testUser));
+        when(doctorRepository.findByUserId(testUser.getId()))
+                .thenReturn(Optional.of(testDoctor));
+        when(searchIndex.search(1L, "fever", 20)).thenReturn(List.of());
+
+        assertTrue(medicalRecordService.searchRecords(
+                "fever", 20, testUser.getEmail()).isEmpty());
+        verify(medicalRecordRepository, never()).findDtosByIdIn(any());
+    }
+
+    private static MedicalRecordDto historyRow(Long id, LocalDateTime createdAt) {
+        return new MedicalRecordDto(id, id, createdAt, 1L, "Sarah Smith",
+                null, 2L, "Kent Carlo", "Diagnosis " + id, null, createdAt);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.response.TimeSlotDto;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorSlot;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.repository.DoctorSlotRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.service.AppointmentService;
+import com.amante.clinicmanagement.service.DoctorService;
+import com.amante.clinicmanagement.service.SlotInventoryService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * An appointment booked from 23:00 to 00:30 occupies the first slot of
+ * the next day, both in the rebuilt occupancy and in regenerated slots.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MidnightAppointmentOccupancyTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private SlotInventoryService slotInventoryService;
+
+    @Autowired
+    private DoctorSlotRepository doctorSlotRepository;
+
+    @Autowired
+    private DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    private Doctor doctor;
+    private LocalDate nextDay;
+
+    @BeforeEach
+    void setUp() {
+        doctor = fixtures.doctor("midnight-doctor");
+        String patientEmail = fixtures.patient("midnight-patient")
+                .getUser().getEmail();
+
+        LocalDate day = LocalDate.now().plusDays(3);
+        nextDay = day.plusDays(1);
+        DoctorWeeklySchedule schedule = new DoctorWeeklySchedule();
+        schedule.setDoctor(doctor);
+        schedule.setDayOfWeek(nextDay.getDayOfWeek());
+        schedule.setIsAvailable(true);
+        schedule.setStartTime(LocalTime.MIDNIGHT);
+        schedule.setEndTime(LocalTime.of(2, 0));
+        weeklyScheduleRepository.save(schedule);
+
+        appointmentService.bookAppointment(new BookAppointmentRequest(
+                doctor.getId(), day.atTime(23, 0), nextDay.atTime(0, 30),
+                null), patientEmail);
+    }
+
+    // ==================== OCCUPANCY TESTS ====================
+
+    @Test
+    void testAvailableSlots_NextDayBookedUntilAppointmentEnds() {
+        Map<LocalTime, TimeSlotDto> slots = doctorService
+                .getAvailableSlots(doctor.getId(), nextDay).stream()
+                .collect(Collectors.toMap(
+                        slot -> slot.getStartTime().toLocalTime(),
+                        Function.identity()));
+
+        assertEquals(4, slots.size());
+        assertFalse(slots.get(LocalTime.of(0, 0)).getAvailable());
+        assertEquals("BOOKED", slots.get(LocalTime.of(0, 0)).getReason());
+        // 0:30 touches the appointment's end and is listed as taken too
+        assertTrue(slots.get(LocalTime.of(1, 0)).getAvailable());
+        assertTrue(slots.get(LocalTime.of(1, 30)).getAvailable());
+    }
+
+    @Test
+    void testRegenerate_NextDaySlotsBlockedUntilAppointmentEnds() {
+        slotInventoryService.regenerate(doctor.getId(), nextDay, nextDay);
+
+        List<DoctorSlot> slots = doctorSlotRepository.findByDoctorIdAndRange(
+                doctor.getId(), nextDay.atStartOfDay(),
+                nextDay.plusDays(1).atStartOfDay());
+        Map<LocalTime, DoctorSlot.Status> statuses = slots.stream()
+                .collect(Collectors.toMap(
+                        slot -> slot.getStartTime().toLocalTime(),
+                        DoctorSlot::getStatus));
+
+        assertEquals(DoctorSlot.Status.BLOCKED,
+                statuses.get(LocalTime.of(0, 0)));
+        assertEquals(DoctorSlot.Status.OPEN,
+                statuses.get(LocalTime.of(0, 30)));
+        assertEquals(DoctorSlot.Status.OPEN,
+                statuses.get(LocalTime.of(1, 0)));
+        assertEquals(DoctorSlot.Status.OPEN,
+                statuses.get(LocalTime.of(1, 30)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.ScheduleImportResult;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.repository.DoctorBreakRepository;
+import com.amante.clinicmanagement.repository.DoctorDayOffRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.service.ScheduleImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the bulk import SQL against the test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ScheduleImportIntegrationTest {
+
+    @Autowired
+    private ScheduleImportService scheduleImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+
+    @Autowired
+    private DoctorBreakRepository doctorBreakRepository;
+
+    @Autowired
+    private DoctorDayOffRepository doctorDayOffRepository;
+
+    @Test
+    void testImportSchedules_WritesRowsOfEveryType() {
+        User user = userRepository.save(new User(null,
+                "import-" + System.nanoTime() + "@test.com", "password",
+                User.Role.DOCTOR, true, LocalDateTime.now()));
+        Doctor doctor = new Doctor();
+        doctor.setUser(user);
+        doctor.setFirstName("Bulk");
+        doctor.setLastName("Import");
+        doctor.setSpecialization("General");
+        Long doctorId = doctorRepository.save(doctor).getId();
+
+        StringBuilder csv = new StringBuilder("type,doctorId,dayOfWeek,"
+                + "startTime,endTime,breakName,startDate,recurring\n");
+        for (DayOfWeek day : DayOfWeek.values()) {
+            csv.append("WEEKLY,").append(doctorId).append(',').append(day)
+                    .append(",09:00,17:00,,,\n");
+        }
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < 2000; i++) {
+            csv.append("BREAK,").append(doctorId)
+                    .append(",ALL,12:00,12:30,Break ").append(i).append(",,\n");
+            csv.append("DAY_OFF,").append(doctorId).append(",,,,,")
+                    .append(start.plusDays(i)).append(",\n");
+        }
+        csv.append("DAY_OFF,").append(doctorId)
+                .append(",SUNDAY,,,,2030-01-01,true\n");
+
+        ScheduleImportResult result = scheduleImportService.importSchedules(
+                new ByteArrayInputStream(
+                        csv.toString().getBytes(StandardCharsets.UTF_8)),
+                ScheduleImportService.Format.CSV);
+
+        assertEquals(0, result.getFailedRows(), () ->
+                result.getErrors().get(0).getMessage());
+        assertEquals(7, weeklyScheduleRepository.findByDoctorId(doctorId).size());
+        assertEquals(2000, doctorBreakRepository.findByDoctorId(doctorId).size());
+        assertEquals(2001, doctorDayOffRepository.findByDoctorId(doctorId).size());
+    }
+}
@@ -0,0 +1,250 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.ScheduleImportResult;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.event.DoctorScheduleChangedEvent;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.service.ScheduleImportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleImportServiceImplTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ScheduleImportServiceImpl scheduleImportService;
+
+    @Captor
+    private ArgumentCaptor<List<DoctorWeeklySchedule>> weeklyCaptor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduleImportService, "batchSize", 1000);
+        ReflectionTestUtils.setField(scheduleImportService,
+                "maxReportedErrors", 1000);
+        when(doctorRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+    }
+
+    // ==================== CSV TESTS ====================
+
+    @Test
+    void testImportSchedules_Csv_WritesAllRowTypes() {
+        String csv = String.join("\n",
+                "type,doctorId,dayOfWeek,available,startTime,endTime,"
+                        + "breakName,startDate,endDate,reason,dayOffType,"
+                        + "recurring",
+                "WEEKLY,1,MONDAY,true,09:00,17:00,,,,,,",
+                "WEEKLY,2,SUNDAY,false,,,,,,,,",
+                "BREAK,1,,,12:00,13:00,\"Lunch, team\",,,,,",
+                "DAY_OFF,2,,,,,,2030-01-01,2030-01-02,New year,HOLIDAY,",
+                "DAY_OFF,2,FRIDAY,,,,,2030-01-01,,,,true");
+
+        ScheduleImportResult result = scheduleImportService.importSchedules(
+                stream(csv), Format.CSV);
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(2, result.getWeeklySchedules());
+        assertEquals(1, result.getBreaks());
+        assertEquals(2, result.getDaysOff());
+        assertEquals(0, result.getFailedRows());
+
+        verify(weeklyScheduleRepository).upsertBatch(weeklyCaptor.capture());
+        DoctorWeeklySchedule monday = weeklyCaptor.getValue().get(0);
+        assertEquals(1L, monday.getDoctor().getId());
+        assertEquals(DayOfWeek.MONDAY, monday.getDayOfWeek());
+        assertEquals(LocalTime.of(9, 0), monday.getStartTime());
+        assertFalse(weeklyCaptor.getValue().get(1).getIsAvailable());
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(),
+                anyCollection(), anyInt(), any());
+        verify(eventPublisher, times(2))
+                .publishEvent(any(DoctorScheduleChangedEvent.class));
+    }
+
+    @Test
+    void testImportSchedules_SplitsIntoBatches() {
+        ReflectionTestUtils.setField(scheduleImportService, "batchSize", 2);
+        StringBuilder csv = new StringBuilder("type,doctorId,dayOfWeek,"
+                + "available,startTime,endTime\n");
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY,
+                DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+            csv.append("WEEKLY,1,").append(day).append(",true,09:00,17:00\n");
+        }
+
+        ScheduleImportResult result = scheduleImportService.importSchedules(
+                stream(csv.toString()), Format.CSV);
+
+        assertEquals(5, result.getWeeklySchedules());
+        verify(weeklyScheduleRepository, times(3)).upsertBatch(anyList());
+        verify(transactionManager, times(3)).commit(any());
+        verify(eventPublisher, times(1))
+                .publishEvent(any(DoctorScheduleChangedEvent.class));
+    }
+
+    // ==================== VALIDATION TESTS ====================
+
+    @Test
+    void testImportSchedules_Ndjson_ReportsInvalidRowsByLine() {
+        String ndjson = String.join("\n",
+                "{\"type\":\"WEEKLY\",\"doctorId\":1,\"dayOfWeek\":\"MONDAY\","
+                        + "\"startTime\":\"09:00\",\"endTime\":\"17:00\"}",
+                "{\"type\":\"WEEKLY\",\"doctorId\":99,\"dayOfWeek\":\"MONDAY\"}",
+                "",
+                "not json",
+                "{\"type\":\"BREAK\",\"doctorId\":1,\"breakName\":\"Lunch\","
+                        + "\"startTime\":\"13:00\",\"endTime\":\"12:00\"}",
+                "{\"type\":\"WEEKLY\",\"doctorId\":1,\"dayOfWeek\":\"FUNDAY\"}",
+                "{\"type\":\"DAY_OFF\",\"doctorId\":1,"
+                        + "\"startDate\":\"2030-01-01\",\"recurring\":true}",
+                "{\"doctorId\":1}");
+
+        ScheduleImportResult result = scheduleImportService.importSchedules(
+                stream(ndjson), Format.NDJSON);
+
+        assertEquals(7, result.getTotalRows());
+        assertEquals(1, result.getWeeklySchedules());
+        assertEquals(6, result.getFailedRows());
+
+        List<ScheduleImportResult.RowError> errors = result.getErrors();
+        assertEquals(2, errors.get(0).getLine());
+        assertEquals("Doctor not found: 99", errors.get(0).getMessage());
+        assertEquals(4, errors.get(1).getLine());
+        assertEquals("Malformed JSON", errors.get(1).getMessage());
+        assertEquals("Break start time must be before end time",
+                errors.get(2).getMessage());
+        assertEquals("Invalid dayOfWeek: FUNDAY", errors.get(3).getMessage());
+        assertEquals("dayOfWeek is required for a recurring day off",
+                errors.get(4).getMessage());
+        assertEquals(8, errors.get(5).getLine());
+        assertEquals("type is required", errors.get(5).getMessage());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(),
+                anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    void testImportSchedules_FailedBatch_RetriedRowByRow() {
+        doThrow(new DataIntegrityViolationException("duplicate key value "
+                + "violates unique constraint \"uk_weekly_schedule_doctor_day\""))
+                .when(weeklyScheduleRepository).upsertBatch(argThat(rows ->
+                        rows.stream().anyMatch(row ->
+                                row.getDayOfWeek() == DayOfWeek.TUESDAY)));
+        String csv = "type,doctorId,dayOfWeek,available\n"
+                + "WEEKLY,1,MONDAY,false\n"
+                + "WEEKLY,1,TUESDAY,false\n"
+                + "WEEKLY,1,WEDNESDAY,false\n";
+
+        ScheduleImportResult result = scheduleImportService.importSchedules(
+                stream(csv), Format.CSV);
+
+        assertEquals(2, result.getWeeklySchedules());
+        assertEquals(1, result.getFailedRows());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals("Weekly schedule for this doctor and day already exists",
+                result.getErrors().get(0).getMessage());
+        // The batch and the bad row roll back; the good rows commit alone
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(eventPublisher)
+                .publishEvent(any(DoctorScheduleChangedEvent.class));
+    }
+
+    @Test
+    void testImportSchedules_FailedRows_EachReported() {
+        doThrow(new DataIntegrityViolationException("constraint"))
+                .when(weeklyScheduleRepository).upsertBatch(anyList());
+        String csv = "type,doctorId,dayOfWeek,available\n"
+                + "WEEKLY,1,MONDAY,false\n"
+                + "WEEKLY,1,TUESDAY,false\n";
+
+        ScheduleImportResult result = scheduleImportService.importSchedules(
+                stream(csv), Format.CSV);
+
+        assertEquals(0, result.getWeeklySchedules());
+        assertEquals(2, result.getFailedRows());
+        assertEquals(List.of(2L, 3L), result.getErrors().stream()
+                .map(ScheduleImportResult.RowError::getLine).toList());
+        assertEquals("Row conflicts with existing schedule data",
+                result.getErrors().get(0).getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testImportSchedules_MissingDoctorRow_ReportsDomainMessage() {
+        doThrow(new DataIntegrityViolationException("insert failed",
+                new SQLException("violates foreign key constraint "
+                        + "\"fk_doctor\" on table \"doctors\"", "23503")))
+                .when(weeklyScheduleRepository).upsertBatch(anyList());
+        String csv = "type,doctorId,dayOfWeek,available\n"
+                + "WEEKLY,1,MONDAY,false\n";
+
+        ScheduleImportResult result = scheduleImportService.importSchedules(
+                stream(csv), Format.CSV);
+
+        assertEquals(1, result.getFailedRows());
+        assertEquals("Doctor not found: 1",
+                result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void testImportSchedules_CapsReportedErrors() {
+        ReflectionTestUtils.setField(scheduleImportService,
+                "maxReportedErrors", 2);
+        String csv = "type,doctorId\nWEEKLY,9\nWEEKLY,9\nWEEKLY,9\n";
+
+        ScheduleImportResult result = scheduleImportService.importSchedules(
+                stream(csv), Format.CSV);
+
+        assertEquals(3, result.getFailedRows());
+        assertEquals(2, result.getErrors().size());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(
+                content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,264 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.response.TimeSlotDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+import com.amante.clinicmanagement.entity.DoctorDayOff;
+import com.amante.clinicmanagement.entity.DoctorSlot;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorBreakRepository;
+import com.amante.clinicmanagement.repository.DoctorDayOffRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorSettingsRepository;
+import com.amante.clinicmanagement.repository.DoctorSlotRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotInventoryServiceImplTest {
+
+    @Mock
+    private DoctorSlotRepository doctorSlotRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private DoctorSettingsRepository doctorSettingsRepository;
+
+    @Mock
+    private DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+
+    @Mock
+    private DoctorBreakRepository doctorBreakRepository;
+
+    @Mock
+    private DoctorDayOffRepository doctorDayOffRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @InjectMocks
+    private SlotInventoryServiceImpl slotInventoryService;
+
+    @Captor
+    private ArgumentCaptor<List<DoctorSlot>> slotsCaptor;
+
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(slotInventoryService, "enabled", true);
+        ReflectionTestUtils.setField(slotInventoryService, "weeksAhead", 4);
+
+        doctor = new Doctor();
+        doctor.setId(1L);
+        date = LocalDate.now().plusDays(1);
+    }
+
+    // ==================== READ TESTS ====================
+
+    @Test
+    void testGetSlots_MapsStatusToAvailability() {
+        when(doctorSlotRepository.findByDoctorIdAndRange(1L,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(
+                        slot(9, 0, DoctorSlot.Status.OPEN, null),
+                        slot(9, 30, DoctorSlot.Status.BOOKED, null),
+                        slot(10, 0, DoctorSlot.Status.BLOCKED, "LUNCH")));
+
+        List<TimeSlotDto> result = slotInventoryService.getSlots(1L, date);
+
+        assertEquals(3, result.size());
+        assertTrue(result.get(0).getAvailable());
+        assertNull(result.get(0).getReason());
+        assertFalse(result.get(1).getAvailable());
+        assertEquals("BOOKED", result.get(1).getReason());
+        assertEquals("LUNCH", result.get(2).getReason());
+    }
+
+    // ==================== CLAIM TESTS ====================
+
+    @Test
+    void testClaim_OpenSlot_Succeeds() {
+        LocalDateTime start = date.atTime(9, 0);
+        when(doctorSlotRepository.claim(1L, start, start.plusMinutes(30), 5L))
+                .thenReturn(1);
+
+        slotInventoryService.claim(1L, start, start.plusMinutes(30), 5L);
+
+        verify(doctorSlotRepository, never())
+                .findByDoctorIdAndStartTime(any(), any());
+    }
+
+    @Test
+    void testClaim_TakenOrMissingSlot_ThrowsException() {
+        LocalDateTime start = date.atTime(9, 0);
+        when(doctorSlotRepository.claim(anyLong(), any(), any(), anyLong()))
+                .thenReturn(0);
+        when(doctorSlotRepository.findByDoctorIdAndStartTime(1L, start))
+                .thenReturn(Optional.of(
+                        slot(9, 0, DoctorSlot.Status.BOOKED, null)));
+
+        RuntimeException taken = assertThrows(RuntimeException.class, () ->
+                slotInventoryService.claim(1L, start,
+                        start.plusMinutes(30), 5L));
+        assertEquals("Time slot is already booked", taken.getMessage());
+
+        RuntimeException offGrid = assertThrows(RuntimeException.class, () ->
+                slotInventoryService.claim(1L, start,
+                        start.plusMinutes(45), 5L));
+        assertEquals("Requested time does not match an available slot",
+                offGrid.getMessage());
+    }
+
+    @Test
+    void testOnAppointmentStatusChanged_CancelReleasesSlot() {
+        LocalDateTime start = date.atTime(9, 0);
+        slotInventoryService.onAppointmentStatusChanged(
+                new AppointmentStatusChangedEvent(5L, 1L, start,
+                        start.plusMinutes(30), Appointment.Status.CONFIRMED,
+                        Appointment.Status.CANCELLED));
+        slotInventoryService.onAppointmentStatusChanged(
+                new AppointmentStatusChangedEvent(6L, 1L, start,
+                        start.plusMinutes(30), Appointment.Status.PENDING,
+                        Appointment.Status.CONFIRMED));
+
+        verify(doctorSlotRepository).releaseByAppointmentId(5L);
+        verify(doctorSlotRepository, never()).releaseByAppointmentId(6L);
+    }
+
+    // ==================== REGENERATE TESTS ====================
+
+    @Test
+    void testRegenerate_DiffsAgainstExistingSlots() {
+        DoctorWeeklySchedule schedule = new DoctorWeeklySchedule();
+        schedule.setDayOfWeek(date.getDayOfWeek());
+        schedule.setIsAvailable(true);
+        schedule.setStartTime(LocalTime.of(9, 0));
+        schedule.setEndTime(LocalTime.of(11, 0));
+
+        Appointment onGrid = appointment(7L, date.atTime(9, 0),
+                date.atTime(9, 30));
+        Appointment offGrid = appointment(8L, date.atTime(10, 40),
+                date.atTime(10, 50));
+
+        DoctorSlot stale = slot(9, 30, DoctorSlot.Status.BLOCKED, "OLD");
+        DoctorSlot removed = slot(12, 0, DoctorSlot.Status.OPEN, null);
+        DoctorSlot booked = slot(13, 0, DoctorSlot.Status.BOOKED, null);
+
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(doctorSettingsRepository.findByDoctorId(1L))
+                .thenReturn(Optional.empty());
+        when(weeklyScheduleRepository.findByDoctorId(1L))
+                .thenReturn(List.of(schedule));
+        when(doctorBreakRepository.findByDoctorId(1L))
+                .thenReturn(List.of(new DoctorBreak(doctor, "ALL", "Coffee",
+                        LocalTime.of(10, 0), LocalTime.of(10, 30))));
+        when(doctorDayOffRepository.findByDoctorId(1L))
+                .thenReturn(List.of());
+        when(appointmentRepository.findByDoctorIdAndDate(eq(1L), any(), any()))
+                .thenReturn(List.of(onGrid, offGrid));
+        when(doctorSlotRepository.findByDoctorIdAndRange(eq(1L), any(), any()))
+                .thenReturn(List.of(stale, removed, booked));
+
+        slotInventoryService.regenerate(1L, date, date);
+
+        verify(doctorSlotRepository).updateUnbooked(stale.getId(),
+                date.atTime(10, 0), DoctorSlot.Status.OPEN, null, null);
+        verify(doctorSlotRepository).deleteUnbooked(List.of(removed.getId()));
+        verify(doctorSlotRepository).saveAll(slotsCaptor.capture());
+        List<DoctorSlot> inserted = slotsCaptor.getValue().stream()
+                .sorted(Comparator.comparing(DoctorSlot::getStartTime))
+                .toList();
+        assertEquals(3, inserted.size());
+        assertEquals(DoctorSlot.Status.BOOKED, inserted.get(0).getStatus());
+        assertEquals(7L, inserted.get(0).getAppointmentId());
+        assertEquals(DoctorSlot.Status.BLOCKED, inserted.get(1).getStatus());
+        assertEquals("COFFEE", inserted.get(1).getReason());
+        assertEquals(DoctorSlot.Status.BLOCKED, inserted.get(2).getStatus());
+        assertEquals("BOOKED", inserted.get(2).getReason());
+    }
+
+    @Test
+    void testRegenerate_DayOffClearsUnbookedSlots() {
+        DoctorWeeklySchedule schedule = new DoctorWeeklySchedule();
+        schedule.setDayOfWeek(date.getDayOfWeek());
+        schedule.setIsAvailable(true);
+        schedule.setStartTime(LocalTime.of(9, 0));
+        schedule.setEndTime(LocalTime.of(11, 0));
+
+        DoctorDayOff dayOff = new DoctorDayOff(doctor, date, date,
+                "Conference", DoctorDayOff.DayOffType.PERSONAL);
+        DoctorSlot open = slot(9, 0, DoctorSlot.Status.OPEN, null);
+
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(weeklyScheduleRepository.findByDoctorId(1L))
+                .thenReturn(List.of(schedule));
+        when(doctorDayOffRepository.findByDoctorId(1L))
+                .thenReturn(List.of(dayOff));
+        when(doctorSlotRepository.findByDoctorIdAndRange(eq(1L), any(), any()))
+                .thenReturn(List.of(open));
+
+        slotInventoryService.regenerate(1L, date, date);
+
+        verify(doctorSlotRepository).deleteUnbooked(List.of(open.getId()));
+        verify(doctorSlotRepository).saveAll(List.of());
+    }
+
+    @Test
+    void testRegenerate_RangeOutsideHorizon_DoesNothing() {
+        slotInventoryService.regenerate(1L, LocalDate.now().minusDays(5),
+                LocalDate.now().minusDays(1));
+        slotInventoryService.regenerate(1L, LocalDate.now().plusWeeks(8),
+                null);
+
+        verifyNoInteractions(doctorRepository, doctorSlotRepository);
+    }
+
+    private DoctorSlot slot(int hour, int minute, DoctorSlot.Status status,
+                            String reason) {
+        DoctorSlot slot = new DoctorSlot();
+        slot.setId((long) (hour * 60 + minute));
+        slot.setDoctor(doctor);
+        slot.setStartTime(date.atTime(hour, minute));
+        slot.setEndTime(date.atTime(hour, minute).plusMinutes(30));
+        slot.setStatus(status);
+        slot.setReason(reason);
+        return slot;
+    }
+
+    private Appointment appointment(Long id, LocalDateTime start,
+                                    LocalDateTime end) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setDoctor(doctor);
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        appointment.setStatus(Appointment.Status.CONFIRMED);
+        return appointment;
+    }
+}
@@ -0,0 +1,131 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorBreak;
+import com.amante.clinicmanagement.entity.DoctorSlot;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.repository.DoctorBreakRepository;
+import com.amante.clinicmanagement.repository.DoctorSlotRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.service.SlotInventoryService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Claims slots from another transaction after regeneration has read
+ * them and before it writes, the window in which regeneration used to
+ * overwrite or delete a freshly booked slot.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SlotRegenerationRaceTest {
+
+    @Autowired
+    private SlotInventoryService slotInventoryService;
+
+    @Autowired
+    private DoctorSlotRepository doctorSlotRepository;
+
+    @Autowired
+    private DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+
+    @Autowired
+    private DoctorBreakRepository doctorBreakRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    private Doctor doctor;
+    private LocalDate day;
+    private DoctorWeeklySchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        doctor = fixtures.doctor("race-doctor");
+
+        day = LocalDate.now().plusDays(2);
+        schedule = new DoctorWeeklySchedule();
+        schedule.setDoctor(doctor);
+        schedule.setDayOfWeek(day.getDayOfWeek());
+        schedule.setIsAvailable(true);
+        schedule.setStartTime(LocalTime.of(9, 0));
+        schedule.setEndTime(LocalTime.of(11, 0));
+        schedule = weeklyScheduleRepository.save(schedule);
+    }
+
+    @Test
+    void testRegenerate_SlotClaimedMeanwhile_StaysBooked() {
+        slotInventoryService.regenerate(doctor.getId(), day, day);
+        assertEquals(4, slots().size());
+
+        // The 9:00 slot should become a break and 10:00 and 10:30 should
+        // go, but both 9:00 and 10:00 get booked while regenerating
+        doctorBreakRepository.save(new DoctorBreak(doctor, "ALL", "Meeting",
+                LocalTime.of(9, 0), LocalTime.of(9, 30)));
+        schedule.setEndTime(LocalTime.of(10, 0));
+        weeklyScheduleRepository.save(schedule);
+
+        // Runs the claims right after regeneration has loaded the slots
+        MethodInterceptor claimAfterLoad = invocation -> {
+            Object result = invocation.proceed();
+            if (invocation.getMethod().getName()
+                    .equals("findByDoctorIdAndRange")) {
+                CompletableFuture.runAsync(() -> {
+                    claim(day.atTime(9, 0), 9001L);
+                    claim(day.atTime(10, 0), 9002L);
+                }).get(10, TimeUnit.SECONDS);
+            }
+            return result;
+        };
+        Advised repository = (Advised) doctorSlotRepository;
+        repository.addAdvice(0, claimAfterLoad);
+        try {
+            slotInventoryService.regenerate(doctor.getId(), day, day);
+        } finally {
+            repository.removeAdvice(claimAfterLoad);
+        }
+
+        Map<LocalTime, DoctorSlot> slots = slots();
+        assertEquals(DoctorSlot.Status.BOOKED,
+                slots.get(LocalTime.of(9, 0)).getStatus());
+        assertEquals(9001L, slots.get(LocalTime.of(9, 0)).getAppointmentId());
+        assertEquals(DoctorSlot.Status.BOOKED,
+                slots.get(LocalTime.of(10, 0)).getStatus());
+        assertEquals(9002L, slots.get(LocalTime.of(10, 0)).getAppointmentId());
+        assertEquals(DoctorSlot.Status.OPEN,
+                slots.get(LocalTime.of(9, 30)).getStatus());
+        assertFalse(slots.containsKey(LocalTime.of(10, 30)));
+    }
+
+    private void claim(LocalDateTime start, Long appointmentId) {
+        slotInventoryService.claim(doctor.getId(), start,
+                start.plusMinutes(30), appointmentId);
+    }
+
+    private Map<LocalTime, DoctorSlot> slots() {
+        List<DoctorSlot> slots = doctorSlotRepository.findByDoctorIdAndRange(
+                doctor.getId(), day.atStartOfDay(),
+                day.plusDays(1).atStartOfDay());
+        return slots.stream().collect(Collectors.toMap(
+                slot -> slot.getStartTime().toLocalTime(),
+                Function.identity()));
+    }
+}
@@ -0,0 +1,233 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.request.BookAppointmentRequest;
+import com.amante.clinicmanagement.dto.request.JoinWaitlistRequest;
+import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.WaitlistEntryDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.WaitlistEntry;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.PatientRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.repository.WaitlistEntryRepository;
+import com.amante.clinicmanagement.scheduling.WaitlistIndex;
+import com.amante.clinicmanagement.service.AppointmentService;
+import com.amante.clinicmanagement.support.ClinicFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cancels a booked slot and follows it through the waitlist: offer,
+ * hold, decline, expiry and acceptance.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WaitlistIntegrationTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private WaitlistServiceImpl waitlistService;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private Doctor doctor;
+    private LocalDateTime slotStart;
+
+    @BeforeEach
+    void setUp() {
+        doctor = fixtures.doctor("waitlist-doctor");
+
+        slotStart = LocalDate.now().plusDays(10).atTime(10, 0);
+    }
+
+    // ==================== OFFER TESTS ====================
+
+    @Test
+    void testCancellation_OffersSlotInRequestOrderAndHoldsIt() {
+        String booked = patient("booked");
+        String first = patient("first");
+        String second = patient("second");
+        String other = patient("other");
+
+        AppointmentDto appointment = book(booked);
+        WaitlistEntryDto firstEntry = join(first);
+        WaitlistEntryDto secondEntry = join(second);
+
+        appointmentService.cancelAppointment(appointment.getId(), booked);
+
+        WaitlistEntry offered = entry(firstEntry.getId());
+        assertEquals(WaitlistEntry.Status.OFFERED, offered.getStatus());
+        assertEquals(slotStart, offered.getOfferedStartTime());
+        assertTrue(offered.getHoldExpiresAt().isAfter(LocalDateTime.now()));
+        assertEquals(WaitlistEntry.Status.WAITING,
+                entry(secondEntry.getId()).getStatus());
+
+        // Held: nobody else can book it meanwhile
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> book(other));
+        assertEquals("Time slot is held for a waitlisted patient",
+                exception.getMessage());
+
+        // Declining passes it on to the next patient
+        waitlistService.declineOffer(firstEntry.getId(), first);
+        assertEquals(WaitlistEntry.Status.OFFERED,
+                entry(secondEntry.getId()).getStatus());
+
+        WaitlistEntryDto accepted =
+                waitlistService.acceptOffer(secondEntry.getId(), second);
+        assertEquals("BOOKED", accepted.getStatus());
+        Appointment rebooked = appointmentRepository
+                .findById(accepted.getAppointmentId()).orElseThrow();
+        assertEquals(slotStart, rebooked.getStartTime());
+        assertEquals(Appointment.Status.PENDING, rebooked.getStatus());
+    }
+
+    @Test
+    void testExpireStale_PassesLapsedHoldOn() {
+        String booked = patient("booked");
+        String first = patient("first");
+        String second = patient("second");
+
+        AppointmentDto appointment = book(booked);
+        WaitlistEntryDto firstEntry = join(first);
+        WaitlistEntryDto secondEntry = join(second);
+        appointmentService.cancelAppointment(appointment.getId(), booked);
+
+        WaitlistEntry offered = entry(firstEntry.getId());
+        offered.setHoldExpiresAt(LocalDateTime.now().minusMinutes(1));
+        waitlistEntryRepository.save(offered);
+
+        assertTrue(waitlistService.expireStale() >= 1);
+
+        assertEquals(WaitlistEntry.Status.EXPIRED,
+                entry(firstEntry.getId()).getStatus());
+        assertEquals(WaitlistEntry.Status.OFFERED,
+                entry(secondEntry.getId()).getStatus());
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> waitlistService.acceptOffer(firstEntry.getId(), first));
+        assertEquals("Only offered slots can be accepted",
+                exception.getMessage());
+    }
+
+    @Test
+    void testLoadIndex_RestoresWaitingEntries() {
+        String booked = patient("booked");
+        String first = patient("first");
+
+        AppointmentDto appointment = book(booked);
+        WaitlistEntryDto entry = join(first);
+
+        // As after a restart: only the table knows the queue
+        waitlistIndex.clear();
+        waitlistService.loadIndex();
+        appointmentService.cancelAppointment(appointment.getId(), booked);
+
+        assertEquals(WaitlistEntry.Status.OFFERED,
+                entry(entry.getId()).getStatus());
+    }
+
+    @Test
+    void testEntryJoinedOnAnotherNode_OfferedWhenLocalQueueEmpty() {
+        String booked = patient("booked");
+        String remote = patient("remote");
+
+        AppointmentDto appointment = book(booked);
+        WaitlistEntry entry = joinElsewhere(remote, LocalDateTime.now());
+        appointmentService.cancelAppointment(appointment.getId(), booked);
+
+        assertEquals(WaitlistEntry.Status.OFFERED,
+                entry(entry.getId()).getStatus());
+    }
+
+    @Test
+    void testExpireStale_ReloadsEntriesJoinedOnAnotherNode() {
+        String booked = patient("booked");
+        String remote = patient("remote");
+        String local = patient("local");
+
+        AppointmentDto appointment = book(booked);
+        WaitlistEntry earlier = joinElsewhere(remote,
+                LocalDateTime.now().minusMinutes(5));
+        WaitlistEntryDto later = join(local);
+
+        waitlistService.expireStale();
+        appointmentService.cancelAppointment(appointment.getId(), booked);
+
+        assertEquals(WaitlistEntry.Status.OFFERED,
+                entry(earlier.getId()).getStatus());
+        assertEquals(WaitlistEntry.Status.WAITING,
+                entry(later.getId()).getStatus());
+    }
+
+    @Test
+    void testJoin_OverlappingEntryForSameDoctor_Throws() {
+        String first = patient("first");
+        join(first);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> join(first));
+        assertEquals("You are already on this doctor's waitlist for these "
+                + "dates", exception.getMessage());
+    }
+
+    private AppointmentDto book(String email) {
+        return appointmentService.bookAppointment(new BookAppointmentRequest(
+                doctor.getId(), slotStart, slotStart.plusMinutes(30), null),
+                email);
+    }
+
+    private WaitlistEntryDto join(String email) {
+        return waitlistService.join(new JoinWaitlistRequest(doctor.getId(),
+                slotStart.toLocalDate().minusDays(2),
+                slotStart.toLocalDate().plusDays(2)), email);
+    }
+
+    // Written straight to the table, bypassing this node's index
+    private WaitlistEntry joinElsewhere(String email,
+                                        LocalDateTime createdAt) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setPatient(patientRepository.findByUserId(userRepository
+                .findByEmail(email).orElseThrow().getId()).orElseThrow());
+        entry.setDoctor(doctor);
+        entry.setFromDate(slotStart.toLocalDate());
+        entry.setToDate(slotStart.toLocalDate());
+        entry.setStatus(WaitlistEntry.Status.WAITING);
+        entry.setCreatedAt(createdAt);
+        return waitlistEntryRepository.save(entry);
+    }
+
+    private WaitlistEntry entry(Long id) {
+        return waitlistEntryRepository.findById(id).orElseThrow();
+    }
+
+    private String patient(String name) {
+        return fixtures.patient("waitlist-" + name).getUser().getEmail();
+    }
+}
@@ -0,0 +1,293 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.request.JoinWaitlistRequest;
+import com.amante.clinicmanagement.dto.response.AppointmentDto;
+import com.amante.clinicmanagement.dto.response.WaitlistEntryDto;
+import com.amante.clinicmanagement.entity.Appointment;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.entity.WaitlistEntry;
+import com.amante.clinicmanagement.entity.WaitlistEntry.Status;
+import com.amante.clinicmanagement.event.AppointmentStatusChangedEvent;
+import com.amante.clinicmanagement.repository.AppointmentRepository;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.PatientRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.repository.WaitlistEntryRepository;
+import com.amante.clinicmanagement.scheduling.WaitlistIndex;
+import com.amante.clinicmanagement.service.AppointmentEmailService;
+import com.amante.clinicmanagement.service.AppointmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceImplTest {
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private AppointmentEmailService emailService;
+
+    @Spy
+    private WaitlistIndex waitlistIndex = new WaitlistIndex();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private WaitlistServiceImpl waitlistService;
+
+    private static final String EMAIL = "patient@test.com";
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate from;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(waitlistService, "holdMinutes", 30);
+        ReflectionTestUtils.setField(waitlistService, "maxRangeDays", 31);
+
+        User user = new User(1L, EMAIL, "password", User.Role.PATIENT, true,
+                LocalDateTime.now());
+        patient = new Patient();
+        patient.setId(1L);
+        patient.setUser(user);
+        doctor = new Doctor();
+        doctor.setId(2L);
+        doctor.setFirstName("Sarah");
+        doctor.setLastName("Smith");
+        from = LocalDate.now().plusDays(1);
+    }
+
+    // ==================== JOIN TESTS ====================
+
+    @Test
+    void testJoin_QueuesEntry() {
+        stubPatient();
+        when(doctorRepository.findById(2L)).thenReturn(Optional.of(doctor));
+        when(waitlistEntryRepository.save(any(WaitlistEntry.class)))
+                .thenAnswer(invocation -> {
+                    WaitlistEntry entry = invocation.getArgument(0);
+                    entry.setId(5L);
+                    return entry;
+                });
+
+        WaitlistEntryDto entry = waitlistService.join(
+                new JoinWaitlistRequest(2L, from, from.plusDays(6)), EMAIL);
+
+        assertEquals("WAITING", entry.getStatus());
+        assertEquals("Dr. Sarah Smith", entry.getDoctorName());
+        assertEquals(List.of(5L),
+                waitlistIndex.candidates(2L, from.plusDays(6), 10));
+    }
+
+    @Test
+    void testJoin_InvalidRanges_Throw() {
+        stubPatient();
+        when(doctorRepository.findById(2L)).thenReturn(Optional.of(doctor));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                waitlistService.join(new JoinWaitlistRequest(2L, from,
+                        from.minusDays(1)), EMAIL));
+        assertEquals("From date must be before or equal to to date",
+                exception.getMessage());
+
+        exception = assertThrows(RuntimeException.class, () ->
+                waitlistService.join(new JoinWaitlistRequest(2L,
+                        LocalDate.now().minusDays(1), from), EMAIL));
+        assertEquals("From date cannot be in the past", exception.getMessage());
+
+        exception = assertThrows(RuntimeException.class, () ->
+                waitlistService.join(new JoinWaitlistRequest(2L, from,
+                        from.plusDays(31)), EMAIL));
+        assertEquals("Waitlist range cannot exceed 31 days",
+                exception.getMessage());
+        verify(waitlistEntryRepository, never()).save(any());
+    }
+
+    // ==================== OFFER TESTS ====================
+
+    @Test
+    void testOfferFreedSlot_SkipsEntriesNoLongerWaiting() {
+        LocalDateTime start = from.atTime(10, 0);
+        waitlistIndex.add(7L, 2L, from, from, LocalDateTime.now().minusHours(2));
+        waitlistIndex.add(8L, 2L, from, from, LocalDateTime.now().minusHours(1));
+        when(waitlistEntryRepository.offer(eq(7L), any(), any(), any(), any()))
+                .thenReturn(0);
+        when(waitlistEntryRepository.offer(eq(8L), any(), any(), any(), any()))
+                .thenReturn(1);
+
+        assertEquals(8L, waitlistService.offerFreedSlot(2L, start,
+                start.plusMinutes(30)));
+        assertEquals(0, waitlistIndex.size());
+        verify(waitlistEntryRepository).offer(eq(8L), eq(start),
+                eq(start.plusMinutes(30)), argThat(hold -> !hold.isAfter(start)),
+                any());
+    }
+
+    @Test
+    void testOfferFreedSlot_SlotRetakenOrPast_OffersNothing() {
+        LocalDateTime start = from.atTime(10, 0);
+        waitlistIndex.add(7L, 2L, from, from, LocalDateTime.now());
+        when(appointmentRepository.existsOverlappingAppointment(eq(2L),
+                any(), any())).thenReturn(true);
+
+        assertNull(waitlistService.offerFreedSlot(2L, start,
+                start.plusMinutes(30)));
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        assertNull(waitlistService.offerFreedSlot(2L, past,
+                past.plusMinutes(30)));
+
+        verify(waitlistEntryRepository, never()).offer(any(), any(), any(),
+                any(), any());
+        assertEquals(1, waitlistIndex.size());
+    }
+
+    @Test
+    void testOnAppointmentStatusChanged_OnlyReleasesOfferSlots() {
+        LocalDateTime start = from.atTime(10, 0);
+        waitlistIndex.add(7L, 2L, from, from, LocalDateTime.now());
+        when(waitlistEntryRepository.offer(eq(7L), any(), any(), any(), any()))
+                .thenReturn(1);
+
+        waitlistService.onAppointmentStatusChanged(
+                new AppointmentStatusChangedEvent(1L, 2L, start,
+                        start.plusMinutes(30), Appointment.Status.PENDING,
+                        Appointment.Status.REJECTED));
+        verifyNoInteractions(waitlistEntryRepository);
+
+        waitlistService.onAppointmentStatusChanged(
+                new AppointmentStatusChangedEvent(1L, 2L, start,
+                        start.plusMinutes(30), Appointment.Status.CONFIRMED,
+                        Appointment.Status.CANCELLED));
+        verify(waitlistEntryRepository).offer(eq(7L), eq(start), any(),
+                any(), any());
+    }
+
+    // ==================== RESPONSE TESTS ====================
+
+    @Test
+    void testAcceptOffer_BooksHeldSlot() {
+        WaitlistEntry entry = offeredEntry(LocalDateTime.now().plusMinutes(10));
+        AppointmentDto appointment = new AppointmentDto();
+        appointment.setId(42L);
+        stubPatient();
+        when(waitlistEntryRepository.findById(5L)).thenReturn(Optional.of(entry));
+        when(waitlistEntryRepository.transition(eq(5L), eq(Status.OFFERED),
+                eq(Status.BOOKED), any())).thenReturn(1);
+        when(appointmentService.bookAppointment(argThat(request ->
+                request.getStartTime().equals(entry.getOfferedStartTime())),
+                eq(EMAIL))).thenReturn(appointment);
+
+        WaitlistEntryDto result = waitlistService.acceptOffer(5L, EMAIL);
+
+        assertEquals("BOOKED", result.getStatus());
+        assertEquals(42L, result.getAppointmentId());
+    }
+
+    @Test
+    void testAcceptOffer_ExpiredOrLostRace_Throws() {
+        WaitlistEntry entry = offeredEntry(LocalDateTime.now().minusMinutes(1));
+        stubPatient();
+        when(waitlistEntryRepository.findById(5L)).thenReturn(Optional.of(entry));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                waitlistService.acceptOffer(5L, EMAIL));
+        assertEquals("The hold on this slot has expired", exception.getMessage());
+
+        entry.setHoldExpiresAt(LocalDateTime.now().plusMinutes(10));
+        when(waitlistEntryRepository.transition(eq(5L), eq(Status.OFFERED),
+                eq(Status.BOOKED), any())).thenReturn(0);
+        exception = assertThrows(RuntimeException.class, () ->
+                waitlistService.acceptOffer(5L, EMAIL));
+        assertEquals("Only offered slots can be accepted", exception.getMessage());
+        verifyNoInteractions(appointmentService);
+    }
+
+    @Test
+    void testDeclineOffer_OtherPatientsEntry_Throws() {
+        WaitlistEntry entry = offeredEntry(LocalDateTime.now().plusMinutes(10));
+        Patient other = new Patient();
+        other.setId(9L);
+        entry.setPatient(other);
+        stubPatient();
+        when(waitlistEntryRepository.findById(5L)).thenReturn(Optional.of(entry));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                waitlistService.declineOffer(5L, EMAIL));
+        assertEquals("You are not authorized to change this waitlist entry",
+                exception.getMessage());
+    }
+
+    @Test
+    void testDeclineOffer_OffersSlotToNextPatient() {
+        WaitlistEntry entry = offeredEntry(LocalDateTime.now().plusMinutes(10));
+        waitlistIndex.add(6L, 2L, from, from, LocalDateTime.now());
+        stubPatient();
+        when(waitlistEntryRepository.findById(5L)).thenReturn(Optional.of(entry));
+        when(waitlistEntryRepository.transition(eq(5L), eq(Status.OFFERED),
+                eq(Status.DECLINED), any())).thenReturn(1);
+        when(waitlistEntryRepository.offer(eq(6L), any(), any(), any(), any()))
+                .thenReturn(1);
+
+        assertEquals("DECLINED",
+                waitlistService.declineOffer(5L, EMAIL).getStatus());
+        verify(waitlistEntryRepository).offer(eq(6L),
+                eq(entry.getOfferedStartTime()), eq(entry.getOfferedEndTime()),
+                any(), any());
+    }
+
+    private WaitlistEntry offeredEntry(LocalDateTime holdExpiresAt) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(5L);
+        entry.setPatient(patient);
+        entry.setDoctor(doctor);
+        entry.setFromDate(from);
+        entry.setToDate(from);
+        entry.setStatus(Status.OFFERED);
+        entry.setOfferedStartTime(from.atTime(10, 0));
+        entry.setOfferedEndTime(from.atTime(10, 30));
+        entry.setHoldExpiresAt(holdExpiresAt);
+        return entry;
+    }
+
+    private void stubPatient() {
+        when(userRepository.findByEmail(EMAIL))
+                .thenReturn(Optional.of(patient.getUser()));
+        when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
+    }
+}
@@ -0,0 +1,114 @@
+package com.amante.clinicmanagement.service.impl;
+
+import com.amante.clinicmanagement.dto.request.UpdateWeeklyScheduleRequest;
+import com.amante.clinicmanagement.dto.response.WeeklyScheduleDto;
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.DoctorWeeklySchedule;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.DoctorWeeklyScheduleRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import com.amante.clinicmanagement.service.DoctorService;
+import com.amante.clinicmanagement.support.StatementCounter;
+import com.amante.clinicmanagement.support.StatementCounterConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the JDBC statements issued by
+ * {@link DoctorService#updateWeeklySchedule} against the test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementCounterConfig.class)
+class WeeklyScheduleUpsertStatementCountTest {
+
+    // findByEmail + findByUserId, then the load-all select
+    private static final int LOOKUP_STATEMENTS = 3;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorWeeklyScheduleRepository weeklyScheduleRepository;
+
+    private String email;
+    private Long doctorId;
+
+    @BeforeEach
+    void setUp() {
+        email = "upsert-" + System.nanoTime() + "@test.com";
+        User user = userRepository.save(new User(null, email, "password",
+                User.Role.DOCTOR, true, LocalDateTime.now()));
+        Doctor doctor = new Doctor();
+        doctor.setUser(user);
+        doctor.setFirstName("Batch");
+        doctor.setLastName("Writer");
+        doctor.setSpecialization("General");
+        doctorId = doctorRepository.save(doctor).getId();
+    }
+
+    @Test
+    void testUpdateWeeklySchedule_FullWeekIsOneBatchPlusIdLookup() {
+        statementCounter.reset();
+        List<WeeklyScheduleDto> result = doctorService.updateWeeklySchedule(
+                email, week(LocalTime.of(9, 0)));
+
+        // batch upsert + id lookup for the inserted days
+        assertEquals(LOOKUP_STATEMENTS + 2, statementCounter.count());
+        assertEquals(7, result.size());
+        assertTrue(result.stream().allMatch(day -> day.getId() != null));
+        assertEquals(7, weeklyScheduleRepository.findByDoctorId(doctorId).size());
+    }
+
+    @Test
+    void testUpdateWeeklySchedule_ExistingWeekIsOneBatch() {
+        doctorService.updateWeeklySchedule(email, week(LocalTime.of(9, 0)));
+
+        statementCounter.reset();
+        doctorService.updateWeeklySchedule(email, week(LocalTime.of(10, 0)));
+        assertEquals(LOOKUP_STATEMENTS + 1, statementCounter.count());
+
+        statementCounter.reset();
+        doctorService.updateWeeklySchedule(email, week(LocalTime.of(10, 0)));
+        assertEquals(LOOKUP_STATEMENTS, statementCounter.count());
+
+        List<DoctorWeeklySchedule> stored =
+                weeklyScheduleRepository.findByDoctorId(doctorId);
+        assertEquals(7, stored.size());
+        assertTrue(stored.stream().allMatch(day ->
+                LocalTime.of(10, 0).equals(day.getStartTime())));
+    }
+
+    private static UpdateWeeklyScheduleRequest week(LocalTime start) {
+        Map<DayOfWeek, UpdateWeeklyScheduleRequest.DaySchedule> days =
+                new LinkedHashMap<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            days.put(day, new UpdateWeeklyScheduleRequest.DaySchedule(
+                    day != DayOfWeek.SUNDAY, start, start.plusHours(8)));
+        }
+        return new UpdateWeeklyScheduleRequest(days);
+    }
+}
@@ -0,0 +1,69 @@
+package com.amante.clinicmanagement.support;
+
+import com.amante.clinicmanagement.entity.Doctor;
+import com.amante.clinicmanagement.entity.Patient;
+import com.amante.clinicmanagement.entity.User;
+import com.amante.clinicmanagement.repository.DoctorRepository;
+import com.amante.clinicmanagement.repository.PatientRepository;
+import com.amante.clinicmanagement.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saves the doctor and patient that integration tests book against,
+ * each with its own user and a unique email so tests sharing the
+ * database do not collide.
+ *
+ * <p>A plain component, so the application's component scan picks it up
+ * in every test context and autowiring it does not add a context to the
+ * test context cache the way an {@code @Import} would.
+ */
+@Component
+public class ClinicFixtures {
+
+    private final UserRepository userRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+
+    public ClinicFixtures(UserRepository userRepository,
+                          DoctorRepository doctorRepository,
+                          PatientRepository patientRepository) {
+        this.userRepository = userRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+    }
+
+    /**
+     * Dr. Sarah Smith, a general practitioner, with an email starting
+     * with {@code emailPrefix}.
+     */
+    public Doctor doctor(String emailPrefix) {
+        Doctor doctor = new Doctor();
+        doctor.setUser(user(emailPrefix, User.Role.DOCTOR));
+        doctor.setFirstName("Sarah");
+        doctor.setLastName("Smith");
+        doctor.setSpecialization("General");
+        return doctorRepository.save(doctor);
+    }
+
+    /**
+     * Patient Kent Carlo with an email starting with {@code emailPrefix};
+     * {@code getUser().getEmail()} is what services take as the acting
+     * patient.
+     */
+    public Patient patient(String emailPrefix) {
+        Patient patient = new Patient();
+        patient.setUser(user(emailPrefix, User.Role.PATIENT));
+        patient.setFirstName("Kent");
+        patient.setLastName("Carlo");
+        patient.setPhone("+1234567890");
+        return patientRepository.save(patient);
+    }
+
+    private User user(String emailPrefix, User.Role role) {
+        return userRepository.save(new User(null,
+                emailPrefix + "-" + System.nanoTime() + "@test.com",
+                "$2a$10$hash", role, true, LocalDateTime.now()));
+    }
+}
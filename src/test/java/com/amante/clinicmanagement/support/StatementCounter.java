@@ -0,0 +1,90 @@
+package com.amante.clinicmanagement.support;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts JDBC round trips (each execute call or batch execution) made
+ * through a wrapped {@link DataSource}, whether issued by Hibernate or by
+ * a JdbcTemplate.
+ */
+public class StatementCounter {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    public DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection
+                    ? wrapConnection(connection) : result;
+        });
+    }
+
+    public void reset() {
+        executions.set(0);
+    }
+
+    public int count() {
+        return executions.get();
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(Statement.class, statement);
+            }
+            return result;
+        });
+    }
+
+    private <T extends Statement> T wrapStatement(Class<T> type, T statement) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                executions.incrementAndGet();
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args)
+                throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if ("unwrap".equals(method.getName())
+                    || "isWrapperFor".equals(method.getName())) {
+                return invoke(target, method, args);
+            }
+            return handler.handle(target, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(
+                StatementCounter.class.getClassLoader(),
+                new Class<?>[]{type}, invocationHandler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.amante.clinicmanagement.support;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application {@link DataSource} in a {@link StatementCounter}
+ * for tests that assert how many statements a code path issues.
+ */
+@TestConfiguration
+public class StatementCounterConfig {
+
+    @Bean
+    StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    static BeanPostProcessor countingDataSource(
+            ObjectProvider<StatementCounter> counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean,
+                                                         String name) {
+                return bean instanceof DataSource dataSource
+                        ? counter.getObject().wrap(dataSource) : bean;
+            }
+        };
+    }
+}